@@ -0,0 +1,103 @@
+#!/bin/bash
+#
+# Measure test JVM startup and first-request latency for each way of running the tests:
+# without Allure weaving, with the AspectJ load-time agent (surefire default) and with classes
+# woven at build time (-Pctw), each with and without the AppCDS archive.
+#
+# "Ready" is the JVM uptime once config, RestAssured/Groovy, Jackson, TestNG and every suite class
+# are loaded (com.automation.runner.StartupProbe). "First request" is the latency of one request
+# through the BOMB client stack to a loopback server, so no real service is called. Each mode runs
+# RUNS times (default 5) and the medians are reported in target/cds/startup-report.md.
+#
+# The classes are rebuilt twice (plain, then woven), so target/classes is left woven afterwards.
+#
+# Usage:
+#   scripts/measure-startup.sh
+#   RUNS=10 scripts/measure-startup.sh
+#
+
+cd "$(dirname "$0")/.." || exit 1
+
+RUNS="${RUNS:-5}"
+WORK_DIR="target/cds/probe"
+REPORT="target/cds/startup-report.md"
+
+mkdir -p "$WORK_DIR"
+AGENT_JAR=$(mvn -B -q help:evaluate -Dexpression=aspectj.agent.jar -DforceStdout)
+
+# Build one variant from fresh class directories (javac does not undo weaving) and jar it:
+# AppCDS only archives classes loaded from jars
+build() {
+    local variant="$1"
+    shift
+    rm -rf target/classes target/test-classes
+    mvn -B -q "$@" test-compile dependency:build-classpath -Dmdep.outputFile="$WORK_DIR/$variant-deps.txt" || exit 1
+    (cd target/classes && jar cf "../../$WORK_DIR/$variant-classes.jar" .)
+    (cd target/test-classes && jar cf "../../$WORK_DIR/$variant-test-classes.jar" .)
+}
+
+classpath() {
+    echo "$WORK_DIR/$1-test-classes.jar:$WORK_DIR/$1-classes.jar:$(cat "$WORK_DIR/$1-deps.txt")"
+}
+
+train() {
+    rm -f "$WORK_DIR/$1.jsa"
+    java -XX:ArchiveClassesAtExit="$WORK_DIR/$1.jsa" -cp "$(classpath "$1")" \
+        com.automation.runner.StartupProbe training > /dev/null 2>&1
+}
+
+# Run the probe RUNS times and print "<median readyMs> | <median firstRequestMs>"
+measure() {
+    local variant="$1"
+    local label="$2"
+    shift 2
+    local out="$WORK_DIR/$label.out"
+    for _ in $(seq "$RUNS"); do
+        java "$@" -cp "$(classpath "$variant")" com.automation.runner.StartupProbe "$label" 2>/dev/null | grep '^STARTUP '
+    done > "$out"
+    echo "$(median readyMs "$out") | $(median firstRequestMs "$out")"
+}
+
+median() {
+    grep -o "\"$1\":-\?[0-9]*" "$2" | cut -d: -f2 | sort -n \
+        | awk '{ v[NR] = $1 } END { if (NR == 0) print "n/a"; else print v[int((NR + 1) / 2)] }'
+}
+
+echo "Building plain and compile-time woven classes"
+build plain
+build ctw -Pctw
+
+echo "Training archives"
+train plain
+train ctw
+
+echo "Measuring $RUNS runs per mode..."
+PLAIN=$(measure plain plain)
+PLAIN_CDS=$(measure plain plain+cds -XX:SharedArchiveFile="$WORK_DIR/plain.jsa")
+if [ -f "$AGENT_JAR" ]; then
+    AGENT=$(measure plain agent -javaagent:"$AGENT_JAR")
+    AGENT_CDS=$(measure plain agent+cds -javaagent:"$AGENT_JAR" -XX:SharedArchiveFile="$WORK_DIR/plain.jsa")
+else
+    AGENT="n/a (aspectjweaver not in local repository, run mvn test once) | n/a"
+    AGENT_CDS="n/a | n/a"
+fi
+CTW=$(measure ctw ctw)
+CTW_CDS=$(measure ctw ctw+cds -XX:SharedArchiveFile="$WORK_DIR/ctw.jsa")
+
+cat > "$REPORT" <<REPORT
+# Test JVM startup (median of $RUNS runs)
+
+| Allure weaving | AppCDS archive | JVM uptime when ready (ms) | First request (ms) |
+|----------------|----------------|----------------------------|--------------------|
+| None (steps/attachments not reported) | no | $PLAIN |
+| None (steps/attachments not reported) | yes | $PLAIN_CDS |
+| AspectJ agent (surefire default) | no | $AGENT |
+| AspectJ agent (surefire default) | yes | $AGENT_CDS |
+| Compile-time (-Pctw) | no | $CTW |
+| Compile-time (-Pctw) | yes | $CTW_CDS |
+
+Java: $(java -version 2>&1 | head -1)
+Per-run measurements: target/cds/startup.ndjson
+REPORT
+
+cat "$REPORT"
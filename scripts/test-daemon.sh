@@ -0,0 +1,20 @@
+#!/bin/bash
+#
+# Send a command to the warm test runner daemon (start it with: mvn test -Pdaemon)
+#
+# Examples:
+#   scripts/test-daemon.sh run suite=testng-bomb.xml
+#   scripts/test-daemon.sh run classes=com.automation.tests.buyerapp.ProfilePage.AppUpdateTest
+#   scripts/test-daemon.sh run suite=testng-buyerapp.xml groups=buyerapp
+#   scripts/test-daemon.sh stop
+#
+# Recompile tests with "mvn test-compile" between runs; the daemon reloads them on every run.
+
+cd "$(dirname "$0")/.." || exit 1
+
+if [ ! -f target/classes/com/automation/runner/TestRunnerClient.class ]; then
+    echo "Client not compiled yet, run: mvn compile"
+    exit 2
+fi
+
+exec java -Xshare:auto -XX:TieredStopAtLevel=1 -cp target/classes com.automation.runner.TestRunnerClient "$@"
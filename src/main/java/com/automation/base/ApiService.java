@@ -0,0 +1,38 @@
+package com.automation.base;
+
+import com.automation.config.ConfigManager;
+
+/**
+ * API products covered by the framework.
+ * Each service gets its own client context so suites for different products
+ * can run side by side in one JVM.
+ */
+public enum ApiService {
+
+    BOMB {
+        @Override
+        public String baseUrl(ConfigManager config) {
+            return config.baseUrl();
+        }
+    },
+
+    BUYER_APP {
+        @Override
+        public String baseUrl(ConfigManager config) {
+            return config.buyerAppBaseUrl();
+        }
+    };
+
+    /**
+     * Base URL of this service for the active environment.
+     */
+    public abstract String baseUrl(ConfigManager config);
+
+    /**
+     * Resolve the service a test class belongs to from its package
+     * ({@code ..tests.buyerapp..} or {@code ..tests.bomb..}).
+     */
+    public static ApiService forTestClass(Class<?> testClass) {
+        return testClass.getName().contains(".buyerapp.") ? BUYER_APP : BOMB;
+    }
+}
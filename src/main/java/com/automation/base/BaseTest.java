@@ -1,18 +1,16 @@
 package com.automation.base;
 
 import com.automation.config.ConfigManager;
+import com.automation.listeners.ChainFailFastListener;
+import com.automation.recording.RecordingFilter;
+import com.automation.recording.ReplayServer;
 import com.automation.utils.RestClient;
 import com.automation.utils.VariableManager;
-import io.qameta.allure.restassured.AllureRestAssured;
-import io.restassured.RestAssured;
-import io.restassured.builder.RequestSpecBuilder;
-import io.restassured.builder.ResponseSpecBuilder;
-import io.restassured.filter.log.LogDetail;
-import io.restassured.http.ContentType;
 import io.restassured.specification.RequestSpecification;
 import io.restassured.specification.ResponseSpecification;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.testng.SkipException;
 import org.testng.annotations.AfterSuite;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.BeforeSuite;
@@ -22,21 +20,34 @@ import org.testng.annotations.Parameters;
 /**
  * Base test class providing common setup and configuration.
  * All test classes should extend this class.
+ * Client state is per instance and per service (see {@link ServiceContext}).
  */
 public abstract class BaseTest {
 
     protected static final Logger logger = LogManager.getLogger(BaseTest.class);
+    private static final String REPLAY_ENV = "replay";
     protected static ConfigManager config;
-    protected static RequestSpecification requestSpec;
-    protected static ResponseSpecification responseSpec;
+    protected ServiceContext serviceContext;
+    protected RequestSpecification requestSpec;
+    protected ResponseSpecification responseSpec;
     protected RestClient restClient;
 
     @BeforeSuite(alwaysRun = true)
     @Parameters({ "env" })
     public void beforeSuite(@Optional("default") String env) {
-        logger.info("Initializing test suite with environment: {}", env);
-        System.setProperty("env", env);
+        // An explicit -Denv (e.g. -Denv=replay) wins over the suite parameter
+        String activeEnv = System.getProperty("env", "").isBlank() ? env : System.getProperty("env");
+        logger.info("Initializing test suite with environment: {}", activeEnv);
+        System.setProperty("env", activeEnv);
         config = ConfigManager.getInstance();
+
+        if (REPLAY_ENV.equals(activeEnv)) {
+            // Replayed tokens and IDs must not end up in the real variable store
+            if (System.getProperty("variables.store.dir", "").isBlank()) {
+                System.setProperty("variables.store.dir", "target/replay/variables");
+            }
+            ReplayServer.start(config);
+        }
         
         // Initialize VariableManager for dynamic variable management
         VariableManager.initialize();
@@ -45,83 +56,50 @@ public abstract class BaseTest {
 
     @AfterSuite(alwaysRun = true)
     public void afterSuite() {
-        // Cleanup VariableManager to prevent memory leaks
+        // Persist pending variable writes, then cleanup VariableManager to prevent memory leaks
+        VariableManager.flush();
         VariableManager.cleanup();
+        // Rewrites this JVM's recording with everything captured so far (no-op unless -Drecord=true)
+        RecordingFilter.save();
         logger.info("Test suite execution completed, VariableManager cleaned up");
     }
 
     @BeforeClass(alwaysRun = true)
     public void setUp() {
         logger.info("Setting up test class: {}", this.getClass().getSimpleName());
-        initializeRestAssured();
-        restClient = new RestClient();
-    }
-
-    /**
-     * Initialize RestAssured with default configurations
-     */
-    private void initializeRestAssured() {
-        RestAssured.baseURI = config.baseUrl();
-
-        // Build request specification
-        RequestSpecBuilder requestSpecBuilder = new RequestSpecBuilder()
-                .setContentType(ContentType.JSON)
-                .setAccept(ContentType.JSON)
-                .addFilter(new AllureRestAssured());
-
-        if (config.logRequest()) {
-            requestSpecBuilder.log(LogDetail.ALL);
-        }
-
-        // Add authentication if configured
-        configureAuthentication(requestSpecBuilder);
 
-        requestSpec = requestSpecBuilder.build();
-
-        // Build response specification
-        ResponseSpecBuilder responseSpecBuilder = new ResponseSpecBuilder();
-        if (config.logResponse()) {
-            responseSpecBuilder.log(LogDetail.ALL);
+        // Skip the whole class before any request if an upstream chain step already failed
+        String brokenChain = ChainFailFastListener.brokenChainCause(getClass());
+        if (brokenChain != null) {
+            throw new SkipException("Skipped because upstream step failed - " + brokenChain);
         }
-        responseSpec = responseSpecBuilder.build();
-
-        RestAssured.requestSpecification = requestSpec;
-        RestAssured.responseSpecification = responseSpec;
 
-        logger.info("RestAssured initialized with base URI: {}", config.baseUrl());
+        initializeServiceContext();
+        restClient = new RestClient(serviceContext);
     }
 
     /**
-     * Configure authentication based on config settings
+     * Service this test class talks to. Derived from the package by default
+     * (tests.bomb or tests.buyerapp); override for classes outside those packages.
      */
-    private void configureAuthentication(RequestSpecBuilder builder) {
-        String authType = config.authType();
+    protected ApiService service() {
+        return ApiService.forTestClass(getClass());
+    }
 
-        switch (authType.toLowerCase()) {
-            case "basic":
-                builder.setAuth(RestAssured.basic(config.authUsername(), config.authPassword()));
-                logger.info("Basic authentication configured");
-                break;
-            case "bearer":
-            case "token":
-                builder.addHeader("Authorization", "Bearer " + config.authToken());
-                logger.info("Bearer token authentication configured");
-                break;
-            case "api_key":
-                builder.addHeader("X-API-Key", config.authToken());
-                logger.info("API key authentication configured");
-                break;
-            case "none":
-            default:
-                logger.info("No authentication configured");
-                break;
-        }
+    /**
+     * Build this instance's client context. RestAssured static configuration is left
+     * untouched so suites for different services can run in parallel.
+     */
+    private void initializeServiceContext() {
+        serviceContext = ServiceContext.create(service(), config);
+        requestSpec = serviceContext.getRequestSpec();
+        responseSpec = serviceContext.getResponseSpec();
     }
 
     /**
      * Get a fresh request specification for custom configurations
      */
     protected RequestSpecification getRequestSpec() {
-        return RestAssured.given().spec(requestSpec);
+        return serviceContext.given();
     }
 }
@@ -0,0 +1,141 @@
+package com.automation.base;
+
+import com.automation.config.ConfigManager;
+import com.automation.recording.RecordingFilter;
+import io.qameta.allure.restassured.AllureRestAssured;
+import io.restassured.RestAssured;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.builder.ResponseSpecBuilder;
+import io.restassured.filter.log.LogDetail;
+import io.restassured.filter.log.ResponseLoggingFilter;
+import io.restassured.http.ContentType;
+import io.restassured.specification.RequestSpecification;
+import io.restassured.specification.ResponseSpecification;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Instance-scoped client state for one API service.
+ * <p>
+ * Holds the request/response specifications (base URI, content type, Allure filter,
+ * logging, authentication) for a single service. Nothing here touches the static
+ * {@code RestAssured.baseURI}, {@code requestSpecification} or {@code responseSpecification},
+ * so BOMB and Buyer App suites can run concurrently without overwriting each other.
+ * </p>
+ */
+public final class ServiceContext {
+
+    private static final Logger logger = LogManager.getLogger(ServiceContext.class);
+
+    private final ApiService service;
+    private final String baseUrl;
+    private final RequestSpecification requestSpec;
+    private final ResponseSpecification responseSpec;
+
+    private ServiceContext(ApiService service, String baseUrl,
+                           RequestSpecification requestSpec, ResponseSpecification responseSpec) {
+        this.service = service;
+        this.baseUrl = baseUrl;
+        this.requestSpec = requestSpec;
+        this.responseSpec = responseSpec;
+    }
+
+    /**
+     * Build a context for the given service from configuration.
+     */
+    public static ServiceContext create(ApiService service, ConfigManager config) {
+        return create(service, config, true);
+    }
+
+    /**
+     * Build a context for the given service from configuration.
+     *
+     * @param reporting Whether to attach requests to Allure and log them as configured; load generators
+     *                  turn this off since thousands of attachments and log lines per second would be
+     *                  the bottleneck
+     */
+    public static ServiceContext create(ApiService service, ConfigManager config, boolean reporting) {
+        String baseUrl = service.baseUrl(config);
+
+        // Build request specification
+        RequestSpecBuilder requestSpecBuilder = new RequestSpecBuilder()
+                .setBaseUri(baseUrl)
+                .setContentType(ContentType.JSON)
+                .setAccept(ContentType.JSON);
+
+        if (reporting) {
+            requestSpecBuilder.addFilter(new AllureRestAssured());
+        }
+        if (reporting && config.logRequest()) {
+            requestSpecBuilder.log(LogDetail.ALL);
+        }
+        // Response logging travels with the request spec since there is no global response spec
+        if (reporting && config.logResponse()) {
+            requestSpecBuilder.addFilter(new ResponseLoggingFilter(LogDetail.ALL));
+        }
+
+        // Capture traffic for offline replay when recording is enabled (-Drecord=true)
+        if (RecordingFilter.isEnabled()) {
+            requestSpecBuilder.addFilter(RecordingFilter.getInstance());
+        }
+
+        // Add authentication if configured
+        configureAuthentication(requestSpecBuilder, config);
+
+        // Build response specification; responses are already logged by the request spec's filter
+        ResponseSpecBuilder responseSpecBuilder = new ResponseSpecBuilder();
+
+        logger.info("{} client context initialized with base URI: {}", service, baseUrl);
+        return new ServiceContext(service, baseUrl, requestSpecBuilder.build(), responseSpecBuilder.build());
+    }
+
+    /**
+     * Configure authentication based on config settings
+     */
+    private static void configureAuthentication(RequestSpecBuilder builder, ConfigManager config) {
+        String authType = config.authType();
+
+        switch (authType.toLowerCase()) {
+            case "basic":
+                builder.setAuth(RestAssured.basic(config.authUsername(), config.authPassword()));
+                logger.info("Basic authentication configured");
+                break;
+            case "bearer":
+            case "token":
+                builder.addHeader("Authorization", "Bearer " + config.authToken());
+                logger.info("Bearer token authentication configured");
+                break;
+            case "api_key":
+                builder.addHeader("X-API-Key", config.authToken());
+                logger.info("API key authentication configured");
+                break;
+            case "none":
+            default:
+                logger.info("No authentication configured");
+                break;
+        }
+    }
+
+    /**
+     * Start a request with this service's specification applied.
+     */
+    public RequestSpecification given() {
+        return RestAssured.given().spec(requestSpec);
+    }
+
+    public ApiService getService() {
+        return service;
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    public RequestSpecification getRequestSpec() {
+        return requestSpec;
+    }
+
+    public ResponseSpecification getResponseSpec() {
+        return responseSpec;
+    }
+}
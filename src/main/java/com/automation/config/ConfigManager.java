@@ -5,11 +5,13 @@ import org.aeonbits.owner.ConfigCache;
 
 /**
  * Configuration interface using Owner library.
- * Automatically loads properties from config.properties file.
+ * Automatically loads properties from config.properties file; values in
+ * config-${env}.properties (e.g. config-replay.properties) take precedence.
  */
+@Config.LoadPolicy(Config.LoadType.MERGE)
 @Config.Sources({
-        "classpath:config.properties",
-        "classpath:config-${env}.properties"
+        "classpath:config-${env}.properties",
+        "classpath:config.properties"
 })
 public interface ConfigManager extends Config {
 
@@ -63,6 +65,10 @@ public interface ConfigManager extends Config {
     @Key("login.token")
     String loginToken();
 
+    @Key("token.refresh.skew.seconds")
+    @DefaultValue("300")
+    int tokenRefreshSkewSeconds();
+
     @Key("response.time.threshold")
     @DefaultValue("40000")
     int responseTimeThreshold();
@@ -77,4 +83,16 @@ public interface ConfigManager extends Config {
     @Key("buyer.app.token")
     @DefaultValue("000000")
     String buyerAppToken();
+
+    @Key("replay.archive")
+    @DefaultValue("target/recordings")
+    String replayArchive();
+
+    @Key("replay.latency")
+    @DefaultValue("recorded")
+    String replayLatency();
+
+    @Key("replay.latency.scale")
+    @DefaultValue("1.0")
+    double replayLatencyScale();
 }
@@ -33,6 +33,12 @@ public final class BuyerAppEndpoints {
     public static final String COLLECTION_ALL = "/v1/collection/all";
     public static final String COLLECTION_TOP = "/v1/collection/top";
     public static final String COLLECTION_BY_ID = "/v1/collection/{id}";
+    public static final String COLLECTION_SIMILAR = "/v1/collection/{id}/similar";
+    public static final String COLLECTION_RELATED = "/v1/collection/{collectionId}/related";
+
+    // Catalog (PDP) endpoints
+    public static final String CATALOG_BY_ID = "/v1/catalog/{catalogId}";
+    public static final String CATALOG_SIMILAR = "/v1/catalog/{catalogId}/similar";
 
     // Profile & Config endpoints
     public static final String APP_UPDATE = "/api/appConfig/app-update";
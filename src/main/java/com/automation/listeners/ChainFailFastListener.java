@@ -0,0 +1,94 @@
+package com.automation.listeners;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.IConfigurationListener;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * TestNG listener that breaks dependent chains as soon as their root step fails.
+ * <p>
+ * Root classes are marked with {@link ChainRoot}. Once a root method fails (or the root
+ * class cannot be set up), its downstream packages are recorded as broken. BaseTest checks
+ * {@link #brokenChainCause(Class)} before any class setup, so downstream classes are skipped
+ * with one root cause instead of logging in, falling back to stale ids and firing requests
+ * that cannot succeed.
+ * </p>
+ */
+public class ChainFailFastListener implements ITestListener, IConfigurationListener {
+
+    private static final Logger logger = LogManager.getLogger(ChainFailFastListener.class);
+
+    /**
+     * Broken downstream package -> root cause. The first break of a package wins.
+     */
+    private static final Map<String, String> brokenChains = new ConcurrentHashMap<>();
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        ChainRoot root = chainRootOf(result);
+        if (root != null && isRootMethod(result, root)) {
+            breakChain(root, result);
+        }
+    }
+
+    @Override
+    public void onConfigurationFailure(ITestResult result) {
+        ChainRoot root = chainRootOf(result);
+        if (root != null) {
+            breakChain(root, result);
+        }
+    }
+
+    /**
+     * Root cause of the broken chain a test class belongs to.
+     *
+     * @return Root cause message, or null if the class may run
+     */
+    public static String brokenChainCause(Class<?> testClass) {
+        String className = testClass.getName();
+        for (Map.Entry<String, String> entry : brokenChains.entrySet()) {
+            if (className.startsWith(entry.getKey() + ".")) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Forget all broken chains (e.g. between runs in the same JVM).
+     */
+    public static void reset() {
+        brokenChains.clear();
+    }
+
+    private static void breakChain(ChainRoot root, ITestResult result) {
+        Throwable failure = result.getThrowable();
+        String cause = result.getTestClass().getRealClass().getSimpleName() + "." + result.getMethod().getMethodName()
+                + " failed" + (failure != null && failure.getMessage() != null ? ": " + failure.getMessage() : "");
+        for (String downstream : root.downstream()) {
+            if (brokenChains.putIfAbsent(downstream, cause) == null) {
+                logger.error("Chain {} broken, remaining classes will be skipped. Root cause: {}", downstream, cause);
+            }
+        }
+    }
+
+    private static ChainRoot chainRootOf(ITestResult result) {
+        if (result.getTestClass() == null) {
+            return null;
+        }
+        return result.getTestClass().getRealClass().getAnnotation(ChainRoot.class);
+    }
+
+    private static boolean isRootMethod(ITestResult result, ChainRoot root) {
+        if (root.methods().length > 0) {
+            return Arrays.asList(root.methods()).contains(result.getMethod().getMethodName());
+        }
+        return result.getMethod().getMethodsDependedUpon().length == 0;
+    }
+}
@@ -0,0 +1,37 @@
+package com.automation.listeners;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a test class whose root step produces state that a chain of later classes needs.
+ * <p>
+ * When a root method fails, {@link ChainFailFastListener} skips every class in the
+ * downstream packages before it makes any request, with this failure as the single cause.
+ * Generated suites start units holding a root for other units first, so the break comes
+ * before most of them have started.
+ * </p>
+ *
+ * <p><b>Usage Example:</b></p>
+ * <pre>{@code
+ * @ChainRoot(downstream = "com.automation.tests.bomb.VideoTaggingPipeline")
+ * public class VideoUploadTest extends BaseTest { ... }
+ * }</pre>
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface ChainRoot {
+
+    /**
+     * Package names (and their sub-packages) of the classes that depend on this one.
+     */
+    String[] downstream();
+
+    /**
+     * Methods whose failure breaks the chain. Empty means every method of the class
+     * that does not depend on another method (e.g. testStatusCode200).
+     */
+    String[] methods() default {};
+}
@@ -0,0 +1,375 @@
+package com.automation.load;
+
+import com.automation.base.ApiService;
+import com.automation.base.ServiceContext;
+import com.automation.config.ConfigManager;
+import com.automation.constants.BuyerAppEndpoints;
+import com.automation.recording.ReplayServer;
+import com.automation.recording.RequestKey;
+import com.automation.utils.JsonUtils;
+import com.automation.utils.TokenManager;
+import com.automation.utils.VariableManager;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Replays production access logs against a target environment, at the original pace or scaled.
+ * <p>
+ * The log is NDJSON, one request per line:
+ * {@code {"method":"GET","path":"/v1/collection/67c5...","query":"limit=20&offset=0","timestamp":"2026-10-01T10:00:00.123Z"}}.
+ * {@code timestamp} is ISO-8601 or epoch milliseconds; {@code query} may also be part of
+ * {@code path}; an optional {@code body} is sent as is. Each line is matched to its
+ * {@link BuyerAppEndpoints} template (literal paths before parameterised ones); lines for other
+ * paths are counted and skipped.
+ * </p>
+ * The file (plain or {@code .gz}) is read line by line while replaying, so its size does not
+ * matter. Request {@code i} is due at {@code start + (timestamp_i - timestamp_0) / speed} and is
+ * timed from then (open loop, as {@link OpenLoopGenerator}). At most {@code accesslog.inflight}
+ * requests are outstanding; beyond that reading pauses, and the delay shows up in the response
+ * times rather than in memory. Results per endpoint (mix share, percentiles, errors) go to
+ * {@code target/access-log/<timestamp>/summary.json}.
+ *
+ * <p><b>System properties:</b></p>
+ * <ul>
+ *     <li>{@code accesslog.file} - NDJSON access log, optionally gzipped</li>
+ *     <li>{@code accesslog.speed} - time scale, 2 replays twice as fast, 0 as fast as possible (default 1)</li>
+ *     <li>{@code accesslog.limit} - stop after this many lines, 0 for all (default 0)</li>
+ *     <li>{@code accesslog.threads} - request threads (default 200)</li>
+ *     <li>{@code accesslog.inflight} - outstanding requests at most (default 2000)</li>
+ *     <li>{@code accesslog.url} - base URL override; otherwise the Buyer App URL of {@code config-${env}.properties}</li>
+ *     <li>{@code accesslog.token} - Buyer App token to use instead of logging in</li>
+ * </ul>
+ *
+ * <p><b>Usage Example:</b></p>
+ * <pre>
+ * mvn test -Paccess-log -Daccesslog.file=/data/navo-access-2026-10-01.ndjson.gz -Daccesslog.speed=2 -Denv=staging
+ * </pre>
+ */
+public final class AccessLogReplay {
+
+    private static final Logger logger = LogManager.getLogger(AccessLogReplay.class);
+
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final long REPORT_INTERVAL_MS = 10_000;
+    private static final int MAX_UNMATCHED_KEYS = 200;
+
+    /**
+     * An endpoint template and what was measured for it.
+     */
+    private static final class Route {
+        final String name;
+        final String template;
+        final Pattern pattern;
+        final int parameters;
+        final Recorder responseTime = new Recorder(SIGNIFICANT_DIGITS);
+        final Map<String, AtomicLong> errors = new ConcurrentHashMap<>();
+
+        Route(String name, String template) {
+            this.name = name;
+            this.template = template;
+            this.pattern = Pattern.compile(Pattern.quote(template)
+                    .replaceAll("\\{\\w+}", "\\\\E[^/]+\\\\Q"));
+            this.parameters = template.split("\\{", -1).length - 1;
+        }
+    }
+
+    private final ServiceContext context;
+    private final String baseUrl;
+    private final String authorization;
+    private final List<Route> routes;
+    private final Map<String, AtomicLong> unmatched = new ConcurrentHashMap<>();
+    private final AtomicLong malformed = new AtomicLong();
+    private final AtomicLong behind = new AtomicLong();
+
+    private AccessLogReplay(ServiceContext context, String baseUrl, String authorization) {
+        this.context = context;
+        this.baseUrl = baseUrl;
+        this.authorization = authorization;
+        this.routes = routes();
+    }
+
+    public static void main(String[] args) throws Exception {
+        String file = System.getProperty("accesslog.file", "");
+        if (file.isBlank()) {
+            throw new IllegalArgumentException("Set -Daccesslog.file to an NDJSON access log");
+        }
+        double speed = Double.parseDouble(System.getProperty("accesslog.speed", "1"));
+        if (speed < 0) {
+            throw new IllegalArgumentException("accesslog.speed must not be negative");
+        }
+
+        ConfigManager config = ConfigManager.getInstance();
+        if ("replay".equals(System.getProperty("env"))) {
+            ReplayServer.start(config);
+        }
+        VariableManager.initialize();
+        ServiceContext context = ServiceContext.create(ApiService.BUYER_APP, config, false);
+        String baseUrl = System.getProperty("accesslog.url", "");
+        if (baseUrl.isBlank()) {
+            baseUrl = context.getBaseUrl();
+        }
+        String token = System.getProperty("accesslog.token", "");
+        String authorization = "JWT " + (!token.isBlank() ? token : TokenManager.buyerApp().getToken());
+
+        AccessLogReplay replay = new AccessLogReplay(context, baseUrl, authorization);
+        replay.run(Paths.get(file), speed, Long.getLong("accesslog.limit", 0),
+                Integer.getInteger("accesslog.threads", 200), Integer.getInteger("accesslog.inflight", 2000));
+    }
+
+    /**
+     * Buyer App endpoint templates, literal paths first so {@code /v1/collection/all} is not taken
+     * for {@code /v1/collection/{id}}.
+     */
+    private static List<Route> routes() {
+        List<Route> routes = new ArrayList<>();
+        for (Field field : BuyerAppEndpoints.class.getFields()) {
+            if (Modifier.isStatic(field.getModifiers()) && field.getType() == String.class) {
+                try {
+                    routes.add(new Route(field.getName(), (String) field.get(null)));
+                } catch (IllegalAccessException e) {
+                    throw new RuntimeException("Failed to read endpoint " + field.getName(), e);
+                }
+            }
+        }
+        routes.sort(Comparator.comparingInt((Route route) -> route.parameters)
+                .thenComparing(route -> -route.template.length()));
+        return routes;
+    }
+
+    private Route match(String path) {
+        for (Route route : routes) {
+            if (route.pattern.matcher(path).matches()) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    private void run(Path file, double speed, long limit, int threads, int inflight)
+            throws IOException, InterruptedException {
+        logger.info("Replaying {} against {} at {}x, {} threads, at most {} in flight", file, baseUrl,
+                speed == 0 ? "max" : speed, threads, inflight);
+        ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "access-log-replay");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Semaphore permits = new Semaphore(inflight);
+
+        long lines = 0;
+        long sent = 0;
+        long firstTimestamp = Long.MIN_VALUE;
+        long start = System.nanoTime();
+        long nextReport = start + TimeUnit.MILLISECONDS.toNanos(REPORT_INTERVAL_MS);
+        try (BufferedReader reader = open(file)) {
+            String line;
+            while ((line = reader.readLine()) != null && (limit <= 0 || lines < limit)) {
+                lines++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                JsonNode entry;
+                long timestamp;
+                try {
+                    entry = JsonUtils.getObjectMapper().readTree(line);
+                    timestamp = timestampOf(entry.path("timestamp"));
+                } catch (IOException | RuntimeException e) {
+                    malformed.incrementAndGet();
+                    continue;
+                }
+                String method = entry.path("method").asText("GET").toUpperCase(Locale.ROOT);
+                String path = entry.path("path").asText("");
+                String query = entry.path("query").asText("");
+                int question = path.indexOf('?');
+                if (question >= 0) {
+                    query = query.isEmpty() ? path.substring(question + 1) : query;
+                    path = path.substring(0, question);
+                }
+                if (query.startsWith("?")) {
+                    query = query.substring(1);
+                }
+                Route route = match(path);
+                if (route == null) {
+                    String key = method + " " + RequestKey.templateOf(path);
+                    if (unmatched.size() < MAX_UNMATCHED_KEYS || unmatched.containsKey(key)) {
+                        unmatched.computeIfAbsent(key, k -> new AtomicLong()).incrementAndGet();
+                    }
+                    continue;
+                }
+
+                if (firstTimestamp == Long.MIN_VALUE) {
+                    firstTimestamp = timestamp;
+                }
+                long due = speed == 0 ? System.nanoTime()
+                        : start + Math.round(TimeUnit.MILLISECONDS.toNanos(timestamp - firstTimestamp) / speed);
+                long wait;
+                while ((wait = due - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                permits.acquire();
+                String target = query.isEmpty() ? path : path + "?" + query;
+                JsonNode body = entry.get("body");
+                pool.execute(() -> {
+                    try {
+                        fire(route, method, target, body, due);
+                    } finally {
+                        permits.release();
+                    }
+                });
+                sent++;
+                if (System.nanoTime() >= nextReport) {
+                    logger.info("{} lines read, {} requests sent, {} sent over a second late, {} in flight",
+                            lines, sent, behind.get(), inflight - permits.availablePermits());
+                    nextReport += TimeUnit.MILLISECONDS.toNanos(REPORT_INTERVAL_MS);
+                }
+            }
+        }
+        pool.shutdown();
+        if (!pool.awaitTermination(5, TimeUnit.MINUTES)) {
+            logger.warn("Requests still running 5 minutes after the last line, reporting without them");
+            pool.shutdownNow();
+        }
+        report(file, speed, lines, sent, (System.nanoTime() - start) / 1e9);
+    }
+
+    private static BufferedReader open(Path file) throws IOException {
+        InputStream in = Files.newInputStream(file);
+        if (file.getFileName().toString().endsWith(".gz")) {
+            in = new GZIPInputStream(in, 64 * 1024);
+        }
+        return new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 64 * 1024);
+    }
+
+    /**
+     * Epoch milliseconds of an ISO-8601 or numeric timestamp.
+     */
+    private static long timestampOf(JsonNode node) {
+        if (node.isNumber()) {
+            return node.asLong();
+        }
+        String text = node.asText("");
+        if (text.isEmpty()) {
+            throw new IllegalArgumentException("No timestamp");
+        }
+        try {
+            return Instant.parse(text).toEpochMilli();
+        } catch (DateTimeParseException e) {
+            return Long.parseLong(text);
+        }
+    }
+
+    private void fire(Route route, String method, String target, JsonNode body, long dueNanos) {
+        long sendNanos = System.nanoTime();
+        if (sendNanos - dueNanos > TimeUnit.SECONDS.toNanos(1)) {
+            behind.incrementAndGet();
+        }
+        String error = null;
+        try {
+            // Paths and queries are replayed exactly as logged
+            RequestSpecification request = context.given()
+                    .baseUri(baseUrl)
+                    .urlEncodingEnabled(false)
+                    .header("Authorization", authorization);
+            if (body != null && !body.isNull()) {
+                request.body(body.isTextual() ? body.asText() : body.toString());
+            }
+            Response response = request.request(method, target);
+            int status = response.getStatusCode();
+            if (status < 200 || status >= 300) {
+                error = String.valueOf(status);
+            }
+        } catch (RuntimeException e) {
+            error = e.getClass().getSimpleName();
+        }
+        route.responseTime.recordValue((System.nanoTime() - dueNanos) / 1_000);
+        if (error != null) {
+            route.errors.computeIfAbsent(error, key -> new AtomicLong()).incrementAndGet();
+        }
+    }
+
+    private void report(Path file, double speed, long lines, long sent, double seconds) throws IOException {
+        ObjectNode summary = JsonUtils.getObjectMapper().createObjectNode();
+        summary.put("file", file.toString());
+        summary.put("baseUrl", baseUrl);
+        summary.put("speed", speed);
+        summary.put("lines", lines);
+        summary.put("sent", sent);
+        summary.put("malformed", malformed.get());
+        summary.put("sentOverASecondLate", behind.get());
+        summary.put("seconds", Math.round(seconds * 10) / 10.0);
+        summary.put("requestsPerSecond", Math.round(sent / seconds * 100) / 100.0);
+        ObjectNode endpoints = summary.putObject("endpoints");
+
+        logger.info(String.format("%-22s %9s %7s %9s %9s %9s %9s %7s", "endpoint", "count", "mix %",
+                "p50 ms", "p90 ms", "p99 ms", "max ms", "errors"));
+        Map<String, Histogram> histograms = new LinkedHashMap<>();
+        routes.forEach(route -> histograms.put(route.name, route.responseTime.getIntervalHistogram()));
+        for (Route route : routes) {
+            Histogram histogram = histograms.get(route.name);
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+            double share = sent == 0 ? 0 : histogram.getTotalCount() * 100.0 / sent;
+            ObjectNode node = endpoints.putObject(route.name);
+            node.put("template", route.template);
+            node.put("mixPercent", Math.round(share * 100) / 100.0);
+            node.set("responseTimeMs", HistogramSummary.toJson(histogram));
+            ObjectNode errors = node.putObject("errors");
+            route.errors.forEach((status, count) -> errors.put(status, count.get()));
+            long errorCount = route.errors.values().stream().mapToLong(AtomicLong::get).sum();
+            logger.info(String.format("%-22s %9d %7.2f %9.1f %9.1f %9.1f %9.1f %7d", route.name,
+                    histogram.getTotalCount(), share, HistogramSummary.millis(histogram, 50),
+                    HistogramSummary.millis(histogram, 90), HistogramSummary.millis(histogram, 99),
+                    histogram.getMaxValue() / 1000.0, errorCount));
+        }
+        ObjectNode unmatchedNode = summary.putObject("unmatched");
+        unmatched.entrySet().stream()
+                .sorted((a, b) -> Long.compare(b.getValue().get(), a.getValue().get()))
+                .forEach(entry -> unmatchedNode.put(entry.getKey(), entry.getValue().get()));
+        if (!unmatched.isEmpty()) {
+            logger.info("Skipped {} lines for paths without a Buyer App endpoint, see 'unmatched' in the summary",
+                    unmatched.values().stream().mapToLong(AtomicLong::get).sum());
+        }
+
+        Path outputDir = Paths.get("target", "access-log", new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date()));
+        Files.createDirectories(outputDir);
+        Files.writeString(outputDir.resolve("summary.json"), JsonUtils.toJson(summary));
+        logger.info("Access log replay results written to {}", outputDir);
+    }
+}
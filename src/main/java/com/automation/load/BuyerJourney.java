@@ -0,0 +1,254 @@
+package com.automation.load;
+
+import com.automation.base.ServiceContext;
+import com.automation.constants.BuyerAppEndpoints;
+import com.automation.models.request.BuyerLoginRequest;
+import com.automation.models.request.FeedFilterSaveRequest;
+import com.automation.models.request.UpdateCartRequest;
+import com.automation.models.response.AuthValidateResponse;
+import com.automation.models.response.BuyerLoginResponse;
+import com.automation.models.response.CatalogByIdDetailResponse;
+import com.automation.models.response.CollectionAllResponse;
+import com.automation.models.response.CollectionByIdResponse;
+import com.automation.models.response.FeedFilterSaveResponse;
+import com.automation.models.response.HomeCatalogFeedResponse;
+import com.automation.models.response.SearchProductResponse;
+import com.automation.models.response.UpdateCartResponse;
+import com.automation.utils.JsonUtils;
+import com.automation.utils.VariableManager;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * One buyer session, as the Buyer App tests exercise it step by step: log in, validate the
+ * token, load the home feed, save a {@code suitable_for} filter, search, open a collection and
+ * a product page, and update the cart.
+ * <p>
+ * Requests and responses use the same models, endpoints, variables and fallbacks as the tests.
+ * A step fails on a non-2xx status or a body its response model cannot read, which ends the
+ * session. Between steps the session waits for the think time it is given.
+ * </p>
+ */
+public final class BuyerJourney {
+
+    /**
+     * Steps of a session, in order.
+     */
+    public enum Step {
+        LOGIN("login"),
+        VALIDATE("validate"),
+        HOME_FEED("home-feed"),
+        FILTER("filter"),
+        SEARCH("search"),
+        COLLECTIONS("collections"),
+        COLLECTION("collection"),
+        PDP("pdp"),
+        UPDATE_CART("update-cart");
+
+        private final String label;
+
+        Step(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    /**
+     * Receives the outcome of every step.
+     */
+    @FunctionalInterface
+    public interface Listener {
+
+        /**
+         * @param micros Time from sending the request to reading the response
+         * @param error  Status code or exception name when the step failed, null otherwise
+         */
+        void step(Step step, long micros, String error);
+    }
+
+    /**
+     * The step that ended a session.
+     */
+    public static final class StepFailed extends RuntimeException {
+        private final Step step;
+        private final String error;
+
+        StepFailed(Step step, String error) {
+            super(step.getLabel() + " failed: " + error);
+            this.step = step;
+            this.error = error;
+        }
+
+        public Step getStep() {
+            return step;
+        }
+
+        /**
+         * Status code or exception name.
+         */
+        public String getError() {
+            return error;
+        }
+    }
+
+    private static final String OTP = "000000";
+
+    private final ServiceContext context;
+    private final String baseUrl;
+    private final String phoneNumber;
+    private final String searchQuery;
+    private final LongSupplier thinkMillis;
+    private final Listener listener;
+    private long elapsedMicros;
+
+    /**
+     * @param context     Buyer App context the requests start from
+     * @param baseUrl     Base URL to send to (the context's, or an override)
+     * @param phoneNumber Buyer to log in as
+     * @param searchQuery Search term
+     * @param thinkMillis Think time before each step after the first
+     * @param listener    Receives step timings
+     */
+    public BuyerJourney(ServiceContext context, String baseUrl, String phoneNumber, String searchQuery,
+                        LongSupplier thinkMillis, Listener listener) {
+        this.context = context;
+        this.baseUrl = baseUrl;
+        this.phoneNumber = phoneNumber;
+        this.searchQuery = searchQuery;
+        this.thinkMillis = thinkMillis;
+        this.listener = listener;
+    }
+
+    /**
+     * Run the session once.
+     *
+     * @return Sum of the step times in microseconds, think times excluded
+     * @throws StepFailed when a step fails
+     */
+    public long run() throws InterruptedException {
+        elapsedMicros = 0;
+        String suitableFor = VariableManager.get("suitable_for", "saree");
+
+        BuyerLoginResponse login = step(Step.LOGIN, false, () -> context.given()
+                .baseUri(baseUrl)
+                .body(BuyerLoginRequest.builder().phoneNumber(phoneNumber).token(OTP).build())
+                .post(BuyerAppEndpoints.LOGIN), BuyerLoginResponse.class);
+        if (login.getData() == null || login.getData().getAccessToken() == null) {
+            throw new StepFailed(Step.LOGIN, "no-token");
+        }
+        String authorization = "JWT " + login.getData().getAccessToken();
+        Supplier<RequestSpecification> authorized = () -> context.given()
+                .baseUri(baseUrl)
+                .header("Authorization", authorization);
+
+        step(Step.VALIDATE, true, () -> authorized.get()
+                .get(BuyerAppEndpoints.AUTH_VALIDATE), AuthValidateResponse.class);
+
+        HomeCatalogFeedResponse feed = step(Step.HOME_FEED, true, () -> authorized.get()
+                .queryParam("size", 6)
+                .queryParam("page", 0)
+                .queryParam("suitable_for", suitableFor)
+                .get(BuyerAppEndpoints.FEED_HOME_CATALOG), HomeCatalogFeedResponse.class);
+        String catalogId = pick(feed.getData() == null ? null : feed.getData().getResult(),
+                HomeCatalogFeedResponse.CatalogFeedItem::get_id,
+                VariableManager.get("live_catalog_id", "67c59d8ff22202c05e7d612e"));
+
+        step(Step.FILTER, true, () -> authorized.get()
+                .body(FeedFilterSaveRequest.builder()
+                        .suitable_for(Collections.singletonList(suitableFor))
+                        .testData("")
+                        .build())
+                .post(BuyerAppEndpoints.FEED_FILTERS_SAVE), FeedFilterSaveResponse.class);
+
+        step(Step.SEARCH, true, () -> authorized.get()
+                .queryParam("q", searchQuery)
+                .queryParam("page", 1)
+                .queryParam("pageSize", 20)
+                .get(BuyerAppEndpoints.USER_SEARCH), SearchProductResponse.class);
+
+        CollectionAllResponse collections = step(Step.COLLECTIONS, true, () -> authorized.get()
+                .queryParam("suitable_for", suitableFor)
+                .get(BuyerAppEndpoints.COLLECTION_ALL), CollectionAllResponse.class);
+        String collectionId = pick(collections.getData() == null ? null : collections.getData().getResult(),
+                CollectionAllResponse.CollectionItem::get_id,
+                VariableManager.get("collection_id", "67c59d8ff22202c05e7d612e"));
+
+        step(Step.COLLECTION, true, () -> authorized.get()
+                .pathParam("id", collectionId)
+                .queryParam("limit", 20)
+                .queryParam("offset", 0)
+                .get(BuyerAppEndpoints.COLLECTION_BY_ID), CollectionByIdResponse.class);
+
+        step(Step.PDP, true, () -> authorized.get()
+                .pathParam("catalogId", catalogId)
+                .get(BuyerAppEndpoints.CATALOG_BY_ID), CatalogByIdDetailResponse.class);
+
+        step(Step.UPDATE_CART, true, () -> authorized.get()
+                .body(UpdateCartRequest.builder()
+                        .quantity(1)
+                        .cart_id(VariableManager.get("cart_id", "68383213df5a92a14ddba268"))
+                        .cat_id(catalogId)
+                        .build())
+                .post(BuyerAppEndpoints.USER_UPDATE_CART), UpdateCartResponse.class);
+        return elapsedMicros;
+    }
+
+    private <T> T step(Step step, boolean think, Supplier<Response> request, Class<T> model)
+            throws InterruptedException {
+        if (think) {
+            long millis = thinkMillis.getAsLong();
+            if (millis > 0) {
+                Thread.sleep(millis);
+            }
+        }
+        long start = System.nanoTime();
+        Response response;
+        try {
+            response = request.get();
+        } catch (RuntimeException e) {
+            fail(step, (System.nanoTime() - start) / 1_000, e.getClass().getSimpleName());
+            return null;
+        }
+        long micros = (System.nanoTime() - start) / 1_000;
+        int status = response.getStatusCode();
+        if (status < 200 || status >= 300) {
+            fail(step, micros, String.valueOf(status));
+        }
+        T body;
+        try {
+            body = JsonUtils.fromResponse(response, model);
+        } catch (RuntimeException e) {
+            fail(step, micros, "unreadable-body");
+            return null;
+        }
+        elapsedMicros += micros;
+        listener.step(step, micros, null);
+        return body;
+    }
+
+    private void fail(Step step, long micros, String error) {
+        listener.step(step, micros, error);
+        throw new StepFailed(step, error);
+    }
+
+    /**
+     * A random item's id, so sessions spread over the catalogs and collections they are shown.
+     */
+    private static <T> String pick(List<T> items, Function<T, String> id, String fallback) {
+        if (items == null || items.isEmpty()) {
+            return fallback;
+        }
+        String value = id.apply(items.get(ThreadLocalRandom.current().nextInt(items.size())));
+        return value != null ? value : fallback;
+    }
+}
@@ -0,0 +1,473 @@
+package com.automation.load;
+
+import com.automation.base.ServiceContext;
+import com.automation.constants.BombEndpoints;
+import com.automation.models.response.CatalogResponse;
+import com.automation.utils.JsonUtils;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.restassured.response.Response;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Walks the whole result set of {@code /v1/admin/catalog_all} for one filter and checks that the
+ * pages add up to {@code data.total.value}.
+ * <p>
+ * The first page gives the total; the remaining pages are fetched by {@code crawl.concurrency}
+ * workers that claim offsets in order and hand pages to the checker through a queue of
+ * {@code crawl.prefetch} pages, so workers block instead of running ahead when checking falls
+ * behind. With relation {@code eq} the total is exact: the crawl covers its pages plus one past
+ * the end. With {@code gte} the total is only a lower bound: pages are claimed until one comes
+ * back empty (at most {@code crawl.max.pages}). The checker reports:
+ * - duplicates: item ids returned on more than one page
+ * - gaps: failed pages, and pages with fewer or more items than expected; for {@code eq} that is
+ * {@code min(limit, total - offset)}, for {@code gte} a full page before the last one and none
+ * after the first empty page
+ * - total drift: {@code total.value} changing between pages while crawling
+ * - the number of unique items against {@code total.value} (at least, if its relation is {@code gte})
+ * - crawl throughput (items and pages per second) and per-page latency percentiles
+ * </p>
+ * Duplicates together with gaps usually mean the sort order is not stable across requests.
+ * Each crawl is written to {@code target/crawl/catalog-<filter>-<timestamp>.json}. Requests go
+ * through the given context, so use one without reporting filters for large crawls.
+ *
+ * <p><b>System properties:</b></p>
+ * <ul>
+ *     <li>{@code crawl.limit} - page size (default 20, as in the search tests)</li>
+ *     <li>{@code crawl.concurrency} - pages fetched in parallel (default 4)</li>
+ *     <li>{@code crawl.prefetch} - fetched pages waiting to be checked (default 2 x concurrency)</li>
+ *     <li>{@code crawl.max.pages} - stop after this many pages (default 5000)</li>
+ * </ul>
+ *
+ * <p><b>Usage Example:</b></p>
+ * <pre>
+ * CatalogCrawler.Result result = new CatalogCrawler(context, token).crawl(Map.of("seller", sellerId));
+ * assertThat(result.isConsistent(), is(true));
+ * </pre>
+ */
+public final class CatalogCrawler {
+
+    private static final Logger logger = LogManager.getLogger(CatalogCrawler.class);
+
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    /**
+     * Examples kept per kind of problem, in the report and in {@link Result#describeProblems()}.
+     */
+    private static final int MAX_EXAMPLES = 20;
+
+    /**
+     * Queued by a worker when it stops claiming pages.
+     */
+    private static final Page WORKER_DONE = new Page(-1, 0, null, null, List.of(), null);
+
+    /**
+     * One fetched page.
+     */
+    private static final class Page {
+        final int offset;
+        final int status;
+        final Integer total;
+        final String relation;
+        final List<String> ids;
+        final String error;
+
+        Page(int offset, int status, Integer total, String relation, List<String> ids, String error) {
+            this.offset = offset;
+            this.status = status;
+            this.total = total;
+            this.relation = relation;
+            this.ids = ids;
+            this.error = error;
+        }
+    }
+
+    /**
+     * Outcome of one crawl.
+     */
+    public static final class Result {
+        private final Map<String, Object> filter;
+        private final int limit;
+        private final int total;
+        private final String relation;
+        private final int minTotal;
+        private final int maxTotal;
+        private final int pages;
+        private final boolean truncated;
+        private final int uniqueItems;
+        private final Map<String, List<Integer>> duplicates;
+        private final Map<Integer, String> gaps;
+        private final double seconds;
+        private final Histogram latency;
+
+        private Result(Map<String, Object> filter, int limit, int total, String relation, int minTotal, int maxTotal,
+                       int pages, boolean truncated, int uniqueItems, Map<String, List<Integer>> duplicates,
+                       Map<Integer, String> gaps, double seconds, Histogram latency) {
+            this.filter = filter;
+            this.limit = limit;
+            this.total = total;
+            this.relation = relation;
+            this.minTotal = minTotal;
+            this.maxTotal = maxTotal;
+            this.pages = pages;
+            this.truncated = truncated;
+            this.uniqueItems = uniqueItems;
+            this.duplicates = duplicates;
+            this.gaps = gaps;
+            this.seconds = seconds;
+            this.latency = latency;
+        }
+
+        /**
+         * {@code total.value} of the first page.
+         */
+        public int getTotal() {
+            return total;
+        }
+
+        public int getUniqueItems() {
+            return uniqueItems;
+        }
+
+        public int getPages() {
+            return pages;
+        }
+
+        /**
+         * Item ids returned more than once, with the offsets of the pages that returned them.
+         */
+        public Map<String, List<Integer>> getDuplicates() {
+            return duplicates;
+        }
+
+        /**
+         * Offsets of short, failed or unexpected pages, with what was wrong.
+         */
+        public Map<Integer, String> getGaps() {
+            return gaps;
+        }
+
+        public boolean isTotalStable() {
+            return minTotal == maxTotal;
+        }
+
+        /**
+         * Whether the unique items match the total (are at least the total, for a lower bound).
+         */
+        public boolean isCountMatching() {
+            return "gte".equals(relation) ? uniqueItems >= total : uniqueItems == total;
+        }
+
+        /**
+         * Whole result set walked, no duplicates or gaps, stable total and matching count.
+         */
+        public boolean isConsistent() {
+            return !truncated && duplicates.isEmpty() && gaps.isEmpty() && isTotalStable() && isCountMatching();
+        }
+
+        public double itemsPerSecond() {
+            return seconds == 0 ? 0 : uniqueItems / seconds;
+        }
+
+        public double pagesPerSecond() {
+            return seconds == 0 ? 0 : pages / seconds;
+        }
+
+        /**
+         * Per-page latency at the percentile, in milliseconds.
+         */
+        public double latencyMillis(double percentile) {
+            return HistogramSummary.millis(latency, percentile);
+        }
+
+        /**
+         * Human-readable list of what is inconsistent, for assertion messages.
+         */
+        public String describeProblems() {
+            List<String> problems = new ArrayList<>();
+            if (truncated) {
+                problems.add("stopped after " + pages + " pages (crawl.max.pages)");
+            }
+            if (!isCountMatching()) {
+                problems.add(uniqueItems + " unique items for total " + total + " (" + relation + ")");
+            }
+            if (!isTotalStable()) {
+                problems.add("total changed during the crawl: " + minTotal + " to " + maxTotal);
+            }
+            if (!duplicates.isEmpty()) {
+                problems.add(duplicates.size() + " duplicate ids, e.g. " + examples(duplicates));
+            }
+            if (!gaps.isEmpty()) {
+                problems.add(gaps.size() + " gaps, e.g. " + examples(gaps));
+            }
+            return problems.isEmpty() ? "none" : String.join("; ", problems);
+        }
+
+        ObjectNode toJson() {
+            ObjectNode node = JsonUtils.getObjectMapper().createObjectNode();
+            ObjectNode filterNode = node.putObject("filter");
+            filter.forEach((name, value) -> filterNode.put(name, String.valueOf(value)));
+            node.put("limit", limit);
+            node.put("consistent", isConsistent());
+            node.put("total", total);
+            node.put("relation", relation);
+            node.put("totalStable", isTotalStable());
+            node.put("minTotal", minTotal);
+            node.put("maxTotal", maxTotal);
+            node.put("uniqueItems", uniqueItems);
+            node.put("pages", pages);
+            node.put("truncated", truncated);
+            node.put("seconds", Math.round(seconds * 1000) / 1000.0);
+            node.put("itemsPerSecond", Math.round(itemsPerSecond() * 100) / 100.0);
+            node.put("pagesPerSecond", Math.round(pagesPerSecond() * 100) / 100.0);
+            node.set("pageLatencyMs", HistogramSummary.toJson(latency));
+            node.put("duplicateCount", duplicates.size());
+            ObjectNode duplicatesNode = node.putObject("duplicates");
+            duplicates.entrySet().stream().limit(MAX_EXAMPLES).forEach(entry -> {
+                ArrayNode offsets = duplicatesNode.putArray(entry.getKey());
+                entry.getValue().forEach(offsets::add);
+            });
+            node.put("gapCount", gaps.size());
+            ObjectNode gapsNode = node.putObject("gaps");
+            gaps.entrySet().stream().limit(MAX_EXAMPLES)
+                    .forEach(entry -> gapsNode.put(String.valueOf(entry.getKey()), entry.getValue()));
+            return node;
+        }
+
+        private static String examples(Map<?, ?> map) {
+            Map<Object, Object> examples = new LinkedHashMap<>();
+            map.entrySet().stream().limit(3).forEach(entry -> examples.put(entry.getKey(), entry.getValue()));
+            return examples.toString();
+        }
+    }
+
+    private final ServiceContext context;
+    private final String authorization;
+    private final int limit;
+    private final int concurrency;
+    private final int prefetch;
+    private final int maxPages;
+
+    /**
+     * @param context BOMB service context the requests are built from
+     * @param token   BOMB access token
+     */
+    public CatalogCrawler(ServiceContext context, String token) {
+        this.context = context;
+        this.authorization = "JWT " + token;
+        this.limit = Integer.getInteger("crawl.limit", 20);
+        this.concurrency = Integer.getInteger("crawl.concurrency", 4);
+        this.prefetch = Integer.getInteger("crawl.prefetch", 2 * concurrency);
+        this.maxPages = Integer.getInteger("crawl.max.pages", 5000);
+    }
+
+    /**
+     * Crawl every page for a filter, e.g. {@code seller}, {@code product} or {@code id}.
+     */
+    public Result crawl(Map<String, Object> filter) throws InterruptedException {
+        Recorder latency = new Recorder(SIGNIFICANT_DIGITS);
+        long start = System.nanoTime();
+        Page first = fetch(filter, 0, latency);
+        if (first.total == null) {
+            throw new RuntimeException("First page of catalog_all " + filter + " failed: "
+                    + (first.error != null ? first.error : "no data.total.value"));
+        }
+        int total = first.total;
+        boolean lowerBound = "gte".equals(first.relation);
+        int resultPages = (total + limit - 1) / limit;
+        // eq: one page past the end must come back empty; gte: claim pages until one does
+        int plannedPages = lowerBound ? maxPages : Math.min(resultPages + 1, maxPages);
+        AtomicInteger endPage = new AtomicInteger(plannedPages);
+        AtomicBoolean endFound = new AtomicBoolean();
+        if (lowerBound && first.ids.isEmpty()) {
+            endPage.set(1);
+            endFound.set(true);
+        }
+        logger.info("Crawling catalog_all {}: total {} ({}), {} pages of {}, {} workers, prefetch {}",
+                filter, total, first.relation, lowerBound ? "until an empty page, at most " + maxPages : plannedPages,
+                limit, concurrency, prefetch);
+
+        Map<String, List<Integer>> seen = new LinkedHashMap<>();
+        Map<Integer, Integer> sizes = new TreeMap<>();
+        Map<Integer, String> gaps = new TreeMap<>();
+        int minTotal = total;
+        int maxTotal = total;
+        BlockingQueue<Page> fetched = new ArrayBlockingQueue<>(Math.max(1, prefetch));
+        AtomicInteger nextPage = new AtomicInteger(1);
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "catalog-crawler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            for (int worker = 0; worker < concurrency; worker++) {
+                workers.execute(() -> {
+                    try {
+                        int page;
+                        while ((page = nextPage.getAndIncrement()) < endPage.get()) {
+                            Page current = fetch(filter, page * limit, latency);
+                            if (lowerBound && current.error == null && current.ids.isEmpty()) {
+                                endPage.accumulateAndGet(page + 1, Math::min);
+                                endFound.set(true);
+                            }
+                            fetched.put(current);
+                        }
+                        fetched.put(WORKER_DONE);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+            Page current = first;
+            int finishedWorkers = 0;
+            while (true) {
+                record(current, seen, sizes, gaps);
+                if (current.total != null) {
+                    minTotal = Math.min(minTotal, current.total);
+                    maxTotal = Math.max(maxTotal, current.total);
+                }
+                do {
+                    current = fetched.take();
+                } while (current == WORKER_DONE && ++finishedWorkers < concurrency);
+                if (current == WORKER_DONE) {
+                    break;
+                }
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        int pages = sizes.size() + (int) gaps.values().stream().filter(gap -> gap.startsWith("failed")).count();
+        boolean truncated = lowerBound ? !endFound.get() : plannedPages < resultPages + 1;
+        checkSizes(sizes, total, lowerBound, endFound.get() ? (endPage.get() - 1) * limit : Integer.MAX_VALUE, gaps);
+
+        Map<String, List<Integer>> duplicates = new LinkedHashMap<>();
+        seen.forEach((id, offsets) -> {
+            if (offsets.size() > 1) {
+                duplicates.put(id, offsets);
+            }
+        });
+        Result result = new Result(filter, limit, total, first.relation, minTotal, maxTotal, pages, truncated,
+                seen.size(), duplicates, gaps, seconds, latency.getIntervalHistogram());
+        logger.info(String.format("Crawled %d pages in %.1f s: %.1f items/s, %.1f pages/s, page p50 %.1f ms, p99 %.1f ms",
+                pages, seconds, result.itemsPerSecond(), result.pagesPerSecond(),
+                result.latencyMillis(50), result.latencyMillis(99)));
+        if (result.isConsistent()) {
+            logger.info("catalog_all {}: {} unique items match total {} ({})", filter, seen.size(), total,
+                    first.relation);
+        } else {
+            logger.warn("catalog_all {} is inconsistent: {}", filter, result.describeProblems());
+        }
+        write(filter, result);
+        return result;
+    }
+
+    private Page fetch(Map<String, Object> filter, int offset, Recorder latency) {
+        long start = System.nanoTime();
+        try {
+            Response response = context.given()
+                    .header("authorization", authorization)
+                    .header("source", "bizupChat")
+                    .queryParams(filter)
+                    .queryParam("offset", offset)
+                    .queryParam("limit", limit)
+                    .when()
+                    .get(BombEndpoints.CATALOG_ALL);
+            latency.recordValue((System.nanoTime() - start) / 1_000);
+            if (response.getStatusCode() != 200) {
+                return new Page(offset, response.getStatusCode(), null, null, List.of(),
+                        "HTTP " + response.getStatusCode());
+            }
+            CatalogResponse.CatalogData data = JsonUtils.fromResponse(response, CatalogResponse.class).getData();
+            List<String> ids = new ArrayList<>();
+            if (data != null && data.getItems() != null) {
+                for (CatalogResponse.CatalogItem item : data.getItems()) {
+                    ids.add(item.get_id() != null ? item.get_id() : item.getId());
+                }
+            }
+            CatalogResponse.Total total = data == null ? null : data.getTotal();
+            return new Page(offset, 200, total == null ? null : total.getValue(),
+                    total == null || total.getRelation() == null ? "eq" : total.getRelation(), ids, null);
+        } catch (RuntimeException e) {
+            return new Page(offset, 0, null, null, List.of(), e.getClass().getSimpleName() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Record a page's ids and item count, or the failure.
+     */
+    private static void record(Page page, Map<String, List<Integer>> seen, Map<Integer, Integer> sizes,
+                               Map<Integer, String> gaps) {
+        if (page.error != null) {
+            gaps.put(page.offset, "failed: " + page.error);
+            return;
+        }
+        sizes.put(page.offset, page.ids.size());
+        for (String id : page.ids) {
+            seen.computeIfAbsent(id, key -> new ArrayList<>()).add(page.offset);
+        }
+    }
+
+    /**
+     * Check every page holds as many items as its offset calls for.
+     *
+     * @param endOffset Offset of the first empty page ({@code gte} only)
+     */
+    private void checkSizes(Map<Integer, Integer> sizes, int total, boolean lowerBound, int endOffset,
+                            Map<Integer, String> gaps) {
+        sizes.forEach((offset, size) -> {
+            int expected;
+            if (!lowerBound) {
+                expected = Math.max(0, Math.min(limit, total - offset));
+            } else if (offset >= endOffset) {
+                expected = 0;
+            } else if (offset + limit >= endOffset) {
+                // Last page before the first empty one: any non-empty size is fine
+                return;
+            } else {
+                expected = limit;
+            }
+            if (size < expected) {
+                gaps.put(offset, size + " of " + expected + " items");
+            } else if (size > expected) {
+                gaps.put(offset, lowerBound ? size + " items past the first empty page at offset " + endOffset
+                        : size + " items, " + expected + " expected past total " + total);
+            }
+        });
+    }
+
+    private static void write(Map<String, Object> filter, Result result) {
+        StringBuilder name = new StringBuilder("catalog");
+        filter.forEach((key, value) -> name.append('-').append(key).append('-').append(value));
+        Path file = Paths.get("target", "crawl", name.toString().replaceAll("[^A-Za-z0-9_.-]+", "_") + "-"
+                + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date()) + ".json");
+        try {
+            Files.createDirectories(file.getParent());
+            Files.writeString(file, JsonUtils.toJson(result.toJson()));
+            logger.info("Crawl report written to {}", file);
+        } catch (IOException e) {
+            logger.warn("Unable to write crawl report {}: {}", file, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.automation.load;
+
+import com.automation.base.ApiService;
+import com.automation.base.ServiceContext;
+import com.automation.config.ConfigManager;
+import com.automation.recording.ReplayServer;
+import com.automation.utils.JsonUtils;
+import com.automation.utils.VariableManager;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop load: a fixed number of virtual buyers, each running {@link BuyerJourney} sessions
+ * back to back with think times between the steps.
+ * <p>
+ * Unlike {@link OpenLoopGenerator}, the offered load follows the system: a user starts its next
+ * session only when the previous one ends, the way real buyers wait for each screen. That makes
+ * it the tool for sizing ("how do N concurrent shoppers fare"), with throughput following from
+ * Little's law: sessions/s = users / (session time + think time).
+ * </p>
+ * Users start evenly over the ramp-up; sessions started during the ramp-up are not recorded.
+ * Think times are exponentially distributed around {@code journey.think} (capped at 10 times the
+ * mean). Per step it records the response time of successful requests and counts failures by
+ * status; per session the sum of its step times (think times excluded) and its wall time.
+ * Results go to {@code target/journeys/<timestamp>/summary.json} and a table in the log.
+ *
+ * <p><b>System properties:</b></p>
+ * <ul>
+ *     <li>{@code journey.users} - concurrent virtual users (default 10)</li>
+ *     <li>{@code journey.duration} - measured seconds after the ramp-up (default 60)</li>
+ *     <li>{@code journey.rampup} - seconds over which users start (default 10)</li>
+ *     <li>{@code journey.think} - mean think time between steps in ms, 0 for none (default 1000)</li>
+ *     <li>{@code journey.phones} - comma-separated buyer phone numbers, assigned to users in turn
+ *     (default the configured Buyer App phone number)</li>
+ *     <li>{@code journey.search} - search term (default saree)</li>
+ *     <li>{@code journey.url} - base URL override, e.g. a {@code FaultProxy} or a stub</li>
+ * </ul>
+ *
+ * <p><b>Usage Example:</b></p>
+ * <pre>
+ * mvn test -Pjourneys -Djourney.users=50 -Djourney.duration=300 -Djourney.think=2000
+ * </pre>
+ */
+public final class ClosedLoopJourneys {
+
+    private static final Logger logger = LogManager.getLogger(ClosedLoopJourneys.class);
+
+    private static final long REPORT_INTERVAL_MS = 10_000;
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final Map<BuyerJourney.Step, Recorder> steps = new EnumMap<>(BuyerJourney.Step.class);
+    private final Map<String, AtomicLong> errors = new ConcurrentHashMap<>();
+    private final Recorder journeyTime = new Recorder(SIGNIFICANT_DIGITS);
+    private final Recorder sessionTime = new Recorder(SIGNIFICANT_DIGITS);
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    private ClosedLoopJourneys() {
+        for (BuyerJourney.Step step : BuyerJourney.Step.values()) {
+            steps.put(step, new Recorder(SIGNIFICANT_DIGITS));
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int users = Integer.getInteger("journey.users", 10);
+        int duration = Integer.getInteger("journey.duration", 60);
+        int rampup = Integer.getInteger("journey.rampup", 10);
+        long think = Long.getLong("journey.think", 1000);
+        if (users <= 0 || duration <= 0) {
+            throw new IllegalArgumentException("journey.users and journey.duration must be positive");
+        }
+
+        ConfigManager config = ConfigManager.getInstance();
+        if ("replay".equals(System.getProperty("env"))) {
+            ReplayServer.start(config);
+        }
+        VariableManager.initialize();
+        String phones = System.getProperty("journey.phones", "");
+        List<String> phoneNumbers = Arrays.stream((phones.isBlank() ? config.buyerAppPhoneNumber() : phones).split(","))
+                .map(String::trim)
+                .filter(phone -> !phone.isEmpty())
+                .toList();
+        ServiceContext context = ServiceContext.create(ApiService.BUYER_APP, config, false);
+        String baseUrl = System.getProperty("journey.url", "");
+        if (baseUrl.isBlank()) {
+            baseUrl = context.getBaseUrl();
+        }
+
+        Path outputDir = Paths.get("target", "journeys", new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date()));
+        Files.createDirectories(outputDir);
+        new ClosedLoopJourneys().run(context, baseUrl, phoneNumbers, System.getProperty("journey.search", "saree"),
+                users, rampup, duration, think, outputDir);
+    }
+
+    private void run(ServiceContext context, String baseUrl, List<String> phoneNumbers, String searchQuery,
+                     int users, int rampupSeconds, int durationSeconds, long thinkMillis, Path outputDir)
+            throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(rampupSeconds);
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(durationSeconds);
+        logger.info("Closed-loop journeys on {}: {} users over {} s ramp-up, then {} s measured, think {} ms, {} buyer(s)",
+                baseUrl, users, rampupSeconds, durationSeconds, thinkMillis, phoneNumbers.size());
+
+        ExecutorService pool = Executors.newFixedThreadPool(users, runnable -> {
+            Thread thread = new Thread(runnable, "journey-user");
+            thread.setDaemon(true);
+            return thread;
+        });
+        CountDownLatch done = new CountDownLatch(users);
+        for (int user = 0; user < users; user++) {
+            long startAt = start + TimeUnit.SECONDS.toNanos(rampupSeconds) * user / users;
+            String phoneNumber = phoneNumbers.get(user % phoneNumbers.size());
+            pool.execute(() -> {
+                try {
+                    user(context, baseUrl, phoneNumber, searchQuery, thinkMillis, startAt, measureFrom, end);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        while (!done.await(REPORT_INTERVAL_MS, TimeUnit.MILLISECONDS)) {
+            double elapsed = (System.nanoTime() - start) / 1e9;
+            logger.info("{} s: {} sessions completed, {} failed, {} users still running",
+                    Math.round(elapsed), completed.get(), failed.get(), done.getCount());
+        }
+        pool.shutdown();
+        report(users, durationSeconds, thinkMillis, outputDir);
+    }
+
+    /**
+     * One virtual user: sessions back to back until the end of the run.
+     */
+    private void user(ServiceContext context, String baseUrl, String phoneNumber, String searchQuery,
+                      long thinkMillis, long startAt, long measureFrom, long end) throws InterruptedException {
+        long wait = startAt - System.nanoTime();
+        if (wait > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+        while (System.nanoTime() < end) {
+            long sessionStart = System.nanoTime();
+            boolean measured = sessionStart >= measureFrom;
+            BuyerJourney journey = new BuyerJourney(context, baseUrl, phoneNumber, searchQuery,
+                    () -> think(thinkMillis), (step, micros, error) -> {
+                        if (measured && error == null) {
+                            steps.get(step).recordValue(micros);
+                        }
+                    });
+            try {
+                long micros = journey.run();
+                if (measured) {
+                    journeyTime.recordValue(micros);
+                    sessionTime.recordValue((System.nanoTime() - sessionStart) / 1_000);
+                    completed.incrementAndGet();
+                }
+            } catch (BuyerJourney.StepFailed e) {
+                if (measured) {
+                    failed.incrementAndGet();
+                    errors.computeIfAbsent(e.getStep().getLabel() + " " + e.getError(), key -> new AtomicLong())
+                            .incrementAndGet();
+                }
+                // A real buyer would not retry instantly either
+                TimeUnit.MILLISECONDS.sleep(think(thinkMillis));
+            }
+        }
+    }
+
+    private static long think(long meanMillis) {
+        if (meanMillis <= 0) {
+            return 0;
+        }
+        double sample = -Math.log(1 - ThreadLocalRandom.current().nextDouble()) * meanMillis;
+        return Math.round(Math.min(sample, meanMillis * 10.0));
+    }
+
+    private void report(int users, int durationSeconds, long thinkMillis, Path outputDir) throws IOException {
+        ObjectNode summary = JsonUtils.getObjectMapper().createObjectNode();
+        summary.put("users", users);
+        summary.put("durationSeconds", durationSeconds);
+        summary.put("thinkMillis", thinkMillis);
+        summary.put("sessionsCompleted", completed.get());
+        summary.put("sessionsFailed", failed.get());
+        summary.put("sessionsPerSecond", Math.round(completed.get() * 100.0 / durationSeconds) / 100.0);
+        Histogram journey = journeyTime.getIntervalHistogram();
+        summary.set("journeyMs", HistogramSummary.toJson(journey));
+        summary.set("sessionWallMs", HistogramSummary.toJson(sessionTime.getIntervalHistogram()));
+        ObjectNode stepsNode = summary.putObject("steps");
+        ObjectNode errorsNode = summary.putObject("errors");
+        errors.forEach((key, count) -> errorsNode.put(key, count.get()));
+
+        logger.info(String.format("%-12s %8s %9s %9s %9s %9s %9s", "step", "count", "p50 ms", "p90 ms",
+                "p95 ms", "p99 ms", "max ms"));
+        for (Map.Entry<BuyerJourney.Step, Recorder> entry : steps.entrySet()) {
+            Histogram histogram = entry.getValue().getIntervalHistogram();
+            stepsNode.set(entry.getKey().getLabel(), HistogramSummary.toJson(histogram));
+            logger.info(row(entry.getKey().getLabel(), histogram));
+        }
+        logger.info(row("journey", journey));
+        if (!errors.isEmpty()) {
+            logger.warn("Failed sessions by step: {}", errors);
+        }
+        Files.writeString(outputDir.resolve("summary.json"), JsonUtils.toJson(summary));
+        logger.info("{} sessions/s with {} users; results written to {}",
+                summary.get("sessionsPerSecond"), users, outputDir);
+    }
+
+    private static String row(String name, Histogram histogram) {
+        return String.format("%-12s %8d %9.1f %9.1f %9.1f %9.1f %9.1f", name, histogram.getTotalCount(),
+                HistogramSummary.millis(histogram, 50), HistogramSummary.millis(histogram, 90),
+                HistogramSummary.millis(histogram, 95), HistogramSummary.millis(histogram, 99),
+                histogram.getMaxValue() / 1000.0);
+    }
+}
@@ -0,0 +1,41 @@
+package com.automation.load;
+
+import com.automation.utils.JsonUtils;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Percentile summaries of microsecond histograms, in milliseconds, for load reports.
+ */
+final class HistogramSummary {
+
+    private HistogramSummary() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Count, p50/p90/p95/p99/p99.9, max and mean of the histogram.
+     */
+    static ObjectNode toJson(Histogram histogram) {
+        ObjectNode node = JsonUtils.getObjectMapper().createObjectNode();
+        node.put("count", histogram.getTotalCount());
+        if (histogram.getTotalCount() == 0) {
+            return node;
+        }
+        node.put("p50", millis(histogram, 50));
+        node.put("p90", millis(histogram, 90));
+        node.put("p95", millis(histogram, 95));
+        node.put("p99", millis(histogram, 99));
+        node.put("p99.9", millis(histogram, 99.9));
+        node.put("max", histogram.getMaxValue() / 1000.0);
+        node.put("mean", Math.round(histogram.getMean()) / 1000.0);
+        return node;
+    }
+
+    /**
+     * Value at the percentile, in milliseconds.
+     */
+    static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+}
@@ -0,0 +1,312 @@
+package com.automation.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Distributed open-loop load: splits the arrival rate over several {@link LoadWorker} processes
+ * and merges the histograms they stream back.
+ * <p>
+ * Workers connect over plain TCP (see {@link LoadProtocol}), so this works with local processes
+ * on one machine ({@code load.spawn}) and with workers started on other machines, with no broker
+ * in between. Once the expected workers have connected and logged in, each gets
+ * {@code load.rate / workers} with its first arrival offset so the combined arrivals stay evenly
+ * spaced. The merged results have the same format as a single {@link OpenLoopGenerator} run, in
+ * {@code target/load/<timestamp>/}, with interval logs tagged by worker.
+ * </p>
+ *
+ * <p><b>System properties:</b></p>
+ * <ul>
+ *     <li>{@code load.rate}, {@code load.duration}, {@code load.warmup}, {@code load.scenarios},
+ *     {@code load.url}, {@code load.token} - as for {@link OpenLoopGenerator}, for all workers together</li>
+ *     <li>{@code load.workers} - request threads per worker (default 200)</li>
+ *     <li>{@code load.port} - port workers connect to (default 7950)</li>
+ *     <li>{@code load.spawn} - worker processes to start on this machine (default 0)</li>
+ *     <li>{@code load.expect} - workers to wait for, local and remote (default {@code load.spawn})</li>
+ *     <li>{@code load.wait} - seconds to wait for them to connect and log in (default 120)</li>
+ * </ul>
+ *
+ * <p><b>Usage Example:</b></p>
+ * <pre>
+ * # Four local worker processes
+ * mvn test -Pload-controller -Dload.rate=2000 -Dload.spawn=4
+ *
+ * # Two local and two remote workers (mvn test -Pload-worker -Dload.controller=host:7950 on each)
+ * mvn test -Pload-controller -Dload.rate=4000 -Dload.spawn=2 -Dload.expect=4
+ * </pre>
+ */
+public final class LoadController {
+
+    private static final Logger logger = LogManager.getLogger(LoadController.class);
+
+    /**
+     * A connected worker.
+     */
+    private static final class Worker {
+        final Socket socket;
+        final BufferedReader in;
+        final BufferedWriter out;
+        final String id;
+        final Map<String, Map<String, Long>> errors = new LinkedHashMap<>();
+
+        Worker(Socket socket) throws IOException {
+            this.socket = socket;
+            this.in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            this.out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+            ObjectNode hello = LoadProtocol.read(in);
+            if (hello == null || !LoadProtocol.HELLO.equals(hello.path("type").asText())) {
+                throw new IOException("Not a load worker: " + socket.getRemoteSocketAddress());
+            }
+            this.id = hello.path("worker").asText(String.valueOf(socket.getRemoteSocketAddress()));
+        }
+    }
+
+    private final Map<String, OpenLoopGenerator.Stats> stats = new LinkedHashMap<>();
+    private final Map<String, HistogramLogWriter> logs = new LinkedHashMap<>();
+    private final List<PrintStream> logStreams = new ArrayList<>();
+    private final Path outputDir;
+
+    private LoadController(Path outputDir) {
+        this.outputDir = outputDir;
+    }
+
+    public static void main(String[] args) throws Exception {
+        double rate = Double.parseDouble(System.getProperty("load.rate", "10"));
+        int duration = Integer.getInteger("load.duration", 30);
+        int warmup = Integer.getInteger("load.warmup", 5);
+        int threads = Integer.getInteger("load.workers", 200);
+        int port = Integer.getInteger("load.port", 7950);
+        int spawn = Integer.getInteger("load.spawn", 0);
+        int expect = Integer.getInteger("load.expect", spawn);
+        int waitSeconds = Integer.getInteger("load.wait", 120);
+        if (rate <= 0 || duration <= 0 || expect <= 0) {
+            throw new IllegalArgumentException("load.rate, load.duration and load.expect (or load.spawn) must be positive");
+        }
+        String scenarios = System.getProperty("load.scenarios", "all");
+        // Fail on an unknown scenario here rather than in every worker
+        LoadScenario.mix(scenarios);
+
+        Path outputDir = OpenLoopGenerator.outputDir();
+        Files.createDirectories(outputDir);
+        LoadController controller = new LoadController(outputDir);
+        List<Process> processes = new ArrayList<>();
+        try (ServerSocket server = new ServerSocket()) {
+            server.bind(new InetSocketAddress(port));
+            for (int i = 0; i < spawn; i++) {
+                processes.add(spawnWorker(server.getLocalPort(), outputDir.resolve("worker-" + i + ".log")));
+            }
+            logger.info("Load controller on port {}: waiting for {} worker(s) ({} local)",
+                    server.getLocalPort(), expect, spawn);
+            List<Worker> workers = controller.accept(server, expect, waitSeconds);
+
+            ObjectNode configure = LoadProtocol.message(LoadProtocol.CONFIGURE)
+                    .put("scenarios", scenarios)
+                    .put("rate", rate / workers.size())
+                    .put("warmup", warmup)
+                    .put("duration", duration)
+                    .put("threads", threads)
+                    .put("url", System.getProperty("load.url", ""))
+                    .put("token", System.getProperty("load.token", ""));
+            for (Worker worker : workers) {
+                LoadProtocol.send(worker.out, configure);
+            }
+            controller.awaitReady(workers, waitSeconds);
+            controller.run(workers, rate, warmup, duration);
+        } finally {
+            for (Process process : processes) {
+                if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                    process.destroy();
+                }
+            }
+        }
+    }
+
+    /**
+     * Start a worker JVM on this machine with the controller's classpath and environment.
+     */
+    private static Process spawnWorker(int port, Path log) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        for (String property : new String[]{"env", "log4j.configurationFile"}) {
+            if (System.getProperty(property) != null) {
+                command.add("-D" + property + "=" + System.getProperty(property));
+            }
+        }
+        command.add("-Dload.controller=127.0.0.1:" + port);
+        command.add("-classpath");
+        command.add(System.getProperty("java.class.path"));
+        command.add(LoadWorker.class.getName());
+        return new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+    }
+
+    private List<Worker> accept(ServerSocket server, int expect, int waitSeconds) throws IOException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(waitSeconds);
+        List<Worker> workers = new ArrayList<>();
+        while (workers.size() < expect) {
+            long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remaining <= 0) {
+                throw new IllegalStateException("Only " + workers.size() + " of " + expect + " workers connected in "
+                        + waitSeconds + " s");
+            }
+            server.setSoTimeout((int) remaining);
+            try {
+                Socket socket = server.accept();
+                socket.setTcpNoDelay(true);
+                socket.setSoTimeout((int) TimeUnit.SECONDS.toMillis(waitSeconds));
+                Worker worker = new Worker(socket);
+                workers.add(worker);
+                logger.info("Worker {} connected from {} ({}/{})", worker.id, socket.getRemoteSocketAddress(),
+                        workers.size(), expect);
+            } catch (SocketTimeoutException e) {
+                // Deadline checked above
+            } catch (IOException e) {
+                logger.warn("Rejected connection: {}", e.getMessage());
+            }
+        }
+        return workers;
+    }
+
+    private void awaitReady(List<Worker> workers, int waitSeconds) throws IOException {
+        for (Worker worker : workers) {
+            ObjectNode message = LoadProtocol.read(worker.in);
+            if (message == null || !LoadProtocol.READY.equals(message.path("type").asText())) {
+                throw new IllegalStateException("Worker " + worker.id + " failed to start, see its log");
+            }
+            // Intervals arrive every few seconds from now on
+            worker.socket.setSoTimeout(0);
+        }
+        logger.info("All {} workers ready within {} s", workers.size(), waitSeconds);
+    }
+
+    private void run(List<Worker> workers, double rate, int warmupSeconds, int durationSeconds)
+            throws IOException, InterruptedException {
+        long intervalNanos = Math.round(TimeUnit.SECONDS.toNanos(1) / rate);
+        long measureFrom = System.nanoTime() + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        for (int i = 0; i < workers.size(); i++) {
+            LoadProtocol.send(workers.get(i).out, LoadProtocol.message(LoadProtocol.GO).put("offsetNanos", i * intervalNanos));
+        }
+        logger.info("Open-loop load: {} req/s over {} workers for {} s (+{} s warm-up)", rate, workers.size(),
+                durationSeconds, warmupSeconds);
+
+        CountDownLatch done = new CountDownLatch(workers.size());
+        AtomicLong intervals = new AtomicLong();
+        for (Worker worker : workers) {
+            Thread reader = new Thread(() -> {
+                try {
+                    receive(worker, intervals);
+                } finally {
+                    done.countDown();
+                }
+            }, "load-controller-" + worker.id);
+            reader.setDaemon(true);
+            reader.start();
+        }
+        while (!done.await(10, TimeUnit.SECONDS)) {
+            logger.info("{} interval histograms merged, {} of {} workers still running", intervals.get(),
+                    done.getCount(), workers.size());
+        }
+        double drainSeconds = Math.max(0, (System.nanoTime() - measureFrom) / 1e9 - durationSeconds);
+
+        synchronized (stats) {
+            logStreams.forEach(PrintStream::close);
+            for (Worker worker : workers) {
+                worker.errors.forEach((scenario, counts) -> counts.forEach((status, count) ->
+                        stats.get(scenario).errors.computeIfAbsent(status, key -> new AtomicLong()).addAndGet(count)));
+            }
+            OpenLoopGenerator.report(stats, rate, durationSeconds, drainSeconds, outputDir);
+        }
+    }
+
+    /**
+     * Merge a worker's intervals until it reports done or disconnects.
+     */
+    private void receive(Worker worker, AtomicLong intervals) {
+        try (Socket ignored = worker.socket) {
+            ObjectNode message;
+            while ((message = LoadProtocol.read(worker.in)) != null) {
+                String type = message.path("type").asText();
+                if (LoadProtocol.DONE.equals(type)) {
+                    logger.info("Worker {} done", worker.id);
+                    return;
+                }
+                if (LoadProtocol.INTERVAL.equals(type)) {
+                    merge(worker, message);
+                    intervals.incrementAndGet();
+                }
+            }
+            logger.warn("Worker {} disconnected before finishing, its last intervals are missing", worker.id);
+        } catch (IOException e) {
+            logger.warn("Lost worker {}: {}", worker.id, e.getMessage());
+        }
+    }
+
+    private void merge(Worker worker, ObjectNode message) throws IOException {
+        String scenario = message.path("scenario").asText();
+        Histogram response = LoadProtocol.decode(message.path("response").asText());
+        response.setStartTimeStamp(message.path("start").asLong());
+        response.setEndTimeStamp(message.path("end").asLong());
+        response.setTag(worker.id);
+        Map<String, Long> errors = new LinkedHashMap<>();
+        for (Iterator<Map.Entry<String, JsonNode>> fields = message.path("errors").fields();
+             fields.hasNext(); ) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            errors.put(field.getKey(), field.getValue().asLong());
+        }
+        synchronized (stats) {
+            OpenLoopGenerator.Stats scenarioStats = stats.computeIfAbsent(scenario, name -> new OpenLoopGenerator.Stats());
+            scenarioStats.responseTotal.add(response);
+            scenarioStats.serviceTotal.add(LoadProtocol.decode(message.path("service").asText()));
+            scenarioStats.errorTotal.add(LoadProtocol.decode(message.path("error").asText()));
+            // Error counts are cumulative per worker
+            worker.errors.put(scenario, errors);
+            if (response.getTotalCount() > 0) {
+                log(scenario).outputIntervalHistogram(response);
+            }
+        }
+    }
+
+    private HistogramLogWriter log(String scenario) throws IOException {
+        HistogramLogWriter log = logs.get(scenario);
+        if (log == null) {
+            PrintStream out = new PrintStream(new FileOutputStream(
+                    outputDir.resolve(scenario + ".hlog").toFile()), false, StandardCharsets.UTF_8);
+            logStreams.add(out);
+            log = new HistogramLogWriter(out);
+            log.outputLogFormatVersion();
+            log.outputLegend();
+            logs.put(scenario, log);
+        }
+        return log;
+    }
+}
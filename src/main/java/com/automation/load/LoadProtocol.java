@@ -0,0 +1,82 @@
+package com.automation.load;
+
+import com.automation.utils.JsonUtils;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.HdrHistogram.Histogram;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.zip.DataFormatException;
+
+/**
+ * Messages between {@link LoadController} and {@link LoadWorker}: one JSON object per line over
+ * a plain TCP connection, histograms as Base64 of their compressed HdrHistogram encoding.
+ * <p>
+ * Worker to controller: {@code hello} (worker id), {@code ready} (logged in, generator built),
+ * {@code interval} (scenario, start/end epoch ms, response/service/error histograms, error
+ * counts so far) and {@code done}. Controller to worker: {@code configure} (scenarios, rate
+ * share, warm-up, duration, threads, url, token) and {@code go} (offset of the first arrival).
+ * </p>
+ */
+final class LoadProtocol {
+
+    static final String HELLO = "hello";
+    static final String CONFIGURE = "configure";
+    static final String READY = "ready";
+    static final String GO = "go";
+    static final String INTERVAL = "interval";
+    static final String DONE = "done";
+
+    private static final ObjectWriter WRITER = JsonUtils.getObjectMapper().writer()
+            .without(SerializationFeature.INDENT_OUTPUT);
+
+    private LoadProtocol() {
+        // Prevent instantiation
+    }
+
+    static ObjectNode message(String type) {
+        ObjectNode message = JsonUtils.getObjectMapper().createObjectNode();
+        message.put("type", type);
+        return message;
+    }
+
+    /**
+     * Write one message; safe to call from several threads on the same writer.
+     */
+    static void send(Writer out, ObjectNode message) throws IOException {
+        String line = WRITER.writeValueAsString(message);
+        synchronized (out) {
+            out.write(line);
+            out.write('\n');
+            out.flush();
+        }
+    }
+
+    /**
+     * Read the next message, or null when the other side closed the connection.
+     */
+    static ObjectNode read(BufferedReader in) throws IOException {
+        String line = in.readLine();
+        return line == null ? null : (ObjectNode) JsonUtils.getObjectMapper().readTree(line);
+    }
+
+    static String encode(Histogram histogram) {
+        ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+        int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+        return Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), length));
+    }
+
+    static Histogram decode(String encoded) {
+        try {
+            return Histogram.decodeFromCompressedByteBuffer(ByteBuffer.wrap(Base64.getDecoder().decode(encoded)), 0);
+        } catch (DataFormatException e) {
+            throw new RuntimeException("Failed to decode histogram: " + e.getMessage(), e);
+        }
+    }
+}
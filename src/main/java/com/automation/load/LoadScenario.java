@@ -0,0 +1,113 @@
+package com.automation.load;
+
+import com.automation.constants.BuyerAppEndpoints;
+import com.automation.models.request.FeedFilterSaveRequest;
+import com.automation.models.request.UpdateCartRequest;
+import com.automation.models.request.VideoViewActionRequest;
+import com.automation.utils.VariableManager;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * One kind of request put under load, built from the same request models and endpoint
+ * constants as the functional tests (and the same variables and fallbacks).
+ * <p>
+ * Available scenarios (Buyer App):
+ * - {@code update-cart}: {@link UpdateCartRequest} to {@link BuyerAppEndpoints#USER_UPDATE_CART}
+ * - {@code feed-filter-save}: {@link FeedFilterSaveRequest} to {@link BuyerAppEndpoints#FEED_FILTERS_SAVE}
+ * - {@code video-view}: {@link VideoViewActionRequest} to {@link BuyerAppEndpoints#ACTION}
+ * </p>
+ */
+public final class LoadScenario {
+
+    private static final Map<String, LoadScenario> SCENARIOS = new LinkedHashMap<>();
+
+    static {
+        register(new LoadScenario("update-cart", spec -> spec
+                .body(UpdateCartRequest.builder()
+                        .quantity(1)
+                        .cart_id(VariableManager.get("cart_id", "68383213df5a92a14ddba268"))
+                        .cat_id(VariableManager.get("live_catalog_id", "67c59d8ff22202c05e7d612e"))
+                        .build())
+                .post(BuyerAppEndpoints.USER_UPDATE_CART)));
+        register(new LoadScenario("feed-filter-save", spec -> spec
+                .body(FeedFilterSaveRequest.builder()
+                        .suitable_for(Collections.singletonList(VariableManager.get("suitable_for", "Women")))
+                        .testData("")
+                        .build())
+                .post(BuyerAppEndpoints.FEED_FILTERS_SAVE)));
+        register(new LoadScenario("video-view", spec -> spec
+                .body(VideoViewActionRequest.builder()
+                        .action("view")
+                        .creatorId(VariableManager.get("creator_id"))
+                        .userId(VariableManager.get("user_id"))
+                        .videoId(VariableManager.get("video_id", "681032fd9010791f25aed769"))
+                        .build())
+                .post(BuyerAppEndpoints.ACTION)));
+    }
+
+    private final String name;
+    private final Function<RequestSpecification, Response> request;
+
+    private LoadScenario(String name, Function<RequestSpecification, Response> request) {
+        this.name = name;
+        this.request = request;
+    }
+
+    private static void register(LoadScenario scenario) {
+        SCENARIOS.put(scenario.name, scenario);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Send this scenario's request on a prepared specification (base URI, auth).
+     */
+    public Response send(RequestSpecification spec) {
+        return request.apply(spec);
+    }
+
+    /**
+     * Names of all scenarios.
+     */
+    public static List<String> names() {
+        return new ArrayList<>(SCENARIOS.keySet());
+    }
+
+    /**
+     * Parse a weighted scenario mix such as {@code update-cart:3,video-view:1} into the order
+     * arrivals cycle through (weights default to 1, {@code all} means every scenario once).
+     *
+     * @throws IllegalArgumentException for unknown scenarios or weights below 1
+     */
+    public static List<LoadScenario> mix(String spec) {
+        String value = spec == null || spec.isBlank() ? "all" : spec.trim();
+        if ("all".equalsIgnoreCase(value)) {
+            return new ArrayList<>(SCENARIOS.values());
+        }
+        List<LoadScenario> cycle = new ArrayList<>();
+        for (String entry : value.split(",")) {
+            String[] parts = entry.trim().split(":");
+            LoadScenario scenario = SCENARIOS.get(parts[0].trim().toLowerCase(Locale.ROOT));
+            if (scenario == null) {
+                throw new IllegalArgumentException("Unknown load scenario '" + parts[0] + "', expected one of " + names());
+            }
+            int weight = parts.length > 1 ? Integer.parseInt(parts[1].trim()) : 1;
+            if (weight < 1) {
+                throw new IllegalArgumentException("Weight of " + scenario.name + " must be at least 1");
+            }
+            cycle.addAll(Collections.nCopies(weight, scenario));
+        }
+        return cycle;
+    }
+}
@@ -0,0 +1,117 @@
+package com.automation.load;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One load generating process under a {@link LoadController}.
+ * <p>
+ * Connects to the controller (retrying until it is up), receives its share of the arrival rate,
+ * builds an {@link OpenLoopGenerator} from its own configuration ({@code -Denv}, variables,
+ * login), and streams every reporting interval's histograms back while it runs. Workers keep no
+ * results of their own; the controller merges and reports them.
+ * </p>
+ *
+ * <p><b>System properties:</b></p>
+ * <ul>
+ *     <li>{@code load.controller} - controller address, {@code host:port}</li>
+ *     <li>{@code load.connect} - seconds to keep trying to reach the controller (default 60)</li>
+ * </ul>
+ *
+ * <p><b>Usage Example:</b></p>
+ * <pre>
+ * mvn test -Pload-worker -Dload.controller=10.0.0.5:7950
+ * </pre>
+ */
+public final class LoadWorker {
+
+    private static final Logger logger = LogManager.getLogger(LoadWorker.class);
+
+    private LoadWorker() {
+        // Prevent instantiation
+    }
+
+    public static void main(String[] args) throws Exception {
+        String controller = System.getProperty("load.controller", "");
+        int colon = controller.lastIndexOf(':');
+        if (colon <= 0) {
+            throw new IllegalArgumentException("Set -Dload.controller=host:port");
+        }
+        String host = controller.substring(0, colon);
+        int port = Integer.parseInt(controller.substring(colon + 1));
+        String id = InetAddress.getLocalHost().getHostName() + "-" + ManagementFactory.getRuntimeMXBean().getPid();
+
+        try (Socket socket = connect(host, port, Integer.getInteger("load.connect", 60))) {
+            socket.setTcpNoDelay(true);
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            BufferedWriter out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+            LoadProtocol.send(out, LoadProtocol.message(LoadProtocol.HELLO).put("worker", id));
+
+            ObjectNode configure = expect(in, LoadProtocol.CONFIGURE);
+            OpenLoopGenerator generator = OpenLoopGenerator.create(configure.path("scenarios").asText(),
+                    configure.path("url").asText(), configure.path("token").asText());
+            LoadProtocol.send(out, LoadProtocol.message(LoadProtocol.READY));
+
+            ObjectNode go = expect(in, LoadProtocol.GO);
+            logger.info("Worker {} running {} req/s of the load from {}", id, configure.path("rate").asDouble(), controller);
+            generator.run(configure.path("rate").asDouble(), go.path("offsetNanos").asLong(),
+                    configure.path("warmup").asInt(), configure.path("duration").asInt(),
+                    configure.path("threads").asInt(), null,
+                    (scenario, response, service, error, errorCounts) -> {
+                        ObjectNode interval = LoadProtocol.message(LoadProtocol.INTERVAL)
+                                .put("scenario", scenario)
+                                .put("start", response.getStartTimeStamp())
+                                .put("end", response.getEndTimeStamp())
+                                .put("response", LoadProtocol.encode(response))
+                                .put("service", LoadProtocol.encode(service))
+                                .put("error", LoadProtocol.encode(error));
+                        ObjectNode errors = interval.putObject("errors");
+                        errorCounts.forEach(errors::put);
+                        try {
+                            LoadProtocol.send(out, interval);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException("Lost the controller", e);
+                        }
+                    });
+            LoadProtocol.send(out, LoadProtocol.message(LoadProtocol.DONE));
+            logger.info("Worker {} finished", id);
+        }
+    }
+
+    private static Socket connect(String host, int port, int seconds) throws IOException, InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        while (true) {
+            try {
+                return new Socket(host, port);
+            } catch (ConnectException e) {
+                if (System.nanoTime() > deadline) {
+                    throw e;
+                }
+                TimeUnit.MILLISECONDS.sleep(500);
+            }
+        }
+    }
+
+    private static ObjectNode expect(BufferedReader in, String type) throws IOException {
+        ObjectNode message = LoadProtocol.read(in);
+        if (message == null || !type.equals(message.path("type").asText())) {
+            throw new IllegalStateException("Expected '" + type + "' from the controller, got "
+                    + (message == null ? "end of stream" : message));
+        }
+        return message;
+    }
+}
@@ -0,0 +1,348 @@
+package com.automation.load;
+
+import com.automation.base.ApiService;
+import com.automation.base.ServiceContext;
+import com.automation.config.ConfigManager;
+import com.automation.recording.ReplayServer;
+import com.automation.utils.JsonUtils;
+import com.automation.utils.TokenManager;
+import com.automation.utils.VariableManager;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.restassured.response.Response;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.HdrHistogram.Recorder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop load generator: requests start at a constant arrival rate, whatever the response times.
+ * <p>
+ * Request {@code i} is due at {@code start + i / rate}. A slow response never delays the next
+ * arrival, and a request that cannot start on time (all workers busy, dispatcher paused by GC)
+ * is still timed from when it was due. Response time histograms therefore include queueing
+ * delay and are corrected for coordinated omission. Service time (from the actual send) is
+ * recorded separately, so the difference shows how far the system fell behind.
+ * </p>
+ * Per scenario ({@link LoadScenario}) it records response time, service time and the response
+ * times of failed requests (non-2xx or exceptions) in HdrHistograms, and writes to
+ * {@code target/load/<timestamp>/}:
+ * - {@code summary.json}: achieved rate, percentiles and errors by status; the rate counts the
+ * requests due in the measured window over that window, and the time the last responses took to
+ * come in after it ({@code drainSeconds}) is reported separately
+ * - {@code <scenario>.hlog}: interval histograms (HistogramLogWriter format, for HdrHistogram tools)
+ * - {@code <scenario>.hgrm}: percentile distribution of the response times
+ * <p>
+ * To go beyond what one JVM can send, {@link LoadController} splits the rate over
+ * {@link LoadWorker} processes running this generator and merges their histograms.
+ * </p>
+ * <p><b>System properties:</b></p>
+ * <ul>
+ *     <li>{@code load.rate} - requests per second, all scenarios together (default 10)</li>
+ *     <li>{@code load.duration} - measured seconds (default 30)</li>
+ *     <li>{@code load.warmup} - seconds at the same rate before measuring (default 5)</li>
+ *     <li>{@code load.scenarios} - weighted mix, e.g. {@code update-cart:3,video-view:1} (default all)</li>
+ *     <li>{@code load.workers} - concurrent requests at most; later arrivals queue (default 200)</li>
+ *     <li>{@code load.url} - base URL override, e.g. a {@code FaultProxy} or a stub</li>
+ *     <li>{@code load.token} - Buyer App token to use instead of logging in</li>
+ * </ul>
+ *
+ * <p><b>Usage Example:</b></p>
+ * <pre>
+ * mvn test -Pload -Dload.rate=50 -Dload.duration=60 -Dload.scenarios=update-cart:3,video-view:1
+ * </pre>
+ */
+public final class OpenLoopGenerator {
+
+    private static final Logger logger = LogManager.getLogger(OpenLoopGenerator.class);
+
+    private static final long REPORT_INTERVAL_MS = 5_000;
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    /**
+     * Histograms and counters of one scenario. Values are in microseconds.
+     */
+    static final class Stats {
+        final Recorder responseTime = new Recorder(SIGNIFICANT_DIGITS);
+        final Recorder serviceTime = new Recorder(SIGNIFICANT_DIGITS);
+        final Recorder errorTime = new Recorder(SIGNIFICANT_DIGITS);
+        final Histogram responseTotal = new Histogram(SIGNIFICANT_DIGITS);
+        final Histogram serviceTotal = new Histogram(SIGNIFICANT_DIGITS);
+        final Histogram errorTotal = new Histogram(SIGNIFICANT_DIGITS);
+        final Map<String, AtomicLong> errors = new ConcurrentHashMap<>();
+        HistogramLogWriter log;
+
+        /**
+         * Move the interval histograms into the totals and the log, and hand them to the listener.
+         */
+        synchronized Histogram drain(String scenario, IntervalListener listener) {
+            Histogram response = responseTime.getIntervalHistogram();
+            Histogram service = serviceTime.getIntervalHistogram();
+            Histogram error = errorTime.getIntervalHistogram();
+            responseTotal.add(response);
+            serviceTotal.add(service);
+            errorTotal.add(error);
+            if (log != null && response.getTotalCount() > 0) {
+                log.outputIntervalHistogram(response);
+            }
+            if (listener != null) {
+                Map<String, Long> errorCounts = new LinkedHashMap<>();
+                errors.forEach((status, count) -> errorCounts.put(status, count.get()));
+                listener.interval(scenario, response, service, error, errorCounts);
+            }
+            return response;
+        }
+    }
+
+    /**
+     * Receives the histograms of every reporting interval, e.g. to stream them to a {@link LoadController}.
+     */
+    @FunctionalInterface
+    interface IntervalListener {
+
+        /**
+         * @param errorCounts Errors by status since the start of the measurement (not per interval)
+         */
+        void interval(String scenario, Histogram responseTime, Histogram serviceTime, Histogram errorTime,
+                      Map<String, Long> errorCounts);
+    }
+
+    private final ServiceContext context;
+    private final String baseUrl;
+    private final String authorization;
+    private final List<LoadScenario> cycle;
+    private final Map<String, Stats> stats = new LinkedHashMap<>();
+    private volatile long measureFromNanos = Long.MAX_VALUE;
+
+    private OpenLoopGenerator(ServiceContext context, String baseUrl, String authorization, List<LoadScenario> cycle) {
+        this.context = context;
+        this.baseUrl = baseUrl;
+        this.authorization = authorization;
+        this.cycle = cycle;
+        cycle.forEach(scenario -> stats.computeIfAbsent(scenario.getName(), name -> new Stats()));
+    }
+
+    public static void main(String[] args) throws Exception {
+        double rate = Double.parseDouble(System.getProperty("load.rate", "10"));
+        int duration = Integer.getInteger("load.duration", 30);
+        int warmup = Integer.getInteger("load.warmup", 5);
+        int workers = Integer.getInteger("load.workers", 200);
+        if (rate <= 0 || duration <= 0) {
+            throw new IllegalArgumentException("load.rate and load.duration must be positive");
+        }
+        OpenLoopGenerator generator = create(System.getProperty("load.scenarios"),
+                System.getProperty("load.url", ""), System.getProperty("load.token", ""));
+
+        Path outputDir = outputDir();
+        Files.createDirectories(outputDir);
+        generator.run(rate, 0, warmup, duration, workers, outputDir, null);
+    }
+
+    /**
+     * Set up a generator from the active configuration.
+     *
+     * @param scenarios Scenario mix (see {@link LoadScenario#mix(String)})
+     * @param url       Base URL override, blank for the configured Buyer App URL
+     * @param token     Buyer App token, blank to log in
+     */
+    static OpenLoopGenerator create(String scenarios, String url, String token) {
+        List<LoadScenario> cycle = LoadScenario.mix(scenarios);
+        ConfigManager config = ConfigManager.getInstance();
+        if ("replay".equals(System.getProperty("env"))) {
+            ReplayServer.start(config);
+        }
+        VariableManager.initialize();
+        String authorization = "JWT " + (token != null && !token.isBlank() ? token : TokenManager.buyerApp().getToken());
+        ServiceContext context = ServiceContext.create(ApiService.BUYER_APP, config, false);
+        String baseUrl = url != null && !url.isBlank() ? url : context.getBaseUrl();
+        return new OpenLoopGenerator(context, baseUrl, authorization, cycle);
+    }
+
+    static Path outputDir() {
+        return Paths.get("target", "load", new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date()));
+    }
+
+    /**
+     * Generate load until the end of the measurement.
+     *
+     * @param offsetNanos Delay of the first arrival, so several generators sharing a rate interleave
+     * @param outputDir   Directory for the results, null to only stream them to the listener
+     * @param listener    Receives the interval histograms, may be null
+     */
+    void run(double rate, long offsetNanos, int warmupSeconds, int durationSeconds, int workers, Path outputDir,
+             IntervalListener listener) throws IOException, InterruptedException {
+        Map<String, PrintStream> logs = new LinkedHashMap<>();
+        if (outputDir != null) {
+            for (Map.Entry<String, Stats> entry : stats.entrySet()) {
+                PrintStream out = new PrintStream(new FileOutputStream(
+                        outputDir.resolve(entry.getKey() + ".hlog").toFile()), false, StandardCharsets.UTF_8);
+                logs.put(entry.getKey(), out);
+                entry.getValue().log = new HistogramLogWriter(out);
+                entry.getValue().log.outputLogFormatVersion();
+                entry.getValue().log.outputLegend();
+            }
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "load-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalNanos = Math.round(TimeUnit.SECONDS.toNanos(1) / rate);
+        long start = System.nanoTime() + offsetNanos;
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(durationSeconds);
+        logger.info("Open-loop load on {}: {} req/s for {} s (+{} s warm-up), mix {}, {} workers", baseUrl, rate,
+                durationSeconds, warmupSeconds, cycle.stream().map(LoadScenario::getName).toList(), workers);
+
+        long sent = 0;
+        long nextReport = measureFrom + TimeUnit.MILLISECONDS.toNanos(REPORT_INTERVAL_MS);
+        boolean measuring = false;
+        for (long i = 0; ; i++) {
+            long due = start + i * intervalNanos;
+            if (due >= end) {
+                break;
+            }
+            long wait;
+            while ((wait = due - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            if (!measuring && due >= measureFrom) {
+                // Drop warm-up samples, then start the interval log
+                measuring = true;
+                measureFromNanos = measureFrom;
+                stats.values().forEach(scenarioStats -> {
+                    scenarioStats.responseTime.reset();
+                    scenarioStats.serviceTime.reset();
+                    scenarioStats.errorTime.reset();
+                    if (scenarioStats.log != null) {
+                        scenarioStats.log.setBaseTime(System.currentTimeMillis());
+                    }
+                });
+            }
+            LoadScenario scenario = cycle.get((int) (i % cycle.size()));
+            pool.execute(() -> fire(scenario, due));
+            sent++;
+            if (measuring && System.nanoTime() >= nextReport) {
+                progress(sent, listener);
+                nextReport += TimeUnit.MILLISECONDS.toNanos(REPORT_INTERVAL_MS);
+            }
+        }
+        pool.shutdown();
+        if (!pool.awaitTermination(5, TimeUnit.MINUTES)) {
+            logger.warn("Requests still running 5 minutes after the last arrival, reporting without them");
+            pool.shutdownNow();
+        }
+        double drainSeconds = Math.max(0, (System.nanoTime() - end) / 1e9);
+        stats.forEach((name, scenarioStats) -> scenarioStats.drain(name, listener));
+        logs.values().forEach(PrintStream::close);
+        if (outputDir != null) {
+            report(stats, rate, durationSeconds, drainSeconds, outputDir);
+        }
+    }
+
+    /**
+     * Send one request that was due at {@code dueNanos}, and record it.
+     */
+    private void fire(LoadScenario scenario, long dueNanos) {
+        Stats scenarioStats = stats.get(scenario.getName());
+        long sendNanos = System.nanoTime();
+        String error = null;
+        try {
+            Response response = scenario.send(context.given()
+                    .baseUri(baseUrl)
+                    .header("Authorization", authorization));
+            int status = response.getStatusCode();
+            if (status < 200 || status >= 300) {
+                error = String.valueOf(status);
+            }
+        } catch (RuntimeException e) {
+            error = e.getClass().getSimpleName();
+        }
+        long doneNanos = System.nanoTime();
+        if (dueNanos < measureFromNanos) {
+            return;
+        }
+        long responseMicros = (doneNanos - dueNanos) / 1_000;
+        scenarioStats.responseTime.recordValue(responseMicros);
+        scenarioStats.serviceTime.recordValue((doneNanos - sendNanos) / 1_000);
+        if (error != null) {
+            scenarioStats.errorTime.recordValue(responseMicros);
+            scenarioStats.errors.computeIfAbsent(error, key -> new AtomicLong()).incrementAndGet();
+        }
+    }
+
+    private void progress(long sent, IntervalListener listener) {
+        StringBuilder line = new StringBuilder("sent ").append(sent);
+        stats.forEach((name, scenarioStats) -> {
+            Histogram interval = scenarioStats.drain(name, listener);
+            line.append(String.format(" | %s: %d done, p99 %.1f ms", name, interval.getTotalCount(),
+                    interval.getValueAtPercentile(99) / 1000.0));
+        });
+        logger.info(line.toString());
+    }
+
+    /**
+     * Write {@code summary.json} and the {@code .hgrm} files, and log the result table.
+     *
+     * @param durationSeconds Measured scheduling window, the denominator of the achieved rates
+     * @param drainSeconds    Time from the end of the window until the last response came in
+     */
+    static void report(Map<String, Stats> stats, double rate, int durationSeconds, double drainSeconds,
+                       Path outputDir) throws IOException {
+        ObjectNode summary = JsonUtils.getObjectMapper().createObjectNode();
+        summary.put("targetRate", rate);
+        summary.put("durationSeconds", durationSeconds);
+        summary.put("drainSeconds", Math.round(drainSeconds * 100) / 100.0);
+        ObjectNode scenarios = summary.putObject("scenarios");
+        logger.info(String.format("%-18s %8s %8s %9s %9s %9s %9s %9s %9s %7s", "scenario", "done", "req/s",
+                "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "svc p99", "errors"));
+        for (Map.Entry<String, Stats> entry : stats.entrySet()) {
+            Stats scenarioStats = entry.getValue();
+            Histogram response = scenarioStats.responseTotal;
+            ObjectNode node = scenarios.putObject(entry.getKey());
+            node.put("completed", response.getTotalCount());
+            node.put("achievedRate", Math.round((double) response.getTotalCount() / durationSeconds * 100) / 100.0);
+            node.set("responseTimeMs", HistogramSummary.toJson(response));
+            node.set("serviceTimeMs", HistogramSummary.toJson(scenarioStats.serviceTotal));
+            node.set("errorResponseTimeMs", HistogramSummary.toJson(scenarioStats.errorTotal));
+            ObjectNode errors = node.putObject("errors");
+            scenarioStats.errors.forEach((status, count) -> errors.put(status, count.get()));
+
+            try (PrintStream out = new PrintStream(new FileOutputStream(
+                    outputDir.resolve(entry.getKey() + ".hgrm").toFile()), false, StandardCharsets.UTF_8)) {
+                response.outputPercentileDistribution(out, 1000.0);
+            }
+            long errorCount = scenarioStats.errors.values().stream().mapToLong(AtomicLong::get).sum();
+            logger.info(String.format("%-18s %8d %8.1f %9.1f %9.1f %9.1f %9.1f %9.1f %9.1f %7d", entry.getKey(),
+                    response.getTotalCount(), (double) response.getTotalCount() / durationSeconds,
+                    response.getValueAtPercentile(50) / 1000.0, response.getValueAtPercentile(90) / 1000.0,
+                    response.getValueAtPercentile(99) / 1000.0, response.getValueAtPercentile(99.9) / 1000.0,
+                    response.getMaxValue() / 1000.0, scenarioStats.serviceTotal.getValueAtPercentile(99) / 1000.0,
+                    errorCount));
+        }
+        logger.info(String.format("Rates over the %d s window; the last responses came in %.2f s after it",
+                durationSeconds, drainSeconds));
+        Files.writeString(outputDir.resolve("summary.json"), JsonUtils.toJson(summary));
+        logger.info("Load results written to {}", outputDir);
+    }
+}
@@ -0,0 +1,447 @@
+package com.automation.load;
+
+import com.automation.base.ApiService;
+import com.automation.base.ServiceContext;
+import com.automation.config.ConfigManager;
+import com.automation.constants.BombEndpoints;
+import com.automation.constants.BuyerAppEndpoints;
+import com.automation.recording.ReplayServer;
+import com.automation.utils.JsonUtils;
+import com.automation.utils.TokenManager;
+import com.automation.utils.VariableManager;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Finds the saturation point of one endpoint by stepping up concurrency until it breaks.
+ * <p>
+ * At each level, that many users send the request back to back (closed loop, no think time) for
+ * {@code saturation.step} seconds after a short warm-up. Every request started in the measured
+ * window counts, also when it completes after the window closes; requests still running
+ * {@code saturation.grace} seconds after that are counted as timeouts (errors) with the time they
+ * had taken so far. The run stops at the first level whose
+ * p99 exceeds {@code saturation.p99}, whose error rate exceeds {@code saturation.errors}, or whose
+ * throughput falls below 90% of the best so far. A {@link ScalabilityModel} is then fitted to
+ * throughput against concurrency.
+ * </p>
+ * Reported in {@code target/saturation/<endpoint>-<timestamp>.json} and the log:
+ * - every level: throughput, p50/p90/p99, error rate, timeouts and what stopped the run
+ * - the maximum sustainable level: the highest measured concurrency within both thresholds
+ * - the fitted curve: lambda, sigma, kappa, peak concurrency and throughput, and the knee
+ * (the concurrency reaching 90% of the fitted maximum)
+ *
+ * <p><b>System properties:</b></p>
+ * <ul>
+ *     <li>{@code saturation.endpoint} - endpoint constant, e.g. {@code FEED_HOME_CATALOG} or
+ *     {@code BombEndpoints.CATALOG_ALL}, or a path together with {@code saturation.service}</li>
+ *     <li>{@code saturation.service} - {@code buyer-app} or {@code bomb}, for paths and ambiguous constants</li>
+ *     <li>{@code saturation.method} - HTTP method (default GET)</li>
+ *     <li>{@code saturation.query} - query string, e.g. {@code size=6&page=0}</li>
+ *     <li>{@code saturation.params} - path parameters, e.g. {@code sellerId=abc}; others come from
+ *     the variable of the same name</li>
+ *     <li>{@code saturation.body} - JSON body, inline or {@code @file}</li>
+ *     <li>{@code saturation.levels} - concurrency levels (default 1,2,4,8,16,32,64,128,256)</li>
+ *     <li>{@code saturation.step} - measured seconds per level (default 20)</li>
+ *     <li>{@code saturation.warmup} - unmeasured seconds at the start of each level (default 3)</li>
+ *     <li>{@code saturation.grace} - seconds to wait for requests still running when a level ends (default 10)</li>
+ *     <li>{@code saturation.p99} - p99 limit in ms (default 1000)</li>
+ *     <li>{@code saturation.errors} - error rate limit, 0 to 1 (default 0.01)</li>
+ *     <li>{@code saturation.url} - base URL override; otherwise the service URL of {@code config-${env}.properties}</li>
+ *     <li>{@code saturation.token} - token to use instead of logging in</li>
+ * </ul>
+ *
+ * <p><b>Usage Example:</b></p>
+ * <pre>
+ * mvn test -Psaturation -Dsaturation.endpoint=FEED_HOME_CATALOG -Dsaturation.query="size=6&amp;page=0&amp;suitable_for=saree" -Denv=staging
+ * mvn test -Psaturation -Dsaturation.endpoint=BombEndpoints.CATALOG_ALL -Denv=replay
+ * </pre>
+ */
+public final class SaturationFinder {
+
+    private static final Logger logger = LogManager.getLogger(SaturationFinder.class);
+
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final double THROUGHPUT_DROP = 0.9;
+    private static final double KNEE_SHARE = 0.9;
+    private static final Pattern PATH_PARAM = Pattern.compile("\\{(\\w+)}");
+
+    /**
+     * Measurements at one concurrency level.
+     */
+    private static final class Level {
+        final int concurrency;
+        final Histogram latency;
+        final long ok;
+        final long errors;
+        final long timeouts;
+        final double throughput;
+        String stop;
+
+        Level(int concurrency, Histogram latency, long ok, long errors, long timeouts, double seconds) {
+            this.concurrency = concurrency;
+            this.latency = latency;
+            this.ok = ok;
+            this.errors = errors;
+            this.timeouts = timeouts;
+            this.throughput = ok / seconds;
+        }
+
+        double errorRate() {
+            return ok + errors == 0 ? 1 : (double) errors / (ok + errors);
+        }
+    }
+
+    private final ServiceContext context;
+    private final String baseUrl;
+    private final String authHeader;
+    private final String authorization;
+    private final String method;
+    private final String path;
+    private final Map<String, String> query;
+    private final Map<String, String> pathParams;
+    private final String body;
+
+    private SaturationFinder(ServiceContext context, String baseUrl, String authHeader, String authorization,
+                             String method, String path, Map<String, String> query,
+                             Map<String, String> pathParams, String body) {
+        this.context = context;
+        this.baseUrl = baseUrl;
+        this.authHeader = authHeader;
+        this.authorization = authorization;
+        this.method = method;
+        this.path = path;
+        this.query = query;
+        this.pathParams = pathParams;
+        this.body = body;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String endpoint = System.getProperty("saturation.endpoint", "");
+        if (endpoint.isBlank()) {
+            throw new IllegalArgumentException("Set -Dsaturation.endpoint to an endpoint constant or path");
+        }
+        String serviceName = System.getProperty("saturation.service", "");
+        ApiService service = serviceName.isBlank() ? null
+                : ApiService.valueOf(serviceName.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+        Map.Entry<ApiService, String> resolved = resolve(endpoint.trim(), service);
+        service = resolved.getKey();
+
+        ConfigManager config = ConfigManager.getInstance();
+        if ("replay".equals(System.getProperty("env"))) {
+            ReplayServer.start(config);
+        }
+        VariableManager.initialize();
+        ServiceContext context = ServiceContext.create(service, config, false);
+        String baseUrl = System.getProperty("saturation.url", "");
+        if (baseUrl.isBlank()) {
+            baseUrl = context.getBaseUrl();
+        }
+        String token = System.getProperty("saturation.token", "");
+        if (token.isBlank()) {
+            token = (service == ApiService.BOMB ? TokenManager.bomb() : TokenManager.buyerApp()).getToken();
+        }
+        // BOMB suites send the lower-case header
+        String authHeader = service == ApiService.BOMB ? "authorization" : "Authorization";
+
+        Map<String, String> pathParams = pairs(System.getProperty("saturation.params", ""), ",");
+        Matcher matcher = PATH_PARAM.matcher(resolved.getValue());
+        while (matcher.find()) {
+            pathParams.computeIfAbsent(matcher.group(1), VariableManager::get);
+            if (pathParams.get(matcher.group(1)) == null) {
+                throw new IllegalArgumentException("No value for path parameter " + matcher.group(1)
+                        + ", set -Dsaturation.params=" + matcher.group(1) + "=...");
+            }
+        }
+        String body = System.getProperty("saturation.body", "");
+        if (body.startsWith("@")) {
+            body = Files.readString(Paths.get(body.substring(1)));
+        }
+
+        SaturationFinder finder = new SaturationFinder(context, baseUrl, authHeader, "JWT " + token,
+                System.getProperty("saturation.method", "GET").toUpperCase(Locale.ROOT), resolved.getValue(),
+                pairs(System.getProperty("saturation.query", ""), "&"), pathParams, body.isBlank() ? null : body);
+        int[] levels = Arrays.stream(System.getProperty("saturation.levels", "1,2,4,8,16,32,64,128,256").split(","))
+                .map(String::trim)
+                .mapToInt(Integer::parseInt)
+                .toArray();
+        finder.run(endpoint, service, levels, Integer.getInteger("saturation.warmup", 3),
+                Integer.getInteger("saturation.step", 20), Integer.getInteger("saturation.grace", 10),
+                Double.parseDouble(System.getProperty("saturation.p99", "1000")),
+                Double.parseDouble(System.getProperty("saturation.errors", "0.01")));
+    }
+
+    /**
+     * Resolve an endpoint constant ({@code NAME} or {@code Class.NAME}) or a path to its service and path.
+     */
+    static Map.Entry<ApiService, String> resolve(String endpoint, ApiService service) {
+        if (endpoint.startsWith("/")) {
+            if (service == null) {
+                throw new IllegalArgumentException("Set -Dsaturation.service=buyer-app|bomb for path " + endpoint);
+            }
+            return Map.entry(service, endpoint);
+        }
+        String name = endpoint;
+        List<Class<?>> classes = new ArrayList<>(List.of(BuyerAppEndpoints.class, BombEndpoints.class));
+        int dot = endpoint.lastIndexOf('.');
+        if (dot > 0) {
+            String owner = endpoint.substring(0, dot);
+            name = endpoint.substring(dot + 1);
+            classes.removeIf(type -> !type.getSimpleName().equals(owner));
+        }
+        List<Map.Entry<ApiService, String>> matches = new ArrayList<>();
+        for (Class<?> type : classes) {
+            ApiService owner = type == BombEndpoints.class ? ApiService.BOMB : ApiService.BUYER_APP;
+            if (service != null && service != owner) {
+                continue;
+            }
+            for (Field field : type.getFields()) {
+                if (Modifier.isStatic(field.getModifiers()) && field.getType() == String.class
+                        && field.getName().equals(name)) {
+                    try {
+                        matches.add(Map.entry(owner, (String) field.get(null)));
+                    } catch (IllegalAccessException e) {
+                        throw new RuntimeException("Failed to read endpoint " + endpoint, e);
+                    }
+                }
+            }
+        }
+        if (matches.size() != 1) {
+            throw new IllegalArgumentException(matches.isEmpty()
+                    ? "Unknown endpoint " + endpoint
+                    : "Endpoint " + endpoint + " exists in both BuyerAppEndpoints and BombEndpoints, qualify it");
+        }
+        return matches.get(0);
+    }
+
+    private static Map<String, String> pairs(String value, String separator) {
+        Map<String, String> pairs = new LinkedHashMap<>();
+        for (String pair : value.split(Pattern.quote(separator))) {
+            int equals = pair.indexOf('=');
+            if (equals > 0) {
+                pairs.put(pair.substring(0, equals).trim(), pair.substring(equals + 1).trim());
+            }
+        }
+        return pairs;
+    }
+
+    private void run(String endpoint, ApiService service, int[] levels, int warmupSeconds, int stepSeconds,
+                     int graceSeconds, double p99LimitMs, double errorLimit) throws IOException, InterruptedException {
+        logger.info("Saturation search for {} {} on {}: levels {}, {} s each (+{} s warm-up), limits p99 {} ms, errors {}",
+                method, path, baseUrl, Arrays.toString(levels), stepSeconds, warmupSeconds, p99LimitMs, errorLimit);
+        List<Level> measured = new ArrayList<>();
+        double best = 0;
+        for (int concurrency : levels) {
+            Level level = measure(concurrency, warmupSeconds, stepSeconds, graceSeconds);
+            measured.add(level);
+            double p99 = HistogramSummary.millis(level.latency, 99);
+            logger.info(String.format("concurrency %4d: %8.1f req/s, p50 %7.1f ms, p99 %7.1f ms, errors %5.2f%%%s",
+                    concurrency, level.throughput, HistogramSummary.millis(level.latency, 50), p99,
+                    level.errorRate() * 100, level.timeouts > 0 ? " (" + level.timeouts + " timed out)" : ""));
+            if (p99 > p99LimitMs) {
+                level.stop = "p99";
+            } else if (level.errorRate() > errorLimit) {
+                level.stop = "errors";
+            } else if (level.throughput < best * THROUGHPUT_DROP) {
+                level.stop = "throughput";
+            }
+            if (level.stop != null) {
+                logger.info("Stopping at concurrency {}: {} limit crossed", concurrency, level.stop);
+                break;
+            }
+            best = Math.max(best, level.throughput);
+        }
+        report(endpoint, service, measured, p99LimitMs, errorLimit);
+    }
+
+    /**
+     * Run {@code concurrency} users back to back for one level.
+     */
+    private Level measure(int concurrency, int warmupSeconds, int stepSeconds, int graceSeconds)
+            throws InterruptedException {
+        Recorder latency = new Recorder(SIGNIFICANT_DIGITS);
+        AtomicLong ok = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+        long measureFrom = System.nanoTime() + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(stepSeconds);
+        // Start of each user's measured request in flight, 0 when idle; guarded by starts itself
+        long[] starts = new long[concurrency];
+        AtomicBoolean closed = new AtomicBoolean();
+        ExecutorService pool = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "saturation-user");
+            thread.setDaemon(true);
+            return thread;
+        });
+        CountDownLatch done = new CountDownLatch(concurrency);
+        for (int user = 0; user < concurrency; user++) {
+            int slot = user;
+            pool.execute(() -> {
+                try {
+                    long now;
+                    while ((now = System.nanoTime()) < end) {
+                        boolean measured = now >= measureFrom;
+                        if (measured) {
+                            synchronized (starts) {
+                                starts[slot] = now;
+                            }
+                        }
+                        boolean success = send();
+                        long finished = System.nanoTime();
+                        if (measured) {
+                            synchronized (starts) {
+                                if (closed.get()) {
+                                    return;
+                                }
+                                starts[slot] = 0;
+                                latency.recordValue((finished - now) / 1_000);
+                                (success ? ok : errors).incrementAndGet();
+                            }
+                        }
+                    }
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        long timeouts = 0;
+        if (!done.await(end + TimeUnit.SECONDS.toNanos(graceSeconds) - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+            long cutoff = System.nanoTime();
+            synchronized (starts) {
+                closed.set(true);
+                for (long start : starts) {
+                    if (start != 0) {
+                        latency.recordValue((cutoff - start) / 1_000);
+                        timeouts++;
+                    }
+                }
+            }
+            logger.warn("Concurrency {}: {} requests still running {} s after the level ended, counted as timeouts",
+                    concurrency, timeouts, graceSeconds);
+        }
+        pool.shutdownNow();
+        return new Level(concurrency, latency.getIntervalHistogram(), ok.get(), errors.get() + timeouts, timeouts,
+                stepSeconds);
+    }
+
+    private boolean send() {
+        try {
+            RequestSpecification request = context.given()
+                    .baseUri(baseUrl)
+                    .header(authHeader, authorization)
+                    .queryParams(query)
+                    .pathParams(pathParams);
+            if (body != null) {
+                request.body(body);
+            }
+            Response response = request.request(method, path);
+            int status = response.getStatusCode();
+            return status >= 200 && status < 300;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    private void report(String endpoint, ApiService service, List<Level> levels, double p99LimitMs,
+                        double errorLimit) throws IOException {
+        ObjectNode summary = JsonUtils.getObjectMapper().createObjectNode();
+        summary.put("endpoint", endpoint);
+        summary.put("service", service.name());
+        summary.put("method", method);
+        summary.put("path", path);
+        summary.put("baseUrl", baseUrl);
+        summary.put("p99LimitMs", p99LimitMs);
+        summary.put("errorRateLimit", errorLimit);
+        ArrayNode levelsNode = summary.putArray("levels");
+        Level sustainable = null;
+        for (Level level : levels) {
+            ObjectNode node = levelsNode.addObject();
+            node.put("concurrency", level.concurrency);
+            node.put("throughput", Math.round(level.throughput * 100) / 100.0);
+            node.put("errorRate", Math.round(level.errorRate() * 10_000) / 10_000.0);
+            node.put("timeouts", level.timeouts);
+            node.set("latencyMs", HistogramSummary.toJson(level.latency));
+            if (level.stop != null) {
+                node.put("stop", level.stop);
+            } else if (sustainable == null || level.throughput >= sustainable.throughput) {
+                sustainable = level;
+            }
+        }
+        if (sustainable != null) {
+            ObjectNode node = summary.putObject("maxSustainable");
+            node.put("concurrency", sustainable.concurrency);
+            node.put("throughput", Math.round(sustainable.throughput * 100) / 100.0);
+            node.put("p99Ms", HistogramSummary.millis(sustainable.latency, 99));
+            logger.info("Max sustainable: {} req/s at concurrency {} (p99 {} ms)",
+                    node.get("throughput"), sustainable.concurrency, node.get("p99Ms"));
+        } else {
+            logger.warn("Even concurrency {} crossed a limit, lower saturation.levels", levels.get(0).concurrency);
+        }
+
+        List<Level> usable = levels.stream().filter(level -> level.ok > 0).toList();
+        if (usable.size() >= 2) {
+            ScalabilityModel model = ScalabilityModel.fit(
+                    usable.stream().mapToInt(level -> level.concurrency).toArray(),
+                    usable.stream().mapToDouble(level -> level.throughput).toArray());
+            ObjectNode node = summary.putObject("usl");
+            node.put("lambda", round(model.getLambda()));
+            node.put("sigma", round(model.getSigma()));
+            node.put("kappa", round(model.getKappa()));
+            node.put("rSquared", round(model.getRSquared()));
+            if (Double.isFinite(model.peakConcurrency())) {
+                node.put("peakConcurrency", round(model.peakConcurrency()));
+            }
+            if (Double.isFinite(model.maxThroughput())) {
+                node.put("maxThroughput", round(model.maxThroughput()));
+            }
+            Integer knee = model.knee(KNEE_SHARE);
+            if (knee != null) {
+                node.put("knee", knee);
+            }
+            logger.info("USL fit: lambda {} req/s, sigma {}, kappa {}, R2 {}; peak {} req/s at concurrency {}, knee at {}",
+                    node.get("lambda"), node.get("sigma"), node.get("kappa"), node.get("rSquared"),
+                    node.has("maxThroughput") ? node.get("maxThroughput") : "unbounded",
+                    node.has("peakConcurrency") ? node.get("peakConcurrency") : "-", knee != null ? knee : "-");
+        } else {
+            logger.warn("Too few levels with successful requests to fit a scalability curve");
+        }
+
+        Path outputDir = Paths.get("target", "saturation");
+        Files.createDirectories(outputDir);
+        Path file = outputDir.resolve(endpoint.replaceAll("[^A-Za-z0-9_.-]+", "_") + "-"
+                + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date()) + ".json");
+        Files.writeString(file, JsonUtils.toJson(summary));
+        logger.info("Saturation results written to {}", file);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 10_000) / 10_000.0;
+    }
+}
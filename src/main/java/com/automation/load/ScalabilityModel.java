@@ -0,0 +1,177 @@
+package com.automation.load;
+
+/**
+ * Universal Scalability Law fitted to throughput measured at several concurrency levels.
+ * <p>
+ * {@code X(N) = lambda * N / (1 + sigma * (N - 1) + kappa * N * (N - 1))}, where {@code lambda} is
+ * the throughput of one user, {@code sigma} the contention (serialised share of the work) and
+ * {@code kappa} the coherency cost (crosstalk between users). With {@code kappa > 0} throughput
+ * peaks at {@code N* = sqrt((1 - sigma) / kappa)} and falls beyond it.
+ * </p>
+ * For each candidate {@code lambda} the fit solves the linearised form
+ * {@code N / (X / lambda) - 1 = sigma * (N - 1) + kappa * N * (N - 1)} by least squares, with both
+ * coefficients kept non-negative, and keeps the candidate whose curve is closest to the measured
+ * throughput. A slow first level (cold JIT, empty caches) therefore does not skew the whole curve.
+ */
+public final class ScalabilityModel {
+
+    private static final int LAMBDA_STEPS = 400;
+
+    private final double lambda;
+    private final double sigma;
+    private final double kappa;
+    private final double rSquared;
+    private final double residual;
+
+    private ScalabilityModel(double lambda, double sigma, double kappa, double rSquared, double residual) {
+        this.lambda = lambda;
+        this.sigma = sigma;
+        this.kappa = kappa;
+        this.rSquared = rSquared;
+        this.residual = residual;
+    }
+
+    /**
+     * Fit the model to measurements.
+     *
+     * @param concurrency Concurrency levels, ascending
+     * @param throughput  Throughput measured at each level
+     * @throws IllegalArgumentException with fewer than two levels or no throughput at all
+     */
+    public static ScalabilityModel fit(int[] concurrency, double[] throughput) {
+        if (concurrency.length != throughput.length || concurrency.length < 2) {
+            throw new IllegalArgumentException("Need throughput at two or more concurrency levels");
+        }
+        double perUser = 0;
+        for (int i = 0; i < concurrency.length; i++) {
+            perUser = Math.max(perUser, throughput[i] / concurrency[i]);
+        }
+        if (perUser <= 0) {
+            throw new IllegalArgumentException("No throughput measured");
+        }
+        // With sigma, kappa >= 0 no level exceeds lambda per user; scan upwards from there
+        ScalabilityModel best = null;
+        for (int step = 0; step <= LAMBDA_STEPS; step++) {
+            ScalabilityModel model = fit(concurrency, throughput, perUser * (1 + 2.0 * step / LAMBDA_STEPS));
+            if (best == null || model.residual < best.residual) {
+                best = model;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Least-squares sigma and kappa for a given lambda.
+     */
+    private static ScalabilityModel fit(int[] concurrency, double[] throughput, double lambda) {
+        // Normal equations of y = sigma * a + kappa * b, without intercept
+        double aa = 0, ab = 0, bb = 0, ay = 0, by = 0;
+        for (int i = 0; i < concurrency.length; i++) {
+            if (throughput[i] <= 0) {
+                continue;
+            }
+            double n = concurrency[i];
+            double y = n / (throughput[i] / lambda) - 1;
+            double a = n - 1;
+            double b = n * (n - 1);
+            aa += a * a;
+            ab += a * b;
+            bb += b * b;
+            ay += a * y;
+            by += b * y;
+        }
+        double sigma;
+        double kappa;
+        double determinant = aa * bb - ab * ab;
+        if (Math.abs(determinant) < 1e-12) {
+            sigma = aa > 0 ? ay / aa : 0;
+            kappa = 0;
+        } else {
+            sigma = (ay * bb - by * ab) / determinant;
+            kappa = (aa * by - ab * ay) / determinant;
+        }
+        // Negative coefficients are noise (or superlinear caching); refit with the other alone
+        if (kappa < 0) {
+            kappa = 0;
+            sigma = aa > 0 ? ay / aa : 0;
+        }
+        if (sigma < 0) {
+            sigma = 0;
+            kappa = bb > 0 ? Math.max(0, by / bb) : 0;
+        }
+
+        ScalabilityModel model = new ScalabilityModel(lambda, sigma, kappa, 0, 0);
+        double mean = 0;
+        for (double x : throughput) {
+            mean += x;
+        }
+        mean /= throughput.length;
+        double residual = 0, total = 0;
+        for (int i = 0; i < concurrency.length; i++) {
+            residual += Math.pow(throughput[i] - model.throughput(concurrency[i]), 2);
+            total += Math.pow(throughput[i] - mean, 2);
+        }
+        return new ScalabilityModel(lambda, sigma, kappa, total > 0 ? 1 - residual / total : 1, residual);
+    }
+
+    /**
+     * Predicted throughput at concurrency {@code n}.
+     */
+    public double throughput(double n) {
+        return lambda * n / (1 + sigma * (n - 1) + kappa * n * (n - 1));
+    }
+
+    /**
+     * Concurrency of maximum throughput, or infinity when the model never turns down.
+     */
+    public double peakConcurrency() {
+        return kappa > 0 ? Math.sqrt(Math.max(0, 1 - sigma) / kappa) : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Maximum throughput: at the peak, or the asymptote {@code lambda / sigma} without coherency
+     * cost (infinity for linear scaling).
+     */
+    public double maxThroughput() {
+        if (kappa > 0) {
+            return throughput(Math.max(1, peakConcurrency()));
+        }
+        return sigma > 0 ? lambda / sigma : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Knee of the curve: the concurrency at which throughput reaches {@code share} (e.g. 0.9) of
+     * the modelled maximum, beyond which more concurrency buys little. Null for linear scaling.
+     */
+    public Integer knee(double share) {
+        double target = maxThroughput() * share;
+        if (Double.isInfinite(target)) {
+            return null;
+        }
+        for (int n = 1; n <= 1_000_000; n++) {
+            if (throughput(n) >= target) {
+                return n;
+            }
+        }
+        return null;
+    }
+
+    public double getLambda() {
+        return lambda;
+    }
+
+    public double getSigma() {
+        return sigma;
+    }
+
+    public double getKappa() {
+        return kappa;
+    }
+
+    /**
+     * Coefficient of determination of the fitted throughput against the measurements.
+     */
+    public double getRSquared() {
+        return rSquared;
+    }
+}
@@ -0,0 +1,141 @@
+package com.automation.proxy;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * One fault rule of {@link FaultProxy}: which requests it applies to and what happens to them.
+ * <p>
+ * All faults are optional and combine, in this order:
+ * - {@code resetProbability} before forwarding: the connection is reset (TCP RST), nothing reaches upstream
+ * - {@code errorBurst} / {@code errorProbability}: answer {@code errorStatus} without forwarding
+ * - {@code latency}: delay before the response is sent
+ * - {@code bandwidthBytesPerSecond}: throttle the whole response
+ * - {@code slowBodyChunkBytes} / {@code slowBodyIntervalMs}: headers at once, then the body in chunks
+ * - {@code resetMidBodyProbability}: reset the connection after half of the body
+ * </p>
+ *
+ * <p><b>Usage Example:</b></p>
+ * <pre>
+ * proxy.add(Fault.builder().path("/v1/admin/catalog.*")
+ *         .latency(Fault.Latency.logNormal(120, 900))
+ *         .errorStatus(429).errorBurst(3).retryAfterSeconds(1)
+ *         .build());
+ * </pre>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class Fault {
+
+    /**
+     * HTTP method to match, any when null.
+     */
+    private String method;
+
+    /**
+     * Regular expression the request path (without query) must match entirely, any when null.
+     */
+    private String path;
+
+    private Latency latency;
+    private Integer bandwidthBytesPerSecond;
+    private Integer slowBodyChunkBytes;
+    private Integer slowBodyIntervalMs;
+    private Double resetProbability;
+    private Double resetMidBodyProbability;
+
+    /**
+     * Status answered by error bursts and random errors (e.g. 429, 500, 503).
+     */
+    private Integer errorStatus;
+
+    /**
+     * Number of matching requests, from now on, answered with {@code errorStatus}.
+     */
+    private Integer errorBurst;
+
+    /**
+     * Probability of answering {@code errorStatus} once the burst is used up.
+     */
+    private Double errorProbability;
+
+    /**
+     * {@code Retry-After} header sent with error responses.
+     */
+    private Integer retryAfterSeconds;
+
+    /**
+     * Latency distribution, sampled per request.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Latency {
+
+        /**
+         * fixed, uniform, normal or lognormal.
+         */
+        private String type;
+
+        /**
+         * fixed: the delay; uniform: lower bound; normal: mean; lognormal: median.
+         */
+        private long ms;
+
+        /**
+         * uniform: upper bound; normal: standard deviation; lognormal: 99th percentile.
+         */
+        private long spreadMs;
+
+        public static Latency fixed(long ms) {
+            return new Latency("fixed", ms, 0);
+        }
+
+        public static Latency uniform(long minMs, long maxMs) {
+            return new Latency("uniform", minMs, maxMs);
+        }
+
+        public static Latency normal(long meanMs, long stdDevMs) {
+            return new Latency("normal", meanMs, stdDevMs);
+        }
+
+        /**
+         * Long-tailed latency with the given median and 99th percentile.
+         */
+        public static Latency logNormal(long medianMs, long p99Ms) {
+            return new Latency("lognormal", medianMs, p99Ms);
+        }
+
+        long sampleMs() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            switch (type == null ? "fixed" : type.toLowerCase(Locale.ROOT)) {
+                case "uniform":
+                    return spreadMs <= ms ? ms : random.nextLong(ms, spreadMs + 1);
+                case "normal":
+                    return Math.max(0, Math.round(ms + random.nextGaussian() * spreadMs));
+                case "lognormal":
+                    // p99 = median * e^(2.326 sigma)
+                    double sigma = spreadMs > ms && ms > 0 ? Math.log((double) spreadMs / ms) / 2.326 : 0;
+                    return Math.round(ms * Math.exp(random.nextGaussian() * sigma));
+                case "fixed":
+                    return ms;
+                default:
+                    throw new IllegalArgumentException("Unknown latency type '" + type
+                            + "', expected fixed, uniform, normal or lognormal");
+            }
+        }
+    }
+}
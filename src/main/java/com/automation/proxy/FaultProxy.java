@@ -0,0 +1,550 @@
+package com.automation.proxy;
+
+import com.automation.utils.JsonUtils;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Local HTTP proxy that injects latency and faults between the framework and a backend.
+ * <p>
+ * Point a client at {@link #baseUrl()} instead of the backend (the replay stub, the pipeline stub or
+ * a real API); every request is forwarded to the upstream unless a {@link Fault} rule says otherwise.
+ * The first rule whose method and path match a request applies to it. Faults happen on the raw
+ * client connection, so resets are real TCP resets and slow bodies really trickle, which is what
+ * exercises client timeouts, retries, rate limiting and circuit breaking.
+ * </p>
+ *
+ * <p><b>Control:</b></p>
+ * <ul>
+ *     <li>In the same JVM: {@link #add(Fault)}, {@link #clear()}, {@link #stats()}</li>
+ *     <li>From anywhere: {@code PUT /__proxy/faults} with a JSON array of rules replaces them,
+ *     {@code DELETE /__proxy/faults} removes them, {@code GET /__proxy/stats} returns the counters</li>
+ * </ul>
+ *
+ * <p><b>System properties</b> (standalone, {@code java com.automation.proxy.FaultProxy}):</p>
+ * <ul>
+ *     <li>{@code proxy.upstream} - backend base URL (required)</li>
+ *     <li>{@code proxy.port} - listen port (default 7900)</li>
+ *     <li>{@code proxy.faults} - JSON file with the initial rules</li>
+ * </ul>
+ *
+ * <p><b>Usage Example:</b></p>
+ * <pre>
+ * FaultProxy proxy = FaultProxy.start("http://127.0.0.1:7801", 0);
+ * proxy.add(Fault.builder().method("GET").path("/v1/admin/catalog")
+ *         .errorStatus(503).errorBurst(2).build());
+ * serviceContext.given().baseUri(proxy.baseUrl()).get(BombEndpoints.CATALOG);
+ * </pre>
+ */
+public final class FaultProxy {
+
+    private static final Logger logger = LogManager.getLogger(FaultProxy.class);
+
+    private static final String CONTROL_FAULTS = "/__proxy/faults";
+    private static final String CONTROL_STATS = "/__proxy/stats";
+    private static final int MAX_HEAD_BYTES = 64 * 1024;
+    private static final int END_OF_HEAD = 0x0D0A0D0A;
+    private static final long THROTTLE_TICK_MS = 50;
+    private static final Set<String> HOP_BY_HOP = Set.of("connection", "keep-alive", "proxy-connection",
+            "transfer-encoding", "te", "trailer", "upgrade", "content-length", "host", "expect");
+    private static final Pattern HEADER_SPLIT = Pattern.compile(":\\s*");
+    private static final Map<Integer, String> REASONS = Map.of(200, "OK", 201, "Created", 204, "No Content",
+            400, "Bad Request", 401, "Unauthorized", 404, "Not Found", 429, "Too Many Requests",
+            500, "Internal Server Error", 502, "Bad Gateway", 503, "Service Unavailable");
+
+    private final String upstream;
+    private final ServerSocket serverSocket;
+    private final ExecutorService connections;
+    private final HttpClient client;
+    private final List<Rule> rules = new CopyOnWriteArrayList<>();
+    private final AtomicLong forwarded = new AtomicLong();
+    private final AtomicLong upstreamFailures = new AtomicLong();
+    private volatile boolean running = true;
+
+    /**
+     * A fault rule with its compiled path and live counters.
+     */
+    private static final class Rule {
+        final Fault fault;
+        final Pattern path;
+        final AtomicInteger burstLeft;
+        final AtomicLong matched = new AtomicLong();
+        final AtomicLong resets = new AtomicLong();
+        final AtomicLong errors = new AtomicLong();
+        final AtomicLong delayedMs = new AtomicLong();
+
+        Rule(Fault fault) {
+            this.fault = fault;
+            this.path = fault.getPath() == null ? null : Pattern.compile(fault.getPath());
+            this.burstLeft = new AtomicInteger(fault.getErrorBurst() == null ? 0 : fault.getErrorBurst());
+        }
+
+        boolean matches(String method, String requestPath) {
+            return (fault.getMethod() == null || fault.getMethod().equalsIgnoreCase(method))
+                    && (path == null || path.matcher(requestPath).matches());
+        }
+
+        boolean error() {
+            if (fault.getErrorStatus() == null) {
+                return false;
+            }
+            return burstLeft.getAndUpdate(left -> Math.max(0, left - 1)) > 0 || chance(fault.getErrorProbability());
+        }
+    }
+
+    /**
+     * A parsed client request.
+     */
+    private static final class Request {
+        String method;
+        String target;
+        String path;
+        final Map<String, List<String>> headers = new LinkedHashMap<>();
+        byte[] body = new byte[0];
+
+        String header(String name) {
+            List<String> values = headers.get(name.toLowerCase(Locale.ROOT));
+            return values == null || values.isEmpty() ? null : values.get(0);
+        }
+    }
+
+    private FaultProxy(String upstream, int port) throws IOException {
+        this.upstream = upstream.endsWith("/") ? upstream.substring(0, upstream.length() - 1) : upstream;
+        this.serverSocket = new ServerSocket();
+        serverSocket.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 256);
+        this.connections = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "fault-proxy");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+    }
+
+    /**
+     * Start a proxy to {@code upstream} on the loopback interface.
+     *
+     * @param port port to listen on, 0 for any free port
+     * @throws RuntimeException if the port is taken
+     */
+    public static FaultProxy start(String upstream, int port) {
+        try {
+            FaultProxy proxy = new FaultProxy(upstream, port);
+            Thread acceptor = new Thread(proxy::acceptLoop, "fault-proxy-accept");
+            acceptor.setDaemon(true);
+            acceptor.start();
+            logger.info("Fault proxy listening on {} for {}", proxy.baseUrl(), proxy.upstream);
+            return proxy;
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to start fault proxy on port " + port + ": " + e.getMessage(), e);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        String upstream = System.getProperty("proxy.upstream");
+        if (upstream == null || upstream.isBlank()) {
+            throw new IllegalArgumentException("Set -Dproxy.upstream=<backend base URL>");
+        }
+        FaultProxy proxy = start(upstream, Integer.getInteger("proxy.port", 7900));
+        String faults = System.getProperty("proxy.faults", "");
+        if (!faults.isBlank()) {
+            proxy.replace(JsonUtils.getObjectMapper().readValue(Files.readAllBytes(Paths.get(faults)),
+                    new TypeReference<List<Fault>>() { }));
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(proxy::stop, "fault-proxy-stop"));
+        Thread.currentThread().join();
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + serverSocket.getLocalPort();
+    }
+
+    /**
+     * Add a rule after the existing ones.
+     */
+    public FaultProxy add(Fault fault) {
+        rules.add(new Rule(fault));
+        logger.info("Fault rule added: {}", fault);
+        return this;
+    }
+
+    /**
+     * Replace all rules; counters start from zero.
+     */
+    public void replace(List<Fault> faults) {
+        List<Rule> replacement = new ArrayList<>();
+        faults.forEach(fault -> replacement.add(new Rule(fault)));
+        rules.clear();
+        rules.addAll(replacement);
+        logger.info("Fault rules replaced: {} rules", faults.size());
+    }
+
+    /**
+     * Remove all rules: every request is forwarded untouched.
+     */
+    public void clear() {
+        rules.clear();
+    }
+
+    /**
+     * Counters: requests forwarded, upstream failures and, per rule, matches, resets, errors and added delay.
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("forwarded", forwarded.get());
+        stats.put("upstreamFailures", upstreamFailures.get());
+        List<Map<String, Object>> ruleStats = new ArrayList<>();
+        for (Rule rule : rules) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("method", rule.fault.getMethod());
+            entry.put("path", rule.fault.getPath());
+            entry.put("matched", rule.matched.get());
+            entry.put("resets", rule.resets.get());
+            entry.put("errors", rule.errors.get());
+            entry.put("delayedMs", rule.delayedMs.get());
+            ruleStats.add(entry);
+        }
+        stats.put("rules", ruleStats);
+        return stats;
+    }
+
+    public void stop() {
+        running = false;
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            // Already closed
+        }
+        connections.shutdownNow();
+        logger.info("Fault proxy stopped: {}", stats());
+    }
+
+    private void acceptLoop() {
+        while (running) {
+            try {
+                Socket socket = serverSocket.accept();
+                connections.execute(() -> serve(socket));
+            } catch (IOException e) {
+                if (running) {
+                    logger.warn("Fault proxy accept failed: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Serve one keep-alive client connection until it closes or a fault resets it.
+     */
+    private void serve(Socket socket) {
+        try (Socket connection = socket) {
+            connection.setTcpNoDelay(true);
+            InputStream in = connection.getInputStream();
+            OutputStream out = connection.getOutputStream();
+            Request request;
+            while ((request = readRequest(in)) != null) {
+                if (!handle(connection, request, out)) {
+                    return;
+                }
+                if ("close".equalsIgnoreCase(request.header("connection"))) {
+                    return;
+                }
+            }
+        } catch (SocketException e) {
+            // Client went away
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Fault proxy connection failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * @return Whether the connection can be reused
+     */
+    private boolean handle(Socket connection, Request request, OutputStream out) throws IOException {
+        if (request.path.startsWith("/__proxy/")) {
+            control(request, out);
+            return true;
+        }
+        Rule rule = rules.stream().filter(candidate -> candidate.matches(request.method, request.path))
+                .findFirst().orElse(null);
+        Fault fault = rule == null ? new Fault() : rule.fault;
+        if (rule != null) {
+            rule.matched.incrementAndGet();
+        }
+
+        if (rule != null && chance(fault.getResetProbability())) {
+            rule.resets.incrementAndGet();
+            reset(connection);
+            return false;
+        }
+
+        int status;
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        byte[] body;
+        if (rule != null && rule.error()) {
+            rule.errors.incrementAndGet();
+            status = fault.getErrorStatus();
+            headers.put("Content-Type", List.of("application/json"));
+            if (fault.getRetryAfterSeconds() != null) {
+                headers.put("Retry-After", List.of(String.valueOf(fault.getRetryAfterSeconds())));
+            }
+            body = ("{\"statusCode\":\"" + status + "\",\"message\":\"Injected by fault proxy\"}")
+                    .getBytes(StandardCharsets.UTF_8);
+        } else {
+            HttpResponse<byte[]> response = forward(request);
+            if (response == null) {
+                status = 502;
+                headers.put("Content-Type", List.of("application/json"));
+                body = "{\"statusCode\":\"502\",\"message\":\"Upstream unreachable\"}".getBytes(StandardCharsets.UTF_8);
+            } else {
+                status = response.statusCode();
+                response.headers().map().forEach((name, values) -> {
+                    if (!HOP_BY_HOP.contains(name.toLowerCase(Locale.ROOT)) && !name.startsWith(":")) {
+                        headers.put(name, values);
+                    }
+                });
+                body = response.body();
+            }
+        }
+
+        if (fault.getLatency() != null) {
+            long delay = fault.getLatency().sampleMs();
+            rule.delayedMs.addAndGet(delay);
+            sleep(delay);
+        }
+
+        byte[] head = head(status, headers, body.length);
+        boolean resetMidBody = rule != null && body.length > 1 && chance(fault.getResetMidBodyProbability());
+        int bodyBytes = resetMidBody ? body.length / 2 : body.length;
+        if (fault.getSlowBodyChunkBytes() != null && fault.getSlowBodyIntervalMs() != null) {
+            out.write(head);
+            out.flush();
+            trickle(out, body, bodyBytes, fault.getSlowBodyChunkBytes(), fault.getSlowBodyIntervalMs());
+        } else if (fault.getBandwidthBytesPerSecond() != null && fault.getBandwidthBytesPerSecond() > 0) {
+            int chunk = (int) Math.max(1, fault.getBandwidthBytesPerSecond() * THROTTLE_TICK_MS / 1000);
+            byte[] all = new byte[head.length + bodyBytes];
+            System.arraycopy(head, 0, all, 0, head.length);
+            System.arraycopy(body, 0, all, head.length, bodyBytes);
+            trickle(out, all, all.length, chunk, THROTTLE_TICK_MS);
+        } else {
+            out.write(head);
+            out.write(body, 0, bodyBytes);
+            out.flush();
+        }
+        if (resetMidBody) {
+            rule.resets.incrementAndGet();
+            reset(connection);
+            return false;
+        }
+        return true;
+    }
+
+    private HttpResponse<byte[]> forward(Request request) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(upstream + request.target))
+                .timeout(Duration.ofSeconds(60))
+                .method(request.method, request.body.length == 0
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofByteArray(request.body));
+        request.headers.forEach((name, values) -> {
+            if (!HOP_BY_HOP.contains(name)) {
+                values.forEach(value -> builder.header(name, value));
+            }
+        });
+        try {
+            HttpResponse<byte[]> response = client.send(builder.build(), HttpResponse.BodyHandlers.ofByteArray());
+            forwarded.incrementAndGet();
+            return response;
+        } catch (IOException e) {
+            upstreamFailures.incrementAndGet();
+            logger.warn("Fault proxy could not reach {}{}: {}", upstream, request.path, e.getMessage());
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private void control(Request request, OutputStream out) throws IOException {
+        int status = 200;
+        Object body;
+        try {
+            if (CONTROL_FAULTS.equals(request.path) && "PUT".equals(request.method)) {
+                replace(JsonUtils.getObjectMapper().readValue(request.body, new TypeReference<List<Fault>>() { }));
+                body = stats();
+            } else if (CONTROL_FAULTS.equals(request.path) && "DELETE".equals(request.method)) {
+                clear();
+                body = stats();
+            } else if (CONTROL_STATS.equals(request.path) && "GET".equals(request.method)) {
+                body = stats();
+            } else {
+                status = 404;
+                body = Map.of("message", "Unknown control request " + request.method + " " + request.path);
+            }
+        } catch (IOException | RuntimeException e) {
+            status = 400;
+            body = Map.of("message", "Invalid fault rules: " + e.getMessage());
+        }
+        byte[] bytes = JsonUtils.getObjectMapper().writer().without(SerializationFeature.INDENT_OUTPUT)
+                .writeValueAsBytes(body);
+        out.write(head(status, Map.of("Content-Type", List.of("application/json")), bytes.length));
+        out.write(bytes);
+        out.flush();
+    }
+
+    // ---- HTTP/1.1 framing ----
+
+    private static Request readRequest(InputStream in) throws IOException {
+        ByteArrayOutputStream headBytes = new ByteArrayOutputStream();
+        int lastFour = 0;
+        while (lastFour != END_OF_HEAD) {
+            int b = in.read();
+            if (b < 0) {
+                if (headBytes.size() == 0) {
+                    return null;
+                }
+                throw new IOException("Connection closed inside request head");
+            }
+            headBytes.write(b);
+            lastFour = (lastFour << 8) | b;
+            if (headBytes.size() > MAX_HEAD_BYTES) {
+                throw new IOException("Request head larger than " + MAX_HEAD_BYTES + " bytes");
+            }
+        }
+        String[] lines = headBytes.toString(StandardCharsets.ISO_8859_1).split("\r\n");
+        String[] requestLine = lines[0].split(" ");
+        if (requestLine.length < 2) {
+            throw new IOException("Malformed request line: " + lines[0]);
+        }
+        Request request = new Request();
+        request.method = requestLine[0].toUpperCase(Locale.ROOT);
+        request.target = requestLine[1];
+        if (request.target.startsWith("http://") || request.target.startsWith("https://")) {
+            // Absolute form, sent when the proxy is configured as an HTTP proxy
+            URI uri = URI.create(request.target);
+            request.target = uri.getRawPath() + (uri.getRawQuery() == null ? "" : "?" + uri.getRawQuery());
+        }
+        int query = request.target.indexOf('?');
+        request.path = query < 0 ? request.target : request.target.substring(0, query);
+        for (int i = 1; i < lines.length; i++) {
+            String[] header = HEADER_SPLIT.split(lines[i], 2);
+            if (header.length == 2) {
+                request.headers.computeIfAbsent(header[0].toLowerCase(Locale.ROOT), name -> new ArrayList<>())
+                        .add(header[1].trim());
+            }
+        }
+
+        String length = request.header("content-length");
+        if ("chunked".equalsIgnoreCase(request.header("transfer-encoding"))) {
+            request.body = readChunked(in);
+        } else if (length != null) {
+            request.body = in.readNBytes(Integer.parseInt(length.trim()));
+        }
+        return request;
+    }
+
+    private static byte[] readChunked(InputStream in) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        while (true) {
+            String sizeLine = readLine(in);
+            int size = Integer.parseInt(sizeLine.split(";")[0].trim(), 16);
+            if (size == 0) {
+                // Skip trailers up to the empty line
+                while (!readLine(in).isEmpty()) {
+                    // Ignored
+                }
+                return body.toByteArray();
+            }
+            body.write(in.readNBytes(size));
+            readLine(in);
+        }
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int b;
+        while ((b = in.read()) >= 0 && b != '\n') {
+            if (b != '\r') {
+                line.append((char) b);
+            }
+        }
+        if (b < 0) {
+            throw new IOException("Connection closed inside chunked body");
+        }
+        return line.toString();
+    }
+
+    private static byte[] head(int status, Map<String, List<String>> headers, int contentLength) {
+        StringBuilder head = new StringBuilder("HTTP/1.1 ").append(status).append(' ').append(REASONS.getOrDefault(status, "Status")).append("\r\n");
+        headers.forEach((name, values) -> values.forEach(value -> head.append(name).append(": ").append(value).append("\r\n")));
+        head.append("Content-Length: ").append(contentLength).append("\r\n\r\n");
+        return head.toString().getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    private static void trickle(OutputStream out, byte[] bytes, int length, int chunk, long intervalMs) throws IOException {
+        for (int offset = 0; offset < length; offset += chunk) {
+            out.write(bytes, offset, Math.min(chunk, length - offset));
+            out.flush();
+            if (offset + chunk < length) {
+                sleep(intervalMs);
+            }
+        }
+    }
+
+    /**
+     * Close with SO_LINGER 0 so the client sees a connection reset instead of a clean close.
+     */
+    private static void reset(Socket connection) throws IOException {
+        connection.setSoLinger(true, 0);
+        connection.close();
+    }
+
+    private static boolean chance(Double probability) {
+        return probability != null && probability > 0 && ThreadLocalRandom.current().nextDouble() < probability;
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.automation.recording;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One recorded request/response pair, already redacted.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RecordedExchange {
+
+    /**
+     * Lookup key: method, endpoint template and normalized query params (see {@link RequestKey}).
+     */
+    private String key;
+    private String service;
+    private String method;
+    private String path;
+    private String template;
+    private Map<String, List<String>> query;
+    private String requestContentType;
+    private String requestBody;
+    private int status;
+    private String contentType;
+    /**
+     * Replayable response headers other than Content-Type (ETag, Cache-Control, Last-Modified).
+     */
+    private Map<String, String> headers;
+    private String responseBody;
+    private long latencyMs;
+    private long timestamp;
+}
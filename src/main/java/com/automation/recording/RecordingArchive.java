@@ -0,0 +1,129 @@
+package com.automation.recording;
+
+import com.automation.utils.JsonUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Compressed, indexed fixture archive of recorded traffic.
+ * <p>
+ * A ZIP file with one deflated JSON document per exchange ({@code exchanges/000001.json}) and an
+ * {@code index.json} that lists, per request key, its exchanges and latency summary
+ * (count, min, p50, p95, max). Readers can use the index to load only the keys they need.
+ * </p>
+ */
+public final class RecordingArchive {
+
+    public static final String INDEX = "index.json";
+    private static final String EXCHANGES = "exchanges/";
+
+    private RecordingArchive() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Write the exchanges to {@code file}, replacing it atomically.
+     */
+    public static void write(Path file, Collection<RecordedExchange> exchanges, String env) throws IOException {
+        ObjectMapper mapper = JsonUtils.getObjectMapper();
+        ObjectWriter compact = mapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+        Map<String, List<String>> entriesByKey = new LinkedHashMap<>();
+        Map<String, List<Long>> latenciesByKey = new LinkedHashMap<>();
+
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(temp))) {
+            int sequence = 0;
+            for (RecordedExchange exchange : exchanges) {
+                String entry = String.format("%s%06d.json", EXCHANGES, ++sequence);
+                zip.putNextEntry(new ZipEntry(entry));
+                zip.write(compact.writeValueAsBytes(exchange));
+                zip.closeEntry();
+                entriesByKey.computeIfAbsent(exchange.getKey(), key -> new ArrayList<>()).add(entry);
+                latenciesByKey.computeIfAbsent(exchange.getKey(), key -> new ArrayList<>()).add(exchange.getLatencyMs());
+            }
+
+            ObjectNode index = mapper.createObjectNode();
+            index.put("created", System.currentTimeMillis());
+            index.put("env", env);
+            index.put("exchanges", sequence);
+            ArrayNode keys = index.putArray("keys");
+            for (Map.Entry<String, List<String>> entry : entriesByKey.entrySet()) {
+                List<Long> latencies = latenciesByKey.get(entry.getKey()).stream().sorted().collect(Collectors.toList());
+                ObjectNode key = keys.addObject();
+                key.put("key", entry.getKey());
+                key.put("count", latencies.size());
+                key.put("minMs", latencies.get(0));
+                key.put("p50Ms", percentile(latencies, 50));
+                key.put("p95Ms", percentile(latencies, 95));
+                key.put("maxMs", latencies.get(latencies.size() - 1));
+                ArrayNode files = key.putArray("entries");
+                entry.getValue().forEach(files::add);
+            }
+            zip.putNextEntry(new ZipEntry(INDEX));
+            zip.write(mapper.writerWithDefaultPrettyPrinter().writeValueAsBytes(index));
+            zip.closeEntry();
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Read all exchanges from an archive, or from every archive in a directory (oldest first).
+     */
+    public static List<RecordedExchange> read(Path archiveOrDirectory) throws IOException {
+        List<Path> archives = new ArrayList<>();
+        if (Files.isDirectory(archiveOrDirectory)) {
+            try (Stream<Path> files = Files.list(archiveOrDirectory)) {
+                files.filter(file -> file.getFileName().toString().endsWith(".zip"))
+                        .sorted()
+                        .forEach(archives::add);
+            }
+        } else {
+            archives.add(archiveOrDirectory);
+        }
+
+        ObjectMapper mapper = JsonUtils.getObjectMapper();
+        List<RecordedExchange> exchanges = new ArrayList<>();
+        for (Path archive : archives) {
+            try (ZipFile zip = new ZipFile(archive.toFile())) {
+                List<? extends ZipEntry> entries = zip.stream()
+                        .filter(entry -> entry.getName().startsWith(EXCHANGES))
+                        .sorted((a, b) -> a.getName().compareTo(b.getName()))
+                        .collect(Collectors.toList());
+                for (ZipEntry entry : entries) {
+                    try (InputStream in = zip.getInputStream(entry)) {
+                        exchanges.add(mapper.readValue(in, RecordedExchange.class));
+                    }
+                }
+            }
+        }
+        return exchanges;
+    }
+
+    private static long percentile(List<Long> sorted, int percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(index, sorted.size() - 1)));
+    }
+}
@@ -0,0 +1,194 @@
+package com.automation.recording;
+
+import com.automation.base.ApiService;
+import com.automation.config.ConfigManager;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import io.restassured.specification.MultiPartSpecification;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+
+/**
+ * Records every request/response pair that goes through the framework's clients.
+ * <p>
+ * Enabled with {@code -Drecord=true} (or {@code mvn test -Precord}); added to every
+ * {@link com.automation.base.ServiceContext} and to the login calls of {@code TokenManager}.
+ * Each exchange is keyed by method, endpoint template and normalized query params
+ * ({@link RequestKey}), redacted ({@link Redactor}) and stored with its measured latency.
+ * {@link #save()} writes everything recorded so far to one {@link RecordingArchive} per JVM.
+ * </p>
+ *
+ * <p><b>System properties:</b></p>
+ * <ul>
+ *     <li>{@code record} - enable recording (default false)</li>
+ *     <li>{@code record.dir} - archive directory (default target/recordings)</li>
+ * </ul>
+ */
+public final class RecordingFilter implements Filter {
+
+    private static final Logger logger = LogManager.getLogger(RecordingFilter.class);
+
+    private static final RecordingFilter INSTANCE = new RecordingFilter();
+    private static final List<String> REPLAYED_HEADERS = List.of("ETag", "Cache-Control", "Last-Modified");
+
+    private final ConcurrentLinkedQueue<RecordedExchange> exchanges = new ConcurrentLinkedQueue<>();
+    private final Path archive;
+
+    private RecordingFilter() {
+        String name = "recording-" + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date());
+        String shard = System.getProperty("shard.index");
+        if (shard != null) {
+            name += "-shard" + shard;
+        }
+        archive = Paths.get(System.getProperty("record.dir", "target/recordings"), name + ".zip");
+    }
+
+    /**
+     * Whether traffic recording is enabled for this JVM.
+     */
+    public static boolean isEnabled() {
+        return Boolean.getBoolean("record");
+    }
+
+    public static RecordingFilter getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Write all exchanges recorded so far. Safe to call repeatedly (e.g. after every suite):
+     * the JVM's archive is rewritten with the full set each time.
+     */
+    public static void save() {
+        if (!isEnabled() || INSTANCE.exchanges.isEmpty()) {
+            return;
+        }
+        synchronized (INSTANCE) {
+            List<RecordedExchange> snapshot = new ArrayList<>(INSTANCE.exchanges);
+            try {
+                RecordingArchive.write(INSTANCE.archive, snapshot, System.getProperty("env", "default"));
+                logger.info("Recorded {} exchanges ({} keys) to {}", snapshot.size(),
+                        snapshot.stream().map(RecordedExchange::getKey).distinct().count(), INSTANCE.archive);
+            } catch (IOException e) {
+                logger.error("Unable to write recording {}: {}", INSTANCE.archive, e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec,
+                           FilterableResponseSpecification responseSpec, FilterContext ctx) {
+        long start = System.nanoTime();
+        Response response = ctx.next(requestSpec, responseSpec);
+        long latencyMillis = (System.nanoTime() - start) / 1_000_000;
+        try {
+            exchanges.add(toExchange(requestSpec, response, latencyMillis));
+        } catch (RuntimeException e) {
+            // Recording must never fail a test
+            logger.warn("Unable to record {} {}: {}", requestSpec.getMethod(), requestSpec.getURI(), e.getMessage());
+        }
+        return response;
+    }
+
+    private static RecordedExchange toExchange(FilterableRequestSpecification request, Response response,
+                                               long latencyMillis) {
+        URI uri = URI.create(request.getURI());
+        String path = uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath();
+        TreeMap<String, List<String>> query = RequestKey.normalize(parseQuery(uri.getRawQuery()));
+        String template = RequestKey.templateOf(path);
+
+        return RecordedExchange.builder()
+                .key(RequestKey.of(request.getMethod(), template, query))
+                .service(serviceOf(uri))
+                .method(request.getMethod())
+                .path(Redactor.text(path))
+                .template(template)
+                .query(query.isEmpty() ? null : query)
+                .requestContentType(request.getContentType())
+                .requestBody(Redactor.body(bodyOf(request)))
+                .status(response.getStatusCode())
+                .contentType(response.getContentType())
+                .headers(headersOf(response))
+                .responseBody(Redactor.body(response.asString()))
+                .latencyMs(latencyMillis)
+                .timestamp(System.currentTimeMillis())
+                .build();
+    }
+
+    private static Map<String, String> headersOf(Response response) {
+        Map<String, String> headers = new LinkedHashMap<>();
+        for (String name : REPLAYED_HEADERS) {
+            String value = response.getHeader(name);
+            if (value != null) {
+                headers.put(name, value);
+            }
+        }
+        return headers.isEmpty() ? null : headers;
+    }
+
+    private static String bodyOf(FilterableRequestSpecification request) {
+        List<MultiPartSpecification> parts = request.getMultiPartParams();
+        if (parts != null && !parts.isEmpty()) {
+            return parts.stream()
+                    .map(part -> part.getControlName() + (part.getFileName() != null ? "=@" + part.getFileName() : ""))
+                    .collect(Collectors.joining(", ", "<multipart: ", ">"));
+        }
+        Object body = request.getBody();
+        if (body == null) {
+            return null;
+        }
+        return body instanceof byte[] ? new String((byte[]) body, StandardCharsets.UTF_8) : body.toString();
+    }
+
+    /**
+     * Service name of the request's host, or the host itself for anything else.
+     */
+    private static String serviceOf(URI uri) {
+        ConfigManager config = ConfigManager.getInstance();
+        for (ApiService service : ApiService.values()) {
+            String host = URI.create(service.baseUrl(config)).getHost();
+            if (host != null && host.equalsIgnoreCase(uri.getHost())) {
+                return service.name();
+            }
+        }
+        return uri.getHost();
+    }
+
+    /**
+     * Decode a raw query string into its parameters, in order.
+     */
+    public static Map<String, List<String>> parseQuery(String rawQuery) {
+        Map<String, List<String>> query = new LinkedHashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            if (pair.isEmpty()) {
+                continue;
+            }
+            int eq = pair.indexOf('=');
+            String name = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            query.computeIfAbsent(name, key -> new ArrayList<>()).add(value);
+        }
+        return query;
+    }
+}
@@ -0,0 +1,190 @@
+package com.automation.recording;
+
+import com.automation.config.ConfigManager;
+import com.automation.utils.JsonUtils;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Removes credentials and personal data from recorded traffic.
+ * <p>
+ * - JWTs become unsigned tokens that keep only the {@code exp} claim, so {@code TokenManager}
+ * still reads a valid expiry when the recording is replayed
+ * - Other values of token, OTP and password fields become {@code "redacted"}
+ * - Phone numbers (phone/mobile fields and the configured {@code login.phone.number} /
+ * {@code buyer.app.phone.number} anywhere in the text) keep their shape with every digit zeroed
+ * </p>
+ */
+final class Redactor {
+
+    static final String REDACTED = "redacted";
+
+    private static final Pattern JWT = Pattern.compile("eyJ[A-Za-z0-9_-]+\\.[A-Za-z0-9_-]+\\.[A-Za-z0-9_-]*");
+    private static final Pattern SECRET_FIELD = Pattern.compile(".*(token|otp|password|secret|authorization).*");
+    private static final Pattern PHONE_FIELD = Pattern.compile(".*(phone|mobile).*");
+    private static final String UNSIGNED_HEADER = Base64.getUrlEncoder().withoutPadding()
+            .encodeToString("{\"alg\":\"none\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8));
+    private static final Pattern UNSIGNED_JWT =
+            Pattern.compile(Pattern.quote(UNSIGNED_HEADER) + "\\.[A-Za-z0-9_-]*\\." + REDACTED);
+
+    private static volatile List<String> configuredPhones;
+
+    private Redactor() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Redact a request or response body. JSON is redacted field by field, anything else as text.
+     */
+    static String body(String body) {
+        if (body == null || body.isEmpty()) {
+            return body;
+        }
+        String trimmed = body.trim();
+        if (trimmed.startsWith("{") || trimmed.startsWith("[")) {
+            try {
+                JsonNode tree = JsonUtils.getObjectMapper().readTree(trimmed);
+                redactNode(tree);
+                return text(JsonUtils.getObjectMapper().writer()
+                        .without(SerializationFeature.INDENT_OUTPUT).writeValueAsString(tree));
+            } catch (Exception e) {
+                // Not JSON after all, fall through to text redaction
+            }
+        }
+        return text(body);
+    }
+
+    /**
+     * Redact JWTs and configured phone numbers anywhere in the text.
+     */
+    static String text(String text) {
+        if (text == null || text.isEmpty()) {
+            return text;
+        }
+        Matcher matcher = JWT.matcher(text);
+        StringBuilder redacted = new StringBuilder();
+        while (matcher.find()) {
+            matcher.appendReplacement(redacted, Matcher.quoteReplacement(unsignedJwt(matcher.group())));
+        }
+        matcher.appendTail(redacted);
+        String result = redacted.toString();
+        for (String phone : configuredPhones()) {
+            result = result.replace(phone, maskDigits(phone));
+        }
+        return result;
+    }
+
+    /**
+     * Redact a query parameter value by name.
+     */
+    static String queryValue(String name, String value) {
+        String field = name.toLowerCase(Locale.ROOT);
+        if (SECRET_FIELD.matcher(field).matches()) {
+            return JWT.matcher(value).matches() ? unsignedJwt(value) : REDACTED;
+        }
+        if (PHONE_FIELD.matcher(field).matches()) {
+            return maskDigits(value);
+        }
+        return text(value);
+    }
+
+    /**
+     * Re-issue the unsigned tokens written by this class with a new expiry (epoch seconds),
+     * so replayed logins hand out tokens that are still valid.
+     */
+    static String renewUnsignedJwts(String text, long expSeconds) {
+        if (text == null || !text.contains(UNSIGNED_HEADER)) {
+            return text;
+        }
+        String payload = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(("{\"exp\":" + expSeconds + "}").getBytes(StandardCharsets.UTF_8));
+        return UNSIGNED_JWT.matcher(text)
+                .replaceAll(Matcher.quoteReplacement(UNSIGNED_HEADER + "." + payload + "." + REDACTED));
+    }
+
+    private static void redactNode(JsonNode node) {
+        if (node instanceof ObjectNode) {
+            ObjectNode object = (ObjectNode) node;
+            Iterator<Map.Entry<String, JsonNode>> fields = object.fields();
+            List<Map.Entry<String, JsonNode>> replacements = new ArrayList<>();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                JsonNode value = field.getValue();
+                if (value.isTextual()) {
+                    String redacted = queryValue(field.getKey(), value.asText());
+                    if (!redacted.equals(value.asText())) {
+                        replacements.add(Map.entry(field.getKey(), new TextNode(redacted)));
+                    }
+                } else if (value.isContainerNode()) {
+                    redactNode(value);
+                }
+            }
+            replacements.forEach(entry -> object.set(entry.getKey(), entry.getValue()));
+        } else if (node instanceof ArrayNode) {
+            node.forEach(Redactor::redactNode);
+        }
+    }
+
+    /**
+     * Unsigned JWT carrying only the original {@code exp} claim (if any).
+     */
+    private static String unsignedJwt(String jwt) {
+        String claims = "{}";
+        try {
+            byte[] payload = Base64.getUrlDecoder().decode(jwt.split("\\.")[1]);
+            JsonNode exp = JsonUtils.getObjectMapper().readTree(payload).get("exp");
+            if (exp != null && exp.canConvertToLong()) {
+                claims = "{\"exp\":" + exp.asLong() + "}";
+            }
+        } catch (Exception e) {
+            // Undecodable payload, drop all claims
+        }
+        return UNSIGNED_HEADER + "." + Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(claims.getBytes(StandardCharsets.UTF_8)) + "." + REDACTED;
+    }
+
+    private static String maskDigits(String value) {
+        return value.replaceAll("\\d", "0");
+    }
+
+    /**
+     * Configured phone numbers in the forms they appear in traffic: as configured, without the
+     * leading {@code +} and as the 10-digit national number. Longest first.
+     */
+    private static List<String> configuredPhones() {
+        List<String> phones = configuredPhones;
+        if (phones == null) {
+            phones = new ArrayList<>();
+            ConfigManager config = ConfigManager.getInstance();
+            for (String phone : new String[]{config.loginPhoneNumber(), config.buyerAppPhoneNumber()}) {
+                if (phone == null || phone.isBlank()) {
+                    continue;
+                }
+                String digits = phone.replaceAll("\\D", "");
+                phones.add(phone.trim());
+                phones.add(digits);
+                if (digits.length() > 10) {
+                    phones.add(digits.substring(digits.length() - 10));
+                }
+            }
+            phones.removeIf(phone -> phone.length() < 7);
+            phones.sort(Comparator.comparingInt(String::length).reversed());
+            configuredPhones = phones;
+        }
+        return phones;
+    }
+}
@@ -0,0 +1,245 @@
+package com.automation.recording;
+
+import com.automation.base.ApiService;
+import com.automation.config.ConfigManager;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Embedded HTTP stub that serves recorded traffic ({@link RecordingArchive}) in place of the real APIs.
+ * <p>
+ * One loopback server per {@link ApiService}, on the port of that service's base URL in
+ * {@code config-replay.properties}. A request is answered with a recorded exchange of the same
+ * key ({@link RequestKey}): one with the same path when there is one, otherwise the key's
+ * exchanges in turn. Requests without a recorded key fall back to the endpoint template
+ * regardless of query params, then to a 404.
+ * Unsigned tokens are re-issued with a future {@code exp} so {@code TokenManager} accepts them, and
+ * recorded ETag/caching headers are sent back with the body.
+ * </p>
+ *
+ * <p><b>Latency modes</b> ({@code replay.latency}):</p>
+ * <ul>
+ *     <li>{@code recorded} - sleep for a latency drawn from the key's recorded latencies (default)</li>
+ *     <li>{@code none} - answer immediately, to measure client-side overhead</li>
+ *     <li>{@code scaled} - recorded latency multiplied by {@code replay.latency.scale}</li>
+ * </ul>
+ *
+ * <p>Started by {@code BaseTest} when {@code env=replay} ({@code mvn test -Denv=replay}).
+ * {@code replay.archive}, {@code replay.latency} and {@code replay.latency.scale} come from the config
+ * file and can be overridden with system properties of the same name.</p>
+ */
+public final class ReplayServer {
+
+    private static final Logger logger = LogManager.getLogger(ReplayServer.class);
+
+    private static final long TOKEN_VALIDITY_SECONDS = TimeUnit.DAYS.toSeconds(1);
+
+    private static ReplayServer running;
+
+    private final List<HttpServer> servers = new ArrayList<>();
+    private final ExecutorService executor;
+    private final Map<String, Map<String, List<RecordedExchange>>> byServiceAndKey = new HashMap<>();
+    private final Map<String, Map<String, List<RecordedExchange>>> byServiceAndTemplate = new HashMap<>();
+    private final Map<String, AtomicInteger> turns = new ConcurrentHashMap<>();
+    private final String latencyMode;
+    private final double latencyScale;
+    private final AtomicLong served = new AtomicLong();
+    private final AtomicLong missed = new AtomicLong();
+
+    private ReplayServer(List<RecordedExchange> exchanges, String latencyMode, double latencyScale) {
+        this.latencyMode = latencyMode;
+        this.latencyScale = latencyScale;
+        for (RecordedExchange exchange : exchanges) {
+            byServiceAndKey.computeIfAbsent(exchange.getService(), service -> new HashMap<>())
+                    .computeIfAbsent(exchange.getKey(), key -> new ArrayList<>()).add(exchange);
+            byServiceAndTemplate.computeIfAbsent(exchange.getService(), service -> new HashMap<>())
+                    .computeIfAbsent(templateKey(exchange.getMethod(), exchange.getTemplate()), key -> new ArrayList<>())
+                    .add(exchange);
+        }
+        // Sleeping handlers must not hold up other requests
+        executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "replay-server");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Start the replay servers for every service, once per JVM.
+     *
+     * @throws RuntimeException if the archive cannot be read or a port is taken
+     */
+    public static synchronized void start(ConfigManager config) {
+        if (running != null) {
+            return;
+        }
+        Path archive = Paths.get(System.getProperty("replay.archive", config.replayArchive()));
+        String latencyMode = System.getProperty("replay.latency", config.replayLatency()).toLowerCase(Locale.ROOT);
+        double latencyScale = Double.parseDouble(
+                System.getProperty("replay.latency.scale", String.valueOf(config.replayLatencyScale())));
+        if (!List.of("recorded", "none", "scaled").contains(latencyMode)) {
+            throw new IllegalArgumentException("Unknown replay.latency '" + latencyMode
+                    + "', expected recorded, none or scaled");
+        }
+
+        List<RecordedExchange> exchanges;
+        try {
+            exchanges = RecordingArchive.read(archive);
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to read recordings from " + archive + ": " + e.getMessage(), e);
+        }
+        if (exchanges.isEmpty()) {
+            throw new RuntimeException("No recordings found in " + archive + ", record some with mvn test -Precord");
+        }
+
+        ReplayServer server = new ReplayServer(exchanges, latencyMode, latencyScale);
+        try {
+            for (ApiService service : ApiService.values()) {
+                server.listen(service, URI.create(service.baseUrl(config)).getPort());
+            }
+        } catch (IOException e) {
+            server.stop();
+            throw new RuntimeException("Unable to start replay server: " + e.getMessage(), e);
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(server::stop, "replay-server-stop"));
+        running = server;
+        logger.info("Replaying {} recorded exchanges from {} (latency: {}{})", exchanges.size(), archive,
+                latencyMode, "scaled".equals(latencyMode) ? " x" + latencyScale : "");
+    }
+
+    /**
+     * Whether the replay servers are running in this JVM.
+     */
+    public static synchronized boolean isRunning() {
+        return running != null;
+    }
+
+    private void listen(ApiService service, int port) throws IOException {
+        if (port <= 0) {
+            throw new IOException(service + " base URL has no port, check config-replay.properties");
+        }
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext("/", exchange -> handle(service.name(), exchange));
+        server.setExecutor(executor);
+        server.start();
+        servers.add(server);
+        logger.info("{} replay server listening on 127.0.0.1:{} ({} keys)", service, port,
+                byServiceAndKey.getOrDefault(service.name(), Map.of()).size());
+    }
+
+    private void stop() {
+        servers.forEach(server -> server.stop(0));
+        executor.shutdownNow();
+        if (served.get() + missed.get() > 0) {
+            logger.info("Replay server stopped: {} requests served, {} without recording", served.get(), missed.get());
+        }
+    }
+
+    private void handle(String service, HttpExchange exchange) throws IOException {
+        try (HttpExchange http = exchange) {
+            http.getRequestBody().readAllBytes();
+            URI uri = http.getRequestURI();
+            String method = http.getRequestMethod().toUpperCase(Locale.ROOT);
+            String path = uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath();
+            String key = RequestKey.of(method, path, RecordingFilter.parseQuery(uri.getRawQuery()));
+
+            List<RecordedExchange> candidates = byServiceAndKey.getOrDefault(service, Map.of()).get(key);
+            String turnKey = key;
+            if (candidates == null) {
+                turnKey = templateKey(method, RequestKey.templateOf(path));
+                candidates = byServiceAndTemplate.getOrDefault(service, Map.of()).get(turnKey);
+            }
+            if (candidates == null) {
+                missed.incrementAndGet();
+                logger.warn("No recording for {} {}", service, key);
+                respond(http, 404, "application/json", null,
+                        "{\"success\":false,\"message\":\"No recording for " + key.replace("\"", "'") + "\"}");
+                return;
+            }
+
+            RecordedExchange recorded = choose(candidates, Redactor.text(path), turnKey);
+            sleep(candidates);
+            served.incrementAndGet();
+            long exp = System.currentTimeMillis() / 1000 + TOKEN_VALIDITY_SECONDS;
+            respond(http, recorded.getStatus(), recorded.getContentType(), recorded.getHeaders(),
+                    Redactor.renewUnsignedJwts(recorded.getResponseBody(), exp));
+        } catch (RuntimeException e) {
+            logger.error("Replay failed for {}: {}", exchange.getRequestURI(), e.getMessage());
+        }
+    }
+
+    /**
+     * Prefer exchanges recorded for the same path, otherwise take the key's exchanges in turn.
+     */
+    private RecordedExchange choose(List<RecordedExchange> candidates, String path, String turnKey) {
+        List<RecordedExchange> samePath = new ArrayList<>();
+        for (RecordedExchange candidate : candidates) {
+            if (path.equals(candidate.getPath())) {
+                samePath.add(candidate);
+            }
+        }
+        List<RecordedExchange> pool = samePath.isEmpty() ? candidates : samePath;
+        int turn = turns.computeIfAbsent(turnKey + " " + path, key -> new AtomicInteger()).getAndIncrement();
+        return pool.get(Math.floorMod(turn, pool.size()));
+    }
+
+    private void sleep(List<RecordedExchange> candidates) {
+        if ("none".equals(latencyMode)) {
+            return;
+        }
+        long recorded = candidates.get(ThreadLocalRandom.current().nextInt(candidates.size())).getLatencyMs();
+        long millis = "scaled".equals(latencyMode) ? Math.round(recorded * latencyScale) : recorded;
+        if (millis > 0) {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static void respond(HttpExchange http, int status, String contentType, Map<String, String> headers,
+                                String body) throws IOException {
+        byte[] bytes = body == null ? new byte[0] : body.getBytes(StandardCharsets.UTF_8);
+        if (contentType != null && !contentType.isEmpty()) {
+            http.getResponseHeaders().add("Content-Type", contentType);
+        }
+        if (headers != null) {
+            headers.forEach((name, value) -> http.getResponseHeaders().add(name, value));
+        }
+        boolean noBody = bytes.length == 0 || status == 204 || status == 304;
+        http.sendResponseHeaders(status, noBody ? -1 : bytes.length);
+        if (!noBody) {
+            try (OutputStream out = http.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+
+    private static String templateKey(String method, String template) {
+        return method.toUpperCase(Locale.ROOT) + " " + template;
+    }
+}
@@ -0,0 +1,102 @@
+package com.automation.recording;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Builds the lookup key of a request: method, endpoint template and normalized query params.
+ * <p>
+ * Tests build most paths by concatenation ({@code CATALOG + "/" + catalogId}), so the template is
+ * derived from the resolved path: id-like segments (Mongo ObjectIds, UUIDs, numbers, long tokens)
+ * become {@code {id}}. Query params are sorted by name, sensitive values are redacted.
+ * The same rules apply when recording and when looking up a recorded response.
+ * </p>
+ *
+ * <p><b>Usage Example:</b></p>
+ * <pre>{@code
+ * RequestKey.of("GET", "/v1/admin/catalog/6822f5dac17c6dcd589ba173", Map.of("limit", "20"));
+ * // GET /v1/admin/catalog/{id}?limit=20
+ * }</pre>
+ */
+public final class RequestKey {
+
+    private static final Pattern OBJECT_ID = Pattern.compile("[0-9a-fA-F]{24}");
+    private static final Pattern UUID = Pattern.compile(
+            "[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}");
+    private static final Pattern NUMBER = Pattern.compile("\\+?\\d+");
+    private static final Pattern LONG_TOKEN = Pattern.compile("(?=.*\\d)(?=.*[A-Za-z])[A-Za-z0-9_-]{20,}");
+
+    private RequestKey() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Key for a request.
+     *
+     * @param method HTTP method
+     * @param path   Resolved request path (no scheme, host or query)
+     * @param query  Query params, single values or collections
+     * @return Key such as {@code GET /v1/collection/{id}?limit=20&offset=0}
+     */
+    public static String of(String method, String path, Map<String, ?> query) {
+        return of(method, templateOf(path), normalize(query));
+    }
+
+    static String of(String method, String template, TreeMap<String, List<String>> normalizedQuery) {
+        String params = normalizedQuery.entrySet().stream()
+                .flatMap(entry -> entry.getValue().stream().map(value -> entry.getKey() + "=" + value))
+                .collect(Collectors.joining("&"));
+        return method.toUpperCase() + " " + template + (params.isEmpty() ? "" : "?" + params);
+    }
+
+    /**
+     * Endpoint template of a resolved path.
+     */
+    public static String templateOf(String path) {
+        if (path == null || path.isEmpty()) {
+            return "/";
+        }
+        String[] segments = path.split("/", -1);
+        for (int i = 0; i < segments.length; i++) {
+            if (isIdentifier(segments[i])) {
+                segments[i] = "{id}";
+            }
+        }
+        String template = String.join("/", segments);
+        return template.startsWith("/") ? template : "/" + template;
+    }
+
+    /**
+     * Query params sorted by name (values keep their order), sensitive values redacted.
+     */
+    public static TreeMap<String, List<String>> normalize(Map<String, ?> query) {
+        TreeMap<String, List<String>> normalized = new TreeMap<>();
+        if (query == null) {
+            return normalized;
+        }
+        for (Map.Entry<String, ?> entry : query.entrySet()) {
+            List<String> values = new ArrayList<>();
+            if (entry.getValue() instanceof Collection) {
+                for (Object value : (Collection<?>) entry.getValue()) {
+                    values.add(Redactor.queryValue(entry.getKey(), String.valueOf(value)));
+                }
+            } else {
+                values.add(Redactor.queryValue(entry.getKey(), String.valueOf(entry.getValue())));
+            }
+            normalized.put(entry.getKey(), values);
+        }
+        return normalized;
+    }
+
+    private static boolean isIdentifier(String segment) {
+        return OBJECT_ID.matcher(segment).matches()
+                || UUID.matcher(segment).matches()
+                || NUMBER.matcher(segment).matches()
+                || LONG_TOKEN.matcher(segment).matches();
+    }
+}
@@ -0,0 +1,486 @@
+package com.automation.recording;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * A/B comparison of two recorded runs (see {@link RecordingFilter}), e.g. staging against prod, or
+ * the same suites before and after a backend deploy.
+ * <p>
+ * Exchanges are grouped per endpoint (service, method and template). For each endpoint found in both runs:
+ * - Latency of successful responses: p50/p90/p99 and a Mann-Whitney U test on the raw samples
+ * - Payload size (response body bytes): median and a Mann-Whitney U test
+ * - Error rate (status 400 and above): a two-proportion z-test
+ * p-values are Benjamini-Hochberg adjusted over all endpoints. Tests compare whole distributions, so
+ * a small shift can be significant. A change is therefore flagged as real only when it is significant
+ * AND its median moves by at least {@code compare.effect} percent. Everything else is marked noise.
+ * </p>
+ * The report goes to {@code target/comparison/<timestamp>/comparison.md} and {@code comparison.html}.
+ *
+ * <p><b>System properties:</b></p>
+ * <ul>
+ *     <li>{@code compare.a} - baseline recording archive, or a directory of archives (required)</li>
+ *     <li>{@code compare.b} - candidate recording archive or directory (required)</li>
+ *     <li>{@code compare.a.label} / {@code compare.b.label} - names in the report (default the file names)</li>
+ *     <li>{@code compare.alpha} - significance level for adjusted p-values (default 0.01)</li>
+ *     <li>{@code compare.effect} - minimum median change in percent to count as real (default 5)</li>
+ *     <li>{@code compare.min} - minimum samples per run for an endpoint to be tested (default 10)</li>
+ *     <li>{@code compare.fail} - exit with status 1 when B is slower or fails more anywhere (default false)</li>
+ * </ul>
+ *
+ * <p><b>Usage Example:</b></p>
+ * <pre>
+ * mvn test -Pcompare -Dcompare.a=target/before -Dcompare.b=target/after -Dcompare.fail=true
+ * </pre>
+ */
+public final class RunComparison {
+
+    private static final Logger logger = LogManager.getLogger(RunComparison.class);
+
+    private static final String NOISE = "noise";
+    private static final String TOO_FEW = "too few samples";
+
+    private final String labelA;
+    private final String labelB;
+    private final double alpha;
+    private final double effectPercent;
+    private final int minSamples;
+
+    private RunComparison(String labelA, String labelB, double alpha, double effectPercent, int minSamples) {
+        this.labelA = labelA;
+        this.labelB = labelB;
+        this.alpha = alpha;
+        this.effectPercent = effectPercent;
+        this.minSamples = minSamples;
+    }
+
+    public static void main(String[] args) throws IOException {
+        String a = System.getProperty("compare.a", "");
+        String b = System.getProperty("compare.b", "");
+        if (a.isBlank() || b.isBlank()) {
+            throw new IllegalArgumentException("Set compare.a and compare.b to recording archives or directories");
+        }
+        Path pathA = Paths.get(a);
+        Path pathB = Paths.get(b);
+        RunComparison comparison = new RunComparison(
+                label("compare.a.label", pathA), label("compare.b.label", pathB),
+                Double.parseDouble(property("compare.alpha", "0.01")),
+                Double.parseDouble(property("compare.effect", "5")),
+                Integer.getInteger("compare.min", 10));
+
+        Map<String, Samples> runA = group(RecordingArchive.read(pathA));
+        Map<String, Samples> runB = group(RecordingArchive.read(pathB));
+        if (runA.isEmpty() || runB.isEmpty()) {
+            throw new IllegalArgumentException("No recorded exchanges in " + (runA.isEmpty() ? pathA : pathB));
+        }
+        Report report = comparison.compare(runA, runB);
+        report.sources = new String[]{pathA.toString(), pathB.toString()};
+
+        Path outputDir = Paths.get("target", "comparison", new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date()));
+        Files.createDirectories(outputDir);
+        Files.writeString(outputDir.resolve("comparison.md"), comparison.markdown(report));
+        Files.writeString(outputDir.resolve("comparison.html"), comparison.html(report));
+        logger.info("{} vs {}: {} endpoints compared, {} regression(s), {} improvement(s); report written to {}",
+                comparison.labelA, comparison.labelB, report.endpoints.size(), report.regressions,
+                report.improvements, outputDir);
+
+        if (report.regressions > 0 && Boolean.getBoolean("compare.fail")) {
+            System.exit(1);
+        }
+    }
+
+    private static String property(String name, String defaultValue) {
+        String value = System.getProperty(name, "");
+        return value.isBlank() ? defaultValue : value;
+    }
+
+    private static String label(String property, Path path) {
+        return property(property, String.valueOf(path.getFileName()));
+    }
+
+    /**
+     * Raw samples of one endpoint in one run.
+     */
+    private static final class Samples {
+        private final List<Double> latencies = new ArrayList<>();
+        private final List<Double> sizes = new ArrayList<>();
+        private long total;
+        private long errors;
+
+        private double[] latencies() {
+            return latencies.stream().mapToDouble(Double::doubleValue).sorted().toArray();
+        }
+
+        private double[] sizes() {
+            return sizes.stream().mapToDouble(Double::doubleValue).sorted().toArray();
+        }
+    }
+
+    private static Map<String, Samples> group(List<RecordedExchange> exchanges) {
+        Map<String, Samples> endpoints = new TreeMap<>();
+        for (RecordedExchange exchange : exchanges) {
+            String template = exchange.getTemplate() != null ? exchange.getTemplate() : exchange.getPath();
+            String endpoint = (exchange.getService() != null ? exchange.getService() + " " : "")
+                    + exchange.getMethod() + " " + template;
+            Samples samples = endpoints.computeIfAbsent(endpoint, key -> new Samples());
+            samples.total++;
+            if (exchange.getStatus() >= 400) {
+                samples.errors++;
+            } else {
+                samples.latencies.add((double) exchange.getLatencyMs());
+                String body = exchange.getResponseBody();
+                samples.sizes.add(body == null ? 0.0 : body.getBytes(StandardCharsets.UTF_8).length);
+            }
+        }
+        return endpoints;
+    }
+
+    /**
+     * Comparison of one endpoint present in both runs.
+     */
+    private static final class Endpoint {
+        private final String name;
+        private final Samples a;
+        private final Samples b;
+        private final double[] latencyA;
+        private final double[] latencyB;
+        private final double[] sizeA;
+        private final double[] sizeB;
+        private double latencyP = Double.NaN;
+        private double sizeP = Double.NaN;
+        private double errorP = Double.NaN;
+        private String latencyVerdict = TOO_FEW;
+        private String sizeVerdict = TOO_FEW;
+        private String errorVerdict = TOO_FEW;
+
+        private Endpoint(String name, Samples a, Samples b) {
+            this.name = name;
+            this.a = a;
+            this.b = b;
+            this.latencyA = a.latencies();
+            this.latencyB = b.latencies();
+            this.sizeA = a.sizes();
+            this.sizeB = b.sizes();
+        }
+    }
+
+    /**
+     * Everything the Markdown and HTML renderings need.
+     */
+    private static final class Report {
+        private final List<Endpoint> endpoints = new ArrayList<>();
+        private final Set<String> onlyA = new TreeSet<>();
+        private final Set<String> onlyB = new TreeSet<>();
+        private String[] sources;
+        private long exchangesA;
+        private long exchangesB;
+        private int regressions;
+        private int improvements;
+    }
+
+    private Report compare(Map<String, Samples> runA, Map<String, Samples> runB) {
+        Report report = new Report();
+        runA.values().forEach(samples -> report.exchangesA += samples.total);
+        runB.values().forEach(samples -> report.exchangesB += samples.total);
+        for (Map.Entry<String, Samples> entry : runA.entrySet()) {
+            Samples other = runB.get(entry.getKey());
+            if (other == null) {
+                report.onlyA.add(entry.getKey());
+            } else {
+                report.endpoints.add(new Endpoint(entry.getKey(), entry.getValue(), other));
+            }
+        }
+        runB.keySet().stream().filter(endpoint -> !runA.containsKey(endpoint)).forEach(report.onlyB::add);
+
+        int count = report.endpoints.size();
+        double[] latencyP = new double[count];
+        double[] sizeP = new double[count];
+        double[] errorP = new double[count];
+        for (int i = 0; i < count; i++) {
+            Endpoint endpoint = report.endpoints.get(i);
+            boolean latencyTested = enough(endpoint.latencyA.length, endpoint.latencyB.length);
+            latencyP[i] = latencyTested ? Significance.mannWhitney(endpoint.latencyA, endpoint.latencyB) : Double.NaN;
+            sizeP[i] = latencyTested ? Significance.mannWhitney(endpoint.sizeA, endpoint.sizeB) : Double.NaN;
+            errorP[i] = enough(endpoint.a.total, endpoint.b.total)
+                    ? Significance.twoProportion(endpoint.a.errors, endpoint.a.total, endpoint.b.errors, endpoint.b.total)
+                    : Double.NaN;
+        }
+        latencyP = Significance.benjaminiHochberg(latencyP);
+        sizeP = Significance.benjaminiHochberg(sizeP);
+        errorP = Significance.benjaminiHochberg(errorP);
+
+        for (int i = 0; i < count; i++) {
+            Endpoint endpoint = report.endpoints.get(i);
+            endpoint.latencyP = latencyP[i];
+            endpoint.sizeP = sizeP[i];
+            endpoint.errorP = errorP[i];
+            if (!Double.isNaN(latencyP[i])) {
+                double change = change(median(endpoint.latencyA), median(endpoint.latencyB));
+                endpoint.latencyVerdict = verdict(latencyP[i], change, "slower", "faster");
+                double sizeChange = change(median(endpoint.sizeA), median(endpoint.sizeB));
+                endpoint.sizeVerdict = verdict(sizeP[i], sizeChange, "larger", "smaller");
+            }
+            if (!Double.isNaN(errorP[i])) {
+                double rateA = endpoint.a.errors / (double) endpoint.a.total;
+                double rateB = endpoint.b.errors / (double) endpoint.b.total;
+                endpoint.errorVerdict = errorP[i] < alpha && rateA != rateB
+                        ? (rateB > rateA ? "more errors" : "fewer errors")
+                        : NOISE;
+            }
+            if ("slower".equals(endpoint.latencyVerdict) || "more errors".equals(endpoint.errorVerdict)) {
+                report.regressions++;
+            }
+            if ("faster".equals(endpoint.latencyVerdict) || "fewer errors".equals(endpoint.errorVerdict)) {
+                report.improvements++;
+            }
+        }
+        return report;
+    }
+
+    private boolean enough(long samplesA, long samplesB) {
+        return samplesA >= minSamples && samplesB >= minSamples;
+    }
+
+    private String verdict(double adjustedP, double changePercent, String up, String down) {
+        if (adjustedP >= alpha || Math.abs(changePercent) < effectPercent) {
+            return NOISE;
+        }
+        return changePercent > 0 ? up : down;
+    }
+
+    /**
+     * Relative change from {@code a} to {@code b} in percent.
+     */
+    private static double change(double a, double b) {
+        if (a == b) {
+            return 0;
+        }
+        return a == 0 ? Double.POSITIVE_INFINITY * Math.signum(b) : (b - a) * 100 / a;
+    }
+
+    private static double median(double[] sorted) {
+        return percentile(sorted, 50);
+    }
+
+    private static double percentile(double[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return Double.NaN;
+        }
+        int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    /**
+     * One rendered table; {@code verdicts} holds each row's verdict for highlighting.
+     */
+    private static final class Table {
+        private final String title;
+        private final List<String> headers;
+        private final List<List<String>> rows = new ArrayList<>();
+        private final List<String> verdicts = new ArrayList<>();
+
+        private Table(String title, String... headers) {
+            this.title = title;
+            this.headers = Arrays.asList(headers);
+        }
+
+        private void add(String verdict, String... cells) {
+            rows.add(Arrays.asList(cells));
+            verdicts.add(verdict);
+        }
+    }
+
+    private List<Table> tables(Report report) {
+        // Real shifts first, then by endpoint
+        Comparator<Endpoint> latencyFirst = Comparator.comparing((Endpoint e) -> rank(e.latencyVerdict))
+                .thenComparing(e -> e.name);
+        Comparator<Endpoint> sizeFirst = Comparator.comparing((Endpoint e) -> rank(e.sizeVerdict))
+                .thenComparing(e -> e.name);
+        Comparator<Endpoint> errorFirst = Comparator.comparing((Endpoint e) -> rank(e.errorVerdict))
+                .thenComparing(e -> e.name);
+
+        Table overview = new Table("Runs", "", "A: " + labelA, "B: " + labelB);
+        overview.add("", "Source", report.sources[0], report.sources[1]);
+        overview.add("", "Exchanges", String.valueOf(report.exchangesA), String.valueOf(report.exchangesB));
+        overview.add("", "Endpoints", String.valueOf(report.endpoints.size() + report.onlyA.size()),
+                String.valueOf(report.endpoints.size() + report.onlyB.size()));
+
+        Table latency = new Table("Latency (successful responses, ms)", "Endpoint", "n A", "n B", "p50 A", "p50 B",
+                "Δ p50", "p90 A", "p90 B", "p99 A", "p99 B", "p (adj)", "Verdict");
+        report.endpoints.stream().sorted(latencyFirst).forEach(e -> latency.add(e.latencyVerdict, e.name,
+                String.valueOf(e.latencyA.length), String.valueOf(e.latencyB.length),
+                number(median(e.latencyA)), number(median(e.latencyB)),
+                percent(change(median(e.latencyA), median(e.latencyB))),
+                number(percentile(e.latencyA, 90)), number(percentile(e.latencyB, 90)),
+                number(percentile(e.latencyA, 99)), number(percentile(e.latencyB, 99)),
+                pValue(e.latencyP), e.latencyVerdict));
+
+        Table size = new Table("Payload size (response body bytes)", "Endpoint", "median A", "median B", "Δ",
+                "p (adj)", "Verdict");
+        report.endpoints.stream().sorted(sizeFirst).forEach(e -> size.add(e.sizeVerdict, e.name,
+                number(median(e.sizeA)), number(median(e.sizeB)),
+                percent(change(median(e.sizeA), median(e.sizeB))), pValue(e.sizeP), e.sizeVerdict));
+
+        Table errors = new Table("Error rate (status 400 and above)", "Endpoint", "errors A", "errors B",
+                "rate A", "rate B", "p (adj)", "Verdict");
+        report.endpoints.stream().sorted(errorFirst).forEach(e -> errors.add(e.errorVerdict, e.name,
+                e.a.errors + "/" + e.a.total, e.b.errors + "/" + e.b.total,
+                rate(e.a.errors, e.a.total), rate(e.b.errors, e.b.total), pValue(e.errorP), e.errorVerdict));
+        return List.of(overview, latency, size, errors);
+    }
+
+    private static int rank(String verdict) {
+        return NOISE.equals(verdict) ? 1 : TOO_FEW.equals(verdict) ? 2 : 0;
+    }
+
+    private String criteria(Report report) {
+        return String.format(Locale.ROOT, "Real shift: p < %s after Benjamini-Hochberg adjustment over %d endpoints "
+                        + "(Mann-Whitney U for latency and size, two-proportion z-test for errors) and a median change "
+                        + "of at least %s%%. Endpoints with fewer than %d samples in either run are not tested.",
+                number(alpha), report.endpoints.size(), number(effectPercent), minSamples);
+    }
+
+    private static String headline(Report report) {
+        return report.regressions + " endpoint(s) regressed (slower or more errors), "
+                + report.improvements + " improved.";
+    }
+
+    private String markdown(Report report) {
+        StringBuilder md = new StringBuilder();
+        md.append("# A/B comparison: ").append(labelA).append(" vs ").append(labelB).append("\n\n");
+        md.append("**").append(headline(report)).append("**\n\n");
+        md.append(criteria(report)).append("\n");
+        for (Table table : tables(report)) {
+            md.append("\n## ").append(table.title).append("\n\n");
+            md.append("| ").append(String.join(" | ", table.headers)).append(" |\n");
+            md.append("|").append("---|".repeat(table.headers.size())).append("\n");
+            for (int i = 0; i < table.rows.size(); i++) {
+                boolean shift = rank(table.verdicts.get(i)) == 0 && !table.verdicts.get(i).isEmpty();
+                md.append("| ");
+                for (int cell = 0; cell < table.rows.get(i).size(); cell++) {
+                    String value = table.rows.get(i).get(cell).replace("|", "\\|");
+                    boolean verdictCell = cell == table.rows.get(i).size() - 1;
+                    md.append(shift && verdictCell ? "**" + value + "**" : value).append(" | ");
+                }
+                md.setLength(md.length() - 1);
+                md.append("\n");
+            }
+        }
+        appendOnly(md, "Only in " + labelA, report.onlyA);
+        appendOnly(md, "Only in " + labelB, report.onlyB);
+        return md.toString();
+    }
+
+    private static void appendOnly(StringBuilder md, String title, Set<String> endpoints) {
+        if (!endpoints.isEmpty()) {
+            md.append("\n## ").append(title).append("\n\n");
+            endpoints.forEach(endpoint -> md.append("- ").append(endpoint).append("\n"));
+        }
+    }
+
+    private String html(Report report) {
+        StringBuilder html = new StringBuilder();
+        String title = "A/B comparison: " + labelA + " vs " + labelB;
+        html.append("<!DOCTYPE html>\n<html><head><meta charset=\"utf-8\"><title>").append(escape(title))
+                .append("</title>\n<style>body{font-family:sans-serif;margin:2em}"
+                        + "table{border-collapse:collapse;margin-bottom:2em}"
+                        + "th,td{border:1px solid #ccc;padding:4px 8px;text-align:right}"
+                        + "th:first-child,td:first-child{text-align:left}th{background:#f0f0f0}"
+                        + "tr.worse{background:#fde2e2}tr.better{background:#e2f5e2}tr.untested{color:#999}"
+                        + "</style></head><body>\n");
+        html.append("<h1>").append(escape(title)).append("</h1>\n");
+        html.append("<p><b>").append(escape(headline(report))).append("</b></p>\n");
+        html.append("<p>").append(escape(criteria(report))).append("</p>\n");
+        for (Table table : tables(report)) {
+            html.append("<h2>").append(escape(table.title)).append("</h2>\n<table>\n<tr>");
+            table.headers.forEach(header -> html.append("<th>").append(escape(header)).append("</th>"));
+            html.append("</tr>\n");
+            for (int i = 0; i < table.rows.size(); i++) {
+                String css = cssClass(table.verdicts.get(i));
+                html.append(css.isEmpty() ? "<tr>" : "<tr class=\"" + css + "\">");
+                table.rows.get(i).forEach(cell -> html.append("<td>").append(escape(cell)).append("</td>"));
+                html.append("</tr>\n");
+            }
+            html.append("</table>\n");
+        }
+        appendOnlyHtml(html, "Only in " + labelA, report.onlyA);
+        appendOnlyHtml(html, "Only in " + labelB, report.onlyB);
+        return html.append("</body></html>\n").toString();
+    }
+
+    private static void appendOnlyHtml(StringBuilder html, String title, Set<String> endpoints) {
+        if (!endpoints.isEmpty()) {
+            html.append("<h2>").append(escape(title)).append("</h2>\n<ul>\n");
+            endpoints.forEach(endpoint -> html.append("<li>").append(escape(endpoint)).append("</li>\n"));
+            html.append("</ul>\n");
+        }
+    }
+
+    private static String cssClass(String verdict) {
+        switch (verdict) {
+            case "slower":
+            case "larger":
+            case "more errors":
+                return "worse";
+            case "faster":
+            case "smaller":
+            case "fewer errors":
+                return "better";
+            case TOO_FEW:
+                return "untested";
+            default:
+                return "";
+        }
+    }
+
+    private static String escape(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+
+    private static String number(double value) {
+        if (Double.isNaN(value)) {
+            return "-";
+        }
+        return value == Math.rint(value) && Math.abs(value) < 1e15
+                ? String.valueOf((long) value)
+                : String.format(Locale.ROOT, "%.2f", value);
+    }
+
+    private static String percent(double value) {
+        if (Double.isNaN(value)) {
+            return "-";
+        }
+        if (Double.isInfinite(value)) {
+            return value > 0 ? "+∞" : "-∞";
+        }
+        return String.format(Locale.ROOT, "%+.1f%%", value);
+    }
+
+    private static String rate(long errors, long total) {
+        return total == 0 ? "-" : String.format(Locale.ROOT, "%.2f%%", errors * 100.0 / total);
+    }
+
+    private static String pValue(double p) {
+        if (Double.isNaN(p)) {
+            return "-";
+        }
+        return p < 0.0001 ? "<0.0001" : String.format(Locale.ROOT, "%.4f", p);
+    }
+}
@@ -0,0 +1,122 @@
+package com.automation.recording;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.IntStream;
+
+/**
+ * Two-sample significance tests for comparing recorded runs.
+ * <p>
+ * - Mann-Whitney U on raw samples: rank-based, so it makes no assumption about the (long-tailed)
+ * shape of latency distributions and is not swayed by a few outliers
+ * - Two-proportion z-test for error rates
+ * - Benjamini-Hochberg adjustment for testing many endpoints at once
+ * </p>
+ * p-values use the normal approximation, which is accurate from about ten samples per side.
+ */
+final class Significance {
+
+    private Significance() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Two-sided Mann-Whitney U test with tie correction.
+     *
+     * @return p-value, or 1 when either sample is empty or all values are equal
+     */
+    static double mannWhitney(double[] a, double[] b) {
+        int n1 = a.length;
+        int n2 = b.length;
+        if (n1 == 0 || n2 == 0) {
+            return 1;
+        }
+        int n = n1 + n2;
+        double[] values = new double[n];
+        System.arraycopy(a, 0, values, 0, n1);
+        System.arraycopy(b, 0, values, n1, n2);
+        Integer[] order = IntStream.range(0, n).boxed().toArray(Integer[]::new);
+        Arrays.sort(order, Comparator.comparingDouble(i -> values[i]));
+
+        // Average ranks over ties, summing the ranks of the first sample
+        double rankSumA = 0;
+        double tieTerm = 0;
+        for (int start = 0; start < n; ) {
+            int end = start;
+            while (end + 1 < n && values[order[end + 1]] == values[order[start]]) {
+                end++;
+            }
+            double rank = (start + end) / 2.0 + 1;
+            for (int i = start; i <= end; i++) {
+                if (order[i] < n1) {
+                    rankSumA += rank;
+                }
+            }
+            double ties = end - start + 1;
+            tieTerm += ties * ties * ties - ties;
+            start = end + 1;
+        }
+
+        double u = rankSumA - n1 * (n1 + 1) / 2.0;
+        double mean = n1 * (double) n2 / 2;
+        double variance = n1 * (double) n2 / 12 * ((n + 1) - tieTerm / ((double) n * (n - 1)));
+        if (variance <= 0) {
+            return 1;
+        }
+        // Continuity correction
+        double z = Math.max(0, Math.abs(u - mean) - 0.5) / Math.sqrt(variance);
+        return Math.min(1, 2 * upperTail(z));
+    }
+
+    /**
+     * Two-sided pooled z-test for {@code errorsA / totalA} against {@code errorsB / totalB}.
+     *
+     * @return p-value, or 1 when either run has no requests or the pooled rate is 0 or 1
+     */
+    static double twoProportion(long errorsA, long totalA, long errorsB, long totalB) {
+        if (totalA == 0 || totalB == 0) {
+            return 1;
+        }
+        double pooled = (errorsA + errorsB) / (double) (totalA + totalB);
+        double variance = pooled * (1 - pooled) * (1.0 / totalA + 1.0 / totalB);
+        if (variance <= 0) {
+            return 1;
+        }
+        double z = Math.abs(errorsA / (double) totalA - errorsB / (double) totalB) / Math.sqrt(variance);
+        return Math.min(1, 2 * upperTail(z));
+    }
+
+    /**
+     * Benjamini-Hochberg adjusted p-values (false discovery rate), in the order given.
+     * NaN entries (tests that were not run) are ignored and stay NaN.
+     */
+    static double[] benjaminiHochberg(double[] pValues) {
+        Integer[] order = IntStream.range(0, pValues.length)
+                .filter(i -> !Double.isNaN(pValues[i]))
+                .boxed()
+                .sorted(Comparator.comparingDouble(i -> pValues[i]))
+                .toArray(Integer[]::new);
+        double[] adjusted = new double[pValues.length];
+        Arrays.fill(adjusted, Double.NaN);
+        double running = 1;
+        for (int rank = order.length; rank >= 1; rank--) {
+            int index = order[rank - 1];
+            running = Math.min(running, pValues[index] * order.length / rank);
+            adjusted[index] = running;
+        }
+        return adjusted;
+    }
+
+    /**
+     * {@code P(Z > z)} for the standard normal distribution (Chebyshev fit of erfc, relative error
+     * below 1.2e-7).
+     */
+    static double upperTail(double z) {
+        double x = Math.abs(z) / Math.sqrt(2);
+        double t = 1 / (1 + 0.5 * x);
+        double erfc = t * Math.exp(-x * x - 1.26551223 + t * (1.00002368 + t * (0.37409196 + t * (0.09678418
+                + t * (-0.18628806 + t * (0.27886807 + t * (-1.13520398 + t * (1.48851587
+                + t * (-0.82215223 + t * 0.17087277)))))))));
+        return z >= 0 ? erfc / 2 : 1 - erfc / 2;
+    }
+}
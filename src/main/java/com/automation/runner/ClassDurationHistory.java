@@ -0,0 +1,186 @@
+package com.automation.runner;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * Historical per-class execution time, taken from TestNG results.
+ * <p>
+ * Durations are the sum of all test and configuration method times of a class in
+ * {@code testng-results.xml}. They are kept as an exponentially weighted average in
+ * a properties file (system property {@code durations.file}, default
+ * {@code target/class-durations.properties}); point it outside {@code target} to keep
+ * the history across {@code mvn clean}. Unknown classes fall back to
+ * {@code durations.default.ms} (default 30000).
+ * </p>
+ */
+public final class ClassDurationHistory {
+
+    private static final Logger logger = LogManager.getLogger(ClassDurationHistory.class);
+
+    public static final Path DEFAULT_RESULTS = Paths.get("target", "surefire-reports", "testng-results.xml");
+    private static final String DEFAULT_FILE = "target/class-durations.properties";
+
+    /**
+     * Weight of the newest run in the moving average.
+     */
+    private static final double ALPHA = 0.5;
+
+    private final Path file;
+    private final Map<String, Long> durations = new HashMap<>();
+    private final long defaultMillis;
+
+    private ClassDurationHistory(Path file, long defaultMillis) {
+        this.file = file;
+        this.defaultMillis = defaultMillis;
+    }
+
+    /**
+     * Load the stored history (empty if no file exists yet).
+     */
+    public static ClassDurationHistory load() {
+        Path file = Paths.get(System.getProperty("durations.file", DEFAULT_FILE));
+        ClassDurationHistory history = new ClassDurationHistory(file, Long.getLong("durations.default.ms", 30_000L));
+        if (Files.isRegularFile(file)) {
+            Properties properties = new Properties();
+            try (InputStream in = Files.newInputStream(file)) {
+                properties.load(in);
+            } catch (IOException e) {
+                logger.warn("Unable to read class durations from {}: {}", file, e.getMessage());
+            }
+            for (String key : properties.stringPropertyNames()) {
+                try {
+                    history.durations.put(key, Long.parseLong(properties.getProperty(key).trim()));
+                } catch (NumberFormatException e) {
+                    logger.warn("Ignoring invalid duration for {}", key);
+                }
+            }
+        }
+        logger.debug("Loaded {} class durations from {}", history.durations.size(), file);
+        return history;
+    }
+
+    /**
+     * Historical duration of a class in milliseconds, or the default for new classes.
+     */
+    public long durationOf(String className) {
+        return durations.getOrDefault(className, defaultMillis);
+    }
+
+    public boolean isKnown(String className) {
+        return durations.containsKey(className);
+    }
+
+    /**
+     * Fold the durations of a TestNG results file into the history (in memory).
+     *
+     * @return number of classes updated
+     */
+    public int record(Path testngResults) {
+        Map<String, Long> latest = readTestNgResults(testngResults);
+        latest.forEach((className, millis) -> durations.merge(className, millis,
+                (previous, current) -> Math.round(ALPHA * current + (1 - ALPHA) * previous)));
+        return latest.size();
+    }
+
+    /**
+     * Record a results file only if it is newer than the stored history,
+     * so the same run is never averaged in twice.
+     *
+     * @return number of classes updated
+     */
+    public int recordIfNewer(Path testngResults) {
+        try {
+            if (!Files.isRegularFile(testngResults)) {
+                return 0;
+            }
+            if (Files.isRegularFile(file)
+                    && Files.getLastModifiedTime(testngResults).compareTo(Files.getLastModifiedTime(file)) <= 0) {
+                return 0;
+            }
+        } catch (IOException e) {
+            logger.warn("Unable to compare {} with {}: {}", testngResults, file, e.getMessage());
+            return 0;
+        }
+        return record(testngResults);
+    }
+
+    /**
+     * Write the history back to its file.
+     */
+    public void save() {
+        Properties properties = new Properties() {
+            @Override
+            public synchronized java.util.Set<Map.Entry<Object, Object>> entrySet() {
+                // Stable, sorted output keeps diffs of the history file readable.
+                // Copy from super: new TreeMap<>(this) would call this method again.
+                Map<Object, Object> sorted = new TreeMap<>();
+                super.entrySet().forEach(entry -> sorted.put(entry.getKey(), entry.getValue()));
+                return new java.util.LinkedHashSet<>(sorted.entrySet());
+            }
+        };
+        durations.forEach((key, value) -> properties.setProperty(key, String.valueOf(value)));
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            Path temp = Files.createTempFile(file.toAbsolutePath().getParent(), "class-durations", ".tmp");
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                properties.store(out, "Per-class test durations (ms) - Updated from TestNG results");
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            logger.info("Saved {} class durations to {}", durations.size(), file);
+        } catch (IOException e) {
+            logger.error("Failed to save class durations to {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Sum method durations per class from a testng-results.xml file.
+     */
+    public static Map<String, Long> readTestNgResults(Path testngResults) {
+        Map<String, Long> totals = new HashMap<>();
+        if (!Files.isRegularFile(testngResults)) {
+            logger.debug("No TestNG results at {}", testngResults);
+            return totals;
+        }
+        try (InputStream in = Files.newInputStream(testngResults)) {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+            Document document = factory.newDocumentBuilder().parse(in);
+
+            NodeList classes = document.getElementsByTagName("class");
+            for (int i = 0; i < classes.getLength(); i++) {
+                Element classElement = (Element) classes.item(i);
+                NodeList methods = classElement.getElementsByTagName("test-method");
+                long sum = 0;
+                for (int j = 0; j < methods.getLength(); j++) {
+                    String duration = ((Element) methods.item(j)).getAttribute("duration-ms");
+                    if (!duration.isEmpty()) {
+                        sum += Long.parseLong(duration);
+                    }
+                }
+                totals.merge(classElement.getAttribute("name"), sum, Long::sum);
+            }
+        } catch (Exception e) {
+            logger.warn("Unable to parse TestNG results {}: {}", testngResults, e.getMessage());
+        }
+        return totals;
+    }
+}
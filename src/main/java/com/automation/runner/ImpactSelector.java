@@ -0,0 +1,342 @@
+package com.automation.runner;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.TestNG;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Selects the test classes affected by a git diff and runs only those.
+ * <p>
+ * Each suite class is mapped to what its source uses:
+ * - Endpoint and status constants ({@code BombEndpoints.LOGIN}, {@code BuyerAppEndpoints.HOME_BANNERS}, ...)
+ * - Request/response models it imports, including models that embed a changed model
+ * </p>
+ * <p>
+ * A changed constant or model selects the classes using it, a changed test class selects itself.
+ * Upstream producers are added so the selection still runs: earlier classes of the same chain
+ * unit ({@link TestUnits}) and {@code @ChainRoot} classes such as the login tests. Changes to
+ * shared framework code (base, config, utils, listeners, suite files, pom.xml) select everything;
+ * docs and CI files select nothing.
+ * </p>
+ *
+ * <p><b>System properties:</b></p>
+ * <ul>
+ *     <li>{@code impact.base} - base branch; changes are taken since its merge-base with HEAD
+ *     (default origin/main)</li>
+ *     <li>{@code impact.suite} - generated suite file (default target/impacted/testng-impacted.xml)</li>
+ *     <li>{@code impact.run} - run the selection with TestNG after writing it (default true)</li>
+ *     <li>{@code env} - environment passed to the suite (default "default")</li>
+ * </ul>
+ *
+ * <p>Run with {@code mvn test -Pimpacted -Dimpact.base=origin/main}.</p>
+ */
+public final class ImpactSelector {
+
+    private static final Logger logger = LogManager.getLogger(ImpactSelector.class);
+
+    private static final String TEST_SOURCES = "src/test/java/";
+    private static final String CONSTANTS_DIR = "src/main/java/com/automation/constants/";
+    private static final String MODELS_DIR = "src/main/java/com/automation/models/";
+    private static final String RUNNER_DIR = "src/main/java/com/automation/runner/";
+
+    /**
+     * Changes under these paths can affect every test.
+     */
+    private static final List<String> SHARED_PATHS = List.of(
+            "pom.xml", "src/main/java/", "src/main/resources/", "src/test/resources/");
+
+    private static final Pattern CONSTANT_DECLARATION =
+            Pattern.compile("^[+-]\\s*public static final \\w+ (\\w+)\\s*=");
+    private static final Pattern CONSTANT_USE = Pattern.compile("\\b([A-Z]\\w*)\\.([A-Z][A-Z0-9_]*)\\b");
+    private static final Pattern MODEL_IMPORT =
+            Pattern.compile("import com\\.automation\\.models\\.\\w+\\.(\\w+|\\*);");
+    private static final Pattern CHAIN_ROOT = Pattern.compile("@ChainRoot\\(downstream\\s*=\\s*\\{?([^)}]*)");
+    private static final Pattern QUOTED = Pattern.compile("\"([^\"]+)\"");
+
+    private ImpactSelector() {
+        // Prevent instantiation
+    }
+
+    public static void main(String[] args) throws IOException {
+        String base = System.getProperty("impact.base", "origin/main");
+        String env = System.getProperty("env", "default");
+        Path suite = Paths.get(System.getProperty("impact.suite", "target/impacted/testng-impacted.xml"));
+
+        // Diff against the fork point, so work merged into the base since then does not count
+        String forkPoint = mergeBase(base);
+        logger.info("Selecting changes since {} (merge-base {})", base, forkPoint);
+        List<String> changedFiles = changedFiles(forkPoint);
+        Map<String, Set<String>> changedConstants = changedConstants(forkPoint);
+        List<String> selected = select(TestUnits.load(), changedFiles, changedConstants);
+
+        if (selected.isEmpty()) {
+            logger.info("No test classes affected by changes since {}", base);
+            System.exit(0);
+        }
+
+        ClassDurationHistory history = ClassDurationHistory.load();
+        // The previous run's results are the most recent durations we have
+        if (history.recordIfNewer(ClassDurationHistory.DEFAULT_RESULTS) > 0) {
+            history.save();
+        }
+        SuiteXml.write(suite, "Impacted", "Generated by ImpactSelector - changes since " + base, env, selected, history);
+        logger.info("Wrote {} impacted classes to {}", selected.size(), suite);
+
+        if (!Boolean.parseBoolean(System.getProperty("impact.run", "true"))) {
+            return;
+        }
+        TestNG testng = new TestNG();
+        testng.setTestSuites(List.of(suite.toString()));
+        testng.setOutputDirectory(ClassDurationHistory.DEFAULT_RESULTS.getParent().toString());
+        testng.run();
+        System.exit(testng.getStatus() == 0 ? 0 : 1);
+    }
+
+    /**
+     * Select the suite classes affected by the given changes, in suite order.
+     *
+     * @param units            Suite units in order
+     * @param changedFiles     Repository-relative paths changed since the base revision
+     * @param changedConstants Constants class simple name to changed constant names
+     * @return Affected classes plus their upstream producers
+     */
+    public static List<String> select(List<TestUnits.Unit> units, List<String> changedFiles,
+                                      Map<String, Set<String>> changedConstants) throws IOException {
+        List<String> suiteClasses = units.stream()
+                .flatMap(unit -> unit.getClasses().stream())
+                .collect(Collectors.toList());
+        Map<String, String> sources = new LinkedHashMap<>();
+        for (String className : suiteClasses) {
+            Path source = Paths.get(TEST_SOURCES + className.replace('.', '/') + ".java");
+            sources.put(className, Files.isRegularFile(source) ? Files.readString(source) : "");
+        }
+
+        Set<String> changedModels = new HashSet<>();
+        Set<String> selected = new HashSet<>();
+        for (String file : changedFiles) {
+            if (file.startsWith(RUNNER_DIR)) {
+                continue;
+            }
+            if (file.startsWith(TEST_SOURCES) && file.endsWith(".java")) {
+                String className = file.substring(TEST_SOURCES.length(), file.length() - ".java".length())
+                        .replace('/', '.');
+                if (sources.containsKey(className)) {
+                    logger.info("{} changed", className);
+                    selected.add(className);
+                }
+            } else if (file.startsWith(MODELS_DIR) && file.endsWith(".java")) {
+                changedModels.add(Paths.get(file).getFileName().toString().replace(".java", ""));
+            } else if (file.startsWith(CONSTANTS_DIR)) {
+                // Handled through the changed constant names
+                continue;
+            } else if (SHARED_PATHS.stream().anyMatch(file::startsWith)) {
+                logger.info("Shared file {} changed, selecting all {} classes", file, suiteClasses.size());
+                return suiteClasses;
+            }
+        }
+
+        Set<String> affectedModels = withEmbeddingModels(changedModels);
+        sources.forEach((className, source) -> {
+            for (String constant : constantsUsedBy(source)) {
+                String[] parts = constant.split("\\.");
+                if (changedConstants.getOrDefault(parts[0], Set.of()).contains(parts[1])) {
+                    logger.info("{} uses changed {}", className, constant);
+                    selected.add(className);
+                }
+            }
+            for (String model : modelsUsedBy(source, affectedModels)) {
+                logger.info("{} uses changed model {}", className, model);
+                selected.add(className);
+            }
+        });
+
+        addProducers(units, sources, selected);
+        return suiteClasses.stream().filter(selected::contains).collect(Collectors.toList());
+    }
+
+    /**
+     * Add earlier classes of each selected class's unit, then the chain roots they depend on.
+     */
+    private static void addProducers(List<TestUnits.Unit> units, Map<String, String> sources, Set<String> selected) {
+        addUnitPredecessors(units, selected);
+
+        sources.forEach((className, source) -> {
+            Matcher rootMatcher = CHAIN_ROOT.matcher(source);
+            if (!rootMatcher.find() || selected.contains(className)) {
+                return;
+            }
+            Matcher downstream = QUOTED.matcher(rootMatcher.group(1));
+            while (downstream.find()) {
+                String prefix = downstream.group(1) + ".";
+                if (selected.stream().anyMatch(name -> name.startsWith(prefix))) {
+                    logger.info("Adding upstream producer {}", className);
+                    selected.add(className);
+                    break;
+                }
+            }
+        });
+
+        addUnitPredecessors(units, selected);
+    }
+
+    private static void addUnitPredecessors(List<TestUnits.Unit> units, Set<String> selected) {
+        for (TestUnits.Unit unit : units) {
+            List<String> classes = unit.getClasses();
+            int last = -1;
+            for (int i = 0; i < classes.size(); i++) {
+                if (selected.contains(classes.get(i))) {
+                    last = i;
+                }
+            }
+            selected.addAll(classes.subList(0, last + 1));
+        }
+    }
+
+    /**
+     * Changed models plus every model that (transitively) embeds one of them.
+     */
+    private static Set<String> withEmbeddingModels(Set<String> changedModels) throws IOException {
+        Set<String> affected = new LinkedHashSet<>(changedModels);
+        if (affected.isEmpty() || !Files.isDirectory(Paths.get(MODELS_DIR))) {
+            return affected;
+        }
+        Map<String, String> modelSources = new HashMap<>();
+        try (Stream<Path> files = Files.walk(Paths.get(MODELS_DIR))) {
+            for (Path file : files.filter(path -> path.toString().endsWith(".java")).collect(Collectors.toList())) {
+                modelSources.put(file.getFileName().toString().replace(".java", ""), Files.readString(file));
+            }
+        }
+        boolean grown = true;
+        while (grown) {
+            grown = false;
+            for (Map.Entry<String, String> model : modelSources.entrySet()) {
+                if (!affected.contains(model.getKey()) && mentionsAny(model.getValue(), affected)) {
+                    affected.add(model.getKey());
+                    grown = true;
+                }
+            }
+        }
+        return affected;
+    }
+
+    private static Set<String> constantsUsedBy(String source) {
+        Set<String> constants = new LinkedHashSet<>();
+        Matcher matcher = CONSTANT_USE.matcher(source);
+        while (matcher.find()) {
+            constants.add(matcher.group(1) + "." + matcher.group(2));
+        }
+        return constants;
+    }
+
+    private static Set<String> modelsUsedBy(String source, Set<String> affectedModels) {
+        Set<String> used = new LinkedHashSet<>();
+        Matcher matcher = MODEL_IMPORT.matcher(source);
+        while (matcher.find()) {
+            String imported = matcher.group(1);
+            if ("*".equals(imported)) {
+                affectedModels.stream().filter(model -> mentionsAny(source, Set.of(model))).forEach(used::add);
+            } else if (affectedModels.contains(imported)) {
+                used.add(imported);
+            }
+        }
+        return used;
+    }
+
+    private static boolean mentionsAny(String source, Collection<String> names) {
+        for (String name : names) {
+            if (Pattern.compile("\\b" + Pattern.quote(name) + "\\b").matcher(source).find()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Commit where HEAD forked from the base branch.
+     */
+    static String mergeBase(String base) {
+        List<String> lines = git("merge-base", base, "HEAD");
+        if (lines.isEmpty()) {
+            throw new IllegalStateException("No merge-base between " + base + " and HEAD");
+        }
+        return lines.get(0).trim();
+    }
+
+    /**
+     * Files changed since the base revision, including uncommitted and untracked files.
+     * Run state (variable store, class durations, startup trend) lives under {@code target}
+     * and git-ignored files are not listed, so only real source changes are returned.
+     */
+    static List<String> changedFiles(String base) {
+        List<String> files = new ArrayList<>(git("diff", "--name-only", base));
+        files.addAll(git("ls-files", "--others", "--exclude-standard"));
+        return files;
+    }
+
+    /**
+     * Names of constants added, removed or changed in the constants package since the base revision.
+     *
+     * @return Constants class simple name (e.g. BombEndpoints) to changed constant names
+     */
+    static Map<String, Set<String>> changedConstants(String base) {
+        Map<String, Set<String>> changed = new HashMap<>();
+        String currentClass = null;
+        for (String line : git("diff", "-U0", base, "--", CONSTANTS_DIR)) {
+            if (line.startsWith("+++ ")) {
+                String path = line.substring(line.lastIndexOf('/') + 1);
+                currentClass = path.endsWith(".java") ? path.substring(0, path.length() - ".java".length()) : null;
+                continue;
+            }
+            if (line.startsWith("--- ") || currentClass == null) {
+                continue;
+            }
+            Matcher matcher = CONSTANT_DECLARATION.matcher(line);
+            if (matcher.find()) {
+                changed.computeIfAbsent(currentClass, key -> new HashSet<>()).add(matcher.group(1));
+            }
+        }
+        return changed;
+    }
+
+    private static List<String> git(String... args) {
+        List<String> command = new ArrayList<>();
+        command.add("git");
+        command.addAll(List.of(args));
+        try {
+            Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+            List<String> lines;
+            try (InputStream in = process.getInputStream()) {
+                lines = new String(in.readAllBytes(), StandardCharsets.UTF_8).lines().collect(Collectors.toList());
+            }
+            if (process.waitFor() != 0) {
+                throw new IllegalStateException("git " + String.join(" ", args) + " failed: " + String.join("\n", lines));
+            }
+            return lines;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to run git", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while running git", e);
+        }
+    }
+}
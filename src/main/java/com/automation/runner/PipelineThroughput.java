@@ -0,0 +1,355 @@
+package com.automation.runner;
+
+import com.automation.base.ApiService;
+import com.automation.base.ServiceContext;
+import com.automation.config.ConfigManager;
+import com.automation.constants.BombEndpoints;
+import com.automation.stub.PipelineStubServer;
+import com.automation.utils.JsonUtils;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.qameta.allure.Allure;
+import io.qameta.allure.AllureLifecycle;
+import io.qameta.allure.model.Status;
+import io.qameta.allure.model.TestResult;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+
+/**
+ * Measures pipeline throughput by running many BOMB pipeline chains concurrently against
+ * the stateful stub ({@link PipelineStubServer}), fully offline.
+ * <p>
+ * Each chain goes through the framework's BOMB client stack ({@link ServiceContext}: filters,
+ * Allure attachments, Jackson) and is reported as one Allure test case, like a suite run:
+ * - Video: upload → assigned list → thumbnail upload → mark done → videos to tag → tag
+ * - Catalog: list → assign → editor list → images → group → tag → done (every 4th chain skips instead)
+ * Every chain uses its own seller, so chains never wait on each other's state.
+ * </p>
+ * Reports chains/s, requests/s and per-step latency percentiles to the log and to
+ * {@code target/pipeline/throughput.json}.
+ *
+ * <p><b>System properties:</b></p>
+ * <ul>
+ *     <li>{@code pipeline.chains} - measured chains per kind (default 200)</li>
+ *     <li>{@code pipeline.warmup} - unmeasured chains per kind run first (default 20)</li>
+ *     <li>{@code pipeline.concurrency} - chains in flight (default 16)</li>
+ *     <li>{@code pipeline.kind} - video, catalog or both (default both)</li>
+ *     <li>{@code pipeline.url} - an already running stub; an embedded one is started otherwise</li>
+ * </ul>
+ *
+ * <p><b>Usage Example:</b></p>
+ * <pre>
+ * mvn test -Ppipeline-throughput -Dpipeline.chains=500 -Dpipeline.concurrency=32
+ * </pre>
+ */
+public final class PipelineThroughput {
+
+    private static final Logger logger = LogManager.getLogger(PipelineThroughput.class);
+
+    private static final Path REPORT = Paths.get("target", "pipeline", "throughput.json");
+    private static final String EDITOR_ID = "64f180feaa90ffbd54b330f5";
+
+    private final ServiceContext context;
+    private final String baseUrl;
+    private final String authorization;
+    private final Map<String, ConcurrentLinkedQueue<Long>> stepNanos = new ConcurrentHashMap<>();
+    private final AtomicLong requests = new AtomicLong();
+    private volatile boolean measuring;
+
+    private PipelineThroughput(ServiceContext context, String baseUrl) {
+        this.context = context;
+        this.baseUrl = baseUrl;
+        // Not a chain: no Allure test case is running, and its reporting is not what is measured
+        Response login = ServiceContext.create(ApiService.BOMB, ConfigManager.getInstance(), false).given()
+                .baseUri(baseUrl)
+                .body("{\"phoneNumber\":\"+910000000000\",\"token\":\"stub\"}")
+                .post(BombEndpoints.LOGIN);
+        this.authorization = "JWT " + login.path("data.accessToken");
+    }
+
+    public static void main(String[] args) throws Exception {
+        int chains = Integer.getInteger("pipeline.chains", 200);
+        int warmup = Integer.getInteger("pipeline.warmup", 20);
+        int concurrency = Integer.getInteger("pipeline.concurrency", 16);
+        String kind = System.getProperty("pipeline.kind", "both").toLowerCase(Locale.ROOT);
+        if (!List.of("video", "catalog", "both").contains(kind)) {
+            throw new IllegalArgumentException("Unknown pipeline.kind '" + kind + "', expected video, catalog or both");
+        }
+        // Stub config (no request logging) and chain results kept apart from suite results
+        System.setProperty("env", System.getProperty("env", "pipeline"));
+        System.setProperty("allure.results.directory",
+                System.getProperty("allure.results.directory", "target/pipeline/allure-results"));
+
+        String url = System.getProperty("pipeline.url");
+        PipelineStubServer stub = url == null ? PipelineStubServer.start(0, Math.max(8, concurrency)) : null;
+        String baseUrl = stub != null ? stub.baseUrl() : url;
+        ServiceContext context = ServiceContext.create(ApiService.BOMB, ConfigManager.getInstance());
+        // Allure creates its lifecycle lazily and not thread-safely: create it before the chain threads
+        Allure.getLifecycle();
+        PipelineThroughput driver = new PipelineThroughput(context, baseUrl);
+
+        List<String> kinds = "both".equals(kind) ? List.of("video", "catalog") : List.of(kind);
+        driver.run(kinds, warmup, concurrency);
+        driver.measuring = true;
+        long requestsBefore = driver.requests.get();
+        long start = System.nanoTime();
+        int failed = driver.run(kinds, chains, concurrency);
+        long elapsedNanos = System.nanoTime() - start;
+
+        ObjectNode report = driver.report(kinds, chains, failed, concurrency, elapsedNanos,
+                driver.requests.get() - requestsBefore);
+        if (stub != null) {
+            report.putObject("stub")
+                    .put("requests", stub.requestCount())
+                    .put("rejected", stub.rejectedCount())
+                    .put("transitions", stub.getState().transitionCount());
+            stub.stop();
+        }
+        Files.createDirectories(REPORT.getParent());
+        Files.writeString(REPORT, JsonUtils.toJson(report));
+        logger.info("Pipeline throughput report written to {}", REPORT);
+        if (failed > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Run {@code chains} chains of every kind, interleaved, with {@code concurrency} in flight.
+     *
+     * @return Number of failed chains
+     */
+    private int run(List<String> kinds, int chains, int concurrency) throws InterruptedException {
+        AtomicInteger failed = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "pipeline-chain");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < chains; i++) {
+            for (String kind : kinds) {
+                int chain = i;
+                IntConsumer body = "video".equals(kind) ? this::videoChain : this::catalogChain;
+                pool.execute(() -> {
+                    if (!chain(kind, chain, body)) {
+                        failed.incrementAndGet();
+                    }
+                });
+            }
+        }
+        pool.shutdown();
+        if (!pool.awaitTermination(1, TimeUnit.HOURS)) {
+            throw new IllegalStateException("Pipeline chains did not finish within an hour");
+        }
+        return failed.get();
+    }
+
+    /**
+     * Run one chain as an Allure test case.
+     */
+    private boolean chain(String kind, int chain, IntConsumer body) {
+        AllureLifecycle lifecycle = Allure.getLifecycle();
+        String uuid = UUID.randomUUID().toString();
+        lifecycle.scheduleTestCase(new TestResult().setUuid(uuid)
+                .setName(kind + " pipeline chain " + chain)
+                .setFullName(PipelineThroughput.class.getName() + "." + kind + "Chain"));
+        lifecycle.startTestCase(uuid);
+        Status status = Status.PASSED;
+        try {
+            long start = System.nanoTime();
+            body.accept(chain);
+            record(kind + " chain", System.nanoTime() - start);
+            return true;
+        } catch (RuntimeException e) {
+            status = Status.FAILED;
+            logger.error("{} chain {} failed: {}", kind, chain, e.getMessage());
+            return false;
+        } finally {
+            Status result = status;
+            lifecycle.updateTestCase(uuid, testResult -> testResult.setStatus(result));
+            lifecycle.stopTestCase(uuid);
+            lifecycle.writeTestCase(uuid);
+        }
+    }
+
+    private void videoChain(int chain) {
+        String seller = newId();
+        Response upload = step("video upload", 201, spec -> spec
+                .body(Map.of("videoLink", "https://storage.stub.local/videos/" + chain + ".mp4",
+                        "videoType", "Video",
+                        "description", "Throughput chain " + chain,
+                        "seller", Map.of("_id", seller, "phoneNumber", "+910000000000", "value", seller),
+                        "editor", Map.of("_id", EDITOR_ID, "name", "Throughput Editor")))
+                .post(BombEndpoints.VIDEO_UPLOAD));
+        String uploadId = upload.path("data._id");
+
+        Response assigned = step("video assigned list", 200, spec -> spec
+                .queryParam("limit", 20)
+                .get(BombEndpoints.VIDEO_ASSIGN_UPLOAD + "/" + seller));
+        expect(assigned.<List<String>>path("data.data._id").contains(uploadId), "upload not in assigned list");
+
+        Response thumbnail = step("video thumbnail upload", 200, spec -> spec
+                .body(Map.of("uploadId", uploadId,
+                        "videoLink", "https://storage.stub.local/videos/" + chain + ".mp4",
+                        "thumbnailLink", "https://storage.stub.local/thumbnails/" + chain + ".jpg",
+                        "seller", Map.of("_id", seller)))
+                .post(BombEndpoints.VIDEO_THUMBNAIL_UPLOAD + "/" + seller));
+        String videoId = thumbnail.path("data._id");
+
+        step("video mark done", 200, spec -> spec
+                .post(BombEndpoints.VIDEO_UPLOAD_DONE + "/" + seller + "/" + uploadId));
+
+        Response toTag = step("video tagging list", 200, spec -> spec
+                .pathParam("sellerId", seller)
+                .queryParam("limit", 20)
+                .get(BombEndpoints.VIDEOS_BY_SELLER));
+        expect(toTag.<List<String>>path("data.data._id").contains(videoId), "video not in tagging list");
+
+        step("video tag", 200, spec -> spec
+                .body(Map.of("product_id", "P" + chain, "tags", List.of("saree", "cotton"),
+                        "suggested", List.of(), "title", "Cotton saree", "price", "499"))
+                .post(BombEndpoints.VIDEO_TAGGING + "/" + seller + "/" + videoId));
+    }
+
+    private void catalogChain(int chain) {
+        String seller = newId();
+        Response seeded = step("catalog seed", 200, spec -> spec
+                .body(Map.of("sellerId", seller, "phoneNumber", "+910000000000", "count", 1, "images", 3))
+                .post("/stub/catalogs"));
+        String catalogId = seeded.path("data[0]");
+
+        Response listed = step("catalog list", 200, spec -> spec
+                .queryParams(Map.of("limit", 20, "seller", seller))
+                .get(BombEndpoints.CATALOG));
+        expect(listed.<List<String>>path("data[0].data._id").contains(catalogId), "catalog not listed");
+
+        step("catalog assign", 200, spec -> spec
+                .body(Map.of("editor", Map.of("_id", EDITOR_ID, "user_id", EDITOR_ID)))
+                .post(BombEndpoints.CATALOG_ASSIGN + "/" + catalogId));
+
+        step("catalog editor list", 200, spec -> spec
+                .queryParams(Map.of("seller_id", seller, "mode", "all"))
+                .post(BombEndpoints.EDITOR_ASSIGN_CATALOG + "/" + seller));
+
+        step("catalog images", 200, spec -> spec
+                .queryParams(Map.of("limit", 20, "seller_id", seller, "mode", "all"))
+                .get(BombEndpoints.CATALOG_UPLOAD + "/" + catalogId));
+
+        Response group = step("catalog group", 200, spec -> spec
+                .queryParams(Map.of("seller_id", seller, "mode", "add"))
+                .get(BombEndpoints.CATALOG_GROUP_UPLOAD + "/" + catalogId));
+        List<String> images = group.path("data.data._id");
+        expect(!images.isEmpty(), "no images to tag");
+
+        step("catalog tag", 200, spec -> spec
+                .body(Map.of("product_id", "P" + chain, "tags", List.of("kurti"), "suggested", List.of(),
+                        "images", images.subList(0, 1), "title", "Printed kurti", "price", 349.0,
+                        "isQc", false, "isSet", false))
+                .post(BombEndpoints.CATALOG + "/" + catalogId));
+
+        if (chain % 4 == 3) {
+            step("catalog skip", 200, spec -> spec
+                    .post(BombEndpoints.EDITOR_SKIP_CATALOG + "/" + seller + "/" + catalogId));
+        } else {
+            step("catalog mark done", 200, spec -> spec
+                    .post(BombEndpoints.EDITOR_DONE_CATALOG + "/" + seller + "/" + catalogId));
+        }
+    }
+
+    /**
+     * Send one request of a chain, time it and check its status.
+     */
+    private Response step(String name, int expectedStatus, Function<RequestSpecification, Response> request) {
+        long start = System.nanoTime();
+        Response response = request.apply(context.given().baseUri(baseUrl).header("authorization", authorization));
+        record(name, System.nanoTime() - start);
+        requests.incrementAndGet();
+        if (response.getStatusCode() != expectedStatus) {
+            throw new IllegalStateException(name + " returned " + response.getStatusCode() + ": "
+                    + response.path("message"));
+        }
+        return response;
+    }
+
+    private void record(String name, long nanos) {
+        if (measuring) {
+            stepNanos.computeIfAbsent(name, key -> new ConcurrentLinkedQueue<>()).add(nanos);
+        }
+    }
+
+    private ObjectNode report(List<String> kinds, int chains, int failed, int concurrency, long elapsedNanos,
+                              long measuredRequests) {
+        double seconds = elapsedNanos / 1e9;
+        int total = chains * kinds.size();
+        ObjectNode report = JsonUtils.getObjectMapper().createObjectNode();
+        report.put("kinds", String.join(",", kinds));
+        report.put("chains", total);
+        report.put("failed", failed);
+        report.put("concurrency", concurrency);
+        report.put("durationMs", Math.round(elapsedNanos / 1e6));
+        report.put("chainsPerSecond", round((total - failed) / seconds));
+        report.put("requestsPerSecond", round(measuredRequests / seconds));
+        ObjectNode steps = report.putObject("steps");
+
+        logger.info(String.format("%d chains (%s, %d failed) in %.1f s with %d in flight: %.1f chains/s, %.1f requests/s",
+                total, String.join(" + ", kinds), failed, seconds, concurrency,
+                (total - failed) / seconds, measuredRequests / seconds));
+        logger.info(String.format("%-24s %7s %9s %9s %9s %9s", "step", "count", "p50 ms", "p95 ms", "p99 ms", "max ms"));
+        stepNanos.keySet().stream().sorted().forEach(name -> {
+            List<Long> sorted = new ArrayList<>(stepNanos.get(name));
+            sorted.sort(null);
+            ObjectNode step = steps.putObject(name);
+            step.put("count", sorted.size());
+            step.put("p50Ms", millis(percentile(sorted, 50)));
+            step.put("p95Ms", millis(percentile(sorted, 95)));
+            step.put("p99Ms", millis(percentile(sorted, 99)));
+            step.put("maxMs", millis(sorted.get(sorted.size() - 1)));
+            logger.info(String.format("%-24s %7d %9.2f %9.2f %9.2f %9.2f", name, sorted.size(),
+                    step.get("p50Ms").asDouble(), step.get("p95Ms").asDouble(),
+                    step.get("p99Ms").asDouble(), step.get("maxMs").asDouble()));
+        });
+        return report;
+    }
+
+    private static void expect(boolean condition, String message) {
+        if (!condition) {
+            throw new IllegalStateException(message);
+        }
+    }
+
+    private static String newId() {
+        return String.format("%024x", ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE);
+    }
+
+    private static long percentile(List<Long> sorted, int percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(index, sorted.size() - 1)));
+    }
+
+    private static double millis(long nanos) {
+        return round(nanos / 1e6);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
@@ -0,0 +1,118 @@
+package com.automation.runner;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Splits test units across N shards so every shard takes roughly the same time.
+ * <p>
+ * Uses longest-processing-time-first: units are sorted by historical duration and each
+ * one goes to the currently lightest shard. Units (login, pipelines, HomePage, ...) are never
+ * split, and their classes keep suite order inside a shard.
+ * </p>
+ */
+public final class ShardPlanner {
+
+    private static final Logger logger = LogManager.getLogger(ShardPlanner.class);
+
+    private ShardPlanner() {
+        // Prevent instantiation
+    }
+
+    /**
+     * One shard: its units (in suite order) and estimated duration.
+     */
+    public static final class Shard {
+        private final int index;
+        private final List<TestUnits.Unit> units = new ArrayList<>();
+        private long estimatedMillis;
+
+        private Shard(int index) {
+            this.index = index;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public List<TestUnits.Unit> getUnits() {
+            return units;
+        }
+
+        public long getEstimatedMillis() {
+            return estimatedMillis;
+        }
+    }
+
+    /**
+     * Estimated duration of a unit: the sum of its classes.
+     */
+    public static long weightOf(TestUnits.Unit unit, ClassDurationHistory history) {
+        return unit.getClasses().stream().mapToLong(history::durationOf).sum();
+    }
+
+    /**
+     * Assign units to {@code shardCount} shards.
+     */
+    public static List<Shard> plan(List<TestUnits.Unit> units, ClassDurationHistory history, int shardCount) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("Shard count must be at least 1");
+        }
+        List<Shard> shards = new ArrayList<>();
+        PriorityQueue<Shard> lightest = new PriorityQueue<>(
+                Comparator.comparingLong(Shard::getEstimatedMillis).thenComparingInt(Shard::getIndex));
+        for (int i = 0; i < shardCount; i++) {
+            Shard shard = new Shard(i);
+            shards.add(shard);
+            lightest.add(shard);
+        }
+
+        List<TestUnits.Unit> byWeight = new ArrayList<>(units);
+        byWeight.sort(Comparator.comparingLong((TestUnits.Unit unit) -> weightOf(unit, history)).reversed());
+
+        for (TestUnits.Unit unit : byWeight) {
+            Shard shard = lightest.poll();
+            shard.units.add(unit);
+            shard.estimatedMillis += weightOf(unit, history);
+            lightest.add(shard);
+        }
+
+        // Restore suite order inside each shard so the plan reads like the suites; SuiteXml orders the run
+        for (Shard shard : shards) {
+            shard.units.sort(Comparator.comparingInt(units::indexOf));
+            logger.info("Shard {}: {} units, {} classes, ~{}s", shard.index, shard.units.size(),
+                    shard.units.stream().mapToInt(unit -> unit.getClasses().size()).sum(),
+                    shard.estimatedMillis / 1000);
+        }
+        return shards;
+    }
+
+    /**
+     * Write one TestNG suite file per shard ({@code testng-shard-<index>.xml}).
+     *
+     * @return paths of the written suite files, indexed by shard
+     */
+    public static List<Path> writeSuites(List<Shard> shards, ClassDurationHistory history, Path outputDir,
+                                         String env) throws IOException {
+        Files.createDirectories(outputDir);
+        List<Path> files = new ArrayList<>();
+        for (Shard shard : shards) {
+            List<String> classes = new ArrayList<>();
+            shard.units.forEach(unit -> classes.addAll(unit.getClasses()));
+
+            Path file = outputDir.resolve("testng-shard-" + shard.index + ".xml");
+            SuiteXml.write(file, "Shard " + shard.index,
+                    "Generated by ShardPlanner - estimated " + shard.estimatedMillis / 1000 + "s", env, classes, history);
+            files.add(file);
+        }
+        return files;
+    }
+}
@@ -0,0 +1,144 @@
+package com.automation.runner;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Combines per-shard TestNG and Allure results into the locations a normal run uses,
+ * so the Jenkins summary, S3 upload and {@code allure generate} steps work unchanged.
+ */
+public final class ShardResultMerger {
+
+    private static final Logger logger = LogManager.getLogger(ShardResultMerger.class);
+
+    private static final String[] COUNTERS = {"ignored", "total", "passed", "failed", "skipped"};
+
+    private ShardResultMerger() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Totals of a merged run.
+     */
+    public static final class Summary {
+        private final Path mergedResults;
+        private final int failed;
+        private final int missingShards;
+
+        private Summary(Path mergedResults, int failed, int missingShards) {
+            this.mergedResults = mergedResults;
+            this.failed = failed;
+            this.missingShards = missingShards;
+        }
+
+        public Path getMergedResults() {
+            return mergedResults;
+        }
+
+        public int getFailed() {
+            return failed;
+        }
+
+        public int getMissingShards() {
+            return missingShards;
+        }
+    }
+
+    /**
+     * Merge shard outputs ({@code <shard>/testng/testng-results.xml} and {@code <shard>/allure-results}).
+     *
+     * @param shardOutputs per-shard output directories
+     * @param reportsDir   where the merged testng-results.xml is written
+     * @param allureDir    where all Allure result files are collected
+     */
+    public static Summary merge(List<Path> shardOutputs, Path reportsDir, Path allureDir) throws Exception {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+        DocumentBuilder builder = factory.newDocumentBuilder();
+
+        Document merged = builder.newDocument();
+        Element root = merged.createElement("testng-results");
+        merged.appendChild(root);
+        long[] totals = new long[COUNTERS.length];
+        int missing = 0;
+        boolean reporterOutputCopied = false;
+
+        for (Path shard : shardOutputs) {
+            Path results = shard.resolve("testng").resolve("testng-results.xml");
+            if (!Files.isRegularFile(results)) {
+                logger.error("No TestNG results for shard {}", shard);
+                missing++;
+                continue;
+            }
+            Document document = builder.parse(results.toFile());
+            Element shardRoot = document.getDocumentElement();
+            for (int i = 0; i < COUNTERS.length; i++) {
+                String value = shardRoot.getAttribute(COUNTERS[i]);
+                totals[i] += value.isEmpty() ? 0 : Long.parseLong(value);
+            }
+
+            NodeList children = shardRoot.getChildNodes();
+            for (int i = 0; i < children.getLength(); i++) {
+                Node child = children.item(i);
+                if (child.getNodeType() != Node.ELEMENT_NODE) {
+                    continue;
+                }
+                boolean reporterOutput = "reporter-output".equals(child.getNodeName());
+                if (reporterOutput && reporterOutputCopied) {
+                    continue;
+                }
+                reporterOutputCopied |= reporterOutput;
+                root.appendChild(merged.importNode(child, true));
+            }
+
+            copyAllureResults(shard.resolve("allure-results"), allureDir);
+        }
+
+        for (int i = 0; i < COUNTERS.length; i++) {
+            root.setAttribute(COUNTERS[i], String.valueOf(totals[i]));
+        }
+
+        Files.createDirectories(reportsDir);
+        Path output = reportsDir.resolve("testng-results.xml");
+        Transformer transformer = TransformerFactory.newInstance().newTransformer();
+        transformer.setOutputProperty(OutputKeys.INDENT, "yes");
+        transformer.transform(new DOMSource(merged), new StreamResult(output.toFile()));
+
+        logger.info("Merged {} shard(s) into {}: total={}, passed={}, failed={}, skipped={}",
+                shardOutputs.size() - missing, output, totals[1], totals[2], totals[3], totals[4]);
+        return new Summary(output, (int) totals[3], missing);
+    }
+
+    /**
+     * Allure result files have unique names, so merging is a plain copy.
+     */
+    private static void copyAllureResults(Path source, Path target) throws IOException {
+        if (!Files.isDirectory(source)) {
+            return;
+        }
+        Files.createDirectories(target);
+        try (Stream<Path> files = Files.list(source)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.copy(file, target.resolve(file.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.automation.runner;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Runs the BOMB and Buyer App suites as N duration-balanced forks and merges the results.
+ * <p>
+ * Steps:
+ * 1. Plan shards from historical class durations ({@link ShardPlanner})
+ * 2. Launch one TestNG JVM per shard, each with its own variable store and result folders
+ * 3. Merge TestNG and Allure results into the usual target locations ({@link ShardResultMerger})
+ * 4. Fold the new class durations into the history for the next plan
+ * </p>
+ *
+ * <p><b>System properties:</b></p>
+ * <ul>
+ *     <li>{@code shards} - number of forks (default 2)</li>
+ *     <li>{@code env} - environment passed to every shard suite (default "default")</li>
+ *     <li>{@code shard.argLine} - extra JVM arguments for each fork (e.g. the AspectJ agent)</li>
+ *     <li>{@code shard.dir} - working directory for plans and per-shard output (default target/shards)</li>
+ * </ul>
+ *
+ * <p>Run with {@code mvn test -Psharded -Dshards=4}.</p>
+ */
+public final class ShardRunner {
+
+    private static final Logger logger = LogManager.getLogger(ShardRunner.class);
+
+    private ShardRunner() {
+        // Prevent instantiation
+    }
+
+    public static void main(String[] args) throws Exception {
+        int shardCount = Integer.getInteger("shards", 2);
+        String env = System.getProperty("env", "default");
+        Path shardDir = Paths.get(System.getProperty("shard.dir", "target/shards"));
+
+        ClassDurationHistory history = ClassDurationHistory.load();
+        // A plain (unsharded) run since the last plan is the most recent history we have
+        history.recordIfNewer(ClassDurationHistory.DEFAULT_RESULTS);
+
+        List<ShardPlanner.Shard> shards = ShardPlanner.plan(TestUnits.load(), history, shardCount);
+        List<Path> suites = ShardPlanner.writeSuites(shards, history, shardDir, env);
+
+        List<Process> forks = new ArrayList<>();
+        for (int i = 0; i < suites.size(); i++) {
+            forks.add(launch(i, suites.get(i), shardDir.resolve(String.valueOf(i))));
+        }
+
+        List<Path> shardOutputs = new ArrayList<>();
+        for (int i = 0; i < forks.size(); i++) {
+            // TestNG exits non-zero when tests fail; outcomes are reported through the merged results
+            int exitCode = forks.get(i).waitFor();
+            logger.info("Shard {} finished with exit code {}", i, exitCode);
+            shardOutputs.add(shardDir.resolve(String.valueOf(i)));
+        }
+
+        ShardResultMerger.Summary summary = ShardResultMerger.merge(shardOutputs,
+                ClassDurationHistory.DEFAULT_RESULTS.getParent(), Paths.get("target", "allure-results"));
+
+        history.record(summary.getMergedResults());
+        history.save();
+
+        if (summary.getMissingShards() > 0) {
+            logger.error("{} shard(s) produced no TestNG results, see target/shards/<index>/shard.log",
+                    summary.getMissingShards());
+            System.exit(3);
+        }
+        System.exit(summary.getFailed() > 0 ? 1 : 0);
+    }
+
+    private static Process launch(int index, Path suite, Path outputDir) throws IOException {
+        // A previous run's results would be merged as if this shard had produced them
+        delete(outputDir);
+        Files.createDirectories(outputDir);
+
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        String argLine = System.getProperty("shard.argLine", "").trim();
+        if (!argLine.isEmpty()) {
+            command.addAll(Arrays.asList(argLine.split("\\s+")));
+        }
+        command.add("-Dvariables.store.dir=" + outputDir.resolve("variables").toAbsolutePath());
+        command.add("-Dallure.results.directory=" + outputDir.resolve("allure-results").toAbsolutePath());
+        command.add("-Dlog.dir=" + outputDir.resolve("logs").toAbsolutePath());
+        command.add("-Dshard.index=" + index);
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add("org.testng.TestNG");
+        command.add("-d");
+        command.add(outputDir.resolve("testng").toAbsolutePath().toString());
+        command.add(suite.toAbsolutePath().toString());
+
+        File log = outputDir.resolve("shard.log").toFile();
+        logger.info("Launching shard {} ({}), output in {}", index, suite.getFileName(), log);
+        return new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log)
+                .start();
+    }
+
+    private static void delete(Path dir) throws IOException {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.automation.runner;
+
+import com.automation.config.ConfigManager;
+import com.automation.listeners.ChainFailFastListener;
+import com.automation.listeners.TestListener;
+import com.automation.utils.JsonUtils;
+import com.automation.utils.VariableManager;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.qameta.allure.Allure;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+import org.testng.TestNG;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlInclude;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.lang.management.ClassLoadingMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.RuntimeMXBean;
+import java.util.List;
+
+/**
+ * One fresh-JVM sample of the way to a suite's first request, phase by phase.
+ * <p>
+ * The login test's first method ({@code LoginApiTest.testResponseStatus} or
+ * {@code LoginTest.testResponseStatusAndStoreToken}) runs through TestNG with the suite
+ * listeners, the same way a suite run reaches it. The login test sends the request itself,
+ * with the credentials from config. {@code env=startup} (config-startup.properties) points both
+ * services at {@link StartupTrend}'s loopback stub, so no real service is called.
+ * </p>
+ * The phases are cut at TestNG's method boundaries:
+ * - jvm: JVM start until main (JDK boot and agent premain, e.g. the AspectJ weaver)
+ * - allure: the Allure lifecycle (configuration, results writer), set up before TestNG so its
+ * listener finds it ready
+ * - testng: TestNG, the suite, its listeners and the test class, until {@code @BeforeSuite}
+ * - config: {@code ConfigManager.getInstance()}, timed at the start of {@code @BeforeSuite}
+ * - variables: {@code VariableManager.initialize()}, timed right after it
+ * - beforeSuite: the rest of {@code BaseTest.beforeSuite}, which finds both already initialized
+ * - beforeClass: class setup ({@code ServiceContext}, RestAssured request specification)
+ * - firstTest: the first test method, i.e. the login request until its assertions
+ * <p>
+ * {@code classes} holds the classes loaded in each phase. The load-time agent weaves every class
+ * as it is loaded, so its cost sits inside each phase in proportion to those counts; comparing
+ * samples across weaving modes ({@code weaving}) shows it. Prints a single {@code PHASES {json}} line.
+ * </p>
+ *
+ * <p><b>System properties:</b></p>
+ * <ul>
+ *     <li>{@code startup.suite} - {@code bomb} (LoginApiTest) or {@code buyerapp} (LoginTest)</li>
+ *     <li>{@code startup.output.dir} - TestNG output directory (default target/startup/testng)</li>
+ * </ul>
+ */
+public final class StartupPhases {
+
+    static final String PREFIX = "PHASES ";
+
+    private StartupPhases() {
+        // Prevent instantiation
+    }
+
+    public static void main(String[] args) {
+        RuntimeMXBean runtime = ManagementFactory.getRuntimeMXBean();
+        ClassLoadingMXBean classLoading = ManagementFactory.getClassLoadingMXBean();
+        long jvmMillis = runtime.getUptime();
+        long jvmClasses = classLoading.getTotalLoadedClassCount();
+        boolean buyerApp = "buyerapp".equals(System.getProperty("startup.suite", "bomb"));
+
+        XmlSuite suite = new XmlSuite();
+        suite.setName("Startup Trend");
+        suite.setPreserveOrder(true);
+        if (System.getProperty("env", "").isBlank()) {
+            // BaseTest.beforeSuite would set it from the suite parameter, after the config phase
+            System.setProperty("env", "startup");
+        }
+        suite.getParameters().put("env", System.getProperty("env"));
+        XmlTest test = new XmlTest(suite);
+        test.setName(buyerApp ? "Buyer App Login" : "BOMB Login");
+        XmlClass loginClass = new XmlClass(buyerApp ? "com.automation.tests.buyerapp.Login.LoginTest"
+                : "com.automation.tests.bomb.Login.LoginApiTest", false);
+        loginClass.getIncludedMethods().add(new XmlInclude(buyerApp ? "testResponseStatusAndStoreToken"
+                : "testResponseStatus"));
+        test.getXmlClasses().add(loginClass);
+
+        Allure.getLifecycle();
+        long allureMillis = runtime.getUptime();
+        long allureClasses = classLoading.getTotalLoadedClassCount();
+
+        PhaseListener phases = new PhaseListener(runtime, classLoading);
+        TestNG testng = new TestNG();
+        testng.setXmlSuites(List.of(suite));
+        testng.setOutputDirectory(System.getProperty("startup.output.dir", "target/startup/testng"));
+        testng.setUseDefaultListeners(false);
+        testng.addListener(new TestListener());
+        testng.addListener(new ChainFailFastListener());
+        testng.addListener(phases);
+        testng.run();
+
+        ObjectNode sample = JsonUtils.getObjectMapper().createObjectNode();
+        sample.put("passed", testng.getStatus() == 0 && phases.firstTestEnd > 0);
+        sample.put("weaving", StartupProbe.weaving(runtime));
+        sample.put("requestAtMs", phases.firstTestStart);
+        sample.put("loadedClasses", phases.loadedClasses);
+        ObjectNode phaseNode = sample.putObject("phases");
+        phaseNode.put("jvm", jvmMillis);
+        phaseNode.put("allure", allureMillis - jvmMillis);
+        phaseNode.put("testng", phases.beforeSuiteStart - allureMillis);
+        phaseNode.put("config", phases.configEnd - phases.beforeSuiteStart);
+        phaseNode.put("variables", phases.variablesEnd - phases.configEnd);
+        phaseNode.put("beforeSuite", phases.beforeSuiteEnd - phases.variablesEnd);
+        phaseNode.put("beforeClass", phases.firstTestStart - phases.beforeSuiteEnd);
+        phaseNode.put("firstTest", phases.firstTestEnd - phases.firstTestStart);
+        ObjectNode classNode = sample.putObject("classes");
+        classNode.put("jvm", jvmClasses);
+        classNode.put("allure", allureClasses - jvmClasses);
+        classNode.put("testng", phases.beforeSuiteStartClasses - allureClasses);
+        classNode.put("config", phases.configEndClasses - phases.beforeSuiteStartClasses);
+        classNode.put("variables", phases.variablesEndClasses - phases.configEndClasses);
+        classNode.put("beforeSuite", phases.beforeSuiteEndClasses - phases.variablesEndClasses);
+        classNode.put("beforeClass", phases.firstTestStartClasses - phases.beforeSuiteEndClasses);
+        classNode.put("firstTest", phases.firstTestEndClasses - phases.firstTestStartClasses);
+        System.out.println(PREFIX + sample);
+        System.exit(0);
+    }
+
+    /**
+     * Records JVM uptime and loaded classes at the method boundaries the phases are cut at, and
+     * runs the config and variables phases at the start of {@code @BeforeSuite}.
+     */
+    private static final class PhaseListener implements IInvokedMethodListener {
+        private final RuntimeMXBean runtime;
+        private final ClassLoadingMXBean classLoading;
+        private long beforeSuiteStart;
+        private long beforeSuiteStartClasses;
+        private long configEnd;
+        private long configEndClasses;
+        private long variablesEnd;
+        private long variablesEndClasses;
+        private long beforeSuiteEnd;
+        private long beforeSuiteEndClasses;
+        private long firstTestStart;
+        private long firstTestStartClasses;
+        private long firstTestEnd;
+        private long firstTestEndClasses;
+        private long loadedClasses;
+
+        private PhaseListener(RuntimeMXBean runtime, ClassLoadingMXBean classLoading) {
+            this.runtime = runtime;
+            this.classLoading = classLoading;
+        }
+
+        @Override
+        public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+            ITestNGMethod testMethod = method.getTestMethod();
+            if (testMethod.isBeforeSuiteConfiguration() && beforeSuiteStart == 0) {
+                beforeSuiteStart = runtime.getUptime();
+                beforeSuiteStartClasses = classLoading.getTotalLoadedClassCount();
+                ConfigManager.getInstance();
+                configEnd = runtime.getUptime();
+                configEndClasses = classLoading.getTotalLoadedClassCount();
+                VariableManager.initialize();
+                variablesEnd = runtime.getUptime();
+                variablesEndClasses = classLoading.getTotalLoadedClassCount();
+            } else if (testMethod.isTest() && firstTestStart == 0) {
+                firstTestStart = runtime.getUptime();
+                firstTestStartClasses = classLoading.getTotalLoadedClassCount();
+            }
+        }
+
+        @Override
+        public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+            ITestNGMethod testMethod = method.getTestMethod();
+            if (testMethod.isBeforeSuiteConfiguration()) {
+                beforeSuiteEnd = runtime.getUptime();
+                beforeSuiteEndClasses = classLoading.getTotalLoadedClassCount();
+            } else if (testMethod.isTest() && firstTestEnd == 0) {
+                firstTestEnd = runtime.getUptime();
+                firstTestEndClasses = classLoading.getTotalLoadedClassCount();
+                loadedClasses = classLoading.getLoadedClassCount();
+            }
+        }
+    }
+}
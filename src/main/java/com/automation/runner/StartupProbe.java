@@ -0,0 +1,169 @@
+package com.automation.runner;
+
+import com.automation.base.ApiService;
+import com.automation.base.ServiceContext;
+import com.automation.config.ConfigManager;
+import com.automation.models.request.LoginRequest;
+import com.automation.models.response.LoginResponse;
+import com.automation.utils.JsonUtils;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.TestNG;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.RuntimeMXBean;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Loads everything a test JVM needs before the first request, without any network call.
+ * <p>
+ * Covers config, both service contexts (RestAssured and Groovy), Jackson, Allure/TestNG and every
+ * class of the product suites. Used as:
+ * - The training workload for the AppCDS archive ({@code mvn test -Pcds-train}, testng-startup.xml)
+ * - The startup benchmark ({@code scripts/measure-startup.sh})
+ * - The warm-up of {@link TestRunnerDaemon}
+ * </p>
+ * Each run appends one line to {@code target/cds/startup.ndjson}:
+ * JVM uptime when ready, time spent loading, the latency of a first request through the
+ * framework's client stack (to a loopback server), loaded class count, the CDS archive and
+ * how Allure's aspects are applied (javaagent, compile-time or none).
+ */
+public class StartupProbe {
+
+    private static final Logger logger = LogManager.getLogger(StartupProbe.class);
+
+    private static final Path RESULTS = Paths.get("target", "cds", "startup.ndjson");
+
+    /**
+     * Load the framework and all suite classes.
+     *
+     * @return Number of suite classes loaded
+     */
+    public static int loadFramework() {
+        ConfigManager config = ConfigManager.getInstance();
+        for (ApiService service : ApiService.values()) {
+            ServiceContext.create(service, config).given();
+        }
+        String json = JsonUtils.toJson(LoginRequest.builder().phoneNumber("0").token("warm-up").build());
+        JsonUtils.fromJson(json, LoginResponse.class);
+        new TestNG(false);
+
+        int loaded = 0;
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        for (TestUnits.Unit unit : TestUnits.load()) {
+            for (String className : unit.getClasses()) {
+                try {
+                    Class.forName(className, false, loader);
+                    loaded++;
+                } catch (ClassNotFoundException e) {
+                    logger.warn("Suite class not on classpath: {}", className);
+                }
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Training and measurement entry point for the startup suite.
+     */
+    @Test(description = "Load framework and suite classes for startup measurement")
+    public void measureStartup() {
+        measure("surefire");
+    }
+
+    public static void main(String[] args) {
+        measure(args.length > 0 ? args[0] : "java");
+    }
+
+    /**
+     * Send one request through the BOMB client stack (filters, Allure, Jackson) to a loopback server.
+     *
+     * @return Request latency in milliseconds, or -1 if the request could not be made
+     */
+    public static long firstRequest() {
+        HttpServer server;
+        try {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        } catch (IOException e) {
+            logger.warn("Unable to start loopback server: {}", e.getMessage());
+            return -1;
+        }
+        server.createContext("/", exchange -> {
+            byte[] body = "{\"success\":true}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        try {
+            long start = System.nanoTime();
+            ServiceContext.create(ApiService.BOMB, ConfigManager.getInstance()).given()
+                    .baseUri("http://127.0.0.1:" + server.getAddress().getPort())
+                    .get("/startup-probe")
+                    .then().extract().jsonPath().getBoolean("success");
+            return (System.nanoTime() - start) / 1_000_000;
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    private static void measure(String launcher) {
+        long start = System.nanoTime();
+        int suiteClasses = loadFramework();
+        long loadMillis = (System.nanoTime() - start) / 1_000_000;
+        long firstRequestMillis = firstRequest();
+
+        RuntimeMXBean runtime = ManagementFactory.getRuntimeMXBean();
+        long readyMillis = runtime.getUptime();
+        int loadedClasses = ManagementFactory.getClassLoadingMXBean().getLoadedClassCount();
+        String archive = runtime.getInputArguments().stream()
+                .filter(argument -> argument.startsWith("-XX:SharedArchiveFile="))
+                .map(argument -> argument.substring("-XX:SharedArchiveFile=".length()))
+                .findFirst().orElse("none");
+        boolean training = runtime.getInputArguments().stream()
+                .anyMatch(argument -> argument.startsWith("-XX:ArchiveClassesAtExit="));
+
+        String line = String.format("{\"launcher\":\"%s\",\"archive\":\"%s\",\"weaving\":\"%s\",\"training\":%b,"
+                        + "\"readyMs\":%d,\"loadMs\":%d,\"firstRequestMs\":%d,\"loadedClasses\":%d,"
+                        + "\"suiteClasses\":%d,\"timestamp\":%d}",
+                launcher, archive.replace("\\", "/"), weaving(runtime), training, readyMillis, loadMillis,
+                firstRequestMillis, loadedClasses, suiteClasses, System.currentTimeMillis());
+        System.out.println("STARTUP " + line);
+        try {
+            Files.createDirectories(RESULTS.getParent());
+            Files.writeString(RESULTS, line + System.lineSeparator(), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            logger.warn("Unable to record startup measurement: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * How Allure's aspects reach this JVM: the load-time weaver, classes woven by -Pctw, or not at all.
+     */
+    static String weaving(RuntimeMXBean runtime) {
+        if (runtime.getInputArguments().stream().anyMatch(argument -> argument.startsWith("-javaagent:")
+                && argument.contains("aspectjweaver"))) {
+            return "javaagent";
+        }
+        try {
+            // Compile-time weaving adds ajc$ join point fields to classes with Allure annotations
+            boolean woven = Arrays.stream(Class.forName("com.automation.listeners.TestListener")
+                    .getDeclaredFields()).anyMatch(field -> field.getName().startsWith("ajc$"));
+            return woven ? "compile-time" : "none";
+        } catch (ClassNotFoundException e) {
+            return "none";
+        }
+    }
+}
@@ -0,0 +1,293 @@
+package com.automation.runner;
+
+import com.automation.stub.PipelineStubServer;
+import com.automation.utils.JsonUtils;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Time from JVM start to the first request of the login tests, tracked across builds.
+ * <p>
+ * Each suite ({@code bomb}: LoginApiTest, {@code buyerapp}: LoginTest) is started
+ * {@code startup.runs} times in a fresh JVM ({@link StartupPhases}) with {@code env=startup},
+ * which points both services at a loopback {@link PipelineStubServer} on port {@value #STUB_PORT}. The medians of the phases and of {@code requestAtMs} (JVM uptime
+ * when the login request is sent) are appended as one line per suite to the trend store, an
+ * NDJSON file under {@code target/startup}. CI restores it from S3 before the run and uploads
+ * it afterwards; locally, point {@code startup.trend.file} outside {@code target} to keep it
+ * across {@code mvn clean}.
+ * </p>
+ * <p>
+ * Every metric is compared with the median of the last {@code startup.window} entries of the
+ * same suite, weaving mode, Java version and phase layout. A metric regressed when it is slower
+ * by more than {@code startup.tolerance} percent AND by more than {@code startup.slack.ms}, so a
+ * few milliseconds of noise on a small phase do not fail the build. The run is recorded either way,
+ * so an accepted slowdown becomes the new baseline after a few builds. Exits 1 on regression.
+ * </p>
+ *
+ * <p><b>System properties:</b></p>
+ * <ul>
+ *     <li>{@code startup.runs} - fresh JVMs per suite (default 5)</li>
+ *     <li>{@code startup.suites} - comma-separated suites (default bomb,buyerapp)</li>
+ *     <li>{@code startup.argLine} - extra JVM arguments for each run (e.g. the AspectJ agent)</li>
+ *     <li>{@code startup.trend.file} - trend store (default target/startup/startup-trend.ndjson)</li>
+ *     <li>{@code startup.window} - history entries to compare with (default 10)</li>
+ *     <li>{@code startup.tolerance} - allowed slowdown in percent (default 20)</li>
+ *     <li>{@code startup.slack.ms} - allowed slowdown in milliseconds (default 50)</li>
+ * </ul>
+ */
+public final class StartupTrend {
+
+    private static final Logger logger = LogManager.getLogger(StartupTrend.class);
+
+    private static final Path WORK_DIR = Paths.get("target", "startup");
+    private static final String DEFAULT_FILE = WORK_DIR.resolve("startup-trend.ndjson").toString();
+    private static final List<String> METRICS = List.of("requestAtMs", "jvm", "allure", "testng", "config",
+            "variables", "beforeSuite", "beforeClass", "firstTest");
+
+    /**
+     * Port of the login stub, as configured in config-startup.properties.
+     */
+    static final int STUB_PORT = 7803;
+
+    /**
+     * Entries needed before the check starts; fewer only build up the history.
+     */
+    private static final int MIN_HISTORY = 3;
+    private static final long RUN_TIMEOUT_SECONDS = 120;
+
+    private StartupTrend() {
+        // Prevent instantiation
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int runs = Integer.getInteger("startup.runs", 5);
+        List<String> suites = Arrays.asList(property("startup.suites", "bomb,buyerapp").split("\\s*,\\s*"));
+        Path trendFile = Paths.get(property("startup.trend.file", DEFAULT_FILE));
+        int window = Integer.getInteger("startup.window", 10);
+        double tolerancePercent = Double.parseDouble(property("startup.tolerance", "20"));
+        long slackMillis = Long.parseLong(property("startup.slack.ms", "50"));
+
+        List<JsonNode> history = readTrend(trendFile);
+        List<ObjectNode> entries = new ArrayList<>();
+        PipelineStubServer stub = PipelineStubServer.start(STUB_PORT, 1);
+        try {
+            for (String suite : suites) {
+                List<JsonNode> samples = new ArrayList<>();
+                for (int run = 1; run <= runs; run++) {
+                    samples.add(sample(suite, run));
+                }
+                entries.add(summarize(suite, samples));
+            }
+        } finally {
+            stub.stop();
+        }
+
+        int regressions = 0;
+        for (ObjectNode entry : entries) {
+            regressions += compare(entry, history, window, tolerancePercent, slackMillis);
+        }
+        Files.createDirectories(trendFile.toAbsolutePath().getParent());
+        StringBuilder lines = new StringBuilder();
+        entries.forEach(entry -> lines.append(entry).append(System.lineSeparator()));
+        Files.writeString(trendFile, lines, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        logger.info("Recorded {} startup entries in {}", entries.size(), trendFile);
+
+        if (regressions > 0) {
+            logger.error("{} startup metric(s) regressed by more than {}% and {} ms", regressions,
+                    tolerancePercent, slackMillis);
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Start one fresh JVM for a suite and read its phases.
+     */
+    private static JsonNode sample(String suite, int run) throws IOException, InterruptedException {
+        Path runDir = WORK_DIR.resolve(suite + "-" + run);
+        delete(runDir);
+        Files.createDirectories(runDir);
+
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        String argLine = System.getProperty("startup.argLine", "").trim();
+        if (!argLine.isEmpty()) {
+            command.addAll(Arrays.asList(argLine.split("\\s+")));
+        }
+        // A fresh store per run, seeded from the classpath like a clean checkout
+        command.add("-Dvariables.store.dir=" + runDir.resolve("variables").toAbsolutePath());
+        command.add("-Dallure.results.directory=" + runDir.resolve("allure-results").toAbsolutePath());
+        command.add("-Dlog.dir=" + runDir.resolve("logs").toAbsolutePath());
+        command.add("-Denv=startup");
+        command.add("-Dstartup.suite=" + suite);
+        command.add("-Dstartup.output.dir=" + runDir.resolve("testng").toAbsolutePath());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(StartupPhases.class.getName());
+
+        Path log = runDir.resolve("startup.log");
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        if (!process.waitFor(RUN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+            throw new RuntimeException("Startup run " + suite + " #" + run + " timed out, see " + log);
+        }
+        JsonNode sample = null;
+        for (String line : Files.readAllLines(log, StandardCharsets.UTF_8)) {
+            if (line.startsWith(StartupPhases.PREFIX)) {
+                sample = JsonUtils.getObjectMapper().readTree(line.substring(StartupPhases.PREFIX.length()));
+            }
+        }
+        if (process.exitValue() != 0 || sample == null || !sample.path("passed").asBoolean()) {
+            throw new RuntimeException("Startup run " + suite + " #" + run + " failed, see " + log);
+        }
+        logger.info("{} #{}: first request at {} ms {}", suite, run, sample.path("requestAtMs").asLong(),
+                sample.path("phases"));
+        return sample;
+    }
+
+    /**
+     * Trend entry of a suite: medians over its runs.
+     */
+    private static ObjectNode summarize(String suite, List<JsonNode> samples) {
+        ObjectMapper mapper = JsonUtils.getObjectMapper();
+        ObjectNode entry = mapper.createObjectNode();
+        entry.put("timestamp", System.currentTimeMillis());
+        entry.put("commit", env("GIT_COMMIT"));
+        entry.put("build", env("BUILD_NUMBER"));
+        entry.put("suite", suite);
+        entry.put("weaving", samples.get(0).path("weaving").asText());
+        entry.put("java", System.getProperty("java.specification.version"));
+        entry.put("runs", samples.size());
+        entry.put("requestAtMs", median(samples, sample -> sample.path("requestAtMs")));
+        entry.put("loadedClasses", median(samples, sample -> sample.path("loadedClasses")));
+        ObjectNode phases = entry.putObject("phases");
+        for (Iterator<String> names = samples.get(0).path("phases").fieldNames(); names.hasNext(); ) {
+            String phase = names.next();
+            phases.put(phase, median(samples, sample -> sample.path("phases").path(phase)));
+        }
+        ObjectNode classes = entry.putObject("classes");
+        for (Iterator<String> names = samples.get(0).path("classes").fieldNames(); names.hasNext(); ) {
+            String phase = names.next();
+            classes.put(phase, median(samples, sample -> sample.path("classes").path(phase)));
+        }
+        return entry;
+    }
+
+    /**
+     * Log each metric against the recent history of comparable entries.
+     *
+     * @return Number of regressed metrics
+     */
+    private static int compare(ObjectNode entry, List<JsonNode> history, int window, double tolerancePercent,
+                               long slackMillis) {
+        List<JsonNode> comparable = new ArrayList<>();
+        for (JsonNode old : history) {
+            if (old.path("suite").asText().equals(entry.path("suite").asText())
+                    && old.path("weaving").asText().equals(entry.path("weaving").asText())
+                    && old.path("java").asText().equals(entry.path("java").asText())
+                    && phaseNames(old).equals(phaseNames(entry))) {
+                comparable.add(old);
+            }
+        }
+        List<JsonNode> recent = comparable.subList(Math.max(0, comparable.size() - window), comparable.size());
+        String suite = entry.path("suite").asText() + " (" + entry.path("weaving").asText() + ")";
+        if (recent.size() < MIN_HISTORY) {
+            logger.info("{}: {} comparable entries in the trend, at least {} needed, not checking: {}",
+                    suite, recent.size(), MIN_HISTORY, entry);
+            return 0;
+        }
+
+        int regressions = 0;
+        logger.info(String.format("%-28s %-14s %10s %10s %9s", suite, "metric", "baseline", "current", "change"));
+        for (String metric : METRICS) {
+            long current = metric(entry, metric).asLong();
+            long baseline = median(recent, old -> metric(old, metric));
+            long slower = current - baseline;
+            boolean regressed = slower > slackMillis && slower * 100.0 > tolerancePercent * baseline;
+            String line = String.format("%-28s %-14s %10d %10d %+8.1f%%%s", suite, metric, baseline, current,
+                    baseline == 0 ? 0 : slower * 100.0 / baseline, regressed ? "  REGRESSION" : "");
+            if (regressed) {
+                regressions++;
+                logger.warn(line);
+            } else {
+                logger.info(line);
+            }
+        }
+        return regressions;
+    }
+
+    private static List<String> phaseNames(JsonNode entry) {
+        List<String> names = new ArrayList<>();
+        entry.path("phases").fieldNames().forEachRemaining(names::add);
+        return names;
+    }
+
+    private static JsonNode metric(JsonNode entry, String metric) {
+        return entry.has(metric) ? entry.path(metric) : entry.path("phases").path(metric);
+    }
+
+    private static long median(List<JsonNode> nodes, Function<JsonNode, JsonNode> value) {
+        long[] values = nodes.stream().map(value).filter(JsonNode::isNumber).mapToLong(JsonNode::asLong).sorted().toArray();
+        return values.length == 0 ? 0 : values[(values.length - 1) / 2];
+    }
+
+    private static List<JsonNode> readTrend(Path file) throws IOException {
+        List<JsonNode> entries = new ArrayList<>();
+        if (!Files.isRegularFile(file)) {
+            logger.info("No startup trend at {} yet, starting one", file);
+            return entries;
+        }
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                entries.add(JsonUtils.getObjectMapper().readTree(line));
+            } catch (IOException e) {
+                logger.warn("Ignoring invalid startup trend line: {}", line);
+            }
+        }
+        return entries;
+    }
+
+    private static void delete(Path dir) throws IOException {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    private static String property(String name, String defaultValue) {
+        String value = System.getProperty(name, "");
+        return value.isBlank() ? defaultValue : value.trim();
+    }
+
+    private static String env(String name) {
+        String value = System.getenv(name);
+        return value == null ? "" : value;
+    }
+}
@@ -0,0 +1,84 @@
+package com.automation.runner;
+
+import com.automation.listeners.ChainRoot;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Run order of the units in a generated suite.
+ * <p>
+ * Units holding a {@link ChainRoot} for other units in the suite (e.g. LoginApiTest) go first,
+ * so a failing root breaks its chain before most downstream units have started and
+ * {@link com.automation.listeners.ChainFailFastListener} can skip them. The remaining units are
+ * sorted by their historical duration ({@link ClassDurationHistory}), longest first, so the
+ * collection crawlers and catalog search filter tests start first and short checks such as
+ * AppUpdateTest fill the gaps at the end. Classes inside a unit keep their suite order.
+ * New classes without history use the default duration; equal weights keep suite order.
+ * </p>
+ */
+final class SuiteOrder {
+
+    private static final Logger logger = LogManager.getLogger(SuiteOrder.class);
+
+    private SuiteOrder() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Group classes into units and order them: gates first, then longest-first.
+     *
+     * @param classes Class names in suite order
+     * @param history Class durations
+     * @return Units in run order
+     */
+    static List<TestUnits.Unit> runOrder(List<String> classes, ClassDurationHistory history) {
+        List<TestUnits.Unit> units = new ArrayList<>(TestUnits.group(classes));
+        Set<String> gates = new LinkedHashSet<>();
+        for (TestUnits.Unit unit : units) {
+            if (gatesOtherUnits(unit, units)) {
+                gates.add(unit.getName());
+            }
+        }
+        units.sort(Comparator.comparing((TestUnits.Unit unit) -> !gates.contains(unit.getName()))
+                .thenComparing(Comparator.comparingLong((TestUnits.Unit unit) -> ShardPlanner.weightOf(unit, history))
+                        .reversed()));
+        return units;
+    }
+
+    /**
+     * Whether a chain root in this unit has downstream classes in another unit.
+     */
+    private static boolean gatesOtherUnits(TestUnits.Unit unit, List<TestUnits.Unit> units) {
+        for (String className : unit.getClasses()) {
+            ChainRoot root = chainRootOf(className);
+            if (root == null) {
+                continue;
+            }
+            for (String downstream : root.downstream()) {
+                for (TestUnits.Unit other : units) {
+                    if (other != unit
+                            && other.getClasses().stream().anyMatch(name -> name.startsWith(downstream + "."))) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private static ChainRoot chainRootOf(String className) {
+        try {
+            // Read the annotation without running static initializers
+            return Class.forName(className, false, SuiteOrder.class.getClassLoader()).getAnnotation(ChainRoot.class);
+        } catch (ClassNotFoundException | LinkageError e) {
+            logger.warn("Unable to read @ChainRoot of {}: {}", className, e.getMessage());
+            return null;
+        }
+    }
+}
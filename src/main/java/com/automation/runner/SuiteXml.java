@@ -0,0 +1,85 @@
+package com.automation.runner;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Writes generated TestNG suites (shards, impacted selections) with the same listeners
+ * as the product suites.
+ * <p>
+ * Each unit gets its own {@code <test>} block, written in {@link SuiteOrder} (chain roots
+ * such as the login tests first, then longest first).
+ * The blocks run on {@code suite.threads} threads (default 2, as BOMB and Buyer App in
+ * testng.xml) and TestNG starts them in file order, so the longest units are picked up first
+ * and short ones fill the gaps at the end. Classes inside a unit still share a thread and
+ * keep their suite order.
+ * </p>
+ */
+final class SuiteXml {
+
+    private static final Logger logger = LogManager.getLogger(SuiteXml.class);
+
+    private static final List<String> LISTENERS = List.of(
+            "com.automation.listeners.TestListener",
+            "com.automation.listeners.ChainFailFastListener");
+
+    private SuiteXml() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Write a suite file.
+     *
+     * @param file      Target file (parent directories are created)
+     * @param suiteName Suite name, also the prefix of each test name
+     * @param comment   Comment placed above the suite element
+     * @param env       Value of the env parameter
+     * @param classes   Class names in suite order
+     * @param history   Class durations used to order the units
+     */
+    static void write(Path file, String suiteName, String comment, String env, List<String> classes,
+                      ClassDurationHistory history) throws IOException {
+        int threads = Math.max(1, Integer.getInteger("suite.threads", 2));
+        List<TestUnits.Unit> units = SuiteOrder.runOrder(classes, history);
+
+        StringBuilder xml = new StringBuilder()
+                .append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+                .append("<!DOCTYPE suite SYSTEM \"https://testng.org/testng-1.0.dtd\">\n")
+                .append("<!-- ").append(comment).append(" -->\n")
+                .append("<suite name=\"").append(suiteName).append("\" preserve-order=\"true\" parallel=\"tests\" thread-count=\"")
+                .append(threads).append("\">\n\n")
+                .append("    <listeners>\n");
+        for (String listener : LISTENERS) {
+            xml.append("        <listener class-name=\"").append(listener).append("\"/>\n");
+        }
+        xml.append("    </listeners>\n\n")
+                .append("    <parameter name=\"env\" value=\"").append(env).append("\"/>\n");
+
+        for (TestUnits.Unit unit : units) {
+            xml.append("\n    <!-- ~").append(ShardPlanner.weightOf(unit, history) / 1000).append("s -->\n")
+                    .append("    <test name=\"").append(suiteName).append(" - ").append(unit.getName())
+                    .append("\" preserve-order=\"true\">\n")
+                    .append("        <classes>\n");
+            for (String className : unit.getClasses()) {
+                xml.append("            <class name=\"").append(className).append("\"/>\n");
+            }
+            xml.append("        </classes>\n")
+                    .append("    </test>\n");
+        }
+        xml.append("\n</suite>\n");
+
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        Files.writeString(file, xml.toString(), StandardCharsets.UTF_8);
+        logger.info("{}: {} units on {} threads, order {}", suiteName, units.size(), threads,
+                units.stream().map(TestUnits.Unit::getName).collect(Collectors.toList()));
+    }
+}
@@ -0,0 +1,67 @@
+package com.automation.runner;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Command-line client for {@link TestRunnerDaemon}.
+ * <p>
+ * Sends one command, prints the streamed results and exits with:
+ * 0 when all tests passed, 1 when tests failed, 2 on a daemon error, 3 when no daemon is running.
+ * Only uses JDK classes, so it starts in milliseconds from {@code target/classes}.
+ * </p>
+ *
+ * <p><b>Usage Example:</b></p>
+ * <pre>{@code
+ * scripts/test-daemon.sh run classes=com.automation.tests.buyerapp.ProfilePage.AppUpdateTest
+ * scripts/test-daemon.sh run suite=testng-bomb.xml
+ * scripts/test-daemon.sh stop
+ * }</pre>
+ */
+public final class TestRunnerClient {
+
+    private TestRunnerClient() {
+        // Prevent instantiation
+    }
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.err.println("Usage: TestRunnerClient ping | stop | run classes=<a.B,c.D>|suite=<file> [groups=<g1,g2>]");
+            System.exit(2);
+        }
+        int port = Integer.getInteger("daemon.port", TestRunnerDaemon.DEFAULT_PORT);
+        System.exit(send(String.join(" ", args), port));
+    }
+
+    private static int send(String command, int port) {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+             PrintWriter out = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8), true);
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8))) {
+            out.println(command);
+            int exitCode = 0;
+            String line;
+            while ((line = in.readLine()) != null) {
+                System.out.println(line);
+                if (line.startsWith("ERROR")) {
+                    exitCode = 2;
+                } else if (line.startsWith("DONE")) {
+                    exitCode = line.contains("status=0 ") ? 0 : 1;
+                }
+            }
+            return exitCode;
+        } catch (ConnectException e) {
+            System.err.println("No test runner daemon on port " + port + ". Start one with: mvn test -Pdaemon");
+            return 3;
+        } catch (IOException e) {
+            System.err.println("Daemon connection failed: " + e.getMessage());
+            return 2;
+        }
+    }
+}
@@ -0,0 +1,317 @@
+package com.automation.runner;
+
+import com.automation.listeners.ChainFailFastListener;
+import com.automation.listeners.TestListener;
+import com.automation.utils.VariableManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+import org.testng.TestNG;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.MalformedURLException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Long-lived local test runner that keeps the framework loaded and warm between runs.
+ * <p>
+ * JVM startup, Allure weaving and loading RestAssured, Groovy, Jackson and Log4j2 happen once.
+ * Each run loads the test classes from {@code target/test-classes} in a fresh class loader, so
+ * {@code mvn test-compile} changes are picked up without restarting the daemon.
+ * </p>
+ *
+ * <p><b>Protocol</b> (one line per command on 127.0.0.1, results are streamed back line by line):</p>
+ * <ul>
+ *     <li>{@code RUN classes=a.B,c.D [groups=bomb]} or {@code RUN suite=testng-bomb.xml [groups=...]}</li>
+ *     <li>{@code PING} - answers {@code PONG}</li>
+ *     <li>{@code STOP} - shuts the daemon down</li>
+ * </ul>
+ * Run output lines are {@code START|PASS|FAIL|SKIP <class.method> ...} followed by
+ * {@code DONE status=<testng status> passed=<n> failed=<n> skipped=<n> millis=<n>}.
+ *
+ * <p><b>System properties:</b></p>
+ * <ul>
+ *     <li>{@code daemon.port} - listen port (default 7701)</li>
+ *     <li>{@code daemon.test.classes} - compiled test classes (default target/test-classes)</li>
+ *     <li>{@code env} - environment used for the daemon's lifetime (config is cached per JVM)</li>
+ * </ul>
+ *
+ * <p>Start with {@code mvn test -Pdaemon}, then use {@code scripts/test-daemon.sh} ({@link TestRunnerClient}).</p>
+ */
+public final class TestRunnerDaemon {
+
+    private static final Logger logger = LogManager.getLogger(TestRunnerDaemon.class);
+
+    public static final int DEFAULT_PORT = 7701;
+
+    private static final String TESTS_PACKAGE = "com.automation.tests.";
+    private static final Path REPORTS_DIR = Paths.get("target", "daemon-reports");
+
+    /**
+     * TestNG, RestAssured statics and the variable store are shared, so runs never overlap.
+     */
+    private static final Object RUN_LOCK = new Object();
+
+    private static volatile boolean stopped;
+
+    private TestRunnerDaemon() {
+        // Prevent instantiation
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = Integer.getInteger("daemon.port", DEFAULT_PORT);
+        Path testClasses = Paths.get(System.getProperty("daemon.test.classes", "target/test-classes"));
+
+        warmUp();
+
+        ExecutorService clients = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "daemon-client");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try (ServerSocket server = new ServerSocket(port, 50, InetAddress.getLoopbackAddress())) {
+            logger.info("Test runner daemon listening on 127.0.0.1:{}", port);
+            while (!stopped) {
+                Socket socket = server.accept();
+                clients.execute(() -> handle(socket, testClasses, server));
+            }
+        } catch (IOException e) {
+            if (!stopped) {
+                throw e;
+            }
+        }
+        logger.info("Test runner daemon stopped");
+    }
+
+    /**
+     * Load and initialize the expensive framework classes once, without any network call.
+     */
+    private static void warmUp() {
+        long start = System.nanoTime();
+        StartupProbe.loadFramework();
+        VariableManager.initialize();
+
+        // One throwaway run loads and JIT-compiles TestNG's own run machinery
+        TestNG testng = new TestNG(false);
+        testng.setVerbose(0);
+        testng.setOutputDirectory(REPORTS_DIR.resolve("warm-up").toString());
+        testng.setTestClasses(new Class<?>[]{WarmUpTest.class});
+        testng.run();
+        logger.info("Daemon warm-up finished in {} ms", (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static void handle(Socket socket, Path testClasses, ServerSocket server) {
+        try (Socket client = socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(client.getInputStream(), StandardCharsets.UTF_8));
+             PrintWriter out = new PrintWriter(new OutputStreamWriter(client.getOutputStream(), StandardCharsets.UTF_8), true)) {
+            String line = in.readLine();
+            if (line == null) {
+                return;
+            }
+            String[] parts = line.trim().split("\\s+");
+            switch (parts[0].toUpperCase()) {
+                case "PING":
+                    out.println("PONG");
+                    break;
+                case "STOP":
+                    out.println("BYE");
+                    stopped = true;
+                    server.close();
+                    break;
+                case "RUN":
+                    run(options(parts), testClasses, out);
+                    break;
+                default:
+                    out.println("ERROR Unknown command: " + parts[0]);
+            }
+        } catch (IOException e) {
+            logger.warn("Daemon client connection failed: {}", e.getMessage());
+        }
+    }
+
+    private static Map<String, String> options(String[] parts) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 1; i < parts.length; i++) {
+            int eq = parts[i].indexOf('=');
+            if (eq > 0) {
+                options.put(parts[i].substring(0, eq), parts[i].substring(eq + 1));
+            }
+        }
+        return options;
+    }
+
+    private static void run(Map<String, String> options, Path testClasses, PrintWriter out) {
+        String classes = options.get("classes");
+        String suite = options.get("suite");
+        if ((classes == null) == (suite == null)) {
+            out.println("ERROR RUN needs exactly one of classes=... or suite=...");
+            return;
+        }
+
+        synchronized (RUN_LOCK) {
+            long start = System.currentTimeMillis();
+            Thread thread = Thread.currentThread();
+            ClassLoader previous = thread.getContextClassLoader();
+            try (TestClassLoader loader = new TestClassLoader(testClasses, TestRunnerDaemon.class.getClassLoader())) {
+                thread.setContextClassLoader(loader);
+                ChainFailFastListener.reset();
+                VariableManager.refresh();
+
+                TestNG testng = new TestNG();
+                testng.setOutputDirectory(REPORTS_DIR.toString());
+                if (suite != null) {
+                    testng.setTestSuites(List.of(resolveSuite(suite).toString()));
+                } else {
+                    List<Class<?>> testClassList = new ArrayList<>();
+                    for (String className : classes.split(",")) {
+                        testClassList.add(Class.forName(className.trim(), true, loader));
+                    }
+                    testng.setTestClasses(testClassList.toArray(new Class<?>[0]));
+                    testng.setPreserveOrder(true);
+                    testng.addListener(new TestListener());
+                    testng.addListener(new ChainFailFastListener());
+                }
+                if (options.containsKey("groups")) {
+                    testng.setGroups(options.get("groups"));
+                }
+                StreamingListener streaming = new StreamingListener(out);
+                testng.addListener(streaming);
+                testng.run();
+
+                out.printf("DONE status=%d passed=%d failed=%d skipped=%d millis=%d%n", testng.getStatus(),
+                        streaming.passed.get(), streaming.failed.get(), streaming.skipped.get(),
+                        System.currentTimeMillis() - start);
+            } catch (Exception e) {
+                logger.error("Daemon run failed", e);
+                out.println("ERROR " + oneLine(e.toString()));
+            } finally {
+                thread.setContextClassLoader(previous);
+            }
+        }
+    }
+
+    /**
+     * Suite file path, or a product suite name such as {@code testng-bomb.xml}.
+     */
+    private static Path resolveSuite(String suite) {
+        Path path = Paths.get(suite);
+        if (!Files.isRegularFile(path)) {
+            path = Paths.get("src", "test", "resources", suite);
+        }
+        if (!Files.isRegularFile(path)) {
+            throw new IllegalArgumentException("Suite file not found: " + suite);
+        }
+        return path;
+    }
+
+    private static String oneLine(String text) {
+        return text == null ? "" : text.replaceAll("\\s*[\\r\\n]+\\s*", " ");
+    }
+
+    /**
+     * No-op test used only to warm up TestNG.
+     */
+    public static final class WarmUpTest {
+        @org.testng.annotations.Test
+        public void warmUp() {
+            // Nothing to do
+        }
+    }
+
+    /**
+     * Loads {@code com.automation.tests} classes from the compiled test classes, child-first,
+     * so each run sees the latest build. Everything else comes from the warm parent.
+     */
+    private static final class TestClassLoader extends URLClassLoader {
+
+        private TestClassLoader(Path testClasses, ClassLoader parent) throws MalformedURLException {
+            super("daemon-test-classes", new URL[]{testClasses.toUri().toURL()}, parent);
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!name.startsWith(TESTS_PACKAGE)) {
+                return super.loadClass(name, resolve);
+            }
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> loaded = findLoadedClass(name);
+                if (loaded == null) {
+                    try {
+                        loaded = findClass(name);
+                    } catch (ClassNotFoundException e) {
+                        loaded = super.loadClass(name, false);
+                    }
+                }
+                if (resolve) {
+                    resolveClass(loaded);
+                }
+                return loaded;
+            }
+        }
+    }
+
+    /**
+     * Streams test outcomes to the client as they happen.
+     */
+    private static final class StreamingListener implements ITestListener {
+        private final PrintWriter out;
+        private final AtomicInteger passed = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final AtomicInteger skipped = new AtomicInteger();
+
+        private StreamingListener(PrintWriter out) {
+            this.out = out;
+        }
+
+        @Override
+        public void onTestStart(ITestResult result) {
+            out.println("START " + nameOf(result));
+        }
+
+        @Override
+        public void onTestSuccess(ITestResult result) {
+            passed.incrementAndGet();
+            out.println("PASS " + nameOf(result) + " " + (result.getEndMillis() - result.getStartMillis()) + "ms");
+        }
+
+        @Override
+        public void onTestFailure(ITestResult result) {
+            failed.incrementAndGet();
+            out.println("FAIL " + nameOf(result) + " " + reasonOf(result));
+        }
+
+        @Override
+        public void onTestSkipped(ITestResult result) {
+            skipped.incrementAndGet();
+            out.println("SKIP " + nameOf(result) + " " + reasonOf(result));
+        }
+
+        private static String nameOf(ITestResult result) {
+            return result.getTestClass().getName() + "." + result.getMethod().getMethodName();
+        }
+
+        private static String reasonOf(ITestResult result) {
+            return result.getThrowable() != null ? oneLine(result.getThrowable().getMessage()) : "";
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.automation.runner;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Groups the test classes listed in the product suites into schedulable units.
+ * <p>
+ * A unit is an ordered chain of classes that must run in the same JVM, in suite order:
+ * - Every class of a {@code *Pipeline} package (e.g. the whole VideoTaggingPipeline)
+ * - Every class of any other sub-package (e.g. buyerapp.HomePage shares state via statics)
+ * - A class directly in {@code tests.bomb}/{@code tests.buyerapp} is a unit on its own
+ * </p>
+ */
+public final class TestUnits {
+
+    /**
+     * Product suites in the order testng.xml includes them.
+     */
+    public static final List<String> PRODUCT_SUITES = List.of("testng-bomb.xml", "testng-buyerapp.xml");
+
+    private static final String TESTS_PACKAGE = "com.automation.tests.";
+
+    private TestUnits() {
+        // Prevent instantiation
+    }
+
+    /**
+     * An ordered chain of test classes belonging to one product.
+     */
+    public static final class Unit {
+        private final String name;
+        private final String product;
+        private final List<String> classes = new ArrayList<>();
+
+        private Unit(String name, String product) {
+            this.name = name;
+            this.product = product;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Product key: {@code bomb} or {@code buyerapp}.
+         */
+        public String getProduct() {
+            return product;
+        }
+
+        public List<String> getClasses() {
+            return Collections.unmodifiableList(classes);
+        }
+
+        @Override
+        public String toString() {
+            return name + classes.size();
+        }
+    }
+
+    /**
+     * Load the units of all product suites from the classpath.
+     */
+    public static List<Unit> load() {
+        List<Unit> units = new ArrayList<>();
+        for (String suite : PRODUCT_SUITES) {
+            units.addAll(group(readSuiteClasses(suite)));
+        }
+        return units;
+    }
+
+    /**
+     * Unit name for a fully qualified test class name.
+     */
+    public static String unitOf(String className) {
+        if (!className.startsWith(TESTS_PACKAGE)) {
+            return className;
+        }
+        String[] parts = className.substring(TESTS_PACKAGE.length()).split("\\.");
+        // parts: product, [package...], SimpleName
+        if (parts.length <= 2) {
+            return className;
+        }
+        if (parts[1].endsWith("Pipeline")) {
+            return parts[0] + "." + parts[1];
+        }
+        return String.join(".", java.util.Arrays.copyOfRange(parts, 0, parts.length - 1));
+    }
+
+    /**
+     * Product key of a test class ({@code bomb} or {@code buyerapp}).
+     */
+    public static String productOf(String className) {
+        if (!className.startsWith(TESTS_PACKAGE)) {
+            return "";
+        }
+        String rest = className.substring(TESTS_PACKAGE.length());
+        int dot = rest.indexOf('.');
+        return dot > 0 ? rest.substring(0, dot) : rest;
+    }
+
+    /**
+     * Group classes (already in suite order) into units, keeping first-seen unit order.
+     */
+    public static List<Unit> group(List<String> classNames) {
+        Map<String, Unit> units = new LinkedHashMap<>();
+        for (String className : classNames) {
+            String name = unitOf(className);
+            units.computeIfAbsent(name, key -> new Unit(key, productOf(className))).classes.add(className);
+        }
+        return new ArrayList<>(units.values());
+    }
+
+    /**
+     * Read class names, in order, from a suite XML on the classpath.
+     */
+    public static List<String> readSuiteClasses(String suiteResource) {
+        try (InputStream input = TestUnits.class.getClassLoader().getResourceAsStream(suiteResource)) {
+            if (input == null) {
+                throw new IllegalStateException("Suite file not found on classpath: " + suiteResource);
+            }
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            // Never fetch testng-1.0.dtd over the network
+            factory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+            DocumentBuilder builder = factory.newDocumentBuilder();
+            Document document = builder.parse(input);
+
+            List<String> classes = new ArrayList<>();
+            NodeList nodes = document.getElementsByTagName("class");
+            for (int i = 0; i < nodes.getLength(); i++) {
+                classes.add(((Element) nodes.item(i)).getAttribute("name"));
+            }
+            return classes;
+        } catch (IllegalStateException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to read suite " + suiteResource, e);
+        }
+    }
+}
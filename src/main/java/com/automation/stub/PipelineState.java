@@ -0,0 +1,408 @@
+package com.automation.stub;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory state machine behind {@link PipelineStubServer}, mirroring the BOMB pipelines.
+ * <p>
+ * Video pipeline (one upload):
+ * ASSIGNED (uploaded with an editor, status 0) → THUMBNAIL_UPLOADED (creates the video to tag)
+ * → DONE (status 1) → the video can be tagged (any number of times).
+ * </p>
+ * <p>
+ * Catalog pipeline (one catalog):
+ * UPLOADED → ASSIGNED (to an editor) → TAGGED (one product per tagging call)
+ * → DONE (status 1), or SKIPPED (status 2) from ASSIGNED or TAGGED.
+ * </p>
+ * Every transition locks only its own entity, so many chains can run concurrently. Lists and
+ * responses read entity fields without that lock, so the mutable fields are volatile. Invalid
+ * transitions throw {@link Rejected} with the HTTP status to answer (404 unknown, 409 wrong state).
+ */
+public final class PipelineState {
+
+    /**
+     * Transition refused by the state machine.
+     */
+    public static final class Rejected extends RuntimeException {
+        private final int status;
+
+        Rejected(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+    }
+
+    enum UploadState { ASSIGNED, THUMBNAIL_UPLOADED, DONE }
+
+    enum CatalogState { UPLOADED, ASSIGNED, TAGGED, DONE, SKIPPED }
+
+    static final class Upload {
+        final String id;
+        final String sellerId;
+        final String sellerUserId;
+        final String phoneNumber;
+        final String editorId;
+        final String editorName;
+        final String videoLink;
+        final String videoType;
+        final String description;
+        final String createdAt;
+        volatile UploadState state = UploadState.ASSIGNED;
+        volatile String videoId;
+        volatile String updatedAt;
+
+        Upload(String id, String sellerId, String sellerUserId, String phoneNumber, String editorId,
+               String editorName, String videoLink, String videoType, String description) {
+            this.id = id;
+            this.sellerId = sellerId;
+            this.sellerUserId = sellerUserId;
+            this.phoneNumber = phoneNumber;
+            this.editorId = editorId;
+            this.editorName = editorName;
+            this.videoLink = videoLink;
+            this.videoType = videoType;
+            this.description = description;
+            this.createdAt = now();
+            this.updatedAt = createdAt;
+        }
+
+        /**
+         * Seller the upload is filed under: the seller's user id when the upload names one.
+         */
+        String seller() {
+            return sellerUserId != null ? sellerUserId : sellerId;
+        }
+
+        boolean belongsTo(String seller) {
+            return seller.equals(sellerId) || seller.equals(sellerUserId);
+        }
+
+        int status() {
+            return state == UploadState.DONE ? 1 : 0;
+        }
+    }
+
+    static final class Video {
+        final String id;
+        final Upload upload;
+        final String thumbnailLink;
+        final String fabricText;
+        final String priceText;
+        final String createdAt;
+        volatile Integer status;
+        volatile String title;
+        volatile String taggedPrice;
+        volatile String productId;
+        volatile List<String> tags = List.of();
+        volatile String updatedAt;
+
+        Video(String id, Upload upload, String thumbnailLink, String fabricText, String priceText) {
+            this.id = id;
+            this.upload = upload;
+            this.thumbnailLink = thumbnailLink;
+            this.fabricText = fabricText;
+            this.priceText = priceText;
+            this.createdAt = now();
+            this.updatedAt = createdAt;
+        }
+    }
+
+    static final class Product {
+        final String id;
+        final String productId;
+        final String title;
+        final Double price;
+        final List<String> tags;
+        final List<String> images;
+
+        Product(String id, String productId, String title, Double price, List<String> tags, List<String> images) {
+            this.id = id;
+            this.productId = productId;
+            this.title = title;
+            this.price = price;
+            this.tags = tags;
+            this.images = images;
+        }
+    }
+
+    static final class Catalog {
+        final String id;
+        final String sellerId;
+        final String phoneNumber;
+        final String name;
+        final String source;
+        final List<String> images;
+        final String createdAt;
+        final List<Product> products = new ArrayList<>();
+        volatile CatalogState state = CatalogState.UPLOADED;
+        volatile String editorId;
+        volatile String assignedBy;
+        volatile int version;
+        volatile String updatedAt;
+
+        Catalog(String id, String sellerId, String phoneNumber, String name, String source, List<String> images) {
+            this.id = id;
+            this.sellerId = sellerId;
+            this.phoneNumber = phoneNumber;
+            this.name = name;
+            this.source = source;
+            this.images = images;
+            this.createdAt = now();
+            this.updatedAt = createdAt;
+        }
+
+        int status() {
+            return state == CatalogState.DONE ? 1 : state == CatalogState.SKIPPED ? 2 : 0;
+        }
+    }
+
+    private final Map<String, Upload> uploads = new ConcurrentHashMap<>();
+    private final Map<String, Video> videos = new ConcurrentHashMap<>();
+    private final Map<String, Catalog> catalogs = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong(ThreadLocalRandom.current().nextLong(1L << 40));
+    private final AtomicLong transitions = new AtomicLong();
+
+    /**
+     * New 24-hex id shaped like a Mongo ObjectId (seconds + counter), unique per state.
+     */
+    String nextId() {
+        return String.format("%08x%016x", Instant.now().getEpochSecond(), sequence.incrementAndGet());
+    }
+
+    /**
+     * Number of successful state transitions so far.
+     */
+    public long transitionCount() {
+        return transitions.get();
+    }
+
+    // ---- Video pipeline ----
+
+    Upload uploadVideo(String sellerId, String sellerUserId, String phoneNumber, String editorId, String editorName,
+                       String videoLink, String videoType, String description) {
+        if (sellerId == null || editorId == null || videoLink == null) {
+            throw new Rejected(400, "seller._id, editor._id and videoLink are required");
+        }
+        Upload upload = new Upload(nextId(), sellerId, sellerUserId, phoneNumber, editorId, editorName,
+                videoLink, videoType == null ? "Video" : videoType, description);
+        uploads.put(upload.id, upload);
+        transitions.incrementAndGet();
+        return upload;
+    }
+
+    List<Upload> assignedUploads(String seller, int limit) {
+        return uploads.values().stream()
+                .filter(upload -> upload.belongsTo(seller))
+                .filter(upload -> upload.state == UploadState.ASSIGNED)
+                .sorted(Comparator.comparing((Upload upload) -> upload.createdAt).reversed())
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    Video uploadThumbnail(String seller, String uploadId, String thumbnailLink, String fabricText, String priceText) {
+        Upload upload = uploadOf(seller, uploadId);
+        synchronized (upload) {
+            require(upload.state == UploadState.ASSIGNED, "Upload " + uploadId + " is " + upload.state
+                    + ", thumbnail already uploaded");
+            Video video = new Video(nextId(), upload, thumbnailLink, fabricText, priceText);
+            videos.put(video.id, video);
+            upload.videoId = video.id;
+            upload.state = UploadState.THUMBNAIL_UPLOADED;
+            upload.updatedAt = now();
+            transitions.incrementAndGet();
+            return video;
+        }
+    }
+
+    /**
+     * Mark an upload or a catalog as done; the shared BOMB endpoint serves both pipelines.
+     */
+    Object markDone(String seller, String id) {
+        Upload upload = uploads.get(id);
+        if (upload != null) {
+            upload = uploadOf(seller, id);
+            synchronized (upload) {
+                require(upload.state == UploadState.THUMBNAIL_UPLOADED, "Upload " + id + " is " + upload.state
+                        + ", upload the thumbnail first");
+                upload.state = UploadState.DONE;
+                upload.updatedAt = now();
+                transitions.incrementAndGet();
+                return upload;
+            }
+        }
+        Catalog catalog = catalogOf(seller, id);
+        synchronized (catalog) {
+            require(catalog.state == CatalogState.TAGGED, "Catalog " + id + " is " + catalog.state
+                    + ", tag at least one product first");
+            catalog.state = CatalogState.DONE;
+            catalog.updatedAt = now();
+            transitions.incrementAndGet();
+            return catalog;
+        }
+    }
+
+    List<Video> videosToTag(String seller, int limit) {
+        return videos.values().stream()
+                .filter(video -> video.upload.belongsTo(seller))
+                .filter(video -> video.upload.state == UploadState.DONE)
+                .sorted(Comparator.comparing((Video video) -> video.createdAt).reversed())
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    Video tagVideo(String seller, String videoId, String productId, List<String> tags, String title, String price) {
+        Video video = videos.get(videoId);
+        if (video == null || !video.upload.belongsTo(seller)) {
+            throw new Rejected(404, "Video " + videoId + " not found for seller " + seller);
+        }
+        synchronized (video) {
+            require(video.upload.state == UploadState.DONE, "Upload " + video.upload.id + " is "
+                    + video.upload.state + ", mark it done before tagging");
+            video.productId = productId;
+            video.tags = tags == null ? List.of() : List.copyOf(tags);
+            video.title = title;
+            video.taggedPrice = price;
+            video.status = 1;
+            video.updatedAt = now();
+            transitions.incrementAndGet();
+            return video;
+        }
+    }
+
+    // ---- Catalog pipeline ----
+
+    Catalog createCatalog(String sellerId, String phoneNumber, String name, String source, int images) {
+        List<String> imageIds = new ArrayList<>();
+        for (int i = 0; i < Math.max(1, images); i++) {
+            imageIds.add(nextId());
+        }
+        Catalog catalog = new Catalog(nextId(), sellerId, phoneNumber, name, source, Collections.unmodifiableList(imageIds));
+        catalogs.put(catalog.id, catalog);
+        transitions.incrementAndGet();
+        return catalog;
+    }
+
+    List<Catalog> listCatalogs(String seller, String editor, int limit, boolean byStatus) {
+        Comparator<Catalog> order = Comparator.comparing((Catalog catalog) -> catalog.createdAt).reversed();
+        if (byStatus) {
+            order = Comparator.comparingInt(Catalog::status).thenComparing(order);
+        }
+        return catalogs.values().stream()
+                .filter(catalog -> seller == null || seller.equals(catalog.sellerId))
+                .filter(catalog -> editor == null || editor.equals(catalog.editorId))
+                .sorted(order)
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    Catalog assignCatalog(String catalogId, String editorId, String assignedBy) {
+        Catalog catalog = catalogs.get(catalogId);
+        if (catalog == null) {
+            throw new Rejected(404, "Catalog " + catalogId + " not found");
+        }
+        synchronized (catalog) {
+            boolean reassign = catalog.state == CatalogState.ASSIGNED && editorId.equals(catalog.editorId);
+            require(catalog.state == CatalogState.UPLOADED || reassign, "Catalog " + catalogId + " is "
+                    + catalog.state + (catalog.editorId != null ? " (editor " + catalog.editorId + ")" : ""));
+            catalog.state = CatalogState.ASSIGNED;
+            catalog.editorId = editorId;
+            catalog.assignedBy = assignedBy;
+            catalog.version++;
+            catalog.updatedAt = now();
+            transitions.incrementAndGet();
+            return catalog;
+        }
+    }
+
+    List<Catalog> editorCatalogs(String seller) {
+        return catalogs.values().stream()
+                .filter(catalog -> seller.equals(catalog.sellerId))
+                .filter(catalog -> catalog.state == CatalogState.ASSIGNED || catalog.state == CatalogState.TAGGED)
+                .sorted(Comparator.comparing((Catalog catalog) -> catalog.createdAt))
+                .collect(Collectors.toList());
+    }
+
+    Catalog catalog(String catalogId) {
+        Catalog catalog = catalogs.get(catalogId);
+        if (catalog == null) {
+            throw new Rejected(404, "Catalog " + catalogId + " not found");
+        }
+        return catalog;
+    }
+
+    Product tagCatalog(String catalogId, String productId, List<String> tags, String title, Double price,
+                       List<String> images) {
+        Catalog catalog = catalog(catalogId);
+        synchronized (catalog) {
+            require(catalog.state == CatalogState.ASSIGNED || catalog.state == CatalogState.TAGGED,
+                    "Catalog " + catalogId + " is " + catalog.state + ", assign it to an editor first");
+            Product product = new Product(nextId(), productId, title, price,
+                    tags == null ? List.of() : List.copyOf(tags), images == null ? List.of() : List.copyOf(images));
+            catalog.products.add(product);
+            catalog.state = CatalogState.TAGGED;
+            catalog.updatedAt = now();
+            transitions.incrementAndGet();
+            return product;
+        }
+    }
+
+    Catalog skipCatalog(String seller, String catalogId) {
+        Catalog catalog = catalogOf(seller, catalogId);
+        synchronized (catalog) {
+            require(catalog.state == CatalogState.ASSIGNED || catalog.state == CatalogState.TAGGED,
+                    "Catalog " + catalogId + " is " + catalog.state + ", only assigned catalogs can be skipped");
+            catalog.state = CatalogState.SKIPPED;
+            catalog.updatedAt = now();
+            transitions.incrementAndGet();
+            return catalog;
+        }
+    }
+
+    /**
+     * Products of a catalog, copied under its lock.
+     */
+    List<Product> productsOf(Catalog catalog) {
+        synchronized (catalog) {
+            return new ArrayList<>(catalog.products);
+        }
+    }
+
+    private Upload uploadOf(String seller, String uploadId) {
+        Upload upload = uploads.get(uploadId);
+        if (upload == null || !upload.belongsTo(seller)) {
+            throw new Rejected(404, "Upload " + uploadId + " not found for seller " + seller);
+        }
+        return upload;
+    }
+
+    private Catalog catalogOf(String seller, String catalogId) {
+        Catalog catalog = catalogs.get(catalogId);
+        if (catalog == null || !catalog.sellerId.equals(seller)) {
+            throw new Rejected(404, "Upload or catalog " + catalogId + " not found for seller " + seller);
+        }
+        return catalog;
+    }
+
+    private static void require(boolean condition, String message) {
+        if (!condition) {
+            throw new Rejected(409, message);
+        }
+    }
+
+    private static String now() {
+        return Instant.now().toString();
+    }
+}
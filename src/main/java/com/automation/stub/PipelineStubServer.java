@@ -0,0 +1,600 @@
+package com.automation.stub;
+
+import com.automation.constants.BombEndpoints;
+import com.automation.recording.RecordingFilter;
+import com.automation.utils.JsonUtils;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * Stateful local stand-in for the BOMB video and catalog pipelines.
+ * <p>
+ * Serves the pipeline endpoints of {@link BombEndpoints} from an in-memory {@link PipelineState},
+ * with generated ids, so whole chains (upload → assign → thumbnail → done → tagging, and
+ * catalog assign → group → tag → skip/done) run offline and many of them can run at once.
+ * Responses have the shape of the real API (the fields the response models and tests read);
+ * invalid transitions answer 409, unknown ids 404 and requests without an
+ * {@code authorization} header 401.
+ * </p>
+ *
+ * <p><b>Stub-only endpoints:</b></p>
+ * <ul>
+ *     <li>{@code POST /stub/catalogs} - create uploaded catalogs:
+ *     {@code {"sellerId", "phoneNumber", "count", "images"}}</li>
+ *     <li>{@code GET /stub/stats} - requests served and state transitions so far</li>
+ * </ul>
+ *
+ * <p>Started by {@code PipelineThroughput}, or on its own to drive chains from elsewhere.</p>
+ */
+public final class PipelineStubServer {
+
+    private static final Logger logger = LogManager.getLogger(PipelineStubServer.class);
+
+    private static final int DEFAULT_IMAGES = 3;
+    private static final long TOKEN_VALIDITY_SECONDS = TimeUnit.DAYS.toSeconds(1);
+    private static final String STUB_CATALOGS = "/stub/catalogs";
+    private static final String STUB_STATS = "/stub/stats";
+
+    private static final String ID = "([^/]+)";
+    private static final Pattern ASSIGNED_VIDEOS = Pattern.compile(BombEndpoints.VIDEO_ASSIGN_UPLOAD + "/" + ID);
+    private static final Pattern THUMBNAIL_UPLOAD = Pattern.compile(BombEndpoints.VIDEO_THUMBNAIL_UPLOAD + "/" + ID);
+    private static final Pattern MARK_AS_DONE = Pattern.compile(BombEndpoints.EDITOR_MARK_AS_DONE + "/" + ID + "/" + ID);
+    private static final Pattern SKIP_CATALOG = Pattern.compile(BombEndpoints.EDITOR_SKIP_CATALOG + "/" + ID + "/" + ID);
+    private static final Pattern VIDEOS_TO_TAG = Pattern.compile(BombEndpoints.VIDEO_TAGGING + "/" + ID);
+    private static final Pattern TAG_VIDEO = Pattern.compile(BombEndpoints.VIDEO_TAGGING + "/" + ID + "/" + ID);
+    private static final Pattern ASSIGN_CATALOG = Pattern.compile(BombEndpoints.CATALOG_ASSIGN + "/" + ID);
+    private static final Pattern EDITOR_CATALOGS = Pattern.compile(BombEndpoints.EDITOR_ASSIGN_CATALOG + "/" + ID);
+    private static final Pattern CATALOG_IMAGES = Pattern.compile(BombEndpoints.CATALOG_UPLOAD + "/" + ID);
+    private static final Pattern CATALOG_GROUP = Pattern.compile(BombEndpoints.CATALOG_GROUP_UPLOAD + "/" + ID);
+    private static final Pattern TAG_CATALOG = Pattern.compile(BombEndpoints.CATALOG + "/" + ID);
+
+    private final PipelineState state = new PipelineState();
+    private final ObjectMapper mapper = JsonUtils.getObjectMapper();
+    private final ObjectWriter compact = mapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    private PipelineStubServer(int port, int threads) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 1024);
+        executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "pipeline-stub");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+    }
+
+    /**
+     * Start a stub on the loopback interface.
+     *
+     * @param port    port to listen on, 0 for any free port
+     * @param threads request handler threads
+     * @throws RuntimeException if the port is taken
+     */
+    public static PipelineStubServer start(int port, int threads) {
+        try {
+            PipelineStubServer stub = new PipelineStubServer(port, threads);
+            stub.server.start();
+            logger.info("Pipeline stub listening on {} ({} handler threads)", stub.baseUrl(), threads);
+            return stub;
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to start pipeline stub on port " + port + ": " + e.getMessage(), e);
+        }
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public PipelineState getState() {
+        return state;
+    }
+
+    public long requestCount() {
+        return requests.get();
+    }
+
+    public long rejectedCount() {
+        return rejected.get();
+    }
+
+    /**
+     * Create uploaded catalogs for a seller, ready to be assigned.
+     *
+     * @return ids of the new catalogs
+     */
+    public List<String> seedCatalogs(String sellerId, String phoneNumber, int count, int images) {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ids.add(state.createCatalog(sellerId, phoneNumber, "Catalog " + (i + 1), "seller-app", images).id);
+        }
+        return ids;
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+        logger.info("Pipeline stub stopped: {} requests, {} rejected, {} transitions",
+                requests.get(), rejected.get(), state.transitionCount());
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (HttpExchange http = exchange) {
+            requests.incrementAndGet();
+            byte[] body = http.getRequestBody().readAllBytes();
+            URI uri = http.getRequestURI();
+            String method = http.getRequestMethod().toUpperCase(Locale.ROOT);
+            String path = uri.getPath() == null || uri.getPath().isEmpty() ? "/" : uri.getPath();
+            Map<String, List<String>> query = RecordingFilter.parseQuery(uri.getRawQuery());
+            int status = "POST".equals(method) && BombEndpoints.VIDEO_UPLOAD.equals(path) ? 201 : 200;
+            try {
+                if (!BombEndpoints.LOGIN.equals(path) && !path.startsWith("/stub/")
+                        && http.getRequestHeaders().getFirst("authorization") == null) {
+                    throw new PipelineState.Rejected(401, "Unauthorized");
+                }
+                JsonNode request = body.length == 0 ? mapper.createObjectNode() : mapper.readTree(body);
+                ObjectNode response = route(method, path, query, request);
+                respond(http, status, response, "GET".equals(method));
+            } catch (PipelineState.Rejected e) {
+                rejected.incrementAndGet();
+                respond(http, e.getStatus(), envelope(e.getStatus(), e.getMessage()), false);
+            } catch (IOException | RuntimeException e) {
+                rejected.incrementAndGet();
+                logger.warn("Pipeline stub failed {} {}: {}", method, uri, e.getMessage());
+                respond(http, 400, envelope(400, String.valueOf(e.getMessage())), false);
+            }
+        }
+    }
+
+    private ObjectNode route(String method, String path, Map<String, List<String>> query, JsonNode request) {
+        Matcher m;
+        if ("POST".equals(method)) {
+            if (BombEndpoints.LOGIN.equals(path)) {
+                return login();
+            }
+            if (BombEndpoints.VIDEO_UPLOAD.equals(path)) {
+                return uploadVideo(request);
+            }
+            if ((m = THUMBNAIL_UPLOAD.matcher(path)).matches()) {
+                return uploadThumbnail(m.group(1), request);
+            }
+            if ((m = MARK_AS_DONE.matcher(path)).matches()) {
+                return markDone(m.group(1), m.group(2));
+            }
+            if ((m = SKIP_CATALOG.matcher(path)).matches()) {
+                return skipCatalog(m.group(1), m.group(2));
+            }
+            if ((m = TAG_VIDEO.matcher(path)).matches()) {
+                return tagVideo(m.group(1), m.group(2), request);
+            }
+            if ((m = ASSIGN_CATALOG.matcher(path)).matches()) {
+                return assignCatalog(m.group(1), request);
+            }
+            if ((m = EDITOR_CATALOGS.matcher(path)).matches()) {
+                return editorCatalogs(m.group(1));
+            }
+            if (STUB_CATALOGS.equals(path)) {
+                return createCatalogs(request);
+            }
+            if ((m = TAG_CATALOG.matcher(path)).matches()) {
+                return tagCatalog(m.group(1), request);
+            }
+        } else if ("GET".equals(method)) {
+            if ((m = ASSIGNED_VIDEOS.matcher(path)).matches()) {
+                return assignedVideos(m.group(1), intParam(query, "limit", 20));
+            }
+            if ((m = VIDEOS_TO_TAG.matcher(path)).matches()) {
+                return videosToTag(m.group(1), intParam(query, "limit", 20));
+            }
+            if (BombEndpoints.CATALOG.equals(path)) {
+                return listCatalogs(query);
+            }
+            if ((m = CATALOG_IMAGES.matcher(path)).matches()) {
+                return catalogImages(m.group(1));
+            }
+            if ((m = CATALOG_GROUP.matcher(path)).matches()) {
+                return catalogGroup(m.group(1), param(query, "mode", "add"));
+            }
+            if (STUB_STATS.equals(path)) {
+                ObjectNode stats = envelope(200, "success");
+                stats.putObject("data")
+                        .put("requests", requests.get())
+                        .put("rejected", rejected.get())
+                        .put("transitions", state.transitionCount());
+                return stats;
+            }
+        }
+        throw new PipelineState.Rejected(404, "No stub route for " + method + " " + path);
+    }
+
+    // ---- Auth ----
+
+    private ObjectNode login() {
+        long exp = Instant.now().getEpochSecond() + TOKEN_VALIDITY_SECONDS;
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        String token = encoder.encodeToString("{\"alg\":\"none\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8))
+                + "." + encoder.encodeToString(("{\"exp\":" + exp + "}").getBytes(StandardCharsets.UTF_8))
+                + ".stub";
+        ObjectNode response = envelope(200, "success");
+        response.putObject("data").put("accessToken", token);
+        return response;
+    }
+
+    // ---- Video pipeline ----
+
+    private ObjectNode uploadVideo(JsonNode request) {
+        JsonNode seller = request.path("seller");
+        JsonNode editor = request.path("editor");
+        PipelineState.Upload upload = state.uploadVideo(text(seller, "_id"), text(seller, "value"),
+                text(seller, "phoneNumber"), text(editor, "_id"), text(editor, "name"),
+                text(request, "videoLink"), text(request, "videoType"), text(request, "description"));
+        ObjectNode response = envelope(201, "success");
+        ObjectNode data = response.putObject("data");
+        data.put("_id", upload.id);
+        data.put("videoLink", upload.videoLink);
+        data.put("videoType", upload.videoType);
+        data.put("url", driveLink(upload.videoLink));
+        data.put("description", upload.description);
+        data.put("status", upload.status());
+        data.putObject("seller").put("_id", upload.sellerId).put("phoneNumber", upload.phoneNumber);
+        data.putObject("editor").put("_id", upload.editorId).put("name", upload.editorName);
+        data.put("createdAt", upload.createdAt);
+        return response;
+    }
+
+    private ObjectNode assignedVideos(String seller, int limit) {
+        ArrayNode items = mapper.createArrayNode();
+        for (PipelineState.Upload upload : state.assignedUploads(seller, limit)) {
+            ObjectNode item = items.addObject();
+            item.put("_id", upload.id);
+            item.put("videoLink", upload.videoLink);
+            item.put("videoType", upload.videoType);
+            item.put("status", upload.status());
+            item.putObject("seller").put("_id", upload.seller()).put("phoneNumber", upload.phoneNumber);
+            item.putObject("editor").put("_id", upload.editorId).put("name", upload.editorName);
+            item.put("createdAt", upload.createdAt);
+        }
+        ObjectNode response = envelope(200, "success");
+        ObjectNode data = response.putObject("data");
+        data.set("data", items);
+        data.set("videos", items.deepCopy());
+        return response;
+    }
+
+    private ObjectNode uploadThumbnail(String seller, JsonNode request) {
+        PipelineState.Video video = state.uploadThumbnail(seller, text(request, "uploadId"),
+                text(request, "thumbnailLink"), text(request, "fabricText"), text(request, "priceText"));
+        ObjectNode response = envelope(200, "success");
+        ObjectNode data = response.putObject("data");
+        data.put("_id", video.id);
+        data.put("seller", seller);
+        data.put("sellerId", video.upload.seller());
+        data.put("uploadId", video.upload.id);
+        data.put("driveLink", driveLink(video.upload.videoLink));
+        data.put("thubmbnailDriveLink", driveLink(video.thumbnailLink));
+        data.put("contentType", "video");
+        data.putNull("status");
+        data.put("createdAt", video.createdAt);
+        data.put("updatedAt", video.updatedAt);
+        return response;
+    }
+
+    private ObjectNode markDone(String seller, String id) {
+        Object done = state.markDone(seller, id);
+        ObjectNode response = envelope(200, "Marked as done successfully");
+        ObjectNode data = response.putObject("data");
+        if (done instanceof PipelineState.Upload) {
+            PipelineState.Upload upload = (PipelineState.Upload) done;
+            data.put("_id", upload.id);
+            data.put("sellerId", upload.seller());
+            data.put("phoneNumber", upload.phoneNumber);
+            data.put("url", driveLink(upload.videoLink));
+            data.put("assignedBy", upload.editorId);
+            data.put("editorId", upload.editorId);
+            data.put("uploadedBy", upload.editorId);
+            data.put("status", upload.status());
+            data.put("videoType", upload.videoType);
+            data.put("createdAt", upload.createdAt);
+            data.put("updatedAt", upload.updatedAt);
+        } else {
+            catalogFields(data, (PipelineState.Catalog) done);
+        }
+        return response;
+    }
+
+    private ObjectNode videosToTag(String seller, int limit) {
+        ArrayNode items = mapper.createArrayNode();
+        for (PipelineState.Video video : state.videosToTag(seller, limit)) {
+            ObjectNode item = items.addObject();
+            item.put("_id", video.id);
+            item.putArray("displayTags");
+            item.put("language", "en");
+            item.put("contentType", "video");
+            item.put("uploadDate", video.createdAt);
+            item.put("editor", video.upload.editorId);
+            item.put("seller", video.upload.seller());
+            item.put("driveLink", driveLink(video.upload.videoLink));
+            item.put("thubmbnailDriveLink", driveLink(video.thumbnailLink));
+            item.put("phoneNumber", video.upload.phoneNumber);
+            item.put("uploadId", video.upload.id);
+            if (video.status == null) {
+                item.putNull("status");
+            } else {
+                item.put("status", video.status);
+            }
+            item.put("description", video.upload.description);
+            item.put("createdAt", video.createdAt);
+            item.put("updatedAt", video.updatedAt);
+        }
+        // The editor's video list answers with an application status code instead of the HTTP one
+        ObjectNode response = envelope(200, "success");
+        response.put("statusCode", "10000");
+        response.putObject("data").set("data", items);
+        return response;
+    }
+
+    private ObjectNode tagVideo(String seller, String videoId, JsonNode request) {
+        PipelineState.Video video = state.tagVideo(seller, videoId, text(request, "product_id"),
+                strings(request.path("tags")), text(request, "title"), text(request, "price"));
+        ObjectNode response = envelope(200, "success");
+        ObjectNode data = response.putObject("data");
+        data.put("_id", video.id);
+        data.put("seller", video.upload.seller());
+        data.put("title", video.title);
+        data.put("priceText", video.taggedPrice);
+        data.put("status", video.status);
+        data.set("tags", mapper.valueToTree(video.tags));
+        return response;
+    }
+
+    // ---- Catalog pipeline ----
+
+    private ObjectNode createCatalogs(JsonNode request) {
+        String sellerId = text(request, "sellerId");
+        if (sellerId == null) {
+            throw new PipelineState.Rejected(400, "sellerId is required");
+        }
+        List<String> ids = seedCatalogs(sellerId, text(request, "phoneNumber"),
+                request.path("count").asInt(1), request.path("images").asInt(DEFAULT_IMAGES));
+        ObjectNode response = envelope(200, "success");
+        response.set("data", mapper.valueToTree(ids));
+        return response;
+    }
+
+    private ObjectNode listCatalogs(Map<String, List<String>> query) {
+        List<PipelineState.Catalog> catalogs = state.listCatalogs(param(query, "seller", null),
+                param(query, "editor", null), intParam(query, "limit", 20), "status".equals(param(query, "sort", null)));
+        return catalogPage(catalogs);
+    }
+
+    private ObjectNode assignCatalog(String catalogId, JsonNode request) {
+        String editorId = text(request.path("editor"), "_id");
+        if (editorId == null) {
+            throw new PipelineState.Rejected(400, "editor._id is required");
+        }
+        PipelineState.Catalog catalog = state.assignCatalog(catalogId, editorId, text(request.path("editor"), "user_id"));
+        ObjectNode response = envelope(200, "success");
+        ObjectNode data = response.putObject("data");
+        data.put("_id", catalog.id);
+        data.put("videoType", "catalog");
+        data.put("sellerId", catalog.sellerId);
+        data.put("editorId", catalog.editorId);
+        data.put("createdAt", catalog.createdAt);
+        data.put("updatedAt", catalog.updatedAt);
+        data.put("__v", catalog.version);
+        return response;
+    }
+
+    private ObjectNode editorCatalogs(String seller) {
+        return catalogPage(state.editorCatalogs(seller));
+    }
+
+    private ObjectNode catalogImages(String catalogId) {
+        PipelineState.Catalog catalog = state.catalog(catalogId);
+        ObjectNode response = envelope(200, "success");
+        ObjectNode data = response.putObject("data");
+        data.put("total", catalog.images.size());
+        ArrayNode hits = data.putArray("data");
+        catalog.images.forEach(image -> imageHit(hits.addObject(), catalog, image));
+        return response;
+    }
+
+    private ObjectNode catalogGroup(String catalogId, String mode) {
+        PipelineState.Catalog catalog = state.catalog(catalogId);
+        List<PipelineState.Product> products = state.productsOf(catalog);
+        ObjectNode response = envelope(200, "success");
+        ObjectNode data = response.putObject("data");
+        data.put("_id", catalog.id);
+        data.put("name", catalog.name);
+        ArrayNode hits = data.putArray("data");
+        if ("edit".equals(mode)) {
+            for (PipelineState.Product product : products) {
+                ObjectNode hit = imageHit(hits.addObject(), catalog, product.images.isEmpty()
+                        ? product.id : product.images.get(0));
+                ObjectNode source = (ObjectNode) hit.get("_source");
+                source.put("productId", product.productId);
+                source.put("title", product.title);
+                source.set("productTags", mapper.valueToTree(product.tags));
+            }
+            data.putNull("error");
+        } else {
+            List<String> tagged = new ArrayList<>();
+            products.forEach(product -> tagged.addAll(product.images));
+            catalog.images.stream()
+                    .filter(image -> !tagged.contains(image))
+                    .forEach(image -> imageHit(hits.addObject(), catalog, image));
+        }
+        data.put("total", hits.size());
+        return response;
+    }
+
+    private ObjectNode tagCatalog(String catalogId, JsonNode request) {
+        Double price = request.hasNonNull("price") ? request.get("price").asDouble() : null;
+        PipelineState.Product product = state.tagCatalog(catalogId, text(request, "product_id"),
+                strings(request.path("tags")), text(request, "title"), price, strings(request.path("images")));
+        ObjectNode response = envelope(200, "success");
+        ObjectNode data = response.putObject("data");
+        data.put("available", true);
+        data.put("contentType", "image");
+        data.put("isDeleted", false);
+        data.put("_id", product.id);
+        data.set("productTags", mapper.valueToTree(product.tags));
+        data.put("title", product.title);
+        if (product.price != null) {
+            data.put("priceText", product.price);
+        }
+        data.put("catalogId", catalogId);
+        return response;
+    }
+
+    private ObjectNode skipCatalog(String seller, String catalogId) {
+        PipelineState.Catalog catalog = state.skipCatalog(seller, catalogId);
+        ObjectNode response = envelope(200, "Skipped successfully");
+        ObjectNode data = response.putObject("data");
+        data.put("_id", catalog.id);
+        data.put("assignedBy", catalog.assignedBy);
+        data.put("editorId", catalog.editorId);
+        data.put("status", catalog.status());
+        data.put("videoType", "catalog");
+        data.put("sellerId", catalog.sellerId);
+        return response;
+    }
+
+    /**
+     * Catalog listing in the paginated shape shared by the catalog and editor endpoints.
+     */
+    private ObjectNode catalogPage(List<PipelineState.Catalog> catalogs) {
+        ObjectNode response = envelope(200, "success");
+        ObjectNode page = response.putArray("data").addObject();
+        page.putArray("pagination").addObject().put("total", catalogs.size());
+        ArrayNode items = page.putArray("data");
+        catalogs.forEach(catalog -> catalogFields(items.addObject(), catalog));
+        return response;
+    }
+
+    private void catalogFields(ObjectNode item, PipelineState.Catalog catalog) {
+        synchronized (catalog) {
+            item.put("_id", catalog.id);
+            item.put("source", catalog.source);
+            item.put("status", catalog.status());
+            item.put("priority", 0);
+            item.put("videoType", "catalog");
+            item.put("sellerId", catalog.sellerId);
+            item.put("phoneNumber", catalog.phoneNumber);
+            item.put("name", catalog.name);
+            item.put("editorId", catalog.editorId);
+            item.put("total", catalog.images.size());
+            item.put("tagged", catalog.products.size());
+            item.put("active", catalog.state != PipelineState.CatalogState.SKIPPED);
+            item.put("createdAt", catalog.createdAt);
+            item.put("updatedAt", catalog.updatedAt);
+        }
+    }
+
+    private ObjectNode imageHit(ObjectNode hit, PipelineState.Catalog catalog, String imageId) {
+        hit.put("_index", "uploads");
+        hit.put("_id", imageId);
+        hit.put("_score", 1.0);
+        ObjectNode source = hit.putObject("_source");
+        source.putObject("seller").put("_id", catalog.sellerId).put("phoneNumber", catalog.phoneNumber);
+        source.put("id", imageId);
+        source.put("uploadId", catalog.id);
+        source.put("sellerId", catalog.sellerId);
+        source.put("phoneNumber", catalog.phoneNumber);
+        source.put("contentType", "image");
+        source.put("driveLink", driveLink("/" + imageId + ".jpg"));
+        source.put("thubmbnailDriveLink", driveLink("/" + imageId + "_thumb.jpg"));
+        source.put("url", driveLink("/" + imageId + ".jpg"));
+        source.putArray("priceTags");
+        return hit;
+    }
+
+    // ---- Helpers ----
+
+    private ObjectNode envelope(int status, String message) {
+        ObjectNode node = mapper.createObjectNode();
+        node.put("statusCode", String.valueOf(status));
+        node.put("message", message);
+        return node;
+    }
+
+    /**
+     * Write a JSON response; GET responses carry a weak ETag of their body like the real API.
+     */
+    private void respond(HttpExchange http, int status, ObjectNode response, boolean etag) throws IOException {
+        byte[] bytes = compact.writeValueAsBytes(response);
+        http.getResponseHeaders().add("Content-Type", "application/json; charset=utf-8");
+        if (etag) {
+            CRC32 crc = new CRC32();
+            crc.update(bytes);
+            http.getResponseHeaders().add("ETag", "W/\"" + Integer.toHexString(bytes.length) + "-"
+                    + Long.toHexString(crc.getValue()) + "\"");
+        }
+        http.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = http.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static String driveLink(String link) {
+        if (link == null || link.startsWith("https://")) {
+            return link;
+        }
+        return "https://storage.stub.local" + (link.startsWith("/") ? "" : "/") + link.replaceFirst("^[a-z]+://[^/]*", "");
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    private static List<String> strings(JsonNode array) {
+        List<String> values = new ArrayList<>();
+        array.forEach(value -> values.add(value.asText()));
+        return values;
+    }
+
+    private static String param(Map<String, List<String>> query, String name, String defaultValue) {
+        List<String> values = query.get(name);
+        return values == null || values.isEmpty() || values.get(0).isEmpty() ? defaultValue : values.get(0);
+    }
+
+    private static int intParam(Map<String, List<String>> query, String name, int defaultValue) {
+        try {
+            return Integer.parseInt(param(query, name, String.valueOf(defaultValue)));
+        } catch (NumberFormatException e) {
+            throw new PipelineState.Rejected(400, name + " must be a number");
+        }
+    }
+}
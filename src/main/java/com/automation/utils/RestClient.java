@@ -1,5 +1,6 @@
 package com.automation.utils;
 
+import com.automation.base.ServiceContext;
 import io.restassured.RestAssured;
 import io.restassured.response.Response;
 import io.restassured.specification.RequestSpecification;
@@ -16,12 +17,28 @@ public class RestClient {
 
     private static final Logger logger = LogManager.getLogger(RestClient.class);
 
+    private final ServiceContext context;
+
+    /**
+     * Client without a service context; requests use RestAssured defaults.
+     */
+    public RestClient() {
+        this(null);
+    }
+
+    /**
+     * Client bound to a service context (base URI, filters, auth).
+     */
+    public RestClient(ServiceContext context) {
+        this.context = context;
+    }
+
     /**
      * Perform GET request
      */
     public Response get(String endpoint) {
         logger.info("Performing GET request to: {}", endpoint);
-        return RestAssured.given()
+        return given()
                 .when()
                 .get(endpoint);
     }
@@ -31,7 +48,7 @@ public class RestClient {
      */
     public Response get(String endpoint, Map<String, ?> pathParams) {
         logger.info("Performing GET request to: {} with path params: {}", endpoint, pathParams);
-        return RestAssured.given()
+        return given()
                 .pathParams(pathParams)
                 .when()
                 .get(endpoint);
@@ -42,7 +59,7 @@ public class RestClient {
      */
     public Response getWithQueryParams(String endpoint, Map<String, ?> queryParams) {
         logger.info("Performing GET request to: {} with query params: {}", endpoint, queryParams);
-        return RestAssured.given()
+        return given()
                 .queryParams(queryParams)
                 .when()
                 .get(endpoint);
@@ -53,7 +70,7 @@ public class RestClient {
      */
     public Response post(String endpoint, Object body) {
         logger.info("Performing POST request to: {}", endpoint);
-        return RestAssured.given()
+        return given()
                 .body(body)
                 .when()
                 .post(endpoint);
@@ -64,7 +81,7 @@ public class RestClient {
      */
     public Response post(String endpoint, Object body, Map<String, String> headers) {
         logger.info("Performing POST request to: {} with custom headers", endpoint);
-        return RestAssured.given()
+        return given()
                 .headers(headers)
                 .body(body)
                 .when()
@@ -76,7 +93,7 @@ public class RestClient {
      */
     public Response put(String endpoint, Object body) {
         logger.info("Performing PUT request to: {}", endpoint);
-        return RestAssured.given()
+        return given()
                 .body(body)
                 .when()
                 .put(endpoint);
@@ -87,7 +104,7 @@ public class RestClient {
      */
     public Response put(String endpoint, Map<String, ?> pathParams, Object body) {
         logger.info("Performing PUT request to: {} with path params: {}", endpoint, pathParams);
-        return RestAssured.given()
+        return given()
                 .pathParams(pathParams)
                 .body(body)
                 .when()
@@ -99,7 +116,7 @@ public class RestClient {
      */
     public Response patch(String endpoint, Object body) {
         logger.info("Performing PATCH request to: {}", endpoint);
-        return RestAssured.given()
+        return given()
                 .body(body)
                 .when()
                 .patch(endpoint);
@@ -110,7 +127,7 @@ public class RestClient {
      */
     public Response patch(String endpoint, Map<String, ?> pathParams, Object body) {
         logger.info("Performing PATCH request to: {} with path params: {}", endpoint, pathParams);
-        return RestAssured.given()
+        return given()
                 .pathParams(pathParams)
                 .body(body)
                 .when()
@@ -122,7 +139,7 @@ public class RestClient {
      */
     public Response delete(String endpoint) {
         logger.info("Performing DELETE request to: {}", endpoint);
-        return RestAssured.given()
+        return given()
                 .when()
                 .delete(endpoint);
     }
@@ -132,7 +149,7 @@ public class RestClient {
      */
     public Response delete(String endpoint, Map<String, ?> pathParams) {
         logger.info("Performing DELETE request to: {} with path params: {}", endpoint, pathParams);
-        return RestAssured.given()
+        return given()
                 .pathParams(pathParams)
                 .when()
                 .delete(endpoint);
@@ -142,6 +159,6 @@ public class RestClient {
      * Get a RequestSpecification for custom request building
      */
     public RequestSpecification given() {
-        return RestAssured.given();
+        return context != null ? context.given() : RestAssured.given();
     }
 }
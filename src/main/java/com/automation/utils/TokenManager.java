@@ -0,0 +1,350 @@
+package com.automation.utils;
+
+import com.automation.config.ConfigManager;
+import com.automation.constants.BombEndpoints;
+import com.automation.constants.BuyerAppEndpoints;
+import com.automation.constants.HttpStatus;
+import com.automation.models.request.BuyerLoginRequest;
+import com.automation.models.request.LoginRequest;
+import com.automation.models.response.BuyerLoginResponse;
+import com.automation.models.response.LoginResponse;
+import com.automation.recording.RecordingFilter;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/**
+ * Expiry-aware access token provider for BOMB and Buyer App APIs.
+ * <p>
+ * Test classes no longer depend on LoginApiTest/LoginTest having run first:
+ * - A persisted token (bomb_token / buyer_app_token) is reused while its JWT {@code exp} is valid
+ * - A new login is single-flight: concurrent callers share one request
+ * - Tokens inside the refresh window are renewed in the background before they expire
+ * - {@link #onUnauthorized(String)} re-logs in exactly once per rejected token
+ * </p>
+ *
+ * <p><b>Usage Example:</b></p>
+ * <pre>{@code
+ * String token = TokenManager.bomb().getToken();
+ *
+ * // On a 401 with that token, get a fresh one and retry once
+ * token = TokenManager.bomb().onUnauthorized(token);
+ *
+ * // Or let the token manager do both
+ * Response response = TokenManager.buyerApp().sendWithRefresh(token -> RestAssured.given()
+ *         .header("Authorization", "JWT " + token)
+ *         .get(path));
+ * }</pre>
+ */
+public final class TokenManager {
+
+    private static final Logger logger = LogManager.getLogger(TokenManager.class);
+
+    /**
+     * Minimum pause between background refresh attempts after one fails.
+     */
+    private static final long BACKGROUND_RETRY_MILLIS = 30_000L;
+
+    private static final ExecutorService refresher = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "token-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static final TokenManager BOMB = new TokenManager("BOMB", "bomb_token", TokenManager::loginBomb);
+    private static final TokenManager BUYER_APP =
+            new TokenManager("Buyer App", "buyer_app_token", TokenManager::loginBuyerApp);
+
+    private final String name;
+    private final String variableKey;
+    private final Function<ConfigManager, String> loginCall;
+
+    private volatile Token current;
+    private volatile long lastBackgroundFailure;
+
+    // Guarded by this
+    private CompletableFuture<Token> inFlight;
+
+    private TokenManager(String name, String variableKey, Function<ConfigManager, String> loginCall) {
+        this.name = name;
+        this.variableKey = variableKey;
+        this.loginCall = loginCall;
+    }
+
+    /**
+     * Token manager for the BOMB API (bomb_token).
+     */
+    public static TokenManager bomb() {
+        return BOMB;
+    }
+
+    /**
+     * Token manager for the Buyer App API (buyer_app_token).
+     */
+    public static TokenManager buyerApp() {
+        return BUYER_APP;
+    }
+
+    /**
+     * Get a valid access token, logging in only when no usable token exists.
+     *
+     * @return Access token
+     * @throws RuntimeException if a login is required and fails
+     */
+    public String getToken() {
+        long now = System.currentTimeMillis();
+        Token token = current;
+
+        if (token == null || token.isExpired(now)) {
+            Token persisted = adoptPersisted(now);
+            if (persisted != null) {
+                token = persisted;
+            }
+        }
+
+        if (token != null && !token.isExpired(now)) {
+            if (token.isRefreshDue(now, refreshSkewMillis())
+                    && now - lastBackgroundFailure > BACKGROUND_RETRY_MILLIS) {
+                startLogin(token.value, true);
+            }
+            return token.value;
+        }
+
+        return awaitLogin(token != null ? token.value : null);
+    }
+
+    /**
+     * Handle a 401 for the given token. Only the first caller for a rejected token
+     * triggers a login; everyone else receives the token that login produced.
+     *
+     * @param rejectedToken Token the server rejected
+     * @return Fresh access token to retry with
+     */
+    public String onUnauthorized(String rejectedToken) {
+        Token token = current;
+        if (token != null && !token.value.equals(rejectedToken)) {
+            logger.debug("{} token already replaced after 401, reusing it", name);
+            return token.value;
+        }
+        logger.warn("{} token rejected with 401, logging in again", name);
+        return awaitLogin(rejectedToken);
+    }
+
+    /**
+     * Send a request with the current token and, if it is rejected with a 401, once more with the
+     * token {@link #onUnauthorized(String)} returns.
+     *
+     * @param request Sends the request with the given access token
+     * @return Response of the last attempt
+     */
+    public Response sendWithRefresh(Function<String, Response> request) {
+        String token = getToken();
+        Response response = request.apply(token);
+        if (response.getStatusCode() == HttpStatus.UNAUTHORIZED) {
+            response = request.apply(onUnauthorized(token));
+        }
+        return response;
+    }
+
+    /**
+     * Drop the cached token so the next {@link #getToken()} logs in (or re-reads the store).
+     */
+    public void invalidate() {
+        current = null;
+    }
+
+    private String awaitLogin(String staleValue) {
+        try {
+            return startLogin(staleValue, false).join().value;
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            throw new RuntimeException(name + " login failed: " + cause.getMessage(), cause);
+        }
+    }
+
+    /**
+     * Start a login unless one is already running or the stale token was already replaced.
+     * The caller that creates the future performs the login itself (or hands it to the
+     * background refresher), so waiting threads never issue a second request.
+     */
+    private CompletableFuture<Token> startLogin(String staleValue, boolean background) {
+        CompletableFuture<Token> future;
+        synchronized (this) {
+            Token latest = current;
+            if (latest != null && !latest.value.equals(staleValue)
+                    && !latest.isExpired(System.currentTimeMillis())) {
+                return CompletableFuture.completedFuture(latest);
+            }
+            if (inFlight != null && !inFlight.isDone()) {
+                return inFlight;
+            }
+            future = new CompletableFuture<>();
+            inFlight = future;
+        }
+
+        if (background) {
+            refresher.execute(() -> {
+                performLogin(future);
+                if (future.isCompletedExceptionally()) {
+                    lastBackgroundFailure = System.currentTimeMillis();
+                }
+            });
+        } else {
+            performLogin(future);
+        }
+        return future;
+    }
+
+    private void performLogin(CompletableFuture<Token> future) {
+        try {
+            String accessToken = loginCall.apply(ConfigManager.getInstance());
+            Token token = new Token(accessToken, expiryOf(accessToken));
+            current = token;
+            VariableManager.persist(variableKey, accessToken);
+            logger.info("{} login succeeded, token valid until {}", name,
+                    token.expiresAt == Long.MAX_VALUE ? "unknown" : new java.util.Date(token.expiresAt));
+            future.complete(token);
+        } catch (RuntimeException e) {
+            logger.error("{} login failed: {}", name, e.getMessage());
+            future.completeExceptionally(e);
+        }
+    }
+
+    private Token adoptPersisted(long now) {
+        String value = VariableManager.get(variableKey);
+        Token candidate = value != null && !value.isEmpty() ? new Token(value, expiryOf(value)) : null;
+
+        if (candidate == null || candidate.isExpired(now)) {
+            // Another fork or suite may have logged in since this thread copied its variables
+            String shared = VariableManager.getPersisted(variableKey);
+            if (shared != null && !shared.isEmpty() && (candidate == null || !shared.equals(candidate.value))) {
+                candidate = new Token(shared, expiryOf(shared));
+            }
+        }
+
+        if (candidate == null || candidate.isExpired(now)) {
+            return null;
+        }
+        synchronized (this) {
+            Token latest = current;
+            if (latest == null || latest.expiresAt < candidate.expiresAt) {
+                current = candidate;
+                logger.info("Reusing persisted {} token", name);
+            }
+            return current;
+        }
+    }
+
+    private static long refreshSkewMillis() {
+        return ConfigManager.getInstance().tokenRefreshSkewSeconds() * 1000L;
+    }
+
+    /**
+     * Read the {@code exp} claim of a JWT without verifying it.
+     *
+     * @return Expiry in epoch millis, Long.MAX_VALUE if the token carries no expiry,
+     *         or 0 if it cannot be decoded
+     */
+    static long expiryOf(String jwt) {
+        String[] parts = jwt.split("\\.");
+        if (parts.length < 2) {
+            return 0L;
+        }
+        try {
+            byte[] payload = Base64.getUrlDecoder().decode(parts[1]);
+            JsonNode claims = JsonUtils.getObjectMapper().readTree(new String(payload, StandardCharsets.UTF_8));
+            JsonNode exp = claims.get("exp");
+            return exp != null && exp.canConvertToLong() ? exp.asLong() * 1000L : Long.MAX_VALUE;
+        } catch (Exception e) {
+            logger.warn("Unable to decode JWT expiry: {}", e.getMessage());
+            return 0L;
+        }
+    }
+
+    /**
+     * Login requests bypass ServiceContext (no auth header), so recording is added here as well.
+     */
+    private static RequestSpecification loginSpec(String baseUrl) {
+        RequestSpecification request = RestAssured.given()
+                .baseUri(baseUrl)
+                .contentType(ContentType.JSON);
+        return RecordingFilter.isEnabled() ? request.filter(RecordingFilter.getInstance()) : request;
+    }
+
+    private static String loginBomb(ConfigManager config) {
+        LoginRequest loginRequest = LoginRequest.builder()
+                .phoneNumber(config.loginPhoneNumber())
+                .token(config.loginToken())
+                .build();
+
+        Response response = loginSpec(config.baseUrl())
+                .body(loginRequest)
+                .when()
+                .post(BombEndpoints.LOGIN);
+        requireOk(response);
+
+        LoginResponse loginResponse = JsonUtils.fromResponse(response, LoginResponse.class);
+        if (loginResponse.getData() == null || loginResponse.getData().getAccessToken() == null) {
+            throw new RuntimeException("BOMB login response did not contain an access token");
+        }
+        return loginResponse.getData().getAccessToken();
+    }
+
+    private static String loginBuyerApp(ConfigManager config) {
+        BuyerLoginRequest loginRequest = BuyerLoginRequest.builder()
+                .phoneNumber(config.buyerAppPhoneNumber())
+                .token(config.buyerAppToken())
+                .build();
+
+        Response response = loginSpec(config.buyerAppBaseUrl())
+                .body(loginRequest)
+                .when()
+                .post(BuyerAppEndpoints.LOGIN);
+        requireOk(response);
+
+        BuyerLoginResponse loginResponse = JsonUtils.fromResponse(response, BuyerLoginResponse.class);
+        if (loginResponse.getData() == null || loginResponse.getData().getAccessToken() == null) {
+            throw new RuntimeException("Buyer App login response did not contain an access token");
+        }
+        return loginResponse.getData().getAccessToken();
+    }
+
+    /**
+     * Fail with the HTTP status and body, not a parsing error, when a login is rejected.
+     */
+    private static void requireOk(Response response) {
+        if (response.getStatusCode() != HttpStatus.OK) {
+            throw new RuntimeException("HTTP " + response.getStatusCode() + ": " + response.asString());
+        }
+    }
+
+    private static final class Token {
+        private final String value;
+        private final long expiresAt;
+
+        private Token(String value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+
+        private boolean isRefreshDue(long now, long skewMillis) {
+            return expiresAt != Long.MAX_VALUE && now >= expiresAt - skewMillis;
+        }
+    }
+}
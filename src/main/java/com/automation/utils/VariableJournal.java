@@ -0,0 +1,472 @@
+package com.automation.utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only, multi-process persistence for test variables.
+ * <p>
+ * The store consists of two files in the same directory:
+ * - {@code test-variables.properties}: the compacted snapshot (same format as before)
+ * - {@code test-variables.properties.journal}: records appended since the last compaction
+ *   (the snapshot file name plus {@code .journal})
+ * </p>
+ * <p>
+ * The committed {@code src/test/resources/test-variables.properties} is only the seed of a new
+ * store and is never written, so runs leave the source tree clean. Variables written by a run
+ * survive until the store is deleted ({@code mvn clean} for the default location).
+ * </p>
+ * <p>
+ * Writers take an exclusive OS lock on the journal and append a single CRC-protected line,
+ * so concurrent surefire forks or BOMB/Buyer App runs never clobber each other. Readers take a
+ * shared lock and replay only the bytes appended since their last refresh; all reads are
+ * served from memory. fsync is batched on a background thread, and the journal is folded back
+ * into the snapshot once it grows past a threshold or when the JVM exits.
+ * </p>
+ *
+ * <p><b>System properties:</b></p>
+ * <ul>
+ *     <li>{@code variables.store.dir} - directory holding snapshot and journal
+ *     (default: {@code target/variables}, seeded from the committed file when empty)</li>
+ *     <li>{@code variables.fsync.interval.ms} - batched fsync interval (default 200)</li>
+ *     <li>{@code variables.compact.threshold} - journal records before compaction (default 256)</li>
+ * </ul>
+ */
+final class VariableJournal {
+
+    private static final Logger logger = LogManager.getLogger(VariableJournal.class);
+
+    private static final String DEFAULT_STORE_DIR = "target/variables";
+    private static final String JOURNAL_SUFFIX = ".journal";
+    private static final char SET = 'S';
+    private static final char REMOVE = 'R';
+    private static final String SNAPSHOT_COMMENT = "Test Variables Configuration - Updated by VariableManager";
+
+    private final Path snapshotFile;
+    private final Path journalFile;
+    private final FileChannel channel;
+    private final Object ioLock = new Object();
+    /**
+     * Replaced as a whole when the snapshot is reloaded, so lock-free readers never see a
+     * half-built view.
+     */
+    private volatile Map<String, String> values = new ConcurrentHashMap<>();
+    private final int compactThreshold;
+    private final ScheduledExecutorService syncer;
+
+    // Guarded by ioLock
+    private long journalOffset;
+    private int journalRecords;
+    private Object snapshotKey;
+    private boolean dirty;
+    private boolean closed;
+
+    private VariableJournal(Path snapshotFile) throws IOException {
+        this.snapshotFile = snapshotFile;
+        this.journalFile = snapshotFile.resolveSibling(snapshotFile.getFileName() + JOURNAL_SUFFIX);
+        this.channel = FileChannel.open(journalFile,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.compactThreshold = Integer.getInteger("variables.compact.threshold", 256);
+
+        long fsyncInterval = Long.getLong("variables.fsync.interval.ms", 200L);
+        this.syncer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "variable-journal-fsync");
+            thread.setDaemon(true);
+            return thread;
+        });
+        syncer.scheduleWithFixedDelay(this::syncQuietly, fsyncInterval, fsyncInterval, TimeUnit.MILLISECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(this::close, "variable-journal-shutdown"));
+
+        refresh();
+    }
+
+    /**
+     * Open the journal for the given properties file name.
+     *
+     * @param propertiesFile properties file name on the classpath
+     * @return opened journal
+     * @throws IOException if the store directory is not writable (callers fall back to the
+     *                     classpath copy)
+     */
+    static VariableJournal open(String propertiesFile) throws IOException {
+        Path snapshot = resolveSnapshot(propertiesFile);
+        logger.info("Variable store: {} (journal {}{})", snapshot.toAbsolutePath(),
+                snapshot.getFileName(), JOURNAL_SUFFIX);
+        return new VariableJournal(snapshot);
+    }
+
+    /**
+     * Resolve the snapshot location in the store directory, seeding it on first use.
+     */
+    private static Path resolveSnapshot(String propertiesFile) throws IOException {
+        String storeDir = System.getProperty("variables.store.dir");
+        Path dir = storeDir != null && !storeDir.isBlank()
+                ? Paths.get(storeDir)
+                : Paths.get(System.getProperty("user.dir"), DEFAULT_STORE_DIR);
+        Files.createDirectories(dir);
+        Path snapshot = dir.resolve(propertiesFile);
+        if (!Files.exists(snapshot)) {
+            seed(propertiesFile, snapshot);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Copy the committed seed (the source file, else the classpath copy) into a new store.
+     */
+    private static void seed(String propertiesFile, Path target) throws IOException {
+        Path source = Paths.get(System.getProperty("user.dir"), "src", "test", "resources", propertiesFile);
+        try (InputStream input = Files.isRegularFile(source)
+                ? Files.newInputStream(source)
+                : VariableJournal.class.getClassLoader().getResourceAsStream(propertiesFile)) {
+            if (input == null) {
+                Files.createFile(target);
+                return;
+            }
+            Path temp = Files.createTempFile(target.getParent(), propertiesFile, ".seed");
+            Files.copy(input, temp, StandardCopyOption.REPLACE_EXISTING);
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                // Another process seeded it first
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    /**
+     * Current merged view (snapshot + journal). Served from memory.
+     */
+    Map<String, String> values() {
+        return Collections.unmodifiableMap(values);
+    }
+
+    String get(String key) {
+        return values.get(key);
+    }
+
+    /**
+     * Replay records appended by this or any other process since the last refresh.
+     */
+    void refresh() {
+        synchronized (ioLock) {
+            if (closed) {
+                return;
+            }
+            try (FileLock ignored = channel.lock(0, Long.MAX_VALUE, true)) {
+                refreshLocked();
+            } catch (IOException e) {
+                logger.error("Failed to refresh variable journal {}: {}", journalFile, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Durably record a variable. The append is atomic with respect to other processes;
+     * fsync happens on the next batch.
+     */
+    void put(String key, String value) {
+        append(SET, key, value);
+    }
+
+    void remove(String key) {
+        append(REMOVE, key, null);
+    }
+
+    private void append(char op, String key, String value) {
+        byte[] record = encode(op, key, value);
+        synchronized (ioLock) {
+            if (closed) {
+                logger.warn("Variable journal already closed, '{}' kept in memory only", key);
+                applyRecord(op, key, value);
+                return;
+            }
+            try (FileLock ignored = channel.lock()) {
+                // Pick up other writers first so our in-memory view stays ordered with the file
+                refreshLocked();
+
+                long position = journalOffset;
+                if (channel.size() > position) {
+                    // A writer died partway through a record: drop the torn tail so the new
+                    // record starts on its own line instead of being glued onto the fragment
+                    logger.warn("Dropping {} bytes of a torn variable journal record",
+                            channel.size() - position);
+                    channel.truncate(position);
+                }
+                ByteBuffer buffer = ByteBuffer.wrap(record);
+                while (buffer.hasRemaining()) {
+                    position += channel.write(buffer, position);
+                }
+                journalOffset = position;
+                journalRecords++;
+                dirty = true;
+                applyRecord(op, key, value);
+
+                if (journalRecords >= compactThreshold) {
+                    compactLocked();
+                }
+            } catch (IOException e) {
+                logger.error("Failed to append '{}' to variable journal: {}", key, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Force pending appends to disk.
+     */
+    void sync() throws IOException {
+        synchronized (ioLock) {
+            if (!closed && dirty) {
+                channel.force(false);
+                dirty = false;
+            }
+        }
+    }
+
+    private void syncQuietly() {
+        try {
+            sync();
+        } catch (IOException e) {
+            logger.warn("Batched fsync of variable journal failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Fold the journal into the snapshot file.
+     */
+    void compact() {
+        synchronized (ioLock) {
+            if (closed) {
+                return;
+            }
+            try (FileLock ignored = channel.lock()) {
+                refreshLocked();
+                if (channel.size() > 0) {
+                    compactLocked();
+                }
+            } catch (IOException e) {
+                logger.error("Failed to compact variable journal: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Flush, compact and release the journal. Safe to call more than once.
+     */
+    void close() {
+        compact();
+        synchronized (ioLock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            syncer.shutdownNow();
+            try {
+                channel.force(false);
+                channel.close();
+            } catch (IOException e) {
+                logger.warn("Error closing variable journal: {}", e.getMessage());
+            }
+        }
+    }
+
+    // ---------------------------------------------------------------------------------------
+    // Lock-held helpers
+    // ---------------------------------------------------------------------------------------
+
+    private void refreshLocked() throws IOException {
+        Object currentKey = snapshotIdentity();
+        long size = channel.size();
+
+        Map<String, String> target = values;
+        boolean reload = !Objects.equals(currentKey, snapshotKey) || size < journalOffset;
+        if (reload) {
+            // First load, or another process compacted since we last looked: rebuild aside
+            target = loadSnapshot();
+            snapshotKey = currentKey;
+            journalOffset = 0;
+            journalRecords = 0;
+        }
+
+        if (size > journalOffset) {
+            ByteBuffer buffer = ByteBuffer.allocate((int) (size - journalOffset));
+            long position = journalOffset;
+            while (buffer.hasRemaining()) {
+                int read = channel.read(buffer, position);
+                if (read < 0) {
+                    break;
+                }
+                position += read;
+            }
+            journalOffset += replay(target, buffer.array(), buffer.position());
+        }
+
+        if (reload) {
+            values = target;
+        }
+    }
+
+    private void compactLocked() throws IOException {
+        Properties merged = new Properties();
+        values.forEach(merged::setProperty);
+
+        Path temp = Files.createTempFile(snapshotFile.getParent(), snapshotFile.getFileName().toString(), ".tmp");
+        try (OutputStream out = Files.newOutputStream(temp)) {
+            merged.store(out, SNAPSHOT_COMMENT);
+        }
+        try (FileChannel tempChannel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            tempChannel.force(true);
+        }
+        Files.move(temp, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        channel.truncate(0);
+        channel.force(true);
+        snapshotKey = snapshotIdentity();
+        journalOffset = 0;
+        journalRecords = 0;
+        dirty = false;
+        logger.info("Compacted variable journal into {} ({} variables)", snapshotFile, values.size());
+    }
+
+    private Map<String, String> loadSnapshot() throws IOException {
+        Properties snapshot = new Properties();
+        if (Files.exists(snapshotFile)) {
+            try (InputStream in = Files.newInputStream(snapshotFile)) {
+                snapshot.load(in);
+            }
+        }
+        Map<String, String> loaded = new ConcurrentHashMap<>();
+        for (String key : snapshot.stringPropertyNames()) {
+            loaded.put(key, snapshot.getProperty(key));
+        }
+        return loaded;
+    }
+
+    private Object snapshotIdentity() throws IOException {
+        if (!Files.exists(snapshotFile)) {
+            return null;
+        }
+        BasicFileAttributes attributes = Files.readAttributes(snapshotFile, BasicFileAttributes.class);
+        Object fileKey = attributes.fileKey();
+        return (fileKey != null ? fileKey.toString() : "") + "@" + attributes.lastModifiedTime().toMillis()
+                + "#" + attributes.size();
+    }
+
+    /**
+     * Apply complete records from the buffer.
+     *
+     * @return number of bytes consumed (a torn trailing record is left for the next refresh)
+     */
+    private int replay(Map<String, String> target, byte[] bytes, int length) {
+        int consumed = 0;
+        int lineStart = 0;
+        for (int i = 0; i < length; i++) {
+            if (bytes[i] != '\n') {
+                continue;
+            }
+            String line = new String(bytes, lineStart, i - lineStart, StandardCharsets.UTF_8);
+            decodeAndApply(target, line);
+            journalRecords++;
+            lineStart = i + 1;
+            consumed = lineStart;
+        }
+        return consumed;
+    }
+
+    private void decodeAndApply(Map<String, String> target, String line) {
+        String[] parts = line.split("\t", -1);
+        if (parts.length < 3 || parts[0].length() != 1) {
+            logger.warn("Skipping malformed variable journal record");
+            return;
+        }
+        String payload = line.substring(parts[0].length() + parts[1].length() + 2);
+        if (!parts[1].equals(crc(payload))) {
+            logger.warn("Skipping corrupt variable journal record (checksum mismatch)");
+            return;
+        }
+
+        char op = parts[0].charAt(0);
+        String key = unescape(parts[2]);
+        String value = parts.length > 3 ? unescape(parts[3]) : null;
+        applyRecord(target, op, key, value);
+    }
+
+    private void applyRecord(char op, String key, String value) {
+        applyRecord(values, op, key, value);
+    }
+
+    private static void applyRecord(Map<String, String> target, char op, String key, String value) {
+        if (op == SET && value != null) {
+            target.put(key, value);
+        } else if (op == REMOVE || op == SET) {
+            target.remove(key);
+        }
+    }
+
+    private static byte[] encode(char op, String key, String value) {
+        String payload = value == null ? escape(key) : escape(key) + "\t" + escape(value);
+        return (op + "\t" + crc(payload) + "\t" + payload + "\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String crc(String payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload.getBytes(StandardCharsets.UTF_8));
+        return Long.toHexString(crc.getValue());
+    }
+
+    private static String escape(String text) {
+        StringBuilder sb = new StringBuilder(text.length());
+        for (char c : text.toCharArray()) {
+            switch (c) {
+                case '\\': sb.append("\\\\"); break;
+                case '\t': sb.append("\\t"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                default: sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String unescape(String text) {
+        StringBuilder sb = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\\' && i + 1 < text.length()) {
+                char next = text.charAt(++i);
+                switch (next) {
+                    case 't': sb.append('\t'); break;
+                    case 'n': sb.append('\n'); break;
+                    case 'r': sb.append('\r'); break;
+                    default: sb.append(next);
+                }
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -3,8 +3,6 @@ package com.automation.utils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.HashMap;
@@ -21,6 +19,7 @@ import java.util.concurrent.ConcurrentHashMap;
  * - Type conversion helpers (String, int, boolean)
  * - Dynamic runtime updates (e.g., tokens from API responses)
  * - Parallel test execution support
+ * - Crash-safe persistence shared between JVMs (see {@link VariableJournal})
  * </p>
  * 
  * <p><b>Usage Example:</b></p>
@@ -55,6 +54,12 @@ public class VariableManager {
      * Used as initial values for all threads.
      */
     private static final Properties globalProperties = new Properties();
+
+    /**
+     * Shared append-only store backing test-variables.properties, or null when
+     * only the read-only classpath copy is available.
+     */
+    private static volatile VariableJournal journal;
     
     /**
      * Flag to track initialization status.
@@ -75,6 +80,10 @@ public class VariableManager {
      * Initialize the VariableManager by loading properties from test-variables.properties.
      * This method should be called once during test suite initialization.
      * Thread-safe and idempotent - multiple calls are safe.
+     * <p>
+     * When the properties file is writable, values are served from the shared
+     * {@link VariableJournal} so tokens and IDs saved by other JVMs are visible here.
+     * </p>
      */
     public static synchronized void initialize() {
         if (initialized) {
@@ -82,6 +91,22 @@ public class VariableManager {
             return;
         }
 
+        try {
+            journal = VariableJournal.open(PROPERTIES_FILE);
+        } catch (IOException e) {
+            logger.warn("Unable to open variable journal for {}: {}. Falling back to classpath copy.",
+                PROPERTIES_FILE, e.getMessage());
+            journal = null;
+        }
+
+        if (journal != null) {
+            globalProperties.putAll(journal.values());
+            logger.info("VariableManager initialized successfully with {} variables from {}", 
+                globalProperties.size(), PROPERTIES_FILE);
+            initialized = true;
+            return;
+        }
+
         try (InputStream input = VariableManager.class.getClassLoader()
                 .getResourceAsStream(PROPERTIES_FILE)) {
             
@@ -103,6 +128,35 @@ public class VariableManager {
         }
     }
 
+    /**
+     * Pick up variables persisted by other processes (surefire forks, parallel suites)
+     * since the last refresh. Only affects threads that have not yet read a variable;
+     * use {@link #getPersisted(String)} to read the latest shared value directly.
+     */
+    public static void refresh() {
+        if (journal != null) {
+            journal.refresh();
+            globalProperties.putAll(journal.values());
+        }
+    }
+
+    /**
+     * Get the latest persisted value of a variable, as last saved by any process.
+     *
+     * @param key Variable key
+     * @return Persisted value, or null if not found
+     */
+    public static String getPersisted(String key) {
+        if (key == null) {
+            return null;
+        }
+        if (journal != null) {
+            journal.refresh();
+            return journal.get(key);
+        }
+        return globalProperties.getProperty(key);
+    }
+
     /**
      * Get the thread-local variable map. Creates a new map if not exists for current thread.
      * Automatically loads global properties as initial values.
@@ -115,6 +169,7 @@ public class VariableManager {
         if (variables == null) {
             // Initialize thread-local map with global properties
             variables = new HashMap<>();
+            refresh();
             
             // Copy all global properties to thread-local storage
             for (String key : globalProperties.stringPropertyNames()) {
@@ -341,7 +396,7 @@ public class VariableManager {
      * Save the current token to the properties file for persistence across test runs.
      * This allows tokens to be shared between independent test executions.
      */
-    public static synchronized void saveTokenToFile() {
+    public static void saveTokenToFile() {
         String token = getToken();
         if (token == null || token.isEmpty()) {
             logger.warn("Cannot save null or empty token to file");
@@ -354,7 +409,7 @@ public class VariableManager {
     /**
      * Save the buyer app token to the properties file.
      */
-    public static synchronized void saveBuyerAppTokenToFile() {
+    public static void saveBuyerAppTokenToFile() {
         String token = getBuyerAppToken();
         if (token == null || token.isEmpty()) {
             logger.warn("Cannot save null or empty buyer app token to file");
@@ -364,63 +419,54 @@ public class VariableManager {
         savePropertyToFile("buyer_app_token", token);
     }
 
+    /**
+     * Persist a variable so later runs and concurrent processes can read it.
+     * Updates the current thread's value as well.
+     * 
+     * @param key Variable key
+     * @param value Variable value (will be converted to String)
+     */
+    public static void persist(String key, Object value) {
+        if (key == null || key.trim().isEmpty() || value == null) {
+            logger.warn("Cannot persist variable with null or empty key/value");
+            return;
+        }
+        savePropertyToFile(key, value.toString());
+    }
+
     /**
      * Save a specific property to the properties file.
-     * This updates both the global properties and the file.
+     * This updates the global properties, the current thread and the shared journal.
+     * Records are appended under an OS file lock instead of rewriting the whole file.
      * 
      * @param key Property key
      * @param value Property value
      */
-    private static synchronized void savePropertyToFile(String key, String value) {
-        try {
-            // Get the properties file path from classpath (points to target/test-classes)
-            String classpathPath = VariableManager.class.getClassLoader()
-                    .getResource(PROPERTIES_FILE).getPath();
-            
-            // Handle Windows paths (remove leading slash if present)
-            if (classpathPath.startsWith("/") && classpathPath.contains(":")) {
-                classpathPath = classpathPath.substring(1);
-            }
-            
-            // Convert target path to source path
-            // Example: c:/project/target/test-classes/file -> c:/project/src/test/resources/file
-            String propertiesPath = classpathPath.replace("target\\test-classes", "src\\test\\resources")
-                                                  .replace("target/test-classes", "src/test/resources");
-            
-            java.io.File file = new java.io.File(propertiesPath);
-            
-            // If source file doesn't exist, fall back to target file (shouldn't happen in normal cases)
-            if (!file.exists()) {
-                logger.warn("Source properties file not found at {}, using classpath location", propertiesPath);
-                file = new java.io.File(classpathPath);
-            }
-            
-            // Load current properties
-            Properties props = new Properties();
-            try (java.io.FileInputStream in = new java.io.FileInputStream(file)) {
-                props.load(in);
-            }
-            
-            // Update the property
-            props.setProperty(key, value);
-            globalProperties.setProperty(key, value);
-            
-            // Also update the current thread's local map if it exists
-            Map<String, String> currentThreadVars = threadLocalVariables.get();
-            if (currentThreadVars != null) {
-                currentThreadVars.put(key, value);
-            }
+    private static void savePropertyToFile(String key, String value) {
+        globalProperties.setProperty(key, value);
 
-            // Save back to file
-            try (java.io.FileOutputStream out = new java.io.FileOutputStream(file)) {
-                props.store(out, "Test Variables Configuration - Updated by VariableManager");
-            }
-            
-            logger.info("Successfully saved {} to {}", key, file.getAbsolutePath());
-            
-        } catch (Exception e) {
-            logger.error("Failed to save property {} to file: {}", key, e.getMessage());
-            // Don't throw exception - just log the error
+        // Also update the current thread's local map if it exists
+        Map<String, String> currentThreadVars = threadLocalVariables.get();
+        if (currentThreadVars != null) {
+            currentThreadVars.put(key, value);
+        }
+
+        if (journal == null) {
+            logger.warn("No writable variable store, {} kept in memory only", key);
+            return;
+        }
+
+        journal.put(key, value);
+        logger.info("Successfully saved {} to variable journal", key);
+    }
+
+    /**
+     * Force pending variable writes to disk and fold the journal into
+     * test-variables.properties. Called at suite end; also runs on JVM exit.
+     */
+    public static void flush() {
+        if (journal != null) {
+            journal.compact();
         }
     }
 
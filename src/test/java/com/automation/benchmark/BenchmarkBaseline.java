@@ -0,0 +1,119 @@
+package com.automation.benchmark;
+
+import com.automation.utils.JsonUtils;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares a JMH JSON result file with a baseline from an earlier run and fails on regressions.
+ * <p>
+ * Benchmarks are matched by name, parameters and thread count. A benchmark regressed when its
+ * score is worse by more than {@code jmh.tolerance} percent AND the two confidence intervals
+ * (score ± error) do not overlap, so a noisy run alone does not fail the build. Lower is better for time modes
+ * ({@code avgt}, {@code sample}, {@code ss}), higher for {@code thrpt}.
+ * </p>
+ *
+ * <p><b>System properties:</b></p>
+ * <ul>
+ *     <li>{@code jmh.result} - result file of the current run (default target/jmh-results.json)</li>
+ *     <li>{@code jmh.baseline} - result file to compare with; the check is skipped when blank</li>
+ *     <li>{@code jmh.tolerance} - allowed slowdown in percent (default 10)</li>
+ * </ul>
+ */
+public final class BenchmarkBaseline {
+
+    private static final Logger logger = LogManager.getLogger(BenchmarkBaseline.class);
+
+    private BenchmarkBaseline() {
+        // Prevent instantiation
+    }
+
+    public static void main(String[] args) throws IOException {
+        String baseline = System.getProperty("jmh.baseline", "");
+        if (baseline.isBlank()) {
+            logger.info("No jmh.baseline set, skipping the regression check");
+            return;
+        }
+        String result = System.getProperty("jmh.result", "");
+        Path resultFile = Paths.get(result.isBlank() ? "target/jmh-results.json" : result);
+        String tolerance = System.getProperty("jmh.tolerance", "");
+        double tolerancePercent = tolerance.isBlank() ? 10 : Double.parseDouble(tolerance);
+
+        Map<String, JsonNode> before = scores(Paths.get(baseline));
+        Map<String, JsonNode> after = scores(resultFile);
+        int regressions = 0;
+        logger.info(String.format("%-70s %12s %12s %9s", "benchmark", "baseline", "current", "change"));
+        for (Map.Entry<String, JsonNode> entry : after.entrySet()) {
+            JsonNode old = before.get(entry.getKey());
+            if (old == null) {
+                logger.info(String.format("%-70s %12s %12.3f %9s", entry.getKey(), "-", score(entry.getValue()), "new"));
+                continue;
+            }
+            boolean higherIsBetter = "thrpt".equals(entry.getValue().path("mode").asText());
+            double oldScore = score(old);
+            double newScore = score(entry.getValue());
+            double worsePercent = (higherIsBetter ? oldScore - newScore : newScore - oldScore) * 100 / oldScore;
+            boolean separated = higherIsBetter
+                    ? newScore + error(entry.getValue()) < oldScore - error(old)
+                    : newScore - error(entry.getValue()) > oldScore + error(old);
+            boolean regressed = worsePercent > tolerancePercent && separated;
+            if (regressed) {
+                regressions++;
+            }
+            String line = String.format("%-70s %12.3f %12.3f %+8.1f%%%s", entry.getKey(), oldScore, newScore,
+                    (newScore - oldScore) * 100 / oldScore, regressed ? "  REGRESSION" : "");
+            if (regressed) {
+                logger.warn(line);
+            } else {
+                logger.info(line);
+            }
+        }
+
+        if (regressions > 0) {
+            logger.error("{} benchmark(s) regressed by more than {}% against {}", regressions, tolerancePercent, baseline);
+            System.exit(1);
+        }
+        logger.info("No benchmark regressed by more than {}% against {}", tolerancePercent, baseline);
+    }
+
+    /**
+     * Result entries keyed by benchmark name, parameters and thread count,
+     * e.g. {@code JsonUtilsBenchmark.catalogFromJson items=500 threads=1}.
+     */
+    private static Map<String, JsonNode> scores(Path file) throws IOException {
+        JsonNode results = JsonUtils.getObjectMapper().readTree(Files.readString(file));
+        Map<String, JsonNode> scores = new LinkedHashMap<>();
+        for (JsonNode result : results) {
+            StringBuilder key = new StringBuilder(result.path("benchmark").asText()
+                    .replaceFirst("^com\\.automation\\.benchmark\\.", ""));
+            Map<String, String> params = new TreeMap<>();
+            for (Iterator<Map.Entry<String, JsonNode>> it = result.path("params").fields(); it.hasNext(); ) {
+                Map.Entry<String, JsonNode> param = it.next();
+                params.put(param.getKey(), param.getValue().asText());
+            }
+            params.forEach((name, value) -> key.append(' ').append(name).append('=').append(value));
+            key.append(" threads=").append(result.path("threads").asInt(1));
+            scores.put(key.toString(), result);
+        }
+        return scores;
+    }
+
+    private static double score(JsonNode result) {
+        return result.path("primaryMetric").path("score").asDouble();
+    }
+
+    private static double error(JsonNode result) {
+        double error = result.path("primaryMetric").path("scoreError").asDouble(0);
+        return Double.isNaN(error) ? 0 : error;
+    }
+}
@@ -0,0 +1,70 @@
+package com.automation.benchmark;
+
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatFactory;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * JMH entry point of the {@code jmh} profile: the regular JMH command line, plus a sweep over
+ * thread counts and profilers chosen by property.
+ * <p>
+ * JMH runs every benchmark with a single thread count ({@code -t}). With {@code jmh.threads}
+ * set, the selected benchmarks run once per count and all results go to the one result file,
+ * so contention curves can be tracked and compared like any other benchmark.
+ * </p>
+ *
+ * <p><b>System properties:</b></p>
+ * <ul>
+ *     <li>{@code jmh.threads} - comma-separated thread counts, e.g. 1,4,16,64 (default: {@code -t},
+ *     or the benchmark's own {@code @Threads})</li>
+ *     <li>{@code jmh.prof} - comma-separated profilers, e.g. {@code gc} or
+ *     {@code com.automation.benchmark.CpuTimeProfiler} (default none)</li>
+ * </ul>
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+        // Prevent instantiation
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions options = new CommandLineOptions(args);
+        String threads = System.getProperty("jmh.threads", "");
+        String profilers = System.getProperty("jmh.prof", "");
+        if (threads.isBlank() && profilers.isBlank()) {
+            new Runner(options).run();
+            return;
+        }
+
+        List<Integer> counts = new ArrayList<>();
+        if (!threads.isBlank()) {
+            Arrays.stream(threads.split(",")).map(String::trim).map(Integer::valueOf).forEach(counts::add);
+        }
+        List<RunResult> results = new ArrayList<>();
+        for (int run = 0; run < Math.max(1, counts.size()); run++) {
+            ChainedOptionsBuilder builder = new OptionsBuilder().parent(options);
+            if (!counts.isEmpty()) {
+                builder.threads(counts.get(run));
+            }
+            for (String profiler : profilers.split(",")) {
+                if (!profiler.isBlank()) {
+                    builder.addProfiler(profiler.trim());
+                }
+            }
+            results.addAll(new Runner(builder.build()).run());
+        }
+        // Each run rewrites the result file; replace it with the results of all thread counts
+        if (options.getResult().hasValue()) {
+            ResultFormatType format = options.getResultFormat().orElse(ResultFormatType.CSV);
+            ResultFormatFactory.getInstance(format, options.getResult().get()).writeOut(results);
+        }
+    }
+}
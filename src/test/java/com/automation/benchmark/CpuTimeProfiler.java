@@ -0,0 +1,81 @@
+package com.automation.benchmark;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.profile.InternalProfiler;
+import org.openjdk.jmh.results.AggregationPolicy;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.ScalarResult;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JMH profiler reporting CPU time per operation, split between the code under test and an
+ * in-process stub server.
+ * <p>
+ * - {@code cpu.total.norm}: CPU of the whole benchmark JVM (all threads, JIT and GC included)
+ * - {@code cpu.stub.norm}: CPU of the stub server's threads ({@value #STUB_THREAD} pool and the
+ * JDK {@code HTTP-Dispatcher})
+ * - {@code cpu.client.norm}: the difference, i.e. what the client side costs per request
+ * </p>
+ * Enable with {@code -Djmh.prof=com.automation.benchmark.CpuTimeProfiler}.
+ */
+public class CpuTimeProfiler implements InternalProfiler {
+
+    /**
+     * Thread name prefix of stub server workers, see {@link FrameworkOverheadBenchmark}.
+     */
+    static final String STUB_THREAD = "stub-server";
+
+    private final com.sun.management.OperatingSystemMXBean os =
+            (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final Map<Long, Long> stubThreads = new HashMap<>();
+    private long processStart;
+    private long stubStart;
+
+    @Override
+    public String getDescription() {
+        return "CPU time per operation, total and in-process stub server";
+    }
+
+    @Override
+    public void beforeIteration(BenchmarkParams benchmarkParams, IterationParams iterationParams) {
+        processStart = os.getProcessCpuTime();
+        stubStart = stubCpuTime();
+    }
+
+    @Override
+    public Collection<? extends Result> afterIteration(BenchmarkParams benchmarkParams, IterationParams iterationParams,
+                                                       IterationResult result) {
+        long total = os.getProcessCpuTime() - processStart;
+        long stub = stubCpuTime() - stubStart;
+        double ops = Math.max(1, result.getMetadata().getMeasuredOps());
+        return List.of(
+                new ScalarResult("cpu.total.norm", total / ops, "ns/op", AggregationPolicy.AVG),
+                new ScalarResult("cpu.stub.norm", stub / ops, "ns/op", AggregationPolicy.AVG),
+                new ScalarResult("cpu.client.norm", (total - stub) / ops, "ns/op", AggregationPolicy.AVG));
+    }
+
+    /**
+     * CPU of all stub threads seen so far. Threads that have ended (the last iteration is measured
+     * after the benchmark's trial teardown stopped the stub) count with their last reading.
+     */
+    private long stubCpuTime() {
+        for (ThreadInfo info : threads.dumpAllThreads(false, false)) {
+            String name = info.getThreadName();
+            long cpu = threads.getThreadCpuTime(info.getThreadId());
+            if ((name.startsWith(STUB_THREAD) || name.startsWith("HTTP-Dispatcher")) && cpu >= 0) {
+                stubThreads.put(info.getThreadId(), cpu);
+            }
+        }
+        return stubThreads.values().stream().mapToLong(Long::longValue).sum();
+    }
+}
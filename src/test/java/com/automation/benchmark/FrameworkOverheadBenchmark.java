@@ -0,0 +1,235 @@
+package com.automation.benchmark;
+
+import com.automation.base.ApiService;
+import com.automation.base.ServiceContext;
+import com.automation.config.ConfigManager;
+import com.automation.constants.BombEndpoints;
+import com.automation.constants.HttpStatus;
+import com.automation.models.response.CatalogResponse;
+import com.automation.utils.JsonUtils;
+import com.automation.utils.RestClient;
+import com.sun.net.httpserver.HttpServer;
+import io.qameta.allure.Allure;
+import io.qameta.allure.model.TestResult;
+import io.restassured.RestAssured;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+/**
+ * What the framework's own client stack costs per request, next to the network.
+ * <p>
+ * The same GET goes to an in-process, zero-latency stub serving a 20-item catalog page, through
+ * four paths that each add a layer:
+ * - rawHttpClient: JDK {@link HttpClient}, body read as a string
+ * - restClientGet: {@link RestClient#get(String)} on a context without reporting filters
+ * - restAssuredReporting: {@code RestAssured.given().spec(requestSpec)} as built for the suites,
+ * with {@code AllureRestAssured} and request/response logging
+ * - fullTestPattern: as a test method does it, headers, {@link JsonUtils#fromResponse}, a Hamcrest
+ * status assertion and a log line
+ * </p>
+ * Throughput is the primary score. Add {@code -Djmh.prof=gc,com.automation.benchmark.CpuTimeProfiler}
+ * for allocation ({@code gc.alloc.rate.norm}) and CPU time ({@code cpu.client.norm}) per request.
+ * The stub's own CPU is reported apart, so the client numbers compare paths directly.
+ * <p>
+ * Logging and Allure stay as configured, but console output is discarded: it is formatted (and
+ * costs CPU) but does not go to the terminal. Log files go to {@code target/jmh/logs}. Allure
+ * attachments are written to {@code target/jmh/allure-results} and removed after each iteration.
+ * </p>
+ *
+ * <p><b>Usage Example:</b></p>
+ * <pre>
+ * mvn test -Pjmh -Djmh.include=FrameworkOverheadBenchmark -Djmh.prof=gc,com.automation.benchmark.CpuTimeProfiler
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class FrameworkOverheadBenchmark {
+
+    private static final String TOKEN = "benchmark-token";
+    private static final Path ALLURE_RESULTS = Paths.get("target", "jmh", "allure-results");
+
+    /**
+     * Stub server and clients shared by all benchmark threads.
+     */
+    @State(Scope.Benchmark)
+    public static class Stack {
+
+        private PrintStream console;
+        private HttpServer server;
+        private ExecutorService serverPool;
+        private String url;
+        private HttpClient httpClient;
+        private HttpRequest httpRequest;
+        private RestClient restClient;
+        private RequestSpecification requestSpec;
+        private Logger logger;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            // Before Log4j, Allure and RestAssured pick up their streams and directories
+            console = System.out;
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            System.setProperty("log.dir", Paths.get("target", "jmh", "logs").toString());
+            System.setProperty("allure.results.directory", ALLURE_RESULTS.toString());
+            logger = LogManager.getLogger(FrameworkOverheadBenchmark.class);
+
+            // Headers and body go out as separate writes; without TCP_NODELAY kept-alive connections
+            // stall on delayed ACKs and the stub would not be zero-latency
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+            byte[] body = ModelFixtures.catalog(20).getBytes(StandardCharsets.UTF_8);
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1024);
+            server.createContext("/", exchange -> {
+                exchange.getRequestBody().readAllBytes();
+                exchange.getResponseHeaders().add("Content-Type", "application/json; charset=utf-8");
+                exchange.sendResponseHeaders(200, body.length);
+                exchange.getResponseBody().write(body);
+                exchange.close();
+            });
+            AtomicInteger serverThreads = new AtomicInteger();
+            serverPool = Executors.newFixedThreadPool(4, runnable -> {
+                Thread thread = new Thread(runnable, CpuTimeProfiler.STUB_THREAD + "-" + serverThreads.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            server.setExecutor(serverPool);
+            server.start();
+            url = "http://127.0.0.1:" + server.getAddress().getPort() + BombEndpoints.CATALOG_ALL;
+
+            httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            httpRequest = HttpRequest.newBuilder(URI.create(url))
+                    .header("Accept", "application/json")
+                    .header("authorization", "JWT " + TOKEN)
+                    .GET()
+                    .build();
+            ConfigManager config = ConfigManager.getInstance();
+            restClient = new RestClient(ServiceContext.create(ApiService.BOMB, config, false));
+            requestSpec = ServiceContext.create(ApiService.BOMB, config).getRequestSpec();
+        }
+
+        @TearDown(Level.Iteration)
+        public void clearAllureResults() throws IOException {
+            if (!Files.isDirectory(ALLURE_RESULTS)) {
+                return;
+            }
+            try (Stream<Path> files = Files.walk(ALLURE_RESULTS)) {
+                files.sorted(Comparator.reverseOrder())
+                        .filter(file -> !file.equals(ALLURE_RESULTS))
+                        .forEach(file -> {
+                            try {
+                                Files.deleteIfExists(file);
+                            } catch (NoSuchFileException ignored) {
+                                // Removed concurrently
+                            } catch (IOException e) {
+                                throw new RuntimeException("Failed to clear " + file, e);
+                            }
+                        });
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            server.stop(0);
+            serverPool.shutdownNow();
+            System.setOut(console);
+        }
+    }
+
+    /**
+     * An Allure test case per benchmark thread and iteration, so attachments land in a test
+     * case the way they do in a suite run.
+     */
+    @State(Scope.Thread)
+    public static class TestCase {
+
+        private String uuid;
+
+        @Setup(Level.Iteration)
+        public void start(Stack stack) {
+            uuid = UUID.randomUUID().toString();
+            Allure.getLifecycle().scheduleTestCase(new TestResult().setUuid(uuid).setName("framework overhead"));
+            Allure.getLifecycle().startTestCase(uuid);
+        }
+
+        @TearDown(Level.Iteration)
+        public void stop() {
+            Allure.getLifecycle().stopTestCase(uuid);
+            Allure.getLifecycle().writeTestCase(uuid);
+        }
+    }
+
+    @Benchmark
+    public String rawHttpClient(Stack stack) throws IOException, InterruptedException {
+        return stack.httpClient.send(stack.httpRequest, HttpResponse.BodyHandlers.ofString()).body();
+    }
+
+    @Benchmark
+    public String restClientGet(Stack stack) {
+        return stack.restClient.get(stack.url).asString();
+    }
+
+    @Benchmark
+    public String restAssuredReporting(Stack stack, TestCase testCase) {
+        return RestAssured.given()
+                .spec(stack.requestSpec)
+                .header("authorization", "JWT " + TOKEN)
+                .when()
+                .get(stack.url)
+                .asString();
+    }
+
+    @Benchmark
+    public CatalogResponse fullTestPattern(Stack stack, TestCase testCase) {
+        Response response = RestAssured.given()
+                .spec(stack.requestSpec)
+                .header("authorization", "JWT " + TOKEN)
+                .header("source", "bizupChat")
+                .when()
+                .get(stack.url);
+        CatalogResponse catalog = JsonUtils.fromResponse(response, CatalogResponse.class);
+        assertThat("Status code should be 200", response.getStatusCode(), equalTo(HttpStatus.OK));
+        stack.logger.info("Response status verified: 200 OK");
+        return catalog;
+    }
+}
@@ -0,0 +1,133 @@
+package com.automation.benchmark;
+
+import com.automation.models.response.CatalogGroupResponse;
+import com.automation.models.response.CatalogResponse;
+import com.automation.models.response.SimilarCollectionResponse;
+import com.automation.models.response.TrendingFeedResponse;
+import com.automation.utils.JsonUtils;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.response.Response;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for {@link JsonUtils} on the response models tests deserialize most.
+ * <p>
+ * Each fixture from {@link ModelFixtures} is sized by {@code items}: catalog hits, feed entries,
+ * similar collections (12 catalogs each) or catalog group hits. Serialization runs on the parsed
+ * models, so it measures {@link JsonUtils#toJson} with the framework's mapper settings (pretty
+ * printing included), not the fixture shape. {@code fromResponse} wraps the body in an in-memory
+ * RestAssured response, covering status and content-type checks and the body read.
+ * </p>
+ *
+ * <p><b>Usage Example:</b></p>
+ * <pre>
+ * mvn test -Pjmh -Djmh.include=JsonUtilsBenchmark
+ * mvn test -Pjmh -Djmh.include=JsonUtilsBenchmark.catalog -Djmh.baseline=jmh-baseline.json
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JsonUtilsBenchmark {
+
+    @Param({"20", "100", "500"})
+    private int items;
+
+    private String catalogJson;
+    private String catalogItemsJson;
+    private String trendingFeedJson;
+    private String similarCollectionsJson;
+    private String catalogGroupJson;
+    private Response catalogResponse;
+    private CatalogResponse catalog;
+    private TrendingFeedResponse trendingFeed;
+    private CatalogGroupResponse catalogGroup;
+
+    @Setup
+    public void setUp() {
+        catalogJson = ModelFixtures.catalog(items);
+        catalogItemsJson = ModelFixtures.catalogItems(items);
+        trendingFeedJson = ModelFixtures.trendingFeed(items);
+        similarCollectionsJson = ModelFixtures.similarCollections(items);
+        catalogGroupJson = ModelFixtures.catalogGroup(items);
+        catalogResponse = new ResponseBuilder()
+                .setStatusCode(200)
+                .setStatusLine("HTTP/1.1 200 OK")
+                .setContentType("application/json; charset=utf-8")
+                .setBody(catalogJson)
+                .build();
+
+        catalog = JsonUtils.fromJson(catalogJson, CatalogResponse.class);
+        trendingFeed = JsonUtils.fromJson(trendingFeedJson, TrendingFeedResponse.class);
+        catalogGroup = JsonUtils.fromJson(catalogGroupJson, CatalogGroupResponse.class);
+        // A fixture that no longer matches its model would benchmark an almost empty object
+        if (catalog.getData().getItems().size() != items
+                || trendingFeed.getData().getResult().size() != items
+                || catalogGroup.getData().getData().size() != items
+                || JsonUtils.fromJson(similarCollectionsJson, SimilarCollectionResponse.class)
+                .getData().getResult().size() != items) {
+            throw new IllegalStateException("Benchmark fixtures do not map onto the response models");
+        }
+    }
+
+    @Benchmark
+    public CatalogResponse catalogFromJson() {
+        return JsonUtils.fromJson(catalogJson, CatalogResponse.class);
+    }
+
+    @Benchmark
+    public CatalogResponse catalogFromResponse() {
+        return JsonUtils.fromResponse(catalogResponse, CatalogResponse.class);
+    }
+
+    @Benchmark
+    public List<CatalogResponse.CatalogItem> catalogItemsFromJsonToList() {
+        return JsonUtils.fromJsonToList(catalogItemsJson, CatalogResponse.CatalogItem.class);
+    }
+
+    @Benchmark
+    public String catalogToJson() {
+        return JsonUtils.toJson(catalog);
+    }
+
+    @Benchmark
+    public TrendingFeedResponse trendingFeedFromJson() {
+        return JsonUtils.fromJson(trendingFeedJson, TrendingFeedResponse.class);
+    }
+
+    @Benchmark
+    public String trendingFeedToJson() {
+        return JsonUtils.toJson(trendingFeed);
+    }
+
+    @Benchmark
+    public SimilarCollectionResponse similarCollectionsFromJson() {
+        return JsonUtils.fromJson(similarCollectionsJson, SimilarCollectionResponse.class);
+    }
+
+    @Benchmark
+    public CatalogGroupResponse catalogGroupFromJson() {
+        return JsonUtils.fromJson(catalogGroupJson, CatalogGroupResponse.class);
+    }
+
+    @Benchmark
+    public String catalogGroupToJson() {
+        return JsonUtils.toJson(catalogGroup);
+    }
+}
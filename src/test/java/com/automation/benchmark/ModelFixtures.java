@@ -0,0 +1,259 @@
+package com.automation.benchmark;
+
+import com.automation.utils.JsonUtils;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.Random;
+
+/**
+ * Compact JSON bodies shaped like real API responses, for benchmarks.
+ * <p>
+ * Values are realistic in length and type (24-hex ids, S3 URLs, ISO timestamps, Indian phone
+ * numbers), and each object carries the extra fields the live API returns but the response models
+ * ignore, so the benchmarks also pay for skipping unknown properties. Generation is seeded, so
+ * every run parses identical bytes.
+ * </p>
+ */
+public final class ModelFixtures {
+
+    private static final ObjectMapper MAPPER = JsonUtils.getObjectMapper();
+    private static final String[] FABRICS = {"Banarasi Silk", "Kanjivaram", "Chiffon", "Georgette", "Cotton", "Organza"};
+    private static final String[] COLOURS = {"Maroon", "Mustard", "Teal", "Rani Pink", "Bottle Green", "Ivory"};
+    private static final String[] PRODUCTS = {"Saree", "Kurti", "Lehenga", "Dupatta", "Suit Set"};
+    private static final String[] TAGS = {"festive", "wedding", "daily-wear", "zari", "handloom", "printed", "party"};
+
+    private ModelFixtures() {
+        // Prevent instantiation
+    }
+
+    /**
+     * {@code CatalogResponse}: admin catalog search with {@code items} hits and product buckets.
+     */
+    public static String catalog(int items) {
+        Random random = new Random(items);
+        ObjectNode root = envelope();
+        ObjectNode data = root.putObject("data");
+        data.putObject("total").put("value", items * 37).put("relation", "eq");
+        ArrayNode hits = data.putArray("items");
+        for (int i = 0; i < items; i++) {
+            String id = id(random);
+            ObjectNode item = hits.addObject();
+            item.put("_id", id);
+            item.put("id", id);
+            item.put("title", title(random));
+            item.put("price", 299 + random.nextInt(4700) + 0.0);
+            item.put("sellerId", id(random));
+            item.put("visible", random.nextBoolean());
+            item.put("available", random.nextInt(10) > 0);
+            item.set("seller", seller(random));
+            ArrayNode products = item.putArray("product");
+            products.addObject().put("id", id(random)).put("name", pick(random, PRODUCTS));
+            unknownFields(item, random);
+        }
+        ArrayNode buckets = data.putArray("buckets");
+        for (String product : PRODUCTS) {
+            buckets.addObject().put("_id", id(random)).put("name", product).put("doc_count", random.nextInt(5000));
+        }
+        return compact(root);
+    }
+
+    /**
+     * The {@code data.items} array of {@link #catalog(int)} on its own, for list deserialization.
+     */
+    public static String catalogItems(int items) {
+        try {
+            return compact(MAPPER.readTree(catalog(items)).path("data").path("items"));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to build catalog items fixture", e);
+        }
+    }
+
+    /**
+     * {@code TrendingFeedResponse}: Buyer App trending feed with {@code items} videos and catalogs.
+     */
+    public static String trendingFeed(int items) {
+        Random random = new Random(items + 1L);
+        ObjectNode root = envelope();
+        ArrayNode result = root.putObject("data").putArray("result");
+        for (int i = 0; i < items; i++) {
+            String id = id(random);
+            int price = 299 + random.nextInt(4700);
+            ObjectNode item = result.addObject();
+            item.put("_id", id);
+            item.put("id", id);
+            item.put("priceText", price);
+            item.put("price", price);
+            item.put("thumbnail_url", url("thumbnails", random));
+            item.putObject("thumbnail").put("url", url("thumbnails", random)).put("fileName", id + ".jpg");
+            item.put("popular", random.nextInt(100_000));
+            item.put("contentType", random.nextBoolean() ? "video" : "catalog");
+            item.put("driveLink", url("uploads", random));
+            ArrayNode tags = item.putArray("tags");
+            for (int t = 0; t < 3; t++) {
+                tags.addObject().put("_id", id(random)).put("name", pick(random, TAGS)).put("type", "style");
+            }
+            item.putArray("product").addObject().put("_id", id(random)).put("name", pick(random, PRODUCTS));
+            item.put("isDeleted", false);
+            item.put("available", true);
+            item.putObject("seller")
+                    .put("deprioritisation_status", false)
+                    .put("name", pick(random, FABRICS) + " House")
+                    .put("_id", id(random));
+            unknownFields(item, random);
+        }
+        return compact(root);
+    }
+
+    /**
+     * {@code SimilarCollectionResponse}: {@code items} collections of 12 catalogs each.
+     */
+    public static String similarCollections(int items) {
+        Random random = new Random(items + 2L);
+        ObjectNode root = envelope();
+        ArrayNode result = root.putObject("data").putArray("result");
+        for (int i = 0; i < items; i++) {
+            ObjectNode collection = result.addObject();
+            collection.put("_id", id(random));
+            collection.put("name", pick(random, COLOURS) + " " + pick(random, PRODUCTS) + " Edit");
+            collection.put("description", "Hand-picked " + pick(random, FABRICS).toLowerCase()
+                    + " styles for the season, updated weekly by our stylists.");
+            ArrayNode catalogs = collection.putArray("catalogs");
+            for (int c = 0; c < 12; c++) {
+                catalogs.addObject()
+                        .put("title", title(random))
+                        .put("priceText", 299 + random.nextInt(4700))
+                        .put("product", pick(random, PRODUCTS))
+                        .put("thumbnail", url("thumbnails", random));
+            }
+            unknownFields(collection, random);
+        }
+        return compact(root);
+    }
+
+    /**
+     * {@code CatalogGroupResponse}: Elasticsearch-style catalog group with {@code items} hits.
+     */
+    public static String catalogGroup(int items) {
+        Random random = new Random(items + 3L);
+        ObjectNode root = envelope();
+        ObjectNode data = root.putObject("data");
+        data.put("total", items * 4);
+        ArrayNode hits = data.putArray("data");
+        for (int i = 0; i < items; i++) {
+            String id = id(random);
+            ObjectNode hit = hits.addObject();
+            hit.put("_index", "catalogs-v7");
+            hit.put("_id", id);
+            hit.put("_score", 1 + random.nextDouble() * 20);
+            ObjectNode source = hit.putObject("_source");
+            source.set("seller", seller(random)
+                    .put("phoneNumber", phone(random))
+                    .put("smell_test", random.nextInt(5))
+                    .put("address", random.nextInt(400) + ", Chandni Chowk, New Delhi 110006")
+                    .put("isSuper", random.nextBoolean())
+                    .put("mov", 500 + random.nextInt(10) * 100)
+                    .put("businessName", pick(random, FABRICS) + " Traders")
+                    .put("name", pick(random, FABRICS) + " House")
+                    .put("cod", random.nextInt(2))
+                    .put("ordersEnabled", true));
+            source.put("thubmbnailDriveLink", url("thumbnails", random));
+            source.put("uploadId", id(random));
+            source.put("displaySetting", "grid");
+            source.put("available", true);
+            strings(source.putArray("priceTags"), random, 2);
+            source.put("sellerId", id(random));
+            source.put("isDeleted", false);
+            strings(source.putArray("displayTags"), random, 3);
+            source.put("driveLink", url("uploads", random));
+            source.put("id", id);
+            source.put("contentType", "catalog");
+            source.put("uploadedBy", id(random));
+            strings(source.putArray("segmentTags"), random, 2);
+            source.put("updatedAt", timestamp(random));
+            source.putObject("thumbnail").put("url", url("thumbnails", random)).put("width", 720).put("height", 960);
+            source.put("visible", true);
+            source.put("isNew", random.nextBoolean());
+            strings(source.putArray("setType"), random, 1);
+            source.put("url", url("catalogs", random));
+            ArrayNode tags = source.putArray("tags");
+            for (int t = 0; t < 4; t++) {
+                tags.addObject().put("_id", id(random)).put("name", pick(random, TAGS));
+            }
+            source.put("processed", true);
+            source.put("phoneNumber", phone(random));
+            source.put("uploadDate", timestamp(random));
+            source.put("original_upload", url("uploads", random));
+            strings(source.putArray("productTags"), random, 3);
+        }
+        return compact(root);
+    }
+
+    private static ObjectNode envelope() {
+        return MAPPER.createObjectNode().put("statusCode", "10000").put("message", "Success");
+    }
+
+    private static ObjectNode seller(Random random) {
+        return MAPPER.createObjectNode()
+                .put("_id", id(random))
+                .put("deprioritisation_status", random.nextInt(20) == 0)
+                .put("isCatalogAvailable", true);
+    }
+
+    /**
+     * Fields present in live responses but not mapped by the models.
+     */
+    private static void unknownFields(ObjectNode node, Random random) {
+        node.put("createdAt", timestamp(random));
+        node.put("updatedAt", timestamp(random));
+        node.put("__v", random.nextInt(5));
+        ArrayNode images = node.putArray("images");
+        for (int i = 0; i < 4; i++) {
+            images.addObject().put("url", url("images", random)).put("width", 1080).put("height", 1440);
+        }
+        node.putObject("stats").put("views", random.nextInt(50_000)).put("wishlisted", random.nextInt(900))
+                .put("shares", random.nextInt(300));
+    }
+
+    private static void strings(ArrayNode array, Random random, int count) {
+        for (int i = 0; i < count; i++) {
+            array.add(pick(random, TAGS));
+        }
+    }
+
+    private static String title(Random random) {
+        return pick(random, FABRICS) + " " + pick(random, PRODUCTS) + " - " + pick(random, COLOURS);
+    }
+
+    private static String id(Random random) {
+        return String.format("%08x%08x%08x", random.nextInt(), random.nextInt(), random.nextInt());
+    }
+
+    private static String url(String folder, Random random) {
+        return "https://navo-media.s3.ap-south-1.amazonaws.com/" + folder + "/" + id(random) + ".jpg";
+    }
+
+    private static String phone(Random random) {
+        return "+91" + (6_000_000_000L + (random.nextLong() & Long.MAX_VALUE) % 4_000_000_000L);
+    }
+
+    private static String timestamp(Random random) {
+        return String.format("2026-%02d-%02dT%02d:%02d:%02d.%03dZ", 1 + random.nextInt(12), 1 + random.nextInt(28),
+                random.nextInt(24), random.nextInt(60), random.nextInt(60), random.nextInt(1000));
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static String compact(Object tree) {
+        try {
+            return MAPPER.writer().without(SerializationFeature.INDENT_OUTPUT).writeValueAsString(tree);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to build fixture", e);
+        }
+    }
+}
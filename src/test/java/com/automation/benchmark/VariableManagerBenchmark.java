@@ -0,0 +1,137 @@
+package com.automation.benchmark;
+
+import com.automation.utils.VariableManager;
+import org.apache.logging.log4j.core.config.Configurator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Paths;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * JMH benchmarks for {@link VariableManager} under thread contention, the baseline for any
+ * redesign of the variable store.
+ * <p>
+ * Every thread reads and writes its own {@code ThreadLocal} map, which is filled on the thread's
+ * first access with a journal refresh and a copy of all global properties. Benchmarks:
+ * - get / getInt / set: steady state on a thread whose map already exists
+ * - firstAccess: drops the thread's map and reads again, i.e. the first access of a new thread
+ * - persist: shared write through the variable journal (file lock and append)
+ * - pooledChurn: a task on a pool whose idle threads time out immediately, so most tasks land on
+ * a fresh thread and pay the first access; pooledChurnBaseline is the same pool without
+ * VariableManager, to subtract thread creation and hand-off
+ * </p>
+ * Run with {@code -Djmh.threads=1,2,4,8,16,32,64} for the contention curve. Each fork uses its own
+ * variable store under {@code target/jmh/variables}, never the one in {@code src/test/resources},
+ * and logs {@code com.automation.utils} at WARN only.
+ *
+ * <p><b>Usage Example:</b></p>
+ * <pre>
+ * mvn test -Pjmh -Djmh.include=VariableManagerBenchmark -Djmh.threads=1,2,4,8,16,32,64
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class VariableManagerBenchmark {
+
+    /**
+     * Sandboxed, initialized variable store shared by all benchmark threads of a fork.
+     */
+    @State(Scope.Benchmark)
+    public static class Store {
+
+        private ExecutorService churningPool;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            System.setProperty("variables.store.dir",
+                    Paths.get("target", "jmh", "variables", String.valueOf(ProcessHandle.current().pid())).toString());
+            // The suites log every variable access at DEBUG; measure the store, not the appenders
+            Configurator.setLevel("com.automation.utils", org.apache.logging.log4j.Level.WARN);
+            VariableManager.initialize();
+            // No core threads and no keep-alive: threads end as soon as they are idle
+            churningPool = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 0, TimeUnit.NANOSECONDS,
+                    new SynchronousQueue<>(), runnable -> {
+                        Thread thread = new Thread(runnable, "churning-pool");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            churningPool.shutdownNow();
+            VariableManager.flush();
+        }
+    }
+
+    /**
+     * A benchmark thread with its variable map already created.
+     */
+    @State(Scope.Thread)
+    public static class Worker {
+
+        private static final AtomicInteger IDS = new AtomicInteger();
+
+        private final String key = "bench_" + IDS.incrementAndGet();
+        private long counter;
+
+        @Setup(Level.Trial)
+        public void setUp(Store store) {
+            VariableManager.get("seller_id");
+        }
+    }
+
+    @Benchmark
+    public String get(Worker worker) {
+        return VariableManager.get("seller_id");
+    }
+
+    @Benchmark
+    public int getInt(Worker worker) {
+        return VariableManager.getInt("res_time");
+    }
+
+    @Benchmark
+    public void set(Worker worker) {
+        VariableManager.set(worker.key, worker.counter++);
+    }
+
+    @Benchmark
+    public String firstAccess(Worker worker) {
+        VariableManager.cleanup();
+        return VariableManager.get("seller_id");
+    }
+
+    @Benchmark
+    public void persist(Worker worker) {
+        VariableManager.persist(worker.key, worker.counter++);
+    }
+
+    @Benchmark
+    public String pooledChurn(Store store) throws Exception {
+        return store.churningPool.submit(() -> VariableManager.get("seller_id")).get();
+    }
+
+    @Benchmark
+    public String pooledChurnBaseline(Store store) throws Exception {
+        return store.churningPool.submit(() -> "seller_id").get();
+    }
+}
@@ -0,0 +1,83 @@
+package com.automation.tests.bomb.CatalogSearch;
+
+import com.automation.base.ApiService;
+import com.automation.base.BaseTest;
+import com.automation.base.ServiceContext;
+import com.automation.load.CatalogCrawler;
+import com.automation.utils.TokenManager;
+import com.automation.utils.VariableManager;
+import io.qameta.allure.*;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Full-scale consistency of BOMB catalog search.
+ * Endpoint:
+ * {{bizup_base}}/v1/admin/catalog_all?seller=...&offset=...&limit=20
+ * Where the search tests check the first page only, this walks every page of each filter
+ * (see {@link CatalogCrawler}) and verifies that the unique items match data.total.value
+ * without duplicates or gaps between pages. Runs in its own suite: mvn test -Pcatalog-crawl
+ */
+@Epic("BOMB Catalog Management")
+@Feature("Catalog Search - Full Crawl")
+public class CatalogCrawlTest extends BaseTest {
+
+    private CatalogCrawler crawler;
+
+    @BeforeClass
+    public void setupCrawler() {
+        // Get token from TokenManager (reuses a valid token or logs in once; throws if the login fails)
+        String authToken = TokenManager.bomb().getToken();
+        // Thousands of pages: no Allure attachment or log entry per request
+        crawler = new CatalogCrawler(ServiceContext.create(ApiService.BOMB, config, false), authToken);
+    }
+
+    @Test(description = "Crawl all catalogs of the search seller", priority = 1, groups = "bomb-crawl")
+    @Story("Catalog Search - Full Crawl")
+    @Severity(SeverityLevel.CRITICAL)
+    public void testCrawlSellerFilter() throws InterruptedException {
+        verifyCrawl(Map.of("seller", VariableManager.getSearchSellerId()));
+    }
+
+    @Test(description = "Crawl all catalogs of the search product", priority = 2, groups = "bomb-crawl")
+    @Story("Catalog Search - Full Crawl")
+    @Severity(SeverityLevel.CRITICAL)
+    public void testCrawlProductFilter() throws InterruptedException {
+        verifyCrawl(Map.of("product", VariableManager.getSearchProductId()));
+    }
+
+    @Test(description = "Crawl the live catalog by id", priority = 3, groups = "bomb-crawl")
+    @Story("Catalog Search - Full Crawl")
+    @Severity(SeverityLevel.NORMAL)
+    public void testCrawlCatalogIdFilter() throws InterruptedException {
+        String catalogId = VariableManager.get("live_catalog_id");
+        if (catalogId == null || catalogId.isEmpty()) {
+            catalogId = VariableManager.get("catalog_foassign_id", "6822f5dac17c6dcd589ba173");
+        }
+        verifyCrawl(Map.of("id", catalogId));
+    }
+
+    private void verifyCrawl(Map<String, Object> filter) throws InterruptedException {
+        CatalogCrawler.Result result = crawler.crawl(filter);
+        Allure.addAttachment("Crawl " + filter, "text/plain", String.format(
+                "total %d, unique items %d, pages %d%n%.1f items/s, %.1f pages/s, page p50 %.1f ms, p99 %.1f ms%nproblems: %s",
+                result.getTotal(), result.getUniqueItems(), result.getPages(), result.itemsPerSecond(),
+                result.pagesPerSecond(), result.latencyMillis(50), result.latencyMillis(99), result.describeProblems()));
+
+        assertThat("Pages should not repeat items: " + result.getDuplicates().keySet(),
+                result.getDuplicates(), anEmptyMap());
+        assertThat("Every page should be complete: " + result.getGaps(),
+                result.getGaps(), anEmptyMap());
+        assertThat("Total should not change while crawling", result.isTotalStable(), is(true));
+        assertThat("Unique items should match total.value", result.isCountMatching(), is(true));
+        assertThat("Crawl should be consistent: " + result.describeProblems(), result.isConsistent(), is(true));
+
+        logger.info("Crawl of {} consistent: {} unique items in {} pages", filter,
+                result.getUniqueItems(), result.getPages());
+    }
+}
@@ -4,6 +4,7 @@ import com.automation.base.BaseTest;
 import com.automation.constants.BombEndpoints;
 import com.automation.constants.HttpStatus;
 import com.automation.models.response.CatalogResponse;
+import com.automation.utils.TokenManager;
 import com.automation.utils.VariableManager;
 import com.automation.utils.JsonUtils;
 import io.qameta.allure.*;
@@ -36,12 +37,9 @@ public class SearchWithCatalogIdFilterTest extends BaseTest {
 
     @BeforeClass
     public void setupAuth() {
-        // Get token from VariableManager (thread-safe)
-        authToken = VariableManager.getToken();
-        if (authToken == null || authToken.isEmpty()) {
-            throw new RuntimeException("Login token not available. Please run LoginApiTest first.");
-        }
-        logger.info("Using BOMB token from VariableManager");
+        // Get token from TokenManager (reuses a valid token or logs in once; throws if the login fails)
+        authToken = TokenManager.bomb().getToken();
+        logger.info("Using BOMB token from TokenManager");
         // Get live catalog ID from VariableManager or use fallback
         liveCatalogId = VariableManager.get("live_catalog_id");
         if (liveCatalogId == null || liveCatalogId.isEmpty()) {
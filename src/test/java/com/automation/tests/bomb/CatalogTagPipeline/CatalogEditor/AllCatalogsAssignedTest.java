@@ -5,6 +5,7 @@ import com.automation.constants.BombEndpoints;
 import com.automation.constants.HttpStatus;
 import com.automation.models.response.CatalogEditorResponse;
 import com.automation.utils.JsonUtils;
+import com.automation.utils.TokenManager;
 import com.automation.utils.VariableManager;
 import io.qameta.allure.*;
 import io.restassured.RestAssured;
@@ -38,12 +39,9 @@ public class AllCatalogsAssignedTest extends BaseTest {
 
     @BeforeClass
     public void setupAuth() {
-        // Get token from VariableManager (thread-safe)
-        authToken = VariableManager.getToken();
-        if (authToken == null || authToken.isEmpty()) {
-            throw new RuntimeException("Login token not available. Please run LoginApiTest first.");
-        }
-        logger.info("Using BOMB token from VariableManager");
+        // Get token from TokenManager (reuses a valid token or logs in once; throws if the login fails)
+        authToken = TokenManager.bomb().getToken();
+        logger.info("Using BOMB token from TokenManager");
     }
 
     @Test(description = "Response status code is 200", priority = 1, groups = "bomb")
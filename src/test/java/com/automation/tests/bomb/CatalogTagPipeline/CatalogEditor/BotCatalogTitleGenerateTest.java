@@ -4,7 +4,7 @@ import com.automation.base.BaseTest;
 import com.automation.constants.HttpStatus;
 import com.automation.models.request.BotCatalogTitleGenerateRequest;
 import com.automation.models.response.TitleGenerateResponse;
-import com.automation.utils.VariableManager;
+import com.automation.utils.TokenManager;
 import com.automation.utils.JsonUtils;
 import io.qameta.allure.*;
 import io.restassured.RestAssured;
@@ -39,12 +39,9 @@ public class BotCatalogTitleGenerateTest extends BaseTest {
 
     @BeforeClass
     public void setupAuth() {
-        // Get token from VariableManager (thread-safe)
-        authToken = VariableManager.getToken();
-        if (authToken == null || authToken.isEmpty()) {
-            throw new RuntimeException("Login token not available. Please run LoginApiTest first.");
-        }
-        logger.info("Using BOMB token from VariableManager");
+        // Get token from TokenManager (reuses a valid token or logs in once; throws if the login fails)
+        authToken = TokenManager.bomb().getToken();
+        logger.info("Using BOMB token from TokenManager");
     }
 
     @Test(description = "Response status code is 200", priority = 1, groups = "bomb")
@@ -68,6 +65,7 @@ public class BotCatalogTitleGenerateTest extends BaseTest {
 
         // Send POST request to generate title
         response = RestAssured.given()
+                .spec(requestSpec)
                 .header("authorization", "JWT " + authToken)
                 .header("Content-Type", "application/json")
                 .body(requestBody)
@@ -4,6 +4,7 @@ import com.automation.base.BaseTest;
 import com.automation.constants.HttpStatus;
 import com.automation.constants.BombEndpoints;
 import com.automation.models.response.MarkAsDoneResponse;
+import com.automation.utils.TokenManager;
 import com.automation.utils.VariableManager;
 import com.automation.utils.JsonUtils;
 import io.qameta.allure.*;
@@ -32,12 +33,9 @@ public class MarkAsDoneTest extends BaseTest {
 
     @BeforeClass
     public void setupAuth() {
-        // Get token from VariableManager (thread-safe)
-        authToken = VariableManager.getToken();
-        if (authToken == null || authToken.isEmpty()) {
-            throw new RuntimeException("Login token not available. Please run LoginApiTest first.");
-        }
-        logger.info("Using BOMB token from VariableManager");
+        // Get token from TokenManager (reuses a valid token or logs in once; throws if the login fails)
+        authToken = TokenManager.bomb().getToken();
+        logger.info("Using BOMB token from TokenManager");
     }
 
     @Test(description = "Response status code is 200", priority = 1, groups = "bomb")
@@ -46,6 +44,7 @@ public class MarkAsDoneTest extends BaseTest {
     public void testStatusCode200() {
         // Send PUT request to mark catalog as done
         response = RestAssured.given()
+                .spec(requestSpec)
                 .header("authorization", "JWT " + authToken)
                 .header("Content-Type", "application/json")
                 .when()
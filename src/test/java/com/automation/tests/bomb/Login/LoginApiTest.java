@@ -3,6 +3,7 @@ package com.automation.tests.bomb.Login;
 import com.automation.base.BaseTest;
 import com.automation.constants.BombEndpoints;
 import com.automation.constants.HttpStatus;
+import com.automation.listeners.ChainRoot;
 import com.automation.models.request.LoginRequest;
 import com.automation.models.response.LoginResponse;
 import com.automation.utils.JsonUtils;
@@ -22,6 +23,7 @@ import static org.hamcrest.Matchers.*;
  */
 @Epic("BOMB Authentication")
 @Feature("Login API")
+@ChainRoot(downstream = "com.automation.tests.bomb")
 public class LoginApiTest extends BaseTest {
 
         // Token is now stored in VariableManager.setToken() - no static variable needed
@@ -4,7 +4,7 @@ import com.automation.base.BaseTest;
 import com.automation.constants.HttpStatus;
 import com.automation.models.request.VideoTitleGenerationRequest;
 import com.automation.models.response.VideoTitleGenerationResponse;
-import com.automation.utils.VariableManager;
+import com.automation.utils.TokenManager;
 import com.automation.utils.JsonUtils;
 import io.qameta.allure.*;
 import io.restassured.RestAssured;
@@ -44,12 +44,9 @@ public class VideoTitleGenerationTest extends BaseTest {
 
     @BeforeClass
     public void setupAuth() {
-        // Get token from VariableManager (thread-safe)
-        authToken = VariableManager.getToken();
-        if (authToken == null || authToken.isEmpty()) {
-            throw new RuntimeException("Login token not available. Please run LoginApiTest first.");
-        }
-        logger.info("Using BOMB token from VariableManager");
+        // Get token from TokenManager (reuses a valid token or logs in once; throws if the login fails)
+        authToken = TokenManager.bomb().getToken();
+        logger.info("Using BOMB token from TokenManager");
 
         // Build request body with tags
         requestTags = Arrays.asList(
@@ -75,6 +72,7 @@ public class VideoTitleGenerationTest extends BaseTest {
     public void testSetGeneratedVideoTitle() {
         // Send POST request to generate video title
         response = RestAssured.given()
+                .spec(requestSpec)
                 .header("Content-Type", "application/json")
                 .body(requestBody)
                 .when()
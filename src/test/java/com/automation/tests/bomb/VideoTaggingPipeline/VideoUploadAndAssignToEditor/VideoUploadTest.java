@@ -3,9 +3,10 @@ package com.automation.tests.bomb.VideoTaggingPipeline.VideoUploadAndAssignToEdi
 import com.automation.base.BaseTest;
 import com.automation.constants.BombEndpoints;
 import com.automation.constants.HttpStatus;
+import com.automation.listeners.ChainRoot;
 import com.automation.models.request.VideoUploadRequest;
 import com.automation.models.response.VideoUploadResponse;
-import com.automation.utils.VariableManager;
+import com.automation.utils.TokenManager;
 import com.automation.utils.JsonUtils;
 import io.qameta.allure.*;
 import io.restassured.RestAssured;
@@ -23,6 +24,7 @@ import static org.hamcrest.Matchers.*;
  */
 @Epic("BOMB Video Tagging Pipeline")
 @Feature("Video Upload and Assign to Editor")
+@ChainRoot(downstream = "com.automation.tests.bomb.VideoTaggingPipeline")
 public class VideoUploadTest extends BaseTest {
 
     private String authToken;
@@ -53,12 +55,9 @@ public class VideoUploadTest extends BaseTest {
 
     @BeforeClass
     public void setupAuth() {
-        // Get token from VariableManager (thread-safe)
-        authToken = VariableManager.getToken();
-        if (authToken == null || authToken.isEmpty()) {
-            throw new RuntimeException("Login token not available. Please run LoginApiTest first.");
-        }
-        logger.info("Using BOMB token from VariableManager");
+        // Get token from TokenManager (reuses a valid token or logs in once; throws if the login fails)
+        authToken = TokenManager.bomb().getToken();
+        logger.info("Using BOMB token from TokenManager");
 
         // Build request body with complete seller and editor information
         requestBody = VideoUploadRequest.builder()
@@ -11,7 +11,7 @@ import io.restassured.response.Response;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
-import com.automation.utils.VariableManager;
+import com.automation.utils.TokenManager;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 
@@ -33,11 +33,9 @@ public class CollectionAllForSareeTest extends BaseTest {
                 buyerAppBaseUrl = config.buyerAppBaseUrl();
                 logger.info("Buyer App Base URL: {}", buyerAppBaseUrl);
 
-                String token = VariableManager.getBuyerAppToken();
-                if (token == null || token.isEmpty()) {
-                        throw new RuntimeException("Buyer App token not available. Please run LoginTest first.");
-                }
-                logger.info("Using Buyer App token from VariableManager");
+                // Reuses a valid token or logs in once; a failed login fails this setup
+                TokenManager.buyerApp().getToken();
+                logger.info("Using Buyer App token from TokenManager");
         }
 
         @Test(description = "Status code is 200", priority = 1, groups = "buyerapp")
@@ -46,9 +44,10 @@ public class CollectionAllForSareeTest extends BaseTest {
         public void testStatusCode200() {
                 // Send GET request with authentication and query parameter
                 collectionAllResponse = RestAssured.given()
+                                .spec(requestSpec)
                                 .baseUri(buyerAppBaseUrl)
                                 .contentType("application/json")
-                                .header("Authorization", "JWT " + VariableManager.getBuyerAppToken())
+                                .header("Authorization", "JWT " + TokenManager.buyerApp().getToken())
                                 .queryParam("suitable_for", "saree")
                                 .when()
                                 .get(BuyerAppEndpoints.COLLECTION_ALL);
@@ -18,7 +18,7 @@ import java.util.List;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 
-import com.automation.utils.VariableManager;
+import com.automation.utils.TokenManager;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 
@@ -39,11 +39,9 @@ public class CollectionCountsForSareeTest extends BaseTest {
         buyerAppBaseUrl = config.buyerAppBaseUrl();
         logger.info("Buyer App Base URL: {}", buyerAppBaseUrl);
 
-        String token = VariableManager.getBuyerAppToken();
-        if (token == null || token.isEmpty()) {
-            throw new RuntimeException("Buyer App token not available. Please run LoginTest first.");
-        }
-        logger.info("Using Buyer App token from VariableManager");
+        // Reuses a valid token or logs in once; a failed login fails this setup
+        TokenManager.buyerApp().getToken();
+        logger.info("Using Buyer App token from TokenManager");
     }
 
     @Test(description = "Fetch all collections and get item counts", priority = 1, groups = "buyerapp")
@@ -52,9 +50,10 @@ public class CollectionCountsForSareeTest extends BaseTest {
     public void testFetchAllCollectionsAndCounts() {
         // Step 1: Get all collections
         Response allCollectionsResponse = RestAssured.given()
+                .spec(requestSpec)
                 .baseUri(buyerAppBaseUrl)
                 .contentType("application/json")
-                .header("Authorization", "JWT " + VariableManager.getBuyerAppToken())
+                .header("Authorization", "JWT " + TokenManager.buyerApp().getToken())
                 .queryParam("suitable_for", "saree")
                 .when()
                 .get(BuyerAppEndpoints.COLLECTION_ALL);
@@ -75,14 +74,16 @@ public class CollectionCountsForSareeTest extends BaseTest {
                 // Add delay to avoid rate limiting
                 Thread.sleep(200);
 
-                Response collectionByIdResponse = RestAssured.given()
+                // A token rejected mid-run is renewed once (shared across threads) and this collection retried
+                Response collectionByIdResponse = TokenManager.buyerApp().sendWithRefresh(token -> RestAssured.given()
+                        .spec(requestSpec)
                         .baseUri(buyerAppBaseUrl)
                         .contentType("application/json")
-                        .header("Authorization", "JWT " + VariableManager.getBuyerAppToken())
+                        .header("Authorization", "JWT " + token)
                         .queryParam("limit", 35)
                         .queryParam("offset", 0)
                         .when()
-                        .get("/v1/collection/" + collection.get_id());
+                        .get("/v1/collection/" + collection.get_id()));
 
                 if (collectionByIdResponse.getStatusCode() == 401 || collectionByIdResponse.getStatusCode() == 10003) {
                     logger.error("Authentication failed for collection: {}", collection.getName());
@@ -11,7 +11,7 @@ import io.restassured.response.Response;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
-import com.automation.utils.VariableManager;
+import com.automation.utils.TokenManager;
 import static com.automation.tests.buyerapp.HomePage.FeedFilterSaveTest.suitableFor;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
@@ -34,11 +34,9 @@ public class BannersTest extends BaseTest {
                 buyerAppBaseUrl = config.buyerAppBaseUrl();
                 logger.info("Buyer App Base URL: {}", buyerAppBaseUrl);
 
-                String token = VariableManager.getBuyerAppToken();
-                if (token == null || token.isEmpty()) {
-                        throw new RuntimeException("Buyer App token not available. Please run LoginTest first.");
-                }
-                logger.info("Using Buyer App token from VariableManager");
+                // Reuses a valid token or logs in once; a failed login fails this setup
+                TokenManager.buyerApp().getToken();
+                logger.info("Using Buyer App token from TokenManager");
         }
 
         /**
@@ -58,9 +56,10 @@ public class BannersTest extends BaseTest {
 
                 // Send GET request with authentication and query parameter
                 bannersResponse = RestAssured.given()
+                                .spec(requestSpec)
                                 .baseUri(buyerAppBaseUrl)
                                 .contentType("application/json")
-                                .header("Authorization", "JWT " + VariableManager.getBuyerAppToken())
+                                .header("Authorization", "JWT " + TokenManager.buyerApp().getToken())
                                 .queryParam("suitable_for", suitableForParam)
                                 .when()
                                 .get(BuyerAppEndpoints.FEED_BANNERS);
@@ -11,7 +11,7 @@ import io.restassured.response.Response;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
-import com.automation.utils.VariableManager;
+import com.automation.utils.TokenManager;
 import static com.automation.tests.buyerapp.HomePage.FeedFilterSaveTest.suitableFor;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
@@ -35,11 +35,9 @@ public class CatalogFeedTest extends BaseTest {
                 buyerAppBaseUrl = config.buyerAppBaseUrl();
                 logger.info("Buyer App Base URL: {}", buyerAppBaseUrl);
 
-                String token = VariableManager.getBuyerAppToken();
-                if (token == null || token.isEmpty()) {
-                        throw new RuntimeException("Buyer App token not available. Please run LoginTest first.");
-                }
-                logger.info("Using Buyer App token from VariableManager");
+                // Reuses a valid token or logs in once; a failed login fails this setup
+                TokenManager.buyerApp().getToken();
+                logger.info("Using Buyer App token from TokenManager");
         }
 
         @Test(description = "Test the response status 200 for valid request", priority = 1, groups = "buyerapp")
@@ -53,9 +51,10 @@ public class CatalogFeedTest extends BaseTest {
 
                 // Send GET request with authentication and query parameters
                 catalogFeedResponse = RestAssured.given()
+                                .spec(requestSpec)
                                 .baseUri(buyerAppBaseUrl)
                                 .contentType("application/json")
-                                .header("Authorization", "JWT " + VariableManager.getBuyerAppToken())
+                                .header("Authorization", "JWT " + TokenManager.buyerApp().getToken())
                                 .queryParam("size", 6)
                                 .queryParam("page", 0)
                                 .queryParam("suitable_for", suitableForParam)
@@ -122,9 +121,10 @@ public class CatalogFeedTest extends BaseTest {
         public void testEmptySuitableForParameter() {
                 // Test handling of empty suitable_for parameter
                 Response response = RestAssured.given()
+                                .spec(requestSpec)
                                 .baseUri(buyerAppBaseUrl)
                                 .contentType("application/json")
-                                .header("Authorization", "JWT " + VariableManager.getBuyerAppToken())
+                                .header("Authorization", "JWT " + TokenManager.buyerApp().getToken())
                                 .queryParam("size", 6)
                                 .queryParam("page", 0)
                                 .queryParam("suitable_for", "")
@@ -154,9 +154,10 @@ public class CatalogFeedTest extends BaseTest {
 
                 // Test handling of maximum allowed size parameter
                 Response response = RestAssured.given()
+                                .spec(requestSpec)
                                 .baseUri(buyerAppBaseUrl)
                                 .contentType("application/json")
-                                .header("Authorization", "JWT " + VariableManager.getBuyerAppToken())
+                                .header("Authorization", "JWT " + TokenManager.buyerApp().getToken())
                                 .queryParam("size", 50)
                                 .queryParam("page", 0)
                                 .queryParam("suitable_for", suitableForParam)
@@ -185,9 +186,10 @@ public class CatalogFeedTest extends BaseTest {
 
                 // Test handling of different Accept-Language headers
                 Response response = RestAssured.given()
+                                .spec(requestSpec)
                                 .baseUri(buyerAppBaseUrl)
                                 .contentType("application/json")
-                                .header("Authorization", "JWT " + VariableManager.getBuyerAppToken())
+                                .header("Authorization", "JWT " + TokenManager.buyerApp().getToken())
                                 .header("Accept-Language", "hi") // Hindi language
                                 .queryParam("size", 6)
                                 .queryParam("page", 0)
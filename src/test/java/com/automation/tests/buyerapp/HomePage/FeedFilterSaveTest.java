@@ -14,7 +14,7 @@ import org.testng.annotations.Test;
 
 import java.util.Collections;
 
-import com.automation.utils.VariableManager;
+import com.automation.utils.TokenManager;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 
@@ -37,11 +37,9 @@ public class FeedFilterSaveTest extends BaseTest {
                 buyerAppBaseUrl = config.buyerAppBaseUrl();
                 logger.info("Buyer App Base URL: {}", buyerAppBaseUrl);
 
-                String token = VariableManager.getBuyerAppToken();
-                if (token == null || token.isEmpty()) {
-                        throw new RuntimeException("Buyer App token not available. Please run LoginTest first.");
-                }
-                logger.info("Using Buyer App token from VariableManager");
+                // Reuses a valid token or logs in once; a failed login fails this setup
+                TokenManager.buyerApp().getToken();
+                logger.info("Using Buyer App token from TokenManager");
         }
 
         /**
@@ -64,9 +62,10 @@ public class FeedFilterSaveTest extends BaseTest {
 
                 // Send POST request with authentication
                 filterSaveResponse = RestAssured.given()
+                                .spec(requestSpec)
                                 .baseUri(buyerAppBaseUrl)
                                 .contentType("application/json")
-                                .header("Authorization", "JWT " + VariableManager.getBuyerAppToken())
+                                .header("Authorization", "JWT " + TokenManager.buyerApp().getToken())
                                 .body(request)
                                 .when()
                                 .post(BuyerAppEndpoints.FEED_FILTERS_SAVE);
@@ -3,6 +3,7 @@ package com.automation.tests.buyerapp.Login;
 import com.automation.base.BaseTest;
 import com.automation.constants.BuyerAppEndpoints;
 import com.automation.constants.HttpStatus;
+import com.automation.listeners.ChainRoot;
 import com.automation.models.request.BuyerLoginRequest;
 import com.automation.models.response.BuyerLoginResponse;
 import com.automation.utils.JsonUtils;
@@ -23,6 +24,7 @@ import static org.hamcrest.Matchers.*;
  */
 @Epic("Buyer App Authentication")
 @Feature("Login API")
+@ChainRoot(downstream = "com.automation.tests.buyerapp")
 public class LoginTest extends BaseTest {
 
         // Token is now stored in VariableManager.setBuyerAppToken() - no static
@@ -50,6 +52,7 @@ public class LoginTest extends BaseTest {
 
                 // Send POST request
                 loginResponse = RestAssured.given()
+                                .spec(requestSpec)
                                 .baseUri(buyerAppBaseUrl)
                                 .contentType("application/json")
                                 .body(loginRequest)
@@ -11,7 +11,7 @@ import io.restassured.response.Response;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
-import com.automation.utils.VariableManager;
+import com.automation.utils.TokenManager;
 import static com.automation.tests.buyerapp.SearchPage.SearchRecommendedChipsTest.searchRecommend;
 import static com.automation.tests.buyerapp.SearchPage.SearchRecommendedChipsTest.searchRecommendId;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -37,11 +37,9 @@ public class SearchRecommendChipSelectTest extends BaseTest {
                 buyerAppBaseUrl = config.buyerAppBaseUrl();
                 logger.info("Buyer App Base URL: {}", buyerAppBaseUrl);
 
-                String token = VariableManager.getBuyerAppToken();
-                if (token == null || token.isEmpty()) {
-                        throw new RuntimeException("Buyer App token not available. Please run LoginTest first.");
-                }
-                logger.info("Using Buyer App token from VariableManager");
+                // Reuses a valid token or logs in once; a failed login fails this setup
+                TokenManager.buyerApp().getToken();
+                logger.info("Using Buyer App token from TokenManager");
         }
 
         @Test(description = "Response status code is 200", priority = 1, groups = "buyerapp")
@@ -58,9 +56,10 @@ public class SearchRecommendChipSelectTest extends BaseTest {
 
                 // Send GET request with authentication and query parameters
                 searchChipSelectResponse = RestAssured.given()
+                                .spec(requestSpec)
                                 .baseUri(buyerAppBaseUrl)
                                 .contentType("application/json")
-                                .header("Authorization", "JWT " + VariableManager.getBuyerAppToken())
+                                .header("Authorization", "JWT " + TokenManager.buyerApp().getToken())
                                 .queryParam("q", searchQuery)
                                 .queryParam("product", productId)
                                 .queryParam("page", 1)